@@ -123,6 +123,17 @@ public interface MetricsDatabase {
      */
     double[] metrics(String metricType, long startTime, long endTime);
 
+    /**
+     * Returns a collection of hourly averages of a given metric type for
+     * a given period, which may span up to a month.
+     *
+     * @param metricType    metric type
+     * @param startTime     start time
+     * @param endTime       end time
+     * @return a collection of hourly average metric values
+     */
+    double[] hourlyMetrics(String metricType, long startTime, long endTime);
+
     /**
      * Returns the latest metric update time.
      *
@@ -131,6 +142,12 @@ public interface MetricsDatabase {
      */
     long lastUpdate(String metricType);
 
+    /**
+     * Releases the resources held by this database, writing out any
+     * metric values not yet persisted.
+     */
+    void close();
+
     /**
      * A builder of MetricsDatabase.
      */
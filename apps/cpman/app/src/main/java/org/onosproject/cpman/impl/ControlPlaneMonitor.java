@@ -45,6 +45,8 @@ import org.onosproject.store.service.Serializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -81,6 +83,8 @@ public class ControlPlaneMonitor implements ControlPlaneMonitorService {
     protected ClusterCommunicationService communicationService;
 
     private static final String DEFAULT_RESOURCE = "default";
+    private static final String KARAF_DATA = "karaf.data";
+    private static final String METRICS_DIRECTORY = "cpman";
 
     private static final Set RESOURCE_TYPE_SET =
             ImmutableSet.of(Type.CONTROL_MESSAGE, Type.DISK, Type.NETWORK);
@@ -143,7 +147,12 @@ public class ControlPlaneMonitor implements ControlPlaneMonitorService {
     @Deactivate
     public void deactivate() {
 
-        // TODO: need to handle the mdb close.
+        cpuMetrics.close();
+        memoryMetrics.close();
+        controlMessageMap.values().forEach(MetricsDatabase::close);
+        diskMetricsMap.values().forEach(MetricsDatabase::close);
+        networkMetricsMap.values().forEach(MetricsDatabase::close);
+
         cpuBuf.clear();
         memoryBuf.clear();
         diskBuf.clear();
@@ -321,13 +330,28 @@ public class ControlPlaneMonitor implements ControlPlaneMonitorService {
     private MetricsDatabase genMDbBuilder(String resourceName,
                                           Type resourceType,
                                           Set<ControlMetricType> metricTypes) {
-        MetricsDatabase.Builder builder = new DefaultMetricsDatabase.Builder();
+        DefaultMetricsDatabase.Builder builder = new DefaultMetricsDatabase.Builder();
+        storageDirectory().ifPresent(builder::withStorageDirectory);
         builder.withMetricName(resourceType.toString());
         builder.withResourceName(resourceName);
         metricTypes.forEach(type -> builder.addMetricType(type.toString()));
         return builder.build();
     }
 
+    /**
+     * Returns the directory metric databases are persisted in, which is
+     * only available when running within the Karaf container.
+     *
+     * @return storage directory
+     */
+    private Optional<Path> storageDirectory() {
+        String dataDirectory = System.getProperty(KARAF_DATA);
+        if (dataDirectory == null) {
+            return Optional.empty();
+        }
+        return Optional.of(Paths.get(dataDirectory, METRICS_DIRECTORY));
+    }
+
     /**
      * Updates network metrics with given metric map and resource name.
      *
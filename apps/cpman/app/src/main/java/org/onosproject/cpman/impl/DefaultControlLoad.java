@@ -28,6 +28,8 @@ import java.util.stream.IntStream;
  */
 public class DefaultControlLoad implements ControlLoad {
 
+    private static final long SECONDS_OF_DAY = TimeUnit.DAYS.toSeconds(1);
+
     private final MetricsDatabase mdb;
     private final ControlMetricType type;
 
@@ -45,6 +47,14 @@ public class DefaultControlLoad implements ControlLoad {
 
     @Override
     public long average(int duration, TimeUnit unit) {
+        long seconds = TimeUnit.SECONDS.convert(duration, unit);
+        if (seconds > SECONDS_OF_DAY) {
+            // beyond the raw samples of a day, average the hourly rollups
+            long endTime = time();
+            double[] hourly = mdb.hourlyMetrics(type.toString(), endTime - seconds, endTime);
+            return (long) Arrays.stream(hourly).filter(v -> !Double.isNaN(v))
+                    .average().orElse(0D);
+        }
         return (long) Arrays.stream(recent(duration, unit)).average().getAsDouble();
     }
 
@@ -30,6 +30,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -52,11 +55,16 @@ public final class DefaultMetricsDatabase implements MetricsDatabase {
     private RrdDb rrdDb;
     private Sample sample;
     private static final long SECONDS_OF_DAY = 60L * 60L * 24L;
+    private static final long SECONDS_OF_HOUR = 60L * 60L;
     private static final long SECONDS_OF_MINUTE = 60L;
+    private static final long SECONDS_OF_MONTH = SECONDS_OF_DAY * 30L;
     private static final ConsolFun CONSOL_FUNCTION = ConsolFun.LAST;
+    private static final ConsolFun ROLLUP_FUNCTION = ConsolFun.AVERAGE;
     private static final String NON_EXIST_METRIC = "Non-existing metric type.";
     private static final String INSUFFICIENT_DURATION = "Given duration less than one minute.";
     private static final String EXCEEDED_DURATION = "Given duration exceeds a day time.";
+    private static final String INSUFFICIENT_ROLLUP_DURATION = "Given duration less than one hour.";
+    private static final String EXCEEDED_ROLLUP_DURATION = "Given duration exceeds a month time.";
 
     /**
      * Constructs a metrics database using the given metric name and
@@ -207,6 +215,21 @@ public final class DefaultMetricsDatabase implements MetricsDatabase {
         }
     }
 
+    @Override
+    public double[] hourlyMetrics(String metricType, long startTime, long endTime) {
+        try {
+            checkArgument(rrdDb.containsDs(metricType), NON_EXIST_METRIC);
+            checkArgument(endTime - startTime >= SECONDS_OF_HOUR, INSUFFICIENT_ROLLUP_DURATION);
+            checkArgument(endTime - startTime <= SECONDS_OF_MONTH, EXCEEDED_ROLLUP_DURATION);
+            FetchRequest fr = rrdDb.createFetchRequest(ROLLUP_FUNCTION, startTime, endTime,
+                                                       SECONDS_OF_HOUR);
+            return arrangeDataPoints(fr.fetchData().getValues(metricType));
+        } catch (IOException e) {
+            log.error("Failed to obtain hourly metric values due to {}", e);
+            return new double[0];
+        }
+    }
+
     @Override
     public long lastUpdate(String metricType) {
         try {
@@ -218,6 +241,17 @@ public final class DefaultMetricsDatabase implements MetricsDatabase {
         }
     }
 
+    @Override
+    public void close() {
+        try {
+            if (!rrdDb.isClosed()) {
+                rrdDb.close();
+            }
+        } catch (IOException e) {
+            log.warn("Failed to close round-robin database due to {}", e);
+        }
+    }
+
     // try to check whether projected time range is within a day
     private boolean checkTimeRange(long startTime, long endTime) {
         // check whether the given startTime and endTime larger than 1 minute
@@ -230,6 +264,9 @@ public final class DefaultMetricsDatabase implements MetricsDatabase {
 
     // try to remove first and last data points
     private double[] arrangeDataPoints(double[] data) {
+        if (data.length < 2) {
+            return new double[0];
+        }
         return Arrays.copyOfRange(data, 1, data.length - 1);
     }
 
@@ -250,6 +287,8 @@ public final class DefaultMetricsDatabase implements MetricsDatabase {
     public static final class Builder implements MetricsDatabase.Builder {
         private static final int RESOLUTION_IN_SECOND = 60;
         private static final String STORING_METHOD = "MEMORY";
+        private static final String PERSISTENT_STORING_METHOD = "NIO";
+        private static final String FILE_EXTENSION = ".rrd";
         private static final DsType SOURCE_TYPE = DsType.GAUGE;
         private static final String DB_PATH = "CPMAN";
         private static final ConsolFun CONSOL_FUNCTION = ConsolFun.LAST;
@@ -258,6 +297,8 @@ public final class DefaultMetricsDatabase implements MetricsDatabase {
         private static final double XFF_VALUE = 0.2;
         private static final int STEP_VALUE = 1;
         private static final int ROW_VALUE = 60 * 24;
+        private static final int ROLLUP_STEP_VALUE = 60;
+        private static final int ROLLUP_ROW_VALUE = 24 * 30;
         private static final String METRIC_NAME_MSG = "Must specify a metric name.";
         private static final String RESOURCE_NAME_MSG = "Must specify a resource name.";
         private static final String METRIC_TYPE_MSG = "Must supply at least a metric type.";
@@ -268,6 +309,7 @@ public final class DefaultMetricsDatabase implements MetricsDatabase {
         private List<DsDef> dsDefs;
         private String metricName;
         private String resourceName;
+        private Path storageDirectory;
 
         public Builder() {
             // initialize data source definition list
@@ -292,15 +334,31 @@ public final class DefaultMetricsDatabase implements MetricsDatabase {
             return this;
         }
 
+        /**
+         * Sets the directory the database is persisted in. A database whose
+         * file already exists there is reopened with its history; without a
+         * directory, metric data is kept in memory only.
+         *
+         * @param directory storage directory
+         * @return builder object
+         */
+        public Builder withStorageDirectory(Path directory) {
+            this.storageDirectory = directory;
+            return this;
+        }
+
         @Override
         public MetricsDatabase build() {
             checkNotNull(metricName, METRIC_NAME_MSG);
             checkNotNull(resourceName, RESOURCE_NAME_MSG);
             checkArgument(!dsDefs.isEmpty(), METRIC_TYPE_MSG);
 
+            String dbName = DB_PATH + SPLITTER + metricName + SPLITTER + resourceName;
+            String path = storageDirectory == null ? dbName :
+                    storageDirectory.resolve(fileName(dbName)).toString();
+
             // define the resolution of monitored metrics
-            rrdDef = new RrdDef(DB_PATH + SPLITTER + metricName +
-                     SPLITTER + resourceName, RESOLUTION_IN_SECOND);
+            rrdDef = new RrdDef(path, RESOLUTION_IN_SECOND);
 
             try {
                 DsDef[] dsDefArray = new DsDef[dsDefs.size()];
@@ -314,8 +372,18 @@ public final class DefaultMetricsDatabase implements MetricsDatabase {
                         STEP_VALUE, ROW_VALUE);
                 rrdDef.addArchive(rawArchive);
 
-                // always store the metric data in memory...
-                rrdDb = new RrdDb(rrdDef, RrdBackendFactory.getFactory(STORING_METHOD));
+                // hourly rollups, kept for a month
+                rrdDef.addArchive(new ArcDef(ROLLUP_FUNCTION, XFF_VALUE,
+                        ROLLUP_STEP_VALUE, ROLLUP_ROW_VALUE));
+
+                if (storageDirectory == null) {
+                    rrdDb = new RrdDb(rrdDef, RrdBackendFactory.getFactory(STORING_METHOD));
+                } else {
+                    // memory-mapped file, synchronized to disk periodically
+                    Files.createDirectories(storageDirectory);
+                    rrdDb = openOrCreate(rrdDef,
+                            RrdBackendFactory.getFactory(PERSISTENT_STORING_METHOD));
+                }
             } catch (IOException e) {
                 log.warn("Failed to create a new round-robin database due to {}", e);
             }
@@ -323,6 +391,39 @@ public final class DefaultMetricsDatabase implements MetricsDatabase {
             return new DefaultMetricsDatabase(metricName, resourceName, rrdDb);
         }
 
+        // Reopens the database persisted at the path of the given definition,
+        // unless its layout differs, in which case it is created afresh.
+        private RrdDb openOrCreate(RrdDef def, RrdBackendFactory factory) throws IOException {
+            if (Files.exists(Paths.get(def.getPath()))) {
+                RrdDb existing = new RrdDb(def.getPath(), factory);
+                if (sameLayout(existing, def)) {
+                    return existing;
+                }
+                log.info("Replacing metrics database {} with a new layout", def.getPath());
+                existing.close();
+                Files.delete(Paths.get(def.getPath()));
+            }
+            return new RrdDb(def, factory);
+        }
+
+        private boolean sameLayout(RrdDb db, RrdDef def) throws IOException {
+            if (db.getDsCount() != def.getDsCount() ||
+                    db.getArcCount() != def.getArcCount() ||
+                    db.getRrdDef().getStep() != def.getStep()) {
+                return false;
+            }
+            for (DsDef dsDef : def.getDsDefs()) {
+                if (!db.containsDs(dsDef.getDsName())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private String fileName(String dbName) {
+            return dbName.replaceAll("[^A-Za-z0-9._-]", SPLITTER) + FILE_EXTENSION;
+        }
+
         private DsDef defineSchema(String metricType) {
             return new DsDef(metricType, SOURCE_TYPE, RESOLUTION_IN_SECOND,
                     MIN_VALUE, MAX_VALUE);
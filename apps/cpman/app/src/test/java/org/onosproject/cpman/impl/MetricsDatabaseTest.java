@@ -20,11 +20,15 @@ import com.google.common.collect.Maps;
 import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
+import org.onlab.util.Tools;
 import org.onosproject.cpman.ControlMetricType;
 import org.onosproject.cpman.ControlResource;
 import org.onosproject.cpman.MetricsDatabase;
 import org.onosproject.net.DeviceId;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -118,6 +122,64 @@ public class MetricsDatabaseTest {
         assertThat(mdb.recentMetrics(CPU_LOAD, 50, TimeUnit.SECONDS).length, is(1));
     }
 
+    /**
+     * Tests that hourly rollups hold the average of the samples of each hour.
+     */
+    @Test
+    public void testHourlyRollups() {
+        // three hours of samples, a minute apart, starting on the next hour;
+        // each sample holds for the minute before it
+        long startTime = (System.currentTimeMillis() / 1000L / 3600L + 1) * 3600L;
+        for (int minute = 0; minute <= 3 * 60; minute++) {
+            double value = minute % 2 == 0 ? 5 : 15;
+            mdb.updateMetric(CPU_LOAD, value + 10 * ((minute - 1) / 60), startTime + 60L * minute);
+        }
+
+        // the rollups of the first and the last hour of the range are left out
+        double[] rollups = mdb.hourlyMetrics(CPU_LOAD, startTime, startTime + 3 * 3600L);
+        assertThat(rollups, is(new double[]{10D, 20D}));
+    }
+
+    /**
+     * Tests the projected time range of hourly rollups.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testExceededRollupTimeRange() {
+        // query 31 days time range
+        long endTime = System.currentTimeMillis() / 1000L;
+        mdb.hourlyMetrics(CPU_LOAD, endTime - TimeUnit.DAYS.toSeconds(31), endTime);
+    }
+
+    /**
+     * Tests that metrics persisted in a storage directory survive the
+     * database being closed and reopened.
+     */
+    @Test
+    public void testPersistentMetrics() throws IOException {
+        Path directory = Files.createTempDirectory("cpman");
+        try {
+            long currentTime = System.currentTimeMillis() / 1000L;
+            MetricsDatabase persistentMdb = persistentMDbBuilder(directory).build();
+            persistentMdb.updateMetric(CPU_LOAD, 30, currentTime);
+            persistentMdb.close();
+
+            persistentMdb = persistentMDbBuilder(directory).build();
+            assertThat(30D, is(persistentMdb.recentMetric(CPU_LOAD)));
+            assertThat(currentTime, is(persistentMdb.lastUpdate(CPU_LOAD)));
+            persistentMdb.close();
+        } finally {
+            Tools.removeDirectory(directory.toFile());
+        }
+    }
+
+    private DefaultMetricsDatabase.Builder persistentMDbBuilder(Path directory) {
+        DefaultMetricsDatabase.Builder builder = new DefaultMetricsDatabase.Builder()
+                .withStorageDirectory(directory)
+                .withMetricName(CPU_METRIC);
+        builder.withResourceName(DEFAULT_RES);
+        return builder.addMetricType(CPU_LOAD);
+    }
+
     /**
      * Test multiple metrics update and query.
      */
@@ -16,6 +16,8 @@ package org.onosproject.kafkaintegration.api;
 
 import org.onosproject.kafkaintegration.api.dto.OnosEvent;
 
+import java.util.List;
+
 /**
  * APIs to insert and delete into a local store. This store is used to keep
  * track of events that are being published.
@@ -23,9 +25,11 @@ import org.onosproject.kafkaintegration.api.dto.OnosEvent;
 public interface KafkaEventStorageService {
 
     /**
-     * Inserts the Onos Event into Distributed Work Queue.
+     * Inserts the Onos Event into Distributed Work Queue. Events are
+     * accumulated per event type and written to the queue in batches, so
+     * the event may not be visible to consumers right away.
      *
-     * @param e the ONOS Event
+     * @param event the ONOS Event
      */
     void publishEvent(OnosEvent event);
 
@@ -35,4 +39,12 @@ public interface KafkaEventStorageService {
      * @return the Onos Event
      */
     OnosEvent consumeEvent();
+
+    /**
+     * Removes a batch of Onos Events from the Distributed Work Queue.
+     *
+     * @return the Onos Events in the order they were queued; empty if the
+     *         queue holds no events
+     */
+    List<OnosEvent> consumeEvents();
 }
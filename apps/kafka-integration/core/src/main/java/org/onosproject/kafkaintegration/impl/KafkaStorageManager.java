@@ -14,12 +14,23 @@
  */
 package org.onosproject.kafkaintegration.impl;
 
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import org.apache.felix.scr.annotations.Activate;
 import org.apache.felix.scr.annotations.Component;
+import org.apache.felix.scr.annotations.Modified;
+import org.apache.felix.scr.annotations.Property;
 import org.apache.felix.scr.annotations.Service;
 import org.apache.felix.scr.annotations.Deactivate;
 import org.apache.felix.scr.annotations.Reference;
 import org.apache.felix.scr.annotations.ReferenceCardinality;
+import org.onlab.metrics.MetricsComponent;
+import org.onlab.metrics.MetricsFeature;
+import org.onlab.metrics.MetricsService;
+import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.kafkaintegration.api.KafkaEventStorageService;
 import org.onosproject.kafkaintegration.api.dto.OnosEvent;
 import org.onosproject.store.serializers.KryoNamespaces;
@@ -27,11 +38,25 @@ import org.onosproject.store.service.Serializer;
 import org.onosproject.store.service.StorageService;
 import org.onosproject.store.service.Task;
 import org.onosproject.store.service.WorkQueue;
+import org.osgi.service.component.ComponentContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collection;
+import java.util.Dictionary;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static com.google.common.base.Strings.isNullOrEmpty;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static org.onlab.util.Tools.get;
+import static org.onlab.util.Tools.groupedThreads;
 
 @Component(immediate = false)
 @Service
@@ -40,34 +65,167 @@ public class KafkaStorageManager implements KafkaEventStorageService {
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
     protected StorageService storageService;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
+    protected ComponentConfigService componentConfigService;
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
+    protected MetricsService metricsService;
+
     private final Logger log = LoggerFactory.getLogger(getClass());
 
     private static final String KAFKA_WORK_QUEUE = "Kafka-Work-Queue";
 
+    private static final int DEFAULT_BATCH_SIZE = 100;
+    private static final int DEFAULT_LINGER_MS = 20;
+    private static final long SHUTDOWN_TIMEOUT_MS = 1000;
+
+    private static final String METRICS_COMPONENT = "KafkaIntegration";
+    private static final String METRICS_FEATURE = "WorkQueue";
+
+    @Property(name = "batchSize", intValue = DEFAULT_BATCH_SIZE,
+            label = "Maximum number of events written to or taken from the work queue at once")
+    protected int batchSize = DEFAULT_BATCH_SIZE;
+
+    @Property(name = "lingerMs", intValue = DEFAULT_LINGER_MS,
+            label = "Time in milliseconds an event may wait for its batch to fill up")
+    protected int lingerMs = DEFAULT_LINGER_MS;
+
     private WorkQueue<OnosEvent> queue;
 
+    // Events not yet written to the work queue, accumulated per event type
+    private final Map<OnosEvent.Type, List<OnosEvent>> pendingEvents =
+            Maps.newEnumMap(OnosEvent.Type.class);
+    private ScheduledFuture<?> lingerTask;
+    private ScheduledExecutorService batchExecutor;
+
+    private Meter queuedEvents;
+    private Meter consumedEvents;
+    private Histogram queuedBatchSize;
+    private Histogram consumedBatchSize;
+
     @Activate
-    protected void activate() {
+    protected void activate(ComponentContext context) {
+        componentConfigService.registerProperties(getClass());
+        modified(context);
         queue = storageService.<OnosEvent>getWorkQueue(KAFKA_WORK_QUEUE,
                                                        Serializer.using(KryoNamespaces.API,
                                                                         OnosEvent.class,
                                                                         OnosEvent.Type.class));
+        batchExecutor = newSingleThreadScheduledExecutor(
+                groupedThreads("onos/kafka", "batch-%d", log));
+
+        MetricsComponent component = metricsService.registerComponent(METRICS_COMPONENT);
+        MetricsFeature feature = component.registerFeature(METRICS_FEATURE);
+        queuedEvents = metricsService.createMeter(component, feature, "queuedEvents");
+        consumedEvents = metricsService.createMeter(component, feature, "consumedEvents");
+        queuedBatchSize = metricsService.createHistogram(component, feature, "queuedBatchSize");
+        consumedBatchSize = metricsService.createHistogram(component, feature, "consumedBatchSize");
 
         log.info("Started");
     }
 
     @Deactivate
     protected void deactivate() {
+        componentConfigService.unregisterProperties(getClass(), false);
+        ScheduledExecutorService executor;
+        synchronized (pendingEvents) {
+            // Events published from now on are dropped
+            executor = batchExecutor;
+            batchExecutor = null;
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(SHUTDOWN_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushAll();
         queue = null;
         log.info("Stopped");
     }
 
+    @Modified
+    protected void modified(ComponentContext context) {
+        if (context == null) {
+            return;
+        }
+        Dictionary<?, ?> properties = context.getProperties();
+        try {
+            String s = get(properties, "batchSize");
+            int newBatchSize = isNullOrEmpty(s) ? batchSize : Integer.parseInt(s.trim());
+            s = get(properties, "lingerMs");
+            int newLingerMs = isNullOrEmpty(s) ? lingerMs : Integer.parseInt(s.trim());
+            if (newBatchSize < 1 || newLingerMs < 0) {
+                log.warn("Invalid batch configuration: batchSize {}, lingerMs {}",
+                         newBatchSize, newLingerMs);
+                return;
+            }
+            batchSize = newBatchSize;
+            lingerMs = newLingerMs;
+        } catch (NumberFormatException | ClassCastException e) {
+            log.warn("Invalid batch configuration", e);
+            return;
+        }
+        log.info("Configured. Batch size is {}, linger is {} ms", batchSize, lingerMs);
+    }
+
     @Override
     public void publishEvent(OnosEvent e) {
-        queue.addOne(e);
+        synchronized (pendingEvents) {
+            if (batchExecutor == null) {
+                log.debug("Dropped {} Event published after shutdown", e.type());
+                return;
+            }
+            List<OnosEvent> events =
+                    pendingEvents.computeIfAbsent(e.type(), t -> Lists.newArrayList());
+            events.add(e);
+            if (events.size() >= batchSize) {
+                // Hand the full batch to the batch thread while still holding
+                // the lock so that batches are written in order
+                List<OnosEvent> batch = ImmutableList.copyOf(events);
+                events.clear();
+                batchExecutor.execute(() -> write(batch));
+            } else if (lingerTask == null) {
+                lingerTask = batchExecutor.schedule(this::flushAll, lingerMs,
+                                                    TimeUnit.MILLISECONDS);
+            }
+        }
         log.debug("Published {} Event to Distributed Work Queue", e.type());
     }
 
+    // Writes out the events of every type that are still waiting for their
+    // batch to fill up.
+    private void flushAll() {
+        List<List<OnosEvent>> batches = Lists.newArrayList();
+        synchronized (pendingEvents) {
+            lingerTask = null;
+            pendingEvents.values().forEach(events -> {
+                if (!events.isEmpty()) {
+                    batches.add(ImmutableList.copyOf(events));
+                    events.clear();
+                }
+            });
+        }
+        batches.forEach(this::write);
+    }
+
+    // Writes a batch of events to the work queue with a single update.
+    private void write(List<OnosEvent> batch) {
+        WorkQueue<OnosEvent> workQueue = queue;
+        if (workQueue == null) {
+            return;
+        }
+        workQueue.addMultiple(batch).whenComplete((r, error) -> {
+            if (error != null) {
+                log.warn("Unable to queue {} {} events", batch.size(),
+                         batch.get(0).type(), error);
+            } else {
+                queuedEvents.mark(batch.size());
+                queuedBatchSize.update(batch.size());
+            }
+        });
+    }
+
     @Override
     public OnosEvent consumeEvent() {
         Task<OnosEvent> task = null;
@@ -83,6 +241,7 @@ public class KafkaStorageManager implements KafkaEventStorageService {
 
         if (task != null) {
             queue.complete(task.taskId());
+            consumedEvents.mark();
             log.debug("Consumed {} Event from Distributed Work Queue with id {}",
                      task.payload().type(), task.taskId());
             return task.payload();
@@ -91,4 +250,28 @@ public class KafkaStorageManager implements KafkaEventStorageService {
         return null;
     }
 
+    @Override
+    public List<OnosEvent> consumeEvents() {
+        Collection<Task<OnosEvent>> tasks;
+        try {
+            tasks = queue.take(batchSize).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ImmutableList.of();
+        } catch (ExecutionException e) {
+            log.warn("Unable to take events from Distributed Work Queue", e);
+            return ImmutableList.of();
+        }
+
+        if (tasks == null || tasks.isEmpty()) {
+            return ImmutableList.of();
+        }
+
+        queue.complete(tasks.stream().map(Task::taskId).collect(Collectors.toList()));
+        consumedEvents.mark(tasks.size());
+        consumedBatchSize.update(tasks.size());
+        log.debug("Consumed {} Events from Distributed Work Queue", tasks.size());
+        return tasks.stream().map(Task::payload).collect(Collectors.toList());
+    }
+
 }
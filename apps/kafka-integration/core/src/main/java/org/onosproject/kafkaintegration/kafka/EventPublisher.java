@@ -15,12 +15,19 @@
  */
 package org.onosproject.kafkaintegration.kafka;
 
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.google.common.collect.Lists;
 import org.apache.felix.scr.annotations.Activate;
 import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.Deactivate;
 import org.apache.felix.scr.annotations.Reference;
 import org.apache.felix.scr.annotations.ReferenceCardinality;
 import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.onlab.metrics.MetricsComponent;
+import org.onlab.metrics.MetricsFeature;
+import org.onlab.metrics.MetricsService;
 import org.onosproject.cluster.ClusterService;
 import org.onosproject.cluster.LeadershipService;
 import org.onosproject.cluster.NodeId;
@@ -31,8 +38,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.onosproject.kafkaintegration.api.dto.OnosEvent;
 
+import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -57,18 +66,28 @@ public class EventPublisher {
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
     protected KafkaPublisherService kafkaPublisher;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
+    protected MetricsService metricsService;
+
     protected ScheduledExecutorService exService;
 
     private static final String SUBSCRIBER_TOPIC = "WORK_QUEUE_SUBSCRIBER";
 
+    private static final String METRICS_COMPONENT = "KafkaIntegration";
+    private static final String METRICS_FEATURE = "Publisher";
+
     private NodeId localNodeId;
 
     // Thread Scheduler Parameters
     private final long delay = 0;
-    private final long period = 1;
+    private final long period = 100;
 
     private EventCollector eventCollector;
 
+    // Time in milliseconds from the occurrence of an event to its export
+    private Histogram exportLag;
+    private Meter exportedEvents;
+
     @Activate
     protected void activate() {
 
@@ -76,6 +95,11 @@ public class EventPublisher {
 
         localNodeId = clusterService.getLocalNode().id();
 
+        MetricsComponent component = metricsService.registerComponent(METRICS_COMPONENT);
+        MetricsFeature feature = component.registerFeature(METRICS_FEATURE);
+        exportLag = metricsService.createHistogram(component, feature, "exportLag");
+        exportedEvents = metricsService.createMeter(component, feature, "exportedEvents");
+
         startCollector();
 
         log.info("Started");
@@ -84,7 +108,7 @@ public class EventPublisher {
     private void startCollector() {
         exService = Executors.newSingleThreadScheduledExecutor();
         eventCollector = new EventCollector();
-        exService.scheduleAtFixedRate(eventCollector, delay, period, TimeUnit.SECONDS);
+        exService.scheduleWithFixedDelay(eventCollector, delay, period, TimeUnit.MILLISECONDS);
     }
 
     @Deactivate
@@ -110,20 +134,37 @@ public class EventPublisher {
             }
 
             try {
-                OnosEvent onosEvent = kafkaStore.consumeEvent();
-
-                if (onosEvent != null) {
-                    kafkaPublisher.send(new ProducerRecord<>(onosEvent.type().toString(),
-                                                            onosEvent.subject())).get();
-
-                    log.info("Event Type - {}, Subject {} sent successfully.",
-                             onosEvent.type(), onosEvent.subject());
+                // Drain the queue a batch at a time, leaving the Kafka
+                // producer to group the records of each batch
+                List<OnosEvent> onosEvents = kafkaStore.consumeEvents();
+                while (!onosEvents.isEmpty()) {
+                    publish(onosEvents);
+                    onosEvents = kafkaStore.consumeEvents();
                 }
             } catch (InterruptedException e1) {
                 log.error("Thread interupted");
                 Thread.currentThread().interrupt();
-            } catch (ExecutionException e2) {
-                log.error("Cannot publish data to Kafka - {}", e2);
+            }
+        }
+
+        private void publish(List<OnosEvent> onosEvents) throws InterruptedException {
+            List<Future<RecordMetadata>> futures = Lists.newArrayListWithCapacity(onosEvents.size());
+            for (OnosEvent onosEvent : onosEvents) {
+                futures.add(kafkaPublisher.send(new ProducerRecord<>(onosEvent.type().toString(),
+                                                                     onosEvent.subject())));
+            }
+
+            for (int i = 0; i < futures.size(); i++) {
+                OnosEvent onosEvent = onosEvents.get(i);
+                try {
+                    futures.get(i).get();
+                    exportLag.update(System.currentTimeMillis() - onosEvent.time());
+                    exportedEvents.mark();
+                    log.debug("Event Type - {}, Subject {} sent successfully.",
+                              onosEvent.type(), onosEvent.subject());
+                } catch (ExecutionException e2) {
+                    log.error("Cannot publish data to Kafka - {}", e2);
+                }
             }
         }
     }
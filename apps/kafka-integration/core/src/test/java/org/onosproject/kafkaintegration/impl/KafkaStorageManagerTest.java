@@ -0,0 +1,250 @@
+/*
+ * Copyright 2017-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.kafkaintegration.impl;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onlab.metrics.MetricsManager;
+import org.onosproject.cfg.ComponentConfigAdapter;
+import org.onosproject.kafkaintegration.api.dto.OnosEvent;
+import org.onosproject.store.service.Serializer;
+import org.onosproject.store.service.StorageServiceAdapter;
+import org.onosproject.store.service.Task;
+import org.onosproject.store.service.WorkQueue;
+import org.onosproject.store.service.WorkQueueStats;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.onosproject.kafkaintegration.api.dto.OnosEvent.Type.DEVICE;
+import static org.onosproject.kafkaintegration.api.dto.OnosEvent.Type.LINK;
+
+/**
+ * Unit tests for the batching of events into the work queue.
+ */
+public class KafkaStorageManagerTest {
+
+    private static final int BATCH_SIZE = 3;
+    private static final int LONG_LINGER_MS = 60000;
+    private static final long TIMEOUT_MS = 1000;
+
+    private final TestWorkQueue queue = new TestWorkQueue();
+
+    private KafkaStorageManager manager;
+    private boolean active;
+
+    @Before
+    public void setUp() {
+        manager = new KafkaStorageManager();
+        manager.storageService = new TestStorageService();
+        manager.componentConfigService = new ComponentConfigAdapter();
+        manager.metricsService = new MetricsManager();
+        manager.batchSize = BATCH_SIZE;
+        manager.lingerMs = LONG_LINGER_MS;
+    }
+
+    @After
+    public void tearDown() {
+        if (active) {
+            manager.deactivate();
+        }
+    }
+
+    private void activate() {
+        manager.activate(null);
+        active = true;
+    }
+
+    private void deactivate() {
+        manager.deactivate();
+        active = false;
+    }
+
+    private static OnosEvent event(OnosEvent.Type type, int id) {
+        return new OnosEvent(type, new byte[]{(byte) id});
+    }
+
+    private static List<Integer> ids(List<OnosEvent> batch) {
+        ImmutableList.Builder<Integer> ids = ImmutableList.builder();
+        batch.forEach(event -> ids.add((int) event.subject()[0]));
+        return ids.build();
+    }
+
+    /**
+     * Tests that events are written to the queue once a batch fills up, in
+     * the order they were published.
+     */
+    @Test
+    public void testFullBatches() throws InterruptedException {
+        activate();
+        for (int i = 0; i < 7; i++) {
+            manager.publishEvent(event(DEVICE, i));
+        }
+
+        assertEquals(ImmutableList.of(0, 1, 2), ids(queue.batches.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS)));
+        assertEquals(ImmutableList.of(3, 4, 5), ids(queue.batches.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS)));
+        assertNull("partial batch written before linger expiry",
+                   queue.batches.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Tests that the events of each type are batched separately.
+     */
+    @Test
+    public void testBatchesPerType() throws InterruptedException {
+        activate();
+        manager.publishEvent(event(DEVICE, 0));
+        manager.publishEvent(event(LINK, 1));
+        manager.publishEvent(event(DEVICE, 2));
+        manager.publishEvent(event(LINK, 3));
+        manager.publishEvent(event(DEVICE, 4));
+
+        List<OnosEvent> batch = queue.batches.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        assertEquals(ImmutableList.of(0, 2, 4), ids(batch));
+        assertTrue(batch.stream().allMatch(event -> event.type() == DEVICE));
+        assertNull("partial batch written before linger expiry",
+                   queue.batches.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Tests that a partial batch is written once the linger time expires.
+     */
+    @Test
+    public void testLingerExpiry() throws InterruptedException {
+        manager.lingerMs = 10;
+        activate();
+        manager.publishEvent(event(DEVICE, 0));
+        manager.publishEvent(event(LINK, 1));
+
+        List<OnosEvent> first = queue.batches.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        List<OnosEvent> second = queue.batches.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        assertEquals(1, first.size());
+        assertEquals(1, second.size());
+        assertEquals(ImmutableList.of(0, 1), ImmutableList.of(ids(first).get(0), ids(second).get(0)));
+
+        // The next event starts another linger period
+        manager.publishEvent(event(DEVICE, 2));
+        assertEquals(ImmutableList.of(2), ids(queue.batches.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS)));
+    }
+
+    /**
+     * Tests that the events waiting for their batch are written on
+     * deactivation, and that events published afterwards are dropped.
+     */
+    @Test
+    public void testFlushOnDeactivate() throws InterruptedException {
+        activate();
+        for (int i = 0; i < 5; i++) {
+            manager.publishEvent(event(DEVICE, i));
+        }
+        manager.publishEvent(event(LINK, 5));
+        assertEquals(ImmutableList.of(0, 1, 2), ids(queue.batches.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS)));
+
+        deactivate();
+        assertEquals(ImmutableList.of(3, 4), ids(queue.batches.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS)));
+        assertEquals(ImmutableList.of(5), ids(queue.batches.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS)));
+
+        manager.publishEvent(event(DEVICE, 6));
+        assertNull("event written after deactivation", queue.batches.poll(100, TimeUnit.MILLISECONDS));
+        assertEquals(6, queue.tasks.size());
+    }
+
+    /**
+     * Tests that events are taken from the queue a batch at a time.
+     */
+    @Test
+    public void testConsumeBatch() throws InterruptedException {
+        manager.lingerMs = 10;
+        activate();
+        for (int i = 0; i < 4; i++) {
+            manager.publishEvent(event(DEVICE, i));
+        }
+        queue.batches.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        queue.batches.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+
+        assertEquals(ImmutableList.of(0, 1, 2), ids(manager.consumeEvents()));
+        assertEquals(ImmutableList.of(3), ids(manager.consumeEvents()));
+        assertTrue(manager.consumeEvents().isEmpty());
+    }
+
+    private class TestStorageService extends StorageServiceAdapter {
+        @Override
+        @SuppressWarnings("unchecked")
+        public <E> WorkQueue<E> getWorkQueue(String name, Serializer serializer) {
+            return (WorkQueue<E>) queue;
+        }
+    }
+
+    private static class TestWorkQueue implements WorkQueue<OnosEvent> {
+        private final BlockingQueue<List<OnosEvent>> batches = new LinkedBlockingQueue<>();
+        private final BlockingQueue<Task<OnosEvent>> tasks = new LinkedBlockingQueue<>();
+        private int taskIds;
+
+        @Override
+        public String name() {
+            return "test";
+        }
+
+        @Override
+        public synchronized CompletableFuture<Void> addMultiple(Collection<OnosEvent> items) {
+            List<OnosEvent> batch = ImmutableList.copyOf(items);
+            batch.forEach(item -> tasks.add(new Task<>(String.valueOf(taskIds++), item)));
+            batches.add(batch);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CompletableFuture<Collection<Task<OnosEvent>>> take(int maxItems) {
+            ImmutableList.Builder<Task<OnosEvent>> taken = ImmutableList.builder();
+            for (int i = 0; i < maxItems && !tasks.isEmpty(); i++) {
+                taken.add(tasks.poll());
+            }
+            return CompletableFuture.completedFuture(taken.build());
+        }
+
+        @Override
+        public CompletableFuture<Void> complete(Collection<String> taskIds) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CompletableFuture<Void> registerTaskProcessor(Consumer<OnosEvent> taskProcessor,
+                                                             int parallelism, Executor executor) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CompletableFuture<Void> stopProcessing() {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CompletableFuture<WorkQueueStats> stats() {
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2017-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.kafkaintegration.kafka;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onlab.metrics.MetricsManager;
+import org.onosproject.cluster.ClusterServiceAdapter;
+import org.onosproject.cluster.LeadershipServiceAdapter;
+import org.onosproject.cluster.NodeId;
+import org.onosproject.kafkaintegration.api.KafkaEventStorageService;
+import org.onosproject.kafkaintegration.api.KafkaPublisherService;
+import org.onosproject.kafkaintegration.api.dto.OnosEvent;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the export of the queued events to Kafka.
+ */
+public class EventPublisherTest {
+
+    private static final int BATCH_SIZE = 100;
+    private static final int EVENTS = 250;
+
+    private final TestEventStorageService store = new TestEventStorageService();
+    private final TestPublisherService publisher = new TestPublisherService();
+    private final TestLeadershipService leadershipService = new TestLeadershipService();
+
+    private EventPublisher eventPublisher;
+
+    @Before
+    public void setUp() {
+        for (int i = 0; i < EVENTS; i++) {
+            store.events.add(new OnosEvent(i % 2 == 0 ? OnosEvent.Type.DEVICE : OnosEvent.Type.LINK,
+                                           new byte[]{(byte) i}));
+        }
+
+        eventPublisher = new EventPublisher();
+        eventPublisher.leadershipService = leadershipService;
+        eventPublisher.clusterService = new ClusterServiceAdapter();
+        eventPublisher.kafkaStore = store;
+        eventPublisher.kafkaPublisher = publisher;
+        eventPublisher.metricsService = new MetricsManager();
+    }
+
+    @After
+    public void tearDown() {
+        eventPublisher.deactivate();
+    }
+
+    /**
+     * Tests that the leader drains the queue a batch at a time and sends
+     * every event, in order, to the topic of its type.
+     */
+    @Test
+    public void testAllEventsPublished() throws InterruptedException {
+        eventPublisher.activate();
+        assertTrue("events not all published", publisher.sent.await(5, TimeUnit.SECONDS));
+
+        assertEquals(ImmutableList.of(BATCH_SIZE, BATCH_SIZE, EVENTS - 2 * BATCH_SIZE),
+                     store.batchSizes);
+        assertEquals(EVENTS, publisher.records.size());
+        for (int i = 0; i < EVENTS; i++) {
+            ProducerRecord<String, byte[]> record = publisher.records.get(i);
+            assertEquals(i % 2 == 0 ? "DEVICE" : "LINK", record.topic());
+            assertEquals((byte) i, record.value()[0]);
+        }
+    }
+
+    /**
+     * Tests that events keep being exported when some fail to be sent.
+     */
+    @Test
+    public void testFailedSend() throws InterruptedException {
+        publisher.failing = true;
+        eventPublisher.activate();
+        assertTrue("events not all sent", publisher.sent.await(5, TimeUnit.SECONDS));
+        assertTrue(store.events.isEmpty());
+    }
+
+    /**
+     * Tests that only the leader takes events from the queue.
+     */
+    @Test
+    public void testNotLeader() throws InterruptedException {
+        leadershipService.leader = new NodeId("other");
+        eventPublisher.activate();
+
+        // Let the collector run a few times
+        Thread.sleep(300);
+        assertTrue(publisher.records.isEmpty());
+        assertEquals(EVENTS, store.events.size());
+    }
+
+    private static class TestLeadershipService extends LeadershipServiceAdapter {
+        private volatile NodeId leader = new NodeId("local");
+
+        @Override
+        public NodeId getLeader(String path) {
+            return leader;
+        }
+    }
+
+    private static class TestEventStorageService implements KafkaEventStorageService {
+        private final Queue<OnosEvent> events = new ConcurrentLinkedQueue<>();
+        private final List<Integer> batchSizes = Lists.newCopyOnWriteArrayList();
+
+        @Override
+        public void publishEvent(OnosEvent event) {
+            events.add(event);
+        }
+
+        @Override
+        public OnosEvent consumeEvent() {
+            return events.poll();
+        }
+
+        @Override
+        public List<OnosEvent> consumeEvents() {
+            List<OnosEvent> batch = Lists.newArrayList();
+            while (batch.size() < BATCH_SIZE && !events.isEmpty()) {
+                batch.add(events.poll());
+            }
+            if (!batch.isEmpty()) {
+                batchSizes.add(batch.size());
+            }
+            return batch;
+        }
+    }
+
+    private static class TestPublisherService implements KafkaPublisherService {
+        private final List<ProducerRecord<String, byte[]>> records = Lists.newCopyOnWriteArrayList();
+        private final CountDownLatch sent = new CountDownLatch(EVENTS);
+        private volatile boolean failing;
+
+        @Override
+        public Future<RecordMetadata> send(ProducerRecord<String, byte[]> record) {
+            records.add(record);
+            sent.countDown();
+            CompletableFuture<RecordMetadata> future = new CompletableFuture<>();
+            if (failing && records.size() % 2 == 0) {
+                future.completeExceptionally(new IllegalStateException("broker unavailable"));
+            } else {
+                future.complete(null);
+            }
+            return future;
+        }
+    }
+}
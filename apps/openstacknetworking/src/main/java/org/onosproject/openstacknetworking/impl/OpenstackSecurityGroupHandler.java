@@ -17,6 +17,8 @@
 package org.onosproject.openstacknetworking.impl;
 
 import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
 import org.apache.felix.scr.annotations.Activate;
 import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.Deactivate;
@@ -54,11 +56,10 @@ import org.openstack4j.openstack.networking.domain.NeutronSecurityGroupRule;
 import org.slf4j.Logger;
 
 import java.util.Collection;
-import java.util.Collections;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
-import java.util.stream.Collectors;
 
 import static java.util.concurrent.Executors.newSingleThreadExecutor;
 import static org.onlab.util.Tools.groupedThreads;
@@ -93,10 +94,16 @@ public class OpenstackSecurityGroupHandler {
     protected FlowObjectiveService flowObjectiveService;
 
     private final InstancePortListener instancePortListener = new InternalInstancePortListener();
+    private final InstancePortListener memberListener = new InternalSecurityGroupMemberListener();
     private final OpenstackNetworkListener portListener = new InternalOpenstackPortListener();
     private final OpenstackSecurityGroupListener securityGroupListener = new InternalSecurityGroupListener();
     private ApplicationId appId;
 
+    // Instance ports of each security group by port ID, keyed by tenant and
+    // group, so that remote group rules are expanded without scanning all
+    // the ports. Rules are still populated for each pair of members.
+    private final Map<String, Map<String, InstancePort>> sgMembers = Maps.newConcurrentMap();
+
     private final ExecutorService eventExecutor = newSingleThreadExecutor(
             groupedThreads(this.getClass().getSimpleName(), "event-handler"));
 
@@ -111,6 +118,8 @@ public class OpenstackSecurityGroupHandler {
     @Activate
     protected void activate() {
         appId = coreService.registerApplication(OPENSTACK_NETWORKING_APP_ID);
+        instancePortService.addListener(memberListener);
+        initSecurityGroupMembers();
         instancePortService.addListener(instancePortListener);
         securityGroupService.addListener(securityGroupListener);
         openstackService.addListener(portListener);
@@ -121,6 +130,7 @@ public class OpenstackSecurityGroupHandler {
     @Deactivate
     protected void deactivate() {
         instancePortService.removeListener(instancePortListener);
+        instancePortService.removeListener(memberListener);
         securityGroupService.removeListener(securityGroupListener);
         openstackService.removeListener(portListener);
         eventExecutor.shutdown();
@@ -128,6 +138,46 @@ public class OpenstackSecurityGroupHandler {
         log.info("Stopped");
     }
 
+    private void initSecurityGroupMembers() {
+        openstackService.ports().forEach(port -> {
+            InstancePort instPort = instancePortService.instancePort(port.getId());
+            if (instPort != null) {
+                addSecurityGroupMember(instPort, port, port.getSecurityGroups());
+            }
+        });
+    }
+
+    private void addSecurityGroupMember(InstancePort instPort, Port port, Collection<String> sgIds) {
+        if (instPort.ipAddress() == null) {
+            removeSecurityGroupMember(instPort.portId());
+            return;
+        }
+        sgIds.forEach(sgId -> sgMembers.compute(memberKey(port.getTenantId(), sgId), (key, members) -> {
+            Map<String, InstancePort> updated = members == null ? Maps.newConcurrentMap() : members;
+            updated.put(instPort.portId(), instPort);
+            return updated;
+        }));
+    }
+
+    private void removeSecurityGroupMember(String portId) {
+        sgMembers.keySet().forEach(key -> removeSecurityGroupMember(portId, key));
+    }
+
+    private void removeSecurityGroupMember(String portId, Port port, Collection<String> sgIds) {
+        sgIds.forEach(sgId -> removeSecurityGroupMember(portId, memberKey(port.getTenantId(), sgId)));
+    }
+
+    private void removeSecurityGroupMember(String portId, String key) {
+        sgMembers.computeIfPresent(key, (k, members) -> {
+            members.remove(portId);
+            return members.isEmpty() ? null : members;
+        });
+    }
+
+    private static String memberKey(String tenantId, String sgId) {
+        return tenantId + "/" + sgId;
+    }
+
     private void setSecurityGroupRules(InstancePort instPort, Port port, boolean install) {
         port.getSecurityGroups().forEach(sgId -> {
             log.debug("security group rule ID : " + sgId.toString());
@@ -136,13 +186,15 @@ public class OpenstackSecurityGroupHandler {
                 log.error("Security Group Not Found : {}", sgId);
                 return;
             }
-            sg.getRules().forEach(sgRule -> updateSecurityGroupRule(instPort, port, sgRule, install));
+            sg.getRules().forEach(sgRule -> updateSecurityGroupRule(instPort, port.getTenantId(),
+                                                                    sgRule, install));
         });
     }
 
-    private void updateSecurityGroupRule(InstancePort instPort, Port port, SecurityGroupRule sgRule, boolean install) {
+    private void updateSecurityGroupRule(InstancePort instPort, String tenantId,
+                                         SecurityGroupRule sgRule, boolean install) {
         if (sgRule.getRemoteGroupId() != null && !sgRule.getRemoteGroupId().isEmpty()) {
-            getRemoteInstPorts(port.getTenantId(), sgRule.getRemoteGroupId())
+            getRemoteInstPorts(tenantId, sgRule.getRemoteGroupId())
                 .forEach(rInstPort -> {
                     populateSecurityGroupRule(sgRule, instPort, rInstPort.ipAddress().toIpPrefix(), install);
                     populateSecurityGroupRule(sgRule, rInstPort, instPort.ipAddress().toIpPrefix(), install);
@@ -175,24 +227,18 @@ public class OpenstackSecurityGroupHandler {
     }
 
     /**
-     * Returns a set of host IP addresses engaged with supplied security group ID.
-     * It only searches a VM in the same tenant boundary.
+     * Returns the instance ports engaged with supplied security group ID.
+     * It only returns VMs in the same tenant boundary, and takes time
+     * proportional to the size of the group rather than to the number of
+     * ports.
      *
      * @param tenantId tenant id
      * @param sgId security group id
-     * @return set of ip addresses
+     * @return set of instance ports
      */
     private Set<InstancePort> getRemoteInstPorts(String tenantId, String sgId) {
-        Set<InstancePort> remoteInstPorts;
-
-        remoteInstPorts = openstackService.ports().stream()
-                .filter(port -> port.getTenantId().equals(tenantId))
-                .filter(port -> port.getSecurityGroups().contains(sgId))
-                .map(port -> instancePortService.instancePort(port.getId()))
-                .filter(instPort -> instPort != null && instPort.ipAddress() != null)
-                .collect(Collectors.toSet());
-
-        return Collections.unmodifiableSet(remoteInstPorts);
+        Map<String, InstancePort> members = sgMembers.get(memberKey(tenantId, sgId));
+        return members == null ? ImmutableSet.of() : ImmutableSet.copyOf(members.values());
     }
 
     private ForwardingObjective.Builder buildFlowObjective(SecurityGroupRule sgRule,
@@ -336,6 +382,30 @@ public class OpenstackSecurityGroupHandler {
         }
     }
 
+    private class InternalSecurityGroupMemberListener implements InstancePortListener {
+
+        // Not filtered by mastership, as the rules of a port pair it with the
+        // members of its remote groups on any device.
+        @Override
+        public void event(InstancePortEvent event) {
+            InstancePort instPort = event.subject();
+            switch (event.type()) {
+                case OPENSTACK_INSTANCE_PORT_UPDATED:
+                case OPENSTACK_INSTANCE_PORT_DETECTED:
+                    Port port = openstackService.port(instPort.portId());
+                    if (port != null) {
+                        addSecurityGroupMember(instPort, port, port.getSecurityGroups());
+                    }
+                    break;
+                case OPENSTACK_INSTANCE_PORT_VANISHED:
+                    removeSecurityGroupMember(instPort.portId());
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
     private class InternalOpenstackPortListener implements OpenstackNetworkListener {
 
         @Override
@@ -351,10 +421,12 @@ public class OpenstackSecurityGroupHandler {
         public void event(OpenstackNetworkEvent event) {
             switch (event.type()) {
                 case OPENSTACK_SECURITY_GROUP_ADDED_TO_PORT:
-                    securityGroupAddedToPort(event.securityGroupRuleIds(), event.port());
+                    eventExecutor.execute(() -> securityGroupAddedToPort(
+                            event.securityGroupRuleIds(), event.port()));
                     break;
                 case OPENSTACK_SECURITY_GROUP_REMOVED_FROM_PORT:
-                    securityGroupRemovedFromPort(event.securityGroupRuleIds(), event.port());
+                    eventExecutor.execute(() -> securityGroupRemovedFromPort(
+                            event.securityGroupRuleIds(), event.port()));
                     break;
                 default:
                     break;
@@ -362,25 +434,25 @@ public class OpenstackSecurityGroupHandler {
         }
 
         private void securityGroupAddedToPort(Collection<String> sgToAdd, Port osPort) {
-            sgToAdd.forEach(sg -> {
-                InstancePort instPort = instancePortService.instancePort(osPort.getId());
-                if (instPort != null) {
-                    securityGroupService.securityGroup(sg).getRules().stream()
-                            .forEach(sgRule -> updateSecurityGroupRule(instancePortService.instancePort(
-                                    osPort.getId()), osPort, sgRule, true));
-                }
-            });
+            InstancePort instPort = instancePortService.instancePort(osPort.getId());
+            if (instPort == null) {
+                return;
+            }
+            addSecurityGroupMember(instPort, osPort, sgToAdd);
+            sgToAdd.forEach(sg -> securityGroupService.securityGroup(sg).getRules()
+                    .forEach(sgRule -> updateSecurityGroupRule(instPort, osPort.getTenantId(),
+                                                               sgRule, true)));
         }
 
         private void securityGroupRemovedFromPort(Collection<String> sgToRemove, Port osPort) {
-            sgToRemove.forEach(sg -> {
-                InstancePort instPort = instancePortService.instancePort(osPort.getId());
-                if (instPort != null) {
-                    securityGroupService.securityGroup(sg).getRules().stream()
-                            .forEach(sgRule -> updateSecurityGroupRule(instancePortService.instancePort(
-                                    osPort.getId()), osPort, sgRule, false));
-                }
-            });
+            InstancePort instPort = instancePortService.instancePort(osPort.getId());
+            if (instPort == null) {
+                return;
+            }
+            sgToRemove.forEach(sg -> securityGroupService.securityGroup(sg).getRules()
+                    .forEach(sgRule -> updateSecurityGroupRule(instPort, osPort.getTenantId(),
+                                                               sgRule, false)));
+            removeSecurityGroupMember(osPort.getId(), osPort, sgToRemove);
         }
     }
 
@@ -416,19 +488,17 @@ public class OpenstackSecurityGroupHandler {
         private void securityGroupRuleAdded(SecurityGroupRule sgRule) {
             log.debug("securityGroupRuleAdded : {}" + sgRule);
 
-            openstackService.ports().stream()
-                    .filter(port -> port.getSecurityGroups().contains(sgRule.getSecurityGroupId()))
-                    .forEach(port -> updateSecurityGroupRule(instancePortService.instancePort(port.getId()),
-                            port, sgRule, true));
+            getRemoteInstPorts(sgRule.getTenantId(), sgRule.getSecurityGroupId())
+                    .forEach(instPort -> updateSecurityGroupRule(instPort, sgRule.getTenantId(),
+                                                                 sgRule, true));
         }
 
         private void securityGroupRuleRemoved(SecurityGroupRule sgRule) {
             log.debug("securityGroupRuleRemoved : {}" + sgRule);
 
-            openstackService.ports().stream()
-                    .filter(port -> port.getSecurityGroups().contains(sgRule.getSecurityGroupId()))
-                    .forEach(port -> updateSecurityGroupRule(instancePortService.instancePort(port.getId()),
-                            port, sgRule, false));
+            getRemoteInstPorts(sgRule.getTenantId(), sgRule.getSecurityGroupId())
+                    .forEach(instPort -> updateSecurityGroupRule(instPort, sgRule.getTenantId(),
+                                                                 sgRule, false));
         }
     }
 }
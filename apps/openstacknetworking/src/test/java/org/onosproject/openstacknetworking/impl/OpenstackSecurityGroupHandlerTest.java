@@ -0,0 +1,468 @@
+/*
+ * Copyright 2017-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.openstacknetworking.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onlab.junit.TestUtils;
+import org.onlab.packet.IpAddress;
+import org.onlab.packet.MacAddress;
+import org.onosproject.core.ApplicationId;
+import org.onosproject.core.CoreServiceAdapter;
+import org.onosproject.core.DefaultApplicationId;
+import org.onosproject.mastership.MastershipServiceAdapter;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.flow.criteria.Criterion;
+import org.onosproject.net.flow.criteria.IPCriterion;
+import org.onosproject.net.flowobjective.FlowObjectiveServiceAdapter;
+import org.onosproject.net.flowobjective.ForwardingObjective;
+import org.onosproject.net.flowobjective.Objective;
+import org.onosproject.openstacknetworking.api.InstancePort;
+import org.onosproject.openstacknetworking.api.InstancePortEvent;
+import org.onosproject.openstacknetworking.api.InstancePortListener;
+import org.onosproject.openstacknetworking.api.InstancePortService;
+import org.onosproject.openstacknetworking.api.OpenstackNetworkEvent;
+import org.onosproject.openstacknetworking.api.OpenstackNetworkListener;
+import org.onosproject.openstacknetworking.api.OpenstackNetworkService;
+import org.onosproject.openstacknetworking.api.OpenstackSecurityGroupListener;
+import org.onosproject.openstacknetworking.api.OpenstackSecurityGroupService;
+import org.openstack4j.core.transport.ObjectMapperSingleton;
+import org.openstack4j.model.network.Network;
+import org.openstack4j.model.network.Port;
+import org.openstack4j.model.network.SecurityGroup;
+import org.openstack4j.model.network.SecurityGroupRule;
+import org.openstack4j.model.network.Subnet;
+import org.openstack4j.openstack.networking.domain.NeutronPort;
+import org.openstack4j.openstack.networking.domain.NeutronSecurityGroup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.onosproject.net.DeviceId.deviceId;
+import static org.onosproject.openstacknetworking.api.InstancePortEvent.Type.OPENSTACK_INSTANCE_PORT_DETECTED;
+import static org.onosproject.openstacknetworking.api.InstancePortEvent.Type.OPENSTACK_INSTANCE_PORT_UPDATED;
+import static org.onosproject.openstacknetworking.api.InstancePortEvent.Type.OPENSTACK_INSTANCE_PORT_VANISHED;
+import static org.onosproject.openstacknetworking.api.OpenstackNetworkEvent.Type.OPENSTACK_SECURITY_GROUP_REMOVED_FROM_PORT;
+
+/**
+ * Unit tests for the security group members index of the security group
+ * handler and the rules populated from it.
+ */
+public class OpenstackSecurityGroupHandlerTest {
+
+    private static final ApplicationId TEST_APP_ID = new DefaultApplicationId(1, "test");
+
+    private static final String TENANT_ID = "tenant_id";
+    private static final String SG_ID = "sg_id";
+    private static final DeviceId DEVICE_1 = deviceId("of:0000000000000001");
+    private static final DeviceId DEVICE_2 = deviceId("of:0000000000000002");
+
+    // Group whose members accept TCP from each other
+    private static final String SG_JSON = "{\"security_group\": {" +
+            "\"id\": \"" + SG_ID + "\", \"tenant_id\": \"" + TENANT_ID + "\", \"name\": \"sg\", " +
+            "\"security_group_rules\": [{\"id\": \"rule_id\", \"security_group_id\": \"" + SG_ID + "\", " +
+            "\"tenant_id\": \"" + TENANT_ID + "\", \"direction\": \"ingress\", \"ethertype\": \"IPv4\", " +
+            "\"protocol\": \"tcp\", \"remote_group_id\": \"" + SG_ID + "\"}]}}";
+
+    private final TestInstancePortService instancePortService = new TestInstancePortService();
+    private final TestOpenstackNetworkService openstackService = new TestOpenstackNetworkService();
+    private final TestSecurityGroupService securityGroupService = new TestSecurityGroupService();
+    private final TestMastershipService mastershipService = new TestMastershipService();
+    private final TestFlowObjectiveService flowObjectiveService = new TestFlowObjectiveService();
+
+    private OpenstackSecurityGroupHandler target;
+
+    @Before
+    public void setUp() throws Exception {
+        securityGroupService.securityGroups.put(SG_ID, ObjectMapperSingleton
+                .getContext(NeutronSecurityGroup.class)
+                .readerFor(NeutronSecurityGroup.class)
+                .readValue(SG_JSON));
+        mastershipService.localDevices.add(DEVICE_1);
+        mastershipService.localDevices.add(DEVICE_2);
+
+        target = new OpenstackSecurityGroupHandler();
+        target.coreService = new TestCoreService();
+        target.instancePortService = instancePortService;
+        target.mastershipService = mastershipService;
+        target.openstackService = openstackService;
+        target.securityGroupService = securityGroupService;
+        target.flowObjectiveService = flowObjectiveService;
+        target.activate();
+    }
+
+    @After
+    public void tearDown() {
+        target.deactivate();
+        target = null;
+    }
+
+    /**
+     * Tests that a detected port gets rules paired with each other member of
+     * its remote group, and the other member rules paired with it.
+     */
+    @Test
+    public void testRulesPairedWithGroupMembers() throws Exception {
+        detect("p1", "10.0.0.1", DEVICE_1);
+        assertEquals("rules paired with the port itself", 0, flowObjectiveService.objectives.size());
+
+        detect("p2", "10.0.0.2", DEVICE_2);
+        assertEquals(ImmutableSet.of(flow(DEVICE_2, "10.0.0.1", "10.0.0.2"),
+                                     flow(DEVICE_2, "10.0.0.2", "10.0.0.1"),
+                                     flow(DEVICE_1, "10.0.0.2", "10.0.0.1"),
+                                     flow(DEVICE_1, "10.0.0.1", "10.0.0.2")),
+                     flows(Objective.Operation.ADD));
+    }
+
+    /**
+     * Tests that members on devices mastered by other instances are indexed,
+     * though only the master of the device of a port populates its rules.
+     */
+    @Test
+    public void testMembersIndexedWithoutMastership() throws Exception {
+        mastershipService.localDevices.remove(DEVICE_2);
+        detect("p2", "10.0.0.2", DEVICE_2);
+        assertEquals("rules populated without mastership", 0, flowObjectiveService.objectives.size());
+
+        detect("p1", "10.0.0.1", DEVICE_1);
+        assertEquals(4, flows(Objective.Operation.ADD).size());
+        assertTrue("rules not paired with remote member",
+                   flows(Objective.Operation.ADD).contains(flow(DEVICE_1, "10.0.0.2", "10.0.0.1")));
+    }
+
+    /**
+     * Tests that a vanished port has its rules removed and is no longer
+     * paired with the members detected afterwards.
+     */
+    @Test
+    public void testVanishedMemberRemoved() throws Exception {
+        detect("p1", "10.0.0.1", DEVICE_1);
+        InstancePort p2 = detect("p2", "10.0.0.2", DEVICE_2);
+        flowObjectiveService.objectives.clear();
+
+        deliver(new InstancePortEvent(OPENSTACK_INSTANCE_PORT_VANISHED, p2));
+        assertEquals(4, flows(Objective.Operation.REMOVE).size());
+
+        flowObjectiveService.objectives.clear();
+        detect("p3", "10.0.0.3", DEVICE_1);
+        assertEquals(ImmutableSet.of(flow(DEVICE_1, "10.0.0.1", "10.0.0.3"),
+                                     flow(DEVICE_1, "10.0.0.3", "10.0.0.1")),
+                     flows(Objective.Operation.ADD));
+    }
+
+    /**
+     * Tests that an updated port is paired by its new address.
+     */
+    @Test
+    public void testUpdatedMemberAddress() throws Exception {
+        detect("p1", "10.0.0.1", DEVICE_1);
+        detect("p2", "10.0.0.2", DEVICE_2);
+        deliver(new InstancePortEvent(OPENSTACK_INSTANCE_PORT_UPDATED,
+                                      new TestInstancePort("p2", "10.0.0.4", DEVICE_2)));
+
+        flowObjectiveService.objectives.clear();
+        detect("p3", "10.0.0.3", DEVICE_1);
+        Set<String> flows = flows(Objective.Operation.ADD);
+        assertTrue("rules not paired with updated address",
+                   flows.contains(flow(DEVICE_1, "10.0.0.4", "10.0.0.3")));
+        assertTrue("rules paired with former address",
+                   flows.stream().noneMatch(flow -> flow.contains("10.0.0.2/")));
+    }
+
+    /**
+     * Tests that a port removed from a group has its rules removed and is no
+     * longer paired with the members detected afterwards.
+     */
+    @Test
+    public void testSecurityGroupRemovedFromPort() throws Exception {
+        detect("p1", "10.0.0.1", DEVICE_1);
+        detect("p2", "10.0.0.2", DEVICE_2);
+        flowObjectiveService.objectives.clear();
+
+        Port p2 = port("p2");
+        openstackService.portListener.event(new OpenstackNetworkEvent(
+                OPENSTACK_SECURITY_GROUP_REMOVED_FROM_PORT, ImmutableList.of(SG_ID), p2));
+        awaitEvents();
+        assertEquals(4, flows(Objective.Operation.REMOVE).size());
+
+        flowObjectiveService.objectives.clear();
+        detect("p3", "10.0.0.3", DEVICE_1);
+        assertTrue("rules paired with removed member",
+                   flows(Objective.Operation.ADD).stream().noneMatch(flow -> flow.contains("10.0.0.2/")));
+    }
+
+    // Adds a port to the group and notifies its instance port.
+    private InstancePort detect(String portId, String ip, DeviceId deviceId) throws Exception {
+        openstackService.ports.put(portId, port(portId));
+        InstancePort instPort = new TestInstancePort(portId, ip, deviceId);
+        instancePortService.instancePorts.put(portId, instPort);
+        deliver(new InstancePortEvent(OPENSTACK_INSTANCE_PORT_DETECTED, instPort));
+        return instPort;
+    }
+
+    private static Port port(String portId) throws IOException {
+        return ObjectMapperSingleton.getContext(NeutronPort.class)
+                .readerFor(NeutronPort.class)
+                .readValue("{\"port\": {\"id\": \"" + portId + "\", \"tenant_id\": \"" + TENANT_ID + "\", " +
+                                   "\"security_groups\": [\"" + SG_ID + "\"]}}");
+    }
+
+    // Notifies the relevant listeners, and waits for the events to be handled.
+    private void deliver(InstancePortEvent event) throws Exception {
+        for (InstancePortListener listener : instancePortService.listeners) {
+            if (listener.isRelevant(event)) {
+                listener.event(event);
+            }
+        }
+        awaitEvents();
+    }
+
+    private void awaitEvents() throws Exception {
+        ExecutorService executor = TestUtils.getField(target, "eventExecutor");
+        executor.submit(() -> { }).get();
+    }
+
+    private static String flow(DeviceId deviceId, String src, String dst) {
+        return deviceId + " " + src + "/32 > " + dst + "/32";
+    }
+
+    private Set<String> flows(Objective.Operation op) {
+        Set<String> flows = Sets.newHashSet();
+        flowObjectiveService.objectives.stream()
+                .filter(objective -> objective.objective.op() == op)
+                .forEach(objective -> flows.add(objective.deviceId + " " +
+                        ip(objective.objective, Criterion.Type.IPV4_SRC) + " > " +
+                        ip(objective.objective, Criterion.Type.IPV4_DST)));
+        return flows;
+    }
+
+    private static String ip(ForwardingObjective objective, Criterion.Type type) {
+        IPCriterion criterion = (IPCriterion) objective.selector().getCriterion(type);
+        return criterion == null ? "*" : criterion.ip().toString();
+    }
+
+    private static class TestInstancePort implements InstancePort {
+        private final String portId;
+        private final IpAddress ipAddress;
+        private final DeviceId deviceId;
+
+        TestInstancePort(String portId, String ip, DeviceId deviceId) {
+            this.portId = portId;
+            this.ipAddress = IpAddress.valueOf(ip);
+            this.deviceId = deviceId;
+        }
+
+        @Override
+        public String networkId() {
+            return null;
+        }
+
+        @Override
+        public String portId() {
+            return portId;
+        }
+
+        @Override
+        public MacAddress macAddress() {
+            return MacAddress.NONE;
+        }
+
+        @Override
+        public IpAddress ipAddress() {
+            return ipAddress;
+        }
+
+        @Override
+        public DeviceId deviceId() {
+            return deviceId;
+        }
+
+        @Override
+        public PortNumber portNumber() {
+            return PortNumber.portNumber(1);
+        }
+    }
+
+    private static class TestCoreService extends CoreServiceAdapter {
+
+        @Override
+        public ApplicationId registerApplication(String name) {
+            return TEST_APP_ID;
+        }
+    }
+
+    private static class TestMastershipService extends MastershipServiceAdapter {
+        private final Set<DeviceId> localDevices = Sets.newHashSet();
+
+        @Override
+        public boolean isLocalMaster(DeviceId deviceId) {
+            return localDevices.contains(deviceId);
+        }
+    }
+
+    private static class DeviceObjective {
+        private final DeviceId deviceId;
+        private final ForwardingObjective objective;
+
+        DeviceObjective(DeviceId deviceId, ForwardingObjective objective) {
+            this.deviceId = deviceId;
+            this.objective = objective;
+        }
+    }
+
+    private static class TestFlowObjectiveService extends FlowObjectiveServiceAdapter {
+        private final List<DeviceObjective> objectives = Lists.newCopyOnWriteArrayList();
+
+        @Override
+        public void forward(DeviceId deviceId, ForwardingObjective forwardingObjective) {
+            objectives.add(new DeviceObjective(deviceId, forwardingObjective));
+        }
+    }
+
+    private static class TestInstancePortService implements InstancePortService {
+        private final Map<String, InstancePort> instancePorts = Maps.newConcurrentMap();
+        private final List<InstancePortListener> listeners = Lists.newCopyOnWriteArrayList();
+
+        @Override
+        public InstancePort instancePort(MacAddress macAddress) {
+            return null;
+        }
+
+        @Override
+        public InstancePort instancePort(IpAddress ipAddress, String osNetId) {
+            return null;
+        }
+
+        @Override
+        public InstancePort instancePort(String osPortId) {
+            return instancePorts.get(osPortId);
+        }
+
+        @Override
+        public Set<InstancePort> instancePorts() {
+            return ImmutableSet.copyOf(instancePorts.values());
+        }
+
+        @Override
+        public Set<InstancePort> instancePorts(String osNetId) {
+            return ImmutableSet.of();
+        }
+
+        @Override
+        public void addListener(InstancePortListener listener) {
+            listeners.add(listener);
+        }
+
+        @Override
+        public void removeListener(InstancePortListener listener) {
+            listeners.remove(listener);
+        }
+    }
+
+    private static class TestOpenstackNetworkService implements OpenstackNetworkService {
+        private final Map<String, Port> ports = Maps.newConcurrentMap();
+        private OpenstackNetworkListener portListener;
+
+        @Override
+        public Network network(String networkId) {
+            return null;
+        }
+
+        @Override
+        public Set<Network> networks() {
+            return ImmutableSet.of();
+        }
+
+        @Override
+        public Subnet subnet(String subnetId) {
+            return null;
+        }
+
+        @Override
+        public Set<Subnet> subnets() {
+            return ImmutableSet.of();
+        }
+
+        @Override
+        public Set<Subnet> subnets(String networkId) {
+            return ImmutableSet.of();
+        }
+
+        @Override
+        public Port port(String portId) {
+            return ports.get(portId);
+        }
+
+        @Override
+        public Port port(org.onosproject.net.Port port) {
+            return null;
+        }
+
+        @Override
+        public Set<Port> ports() {
+            return ImmutableSet.copyOf(ports.values());
+        }
+
+        @Override
+        public Set<Port> ports(String networkId) {
+            return ImmutableSet.of();
+        }
+
+        @Override
+        public void addListener(OpenstackNetworkListener listener) {
+            portListener = listener;
+        }
+
+        @Override
+        public void removeListener(OpenstackNetworkListener listener) {
+            portListener = null;
+        }
+    }
+
+    private static class TestSecurityGroupService implements OpenstackSecurityGroupService {
+        private final Map<String, SecurityGroup> securityGroups = Maps.newConcurrentMap();
+
+        @Override
+        public SecurityGroup securityGroup(String sgId) {
+            return securityGroups.get(sgId);
+        }
+
+        @Override
+        public SecurityGroupRule securityGroupRule(String sgRuleId) {
+            return null;
+        }
+
+        @Override
+        public void addListener(OpenstackSecurityGroupListener listener) {
+        }
+
+        @Override
+        public void removeListener(OpenstackSecurityGroupListener listener) {
+        }
+    }
+}
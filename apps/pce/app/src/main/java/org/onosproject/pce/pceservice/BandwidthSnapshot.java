@@ -0,0 +1,122 @@
+/*
+ * Copyright 2017-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.pce.pceservice;
+
+import org.onosproject.bandwidthmgr.api.BandwidthMgmtService;
+import org.onosproject.net.Link;
+import org.onosproject.net.LinkKey;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * View of the bandwidth management service which reads the available
+ * bandwidth of each link from the store at most once, so that many path
+ * computations run against one consistent snapshot of the links rather than
+ * looking the store up for every link of every search.
+ * <p>
+ * Bandwidth reserved or released through the view is applied both to the
+ * store and to the snapshot, so that later computations account for it.
+ * </p>
+ */
+final class BandwidthSnapshot implements BandwidthMgmtService {
+
+    private final BandwidthMgmtService bandwidthMgmtService;
+
+    // Available bandwidth of the links looked up so far; NaN if unknown
+    private final Map<LinkKey, Double> availableBandwidth = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a snapshot of the links managed by the given service.
+     *
+     * @param bandwidthMgmtService bandwidth management service
+     */
+    BandwidthSnapshot(BandwidthMgmtService bandwidthMgmtService) {
+        this.bandwidthMgmtService = checkNotNull(bandwidthMgmtService);
+    }
+
+    private double availableBandwidth(LinkKey linkKey) {
+        return availableBandwidth.computeIfAbsent(linkKey, k -> {
+            Double bandwidth = bandwidthMgmtService.getAvailableBandwidth(k);
+            return bandwidth != null ? bandwidth : Double.NaN;
+        });
+    }
+
+    @Override
+    public boolean allocLocalReservedBw(LinkKey linkkey, Double bandwidth) {
+        if (!bandwidthMgmtService.allocLocalReservedBw(linkkey, bandwidth)) {
+            return false;
+        }
+        availableBandwidth.computeIfPresent(linkkey, (k, v) -> v - bandwidth);
+        return true;
+    }
+
+    @Override
+    public boolean releaseLocalReservedBw(LinkKey linkkey, Double bandwidth) {
+        if (!bandwidthMgmtService.releaseLocalReservedBw(linkkey, bandwidth)) {
+            return false;
+        }
+        availableBandwidth.computeIfPresent(linkkey, (k, v) -> v + bandwidth);
+        return true;
+    }
+
+    @Override
+    public Double getAllocatedLocalReservedBw(LinkKey linkkey) {
+        return bandwidthMgmtService.getAllocatedLocalReservedBw(linkkey);
+    }
+
+    @Override
+    public boolean addUnreservedBw(LinkKey linkkey, Set<Double> bandwidth) {
+        boolean added = bandwidthMgmtService.addUnreservedBw(linkkey, bandwidth);
+        availableBandwidth.remove(linkkey);
+        return added;
+    }
+
+    @Override
+    public boolean removeUnreservedBw(LinkKey linkkey) {
+        boolean removed = bandwidthMgmtService.removeUnreservedBw(linkkey);
+        availableBandwidth.remove(linkkey);
+        return removed;
+    }
+
+    @Override
+    public Set<Double> getUnreservedBw(LinkKey linkkey) {
+        return bandwidthMgmtService.getUnreservedBw(linkkey);
+    }
+
+    @Override
+    public boolean isBandwidthAvailable(Link link, Double bandwidth) {
+        checkNotNull(link);
+        checkNotNull(bandwidth);
+        // Never true for links with unknown bandwidth, as NaN compares false
+        return bandwidth <= availableBandwidth(LinkKey.linkKey(link));
+    }
+
+    @Override
+    public Double getTeCost(LinkKey linkKey) {
+        return bandwidthMgmtService.getTeCost(linkKey);
+    }
+
+    @Override
+    public Double getAvailableBandwidth(LinkKey linkKey) {
+        checkNotNull(linkKey);
+        double bandwidth = availableBandwidth(linkKey);
+        return Double.isNaN(bandwidth) ? null : bandwidth;
+    }
+}
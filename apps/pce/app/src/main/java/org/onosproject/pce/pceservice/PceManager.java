@@ -222,10 +222,11 @@ public class PceManager implements PceService {
      * specified constraints.
      *
      * @param constraints path constraints
+     * @param bwService bandwidth management service to evaluate links with
      * @return edge-weight function
      */
-    private LinkWeight weight(List<Constraint> constraints) {
-        return new TeConstraintBasedLinkWeight(constraints);
+    private LinkWeight weight(List<Constraint> constraints, BandwidthMgmtService bwService) {
+        return new TeConstraintBasedLinkWeight(constraints, bwService);
     }
 
     /**
@@ -237,11 +238,18 @@ public class PceManager implements PceService {
      * @return computed path based on constraints
      */
     protected Set<Path> computePath(DeviceId src, DeviceId dst, List<Constraint> constraints) {
+        return computePath(src, dst, constraints, bandwidthMgmtService);
+    }
+
+    // Computes a path between two devices, evaluating the links with the
+    // given bandwidth management service or snapshot.
+    private Set<Path> computePath(DeviceId src, DeviceId dst, List<Constraint> constraints,
+                                  BandwidthMgmtService bwService) {
         if (pathService == null) {
             return ImmutableSet.of();
         }
 
-        Set<Path> paths = pathService.getPaths(src, dst, weight(constraints));
+        Set<Path> paths = pathService.getPaths(src, dst, weight(constraints, bwService));
         log.info("paths in computePath ::" + paths);
         if (!paths.isEmpty()) {
             return paths;
@@ -251,13 +259,13 @@ public class PceManager implements PceService {
 
     //Computes the partial path from partial computed path to specified dst.
     private List<Path> computePartialPath(List<Path> computedPath, DeviceId src, DeviceId dst,
-                                    List<Constraint> constraints) {
+                                    List<Constraint> constraints, BandwidthMgmtService bwService) {
         int size = computedPath.size();
         Path path = null;
         DeviceId deviceId = size == 0 ? src :
                 computedPath.get(size - 1).dst().deviceId();
 
-        Set<Path> tempComputePath = computePath(deviceId, dst, constraints);
+        Set<Path> tempComputePath = computePath(deviceId, dst, constraints, bwService);
 
         if (tempComputePath.isEmpty()) {
             return null;
@@ -332,7 +340,7 @@ public class PceManager implements PceService {
 
     //Returns final computed explicit path (list of partial computed paths).
     private List<Path> computeExplicitPath(List<ExplicitPathInfo> explicitPathInfo, DeviceId src, DeviceId dst,
-            List<Constraint> constraints) {
+            List<Constraint> constraints, BandwidthMgmtService bwService) {
         List<Path> finalComputedPath = new LinkedList<>();
         for (ExplicitPathInfo info : explicitPathInfo) {
             /*
@@ -349,7 +357,7 @@ public class PceManager implements PceService {
                     if (!(info.value()).equals(src)) {
                         log.debug("computeExplicitPath :: Loose , device");
                         finalComputedPath = computePartialPath(finalComputedPath, src, (DeviceId) info.value(),
-                                constraints);
+                                constraints, bwService);
                         log.debug("finalComputedPath in computeExplicitPath ::" + finalComputedPath);
                     }
 
@@ -360,12 +368,12 @@ public class PceManager implements PceService {
                                     ((Link) info.value()).src().deviceId()))) {
 
                         finalComputedPath = computePartialPath(finalComputedPath, src, ((Link) info.value()).dst()
-                                .deviceId(), constraints);
+                                .deviceId(), constraints, bwService);
                     } else {
 
                         finalComputedPath = computePartialPath(finalComputedPath, src, ((Link) info.value()).src()
-                                .deviceId(), constraints) != null ? computePartialPath(finalComputedPath, src,
-                                ((Link) info.value()).dst().deviceId(), constraints) : null;
+                                .deviceId(), constraints, bwService) != null ? computePartialPath(finalComputedPath,
+                                src, ((Link) info.value()).dst().deviceId(), constraints, bwService) : null;
                     }
                 }
                 /*
@@ -392,7 +400,8 @@ public class PceManager implements PceService {
                             || !finalComputedPath.isEmpty()
                             && finalComputedPath.get(finalComputedPath.size() - 1).dst().deviceId()
                                     .equals(((Link) info.value()).src().deviceId()) ? computePartialPath(
-                            finalComputedPath, src, ((Link) info.value()).dst().deviceId(), constraints) : null;
+                            finalComputedPath, src, ((Link) info.value()).dst().deviceId(), constraints,
+                            bwService) : null;
 
                     //Log.info("computeExplicitPath :: (Link) info.value() " + (Link) info.value());
                     //Log.info("computeExplicitPath :: finalComputedPath " + finalComputedPath);
@@ -411,7 +420,7 @@ public class PceManager implements PceService {
         if (finalComputedPath.isEmpty() || !finalComputedPath.isEmpty()
                 && !finalComputedPath.get(finalComputedPath.size() - 1).dst().deviceId().equals(dst)) {
 
-            finalComputedPath = computePartialPath(finalComputedPath, src, dst, constraints);
+            finalComputedPath = computePartialPath(finalComputedPath, src, dst, constraints, bwService);
             if (finalComputedPath == null) {
                 return null;
             }
@@ -519,7 +528,8 @@ public class PceManager implements PceService {
         }
 
         if (explicitPathInfo != null && !explicitPathInfo.isEmpty()) {
-            List<Path> finalComputedPath = computeExplicitPath(explicitPathInfo, src, dst, constraints);
+            List<Path> finalComputedPath = computeExplicitPath(explicitPathInfo, src, dst, constraints,
+                                                               bandwidthMgmtService);
             if (finalComputedPath == null) {
                 return false;
             }
@@ -572,7 +582,7 @@ public class PceManager implements PceService {
 
         // Allocate bandwidth for all tunnels.
         if (bwConstraintValue != 0) {
-            if (!reserveBandwidth(computedPath, bwConstraintValue, null)) {
+            if (!reserveBandwidth(computedPath, bwConstraintValue, null, bandwidthMgmtService)) {
                 pceStore.addFailedPathInfo(new PcePathInfo(src, dst, tunnelName, constraints,
                         lspType, explicitPathInfo, loadBalancing));
                 return false;
@@ -602,7 +612,7 @@ public class PceManager implements PceService {
     private boolean setupDisjointPaths(DeviceId src, DeviceId dst, List<Constraint> constraints, String tunnelName,
                                        double bwConstraintValue, LspType lspType, CostConstraint costConstraint,
                                        TunnelEndPoint srcEndPoint, TunnelEndPoint dstEndPoint) {
-        Set<DisjointPath> paths = pathService.getDisjointPaths(src, dst, weight(constraints));
+        Set<DisjointPath> paths = pathService.getDisjointPaths(src, dst, weight(constraints, bandwidthMgmtService));
 
         // NO-PATH
         if (paths.isEmpty()) {
@@ -655,13 +665,13 @@ public class PceManager implements PceService {
 
         // Allocate bandwidth.
         if (bwConstraintValue != 0) {
-            if (!reserveBandwidth(path.primary(), bw, null)) {
+            if (!reserveBandwidth(path.primary(), bw, null, bandwidthMgmtService)) {
                 pceStore.addFailedPathInfo(new PcePathInfo(src, dst, tunnel1, constraints,
                                                            lspType, null, true));
                 return false;
             }
 
-            if (!reserveBandwidth(path.backup(), bw, null)) {
+            if (!reserveBandwidth(path.backup(), bw, null, bandwidthMgmtService)) {
                 //Release bandwidth resource for tunnel1
                 if (bwConstraintValue != 0) {
                     path.primary().links().forEach(ln ->
@@ -709,6 +719,13 @@ public class PceManager implements PceService {
 
     @Override
     public boolean updatePath(TunnelId tunnelId, List<Constraint> constraints) {
+        return updatePath(tunnelId, constraints, bandwidthMgmtService);
+    }
+
+    // Updates an existing path, evaluating the links and reserving bandwidth
+    // with the given bandwidth management service or snapshot.
+    private boolean updatePath(TunnelId tunnelId, List<Constraint> constraints,
+                               BandwidthMgmtService bwService) {
         checkNotNull(tunnelId);
         Set<Path> computedPathSet = Sets.newLinkedHashSet();
         Tunnel tunnel = tunnelService.queryTunnel(tunnelId);
@@ -793,7 +810,7 @@ public class PceManager implements PceService {
         if (explicitPathInfo != null) {
             List<Path> finalComputedPath = computeExplicitPath(explicitPathInfo,
                     tunnel.path().src().deviceId(), tunnel.path().dst().deviceId(),
-                    constraints);
+                    constraints, bwService);
 
             if (finalComputedPath == null) {
                 return false;
@@ -810,7 +827,7 @@ public class PceManager implements PceService {
                     totalLinks, totalCost));
         } else {
             computedPathSet = computePath(tunnel.path().src().deviceId(), tunnel.path().dst().deviceId(),
-                    constraints);
+                    constraints, bwService);
         }
 
         // NO-PATH
@@ -847,7 +864,7 @@ public class PceManager implements PceService {
 
         // Allocate shared bandwidth for all tunnels.
         if (bwConstraintValue != 0) {
-            if (!reserveBandwidth(computedPath, bwConstraintValue, shBwConstraint)) {
+            if (!reserveBandwidth(computedPath, bwConstraintValue, shBwConstraint, bwService)) {
                 return false;
             }
         }
@@ -857,7 +874,7 @@ public class PceManager implements PceService {
 
         if (updatedTunnelId == null) {
             if (bwConstraintValue != 0) {
-                releaseSharedBwForNewTunnel(computedPath, bwConstraintValue, shBwConstraint);
+                releaseSharedBwForNewTunnel(computedPath, bwConstraintValue, shBwConstraint, bwService);
             }
             return false;
         }
@@ -914,7 +931,8 @@ public class PceManager implements PceService {
     }
 
     private boolean releaseSharedBwForNewTunnel(Path computedPath, double bandwidthConstraint,
-                                                SharedBandwidthConstraint shBwConstraint) {
+                                                SharedBandwidthConstraint shBwConstraint,
+                                                BandwidthMgmtService bwService) {
         checkNotNull(computedPath);
         checkNotNull(bandwidthConstraint);
         double bwToAllocate;
@@ -936,7 +954,7 @@ public class PceManager implements PceService {
             }
 
             if (bwToAllocate != 0) {
-                bandwidthMgmtService.releaseLocalReservedBw(LinkKey.linkKey(link), bwToAllocate);
+                bwService.releaseLocalReservedBw(LinkKey.linkKey(link), bwToAllocate);
             }
         }
         return true;
@@ -962,6 +980,7 @@ public class PceManager implements PceService {
     protected class TeConstraintBasedLinkWeight implements LinkWeight {
 
         private final List<Constraint> constraints;
+        private final BandwidthMgmtService bwService;
 
         /**
          * Creates a new edge-weight function capable of evaluating links
@@ -970,6 +989,19 @@ public class PceManager implements PceService {
          * @param constraints path constraints
          */
         public TeConstraintBasedLinkWeight(List<Constraint> constraints) {
+            this(constraints, bandwidthMgmtService);
+        }
+
+        /**
+         * Creates a new edge-weight function capable of evaluating links
+         * on the basis of the specified constraints, with the bandwidth
+         * available as seen by the given service or snapshot.
+         *
+         * @param constraints path constraints
+         * @param bwService bandwidth management service
+         */
+        public TeConstraintBasedLinkWeight(List<Constraint> constraints, BandwidthMgmtService bwService) {
+            this.bwService = bwService;
             if (constraints == null) {
                 this.constraints = Collections.emptyList();
             } else {
@@ -995,10 +1027,10 @@ public class PceManager implements PceService {
                                                                            netCfgService) ? 1 : -1;
                 } else if (constraint instanceof PceBandwidthConstraint) {
                     cost = ((PceBandwidthConstraint) constraint).isValidLink(edge.link(),
-                            bandwidthMgmtService) ? 1 : -1;
+                            bwService) ? 1 : -1;
                 } else if (constraint instanceof SharedBandwidthConstraint) {
                     cost = ((SharedBandwidthConstraint) constraint).isValidLink(edge.link(),
-                            bandwidthMgmtService) ? 1 : -1;
+                            bwService) ? 1 : -1;
                 } else if (constraint instanceof CostConstraint) {
                     cost = ((CostConstraint) constraint).isValidLink(edge.link(), netCfgService);
                 } else {
@@ -1013,6 +1045,8 @@ public class PceManager implements PceService {
     private class InternalTopologyListener implements TopologyListener {
        @Override
         public void event(TopologyEvent event) {
+             // Tunnels impacted by the event are recomputed against one snapshot of the links
+             BandwidthSnapshot bwSnapshot = new BandwidthSnapshot(bandwidthMgmtService);
              event.reasons().forEach(e -> {
                 //If event type is link removed, get the impacted tunnel
                 if (e instanceof LinkEvent) {
@@ -1022,7 +1056,8 @@ public class PceManager implements PceService {
                                 if (t.path().links().contains((e.subject()))) {
                                     // Check whether this ONOS instance is master for ingress device if yes,
                                     // recompute and send update
-                                    checkForMasterAndUpdateTunnel(t.path().src().deviceId(), t);
+                                    checkForMasterAndUpdateTunnel(t.path().src().deviceId(), t,
+                                                                  bwSnapshot);
                                 }
                         });
                     }
@@ -1031,7 +1066,7 @@ public class PceManager implements PceService {
         }
     }
 
-    private boolean checkForMasterAndUpdateTunnel(DeviceId src, Tunnel tunnel) {
+    private boolean checkForMasterAndUpdateTunnel(DeviceId src, Tunnel tunnel, BandwidthMgmtService bwService) {
         /**
          * Master of ingress node will recompute and also delegation flag must be set.
          */
@@ -1054,7 +1089,8 @@ public class PceManager implements PceService {
              * If tunnel was UP after recomputation failed then store failed path in PCE store send PCIntiate(remove)
              * and If tunnel is failed and computation fails nothing to do because tunnel status will be same[Failed]
              */
-            if (!updatePath(tunnel.tunnelId(), constraintList) && !tunnel.state().equals(Tunnel.State.FAILED)) {
+            if (!updatePath(tunnel.tunnelId(), constraintList, bwService)
+                    && !tunnel.state().equals(Tunnel.State.FAILED)) {
                 // If updation fails store in PCE store as failed path
                 // then PCInitiate (Remove)
                 pceStore.addFailedPathInfo(new PcePathInfo(tunnel.path().src().deviceId(), tunnel
@@ -1072,7 +1108,7 @@ public class PceManager implements PceService {
 
      // Allocates the bandwidth locally for PCECC tunnels.
     private boolean reserveBandwidth(Path computedPath, double bandwidthConstraint,
-                                  SharedBandwidthConstraint shBwConstraint) {
+                                  SharedBandwidthConstraint shBwConstraint, BandwidthMgmtService bwService) {
         checkNotNull(computedPath);
         checkNotNull(bandwidthConstraint);
         Resource resource = null;
@@ -1105,11 +1141,11 @@ public class PceManager implements PceService {
              *  is not required to allocate anything.
              */
             if (bwToAllocate != 0) {
-                if (!bandwidthMgmtService.allocLocalReservedBw(LinkKey.linkKey(link.src(), link.dst()),
+                if (!bwService.allocLocalReservedBw(LinkKey.linkKey(link.src(), link.dst()),
                         bwToAllocate)) {
                     // If allocation for any link fails, then release the partially allocated bandwidth
                     // for all links allocated
-                    linkMap.forEach((ln, aDouble) -> bandwidthMgmtService
+                    linkMap.forEach((ln, aDouble) -> bwService
                                                      .releaseLocalReservedBw(LinkKey.linkKey(ln), aDouble));
                     return false;
                 }
@@ -1275,6 +1311,11 @@ public class PceManager implements PceService {
         return pceStore.getLoadBalancingTunnelIds(pathName);
     }
 
+    @Override
+    public void optimizeAllPaths() {
+        callForOptimization();
+    }
+
     //Computes path from tunnel store and also path failed to setup.
     private void callForOptimization() {
         //Recompute the LSPs which it was delegated [LSPs stored in PCE store (failed paths)]
@@ -1283,8 +1324,11 @@ public class PceManager implements PceService {
         }
 
         //Recompute the LSPs for which it was delegated [LSPs stored in tunnel store]
+        //against one snapshot of the links, rather than looking up the store for each
+        //link of each computation
+        BandwidthSnapshot bwSnapshot = new BandwidthSnapshot(bandwidthMgmtService);
         tunnelService.queryTunnel(MPLS).forEach(t -> {
-        checkForMasterAndUpdateTunnel(t.path().src().deviceId(), t);
+        checkForMasterAndUpdateTunnel(t.path().src().deviceId(), t, bwSnapshot);
         });
     }
 
@@ -140,4 +140,11 @@ public interface PceService {
      * @return list of load balancing tunnels
      */
     List<TunnelId> queryLoadBalancingPath(String pathName);
+
+    /**
+     * Recomputes the paths which failed to be set up and the paths of all
+     * the delegated tunnels whose ingress device this instance is master of.
+     * The tunnels are recomputed against one snapshot of the links.
+     */
+    void optimizeAllPaths();
 }
\ No newline at end of file
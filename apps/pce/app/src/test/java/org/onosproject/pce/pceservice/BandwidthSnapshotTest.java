@@ -0,0 +1,93 @@
+/*
+ * Copyright 2017-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.pce.pceservice;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.Before;
+import org.junit.Test;
+import org.onosproject.net.Link;
+import org.onosproject.net.LinkKey;
+import org.onosproject.pce.pceservice.PathComputationTest.MockBandwidthMgmtService;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.onosproject.pce.pceservice.PathComputationTest.addLink;
+
+/**
+ * Unit tests for the bandwidth snapshot.
+ */
+public class BandwidthSnapshotTest {
+
+    private final Link link = addLink("1", 1, "2", 2, false, 0);
+    private final LinkKey linkKey = LinkKey.linkKey(link);
+    private final CountingBandwidthMgmtService bandwidthMgmtService = new CountingBandwidthMgmtService();
+    private BandwidthSnapshot snapshot;
+
+    @Before
+    public void setUp() {
+        bandwidthMgmtService.addUnreservedBw(linkKey, ImmutableSet.of(100.0));
+        bandwidthMgmtService.allocLocalReservedBw(linkKey, 20.0);
+        snapshot = new BandwidthSnapshot(bandwidthMgmtService);
+    }
+
+    /**
+     * Checks that the available bandwidth of a link is looked up only once.
+     */
+    @Test
+    public void testLinkLookedUpOnce() {
+        assertThat(snapshot.isBandwidthAvailable(link, 80.0), is(true));
+        assertThat(snapshot.isBandwidthAvailable(link, 81.0), is(false));
+        assertThat(snapshot.getAvailableBandwidth(linkKey), is(80.0));
+        assertThat(bandwidthMgmtService.lookups, is(1));
+    }
+
+    /**
+     * Checks that reservations through the snapshot are reflected by it and
+     * applied to the underlying service.
+     */
+    @Test
+    public void testReservationsUpdateSnapshot() {
+        assertThat(snapshot.isBandwidthAvailable(link, 80.0), is(true));
+
+        snapshot.allocLocalReservedBw(linkKey, 30.0);
+        assertThat(snapshot.isBandwidthAvailable(link, 80.0), is(false));
+        assertThat(snapshot.getAvailableBandwidth(linkKey), is(50.0));
+        assertThat(bandwidthMgmtService.getAllocatedLocalReservedBw(linkKey), is(50.0));
+
+        snapshot.releaseLocalReservedBw(linkKey, 10.0);
+        assertThat(snapshot.getAvailableBandwidth(linkKey), is(60.0));
+        assertThat(bandwidthMgmtService.lookups, is(1));
+    }
+
+    /**
+     * Checks that links without unreserved bandwidth have none available.
+     */
+    @Test
+    public void testUnknownLink() {
+        Link other = addLink("2", 2, "3", 3, false, 0);
+        assertThat(snapshot.isBandwidthAvailable(other, 0.0), is(false));
+    }
+
+    private static class CountingBandwidthMgmtService extends MockBandwidthMgmtService {
+        private int lookups;
+
+        @Override
+        public Double getAvailableBandwidth(LinkKey linkKey) {
+            lookups++;
+            return getUnreservedBw(linkKey) == null ? null : super.getAvailableBandwidth(linkKey);
+        }
+    }
+}
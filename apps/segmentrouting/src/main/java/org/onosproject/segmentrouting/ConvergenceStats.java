@@ -0,0 +1,142 @@
+/*
+ * Copyright 2017-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.segmentrouting;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+/**
+ * Timings and counters of a routing rule population run, from the
+ * computation of the ECMP shortest path graphs to the population of the
+ * routing rules.
+ */
+public final class ConvergenceStats {
+    private final long timestamp;
+    private final long computationMillis;
+    private final long populationMillis;
+    private final int recomputedGraphs;
+    private final int reusedGraphs;
+    private final long populatedRules;
+    private final boolean succeeded;
+
+    /**
+     * Creates the statistics of a routing rule population run.
+     *
+     * @param timestamp time the run completed at, in ms since the epoch
+     * @param computationMillis time spent computing graphs and route changes
+     * @param populationMillis time spent populating routing rules
+     * @param recomputedGraphs number of ECMP graphs computed
+     * @param reusedGraphs number of ECMP graphs reused as unaffected
+     * @param populatedRules number of routing rules populated
+     * @param succeeded true if all routing rules were populated
+     */
+    public ConvergenceStats(long timestamp, long computationMillis,
+                            long populationMillis, int recomputedGraphs,
+                            int reusedGraphs, long populatedRules,
+                            boolean succeeded) {
+        this.timestamp = timestamp;
+        this.computationMillis = computationMillis;
+        this.populationMillis = populationMillis;
+        this.recomputedGraphs = recomputedGraphs;
+        this.reusedGraphs = reusedGraphs;
+        this.populatedRules = populatedRules;
+        this.succeeded = succeeded;
+    }
+
+    /**
+     * Returns the time the run completed at.
+     *
+     * @return time in ms since the epoch
+     */
+    public long timestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Returns the time spent computing the ECMP graphs and route changes.
+     *
+     * @return time in ms
+     */
+    public long computationMillis() {
+        return computationMillis;
+    }
+
+    /**
+     * Returns the time spent populating the routing rules.
+     *
+     * @return time in ms
+     */
+    public long populationMillis() {
+        return populationMillis;
+    }
+
+    /**
+     * Returns the total convergence time of the run.
+     *
+     * @return time in ms
+     */
+    public long convergenceMillis() {
+        return computationMillis + populationMillis;
+    }
+
+    /**
+     * Returns the number of ECMP graphs computed in the run.
+     *
+     * @return number of graphs
+     */
+    public int recomputedGraphs() {
+        return recomputedGraphs;
+    }
+
+    /**
+     * Returns the number of ECMP graphs reused as unaffected by the change.
+     *
+     * @return number of graphs
+     */
+    public int reusedGraphs() {
+        return reusedGraphs;
+    }
+
+    /**
+     * Returns the number of routing rules populated in the run.
+     *
+     * @return number of rules
+     */
+    public long populatedRules() {
+        return populatedRules;
+    }
+
+    /**
+     * Returns whether all routing rules were populated.
+     *
+     * @return true if the run succeeded
+     */
+    public boolean succeeded() {
+        return succeeded;
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("timestamp", timestamp)
+                .add("computationMillis", computationMillis)
+                .add("populationMillis", populationMillis)
+                .add("recomputedGraphs", recomputedGraphs)
+                .add("reusedGraphs", reusedGraphs)
+                .add("populatedRules", populatedRules)
+                .add("succeeded", succeeded)
+                .toString();
+    }
+}
@@ -16,10 +16,14 @@
 package org.onosproject.segmentrouting;
 
 import com.google.common.base.MoreObjects;
+import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.SetMultimap;
 import com.google.common.collect.Sets;
+import com.google.common.collect.Table;
 import org.onlab.packet.Ip4Address;
 import org.onlab.packet.Ip6Address;
 import org.onlab.packet.IpPrefix;
@@ -35,15 +39,23 @@ import org.slf4j.LoggerFactory;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.concurrent.Executors.newFixedThreadPool;
 import static java.util.concurrent.Executors.newScheduledThreadPool;
 import static org.onlab.util.Tools.groupedThreads;
 
@@ -67,6 +79,10 @@ public class DefaultRoutingHandler {
     private volatile Status populationStatus;
     private ScheduledExecutorService executorService
         = newScheduledThreadPool(1, groupedThreads("retryftr", "retry-%d", log));
+    // Routing rules of each target switch are populated by a single thread,
+    // as the next objectives of a switch are not safe for concurrent creation
+    private final ThreadPoolExecutor rulePopulationExecutor;
+    private volatile ConvergenceStats lastConvergence;
 
     /**
      * Represents the default routing population status.
@@ -93,6 +109,9 @@ public class DefaultRoutingHandler {
      */
     public DefaultRoutingHandler(SegmentRoutingManager srManager) {
         this.srManager = srManager;
+        this.rulePopulationExecutor = (ThreadPoolExecutor) newFixedThreadPool(
+                srManager.rulePopulationThreads,
+                groupedThreads("onos/sr", "rule-populator-%d", log));
         this.rulePopulator = checkNotNull(srManager.routingRulePopulator);
         this.config = checkNotNull(srManager.deviceConfiguration);
         this.populationStatus = Status.IDLE;
@@ -109,11 +128,14 @@ public class DefaultRoutingHandler {
 
         statusLock.lock();
         try {
+            long start = System.currentTimeMillis();
             populationStatus = Status.STARTED;
             rulePopulator.resetCounter();
             log.info("Starting to populate segment-routing rules");
             log.debug("populateAllRoutingRules: populationStatus is STARTED");
 
+            Map<DeviceId, EcmpShortestPathGraph> ecmpSpgs = new HashMap<>();
+            Table<DeviceId, DeviceId, Set<DeviceId>> nextHops = HashBasedTable.create();
             for (Device sw : srManager.deviceService.getDevices()) {
                 if (!srManager.mastershipService.isLocalMaster(sw.id())) {
                     log.debug("populateAllRoutingRules: skipping device {}...we are not master",
@@ -122,16 +144,22 @@ public class DefaultRoutingHandler {
                 }
 
                 EcmpShortestPathGraph ecmpSpg = new EcmpShortestPathGraph(sw.id(), srManager);
-                if (!populateEcmpRoutingRules(sw.id(), ecmpSpg, ImmutableSet.of())) {
-                    log.debug("populateAllRoutingRules: populationStatus is ABORTED");
-                    populationStatus = Status.ABORTED;
-                    log.debug("Abort routing rule population");
-                    return false;
-                }
-                currentEcmpSpgMap.put(sw.id(), ecmpSpg);
+                ecmpSpgs.put(sw.id(), ecmpSpg);
+                addNextHops(nextHops, sw.id(), ecmpSpg, targetSw -> true);
 
                 // TODO: Set adjacency routing rule for all switches
             }
+            long computed = System.currentTimeMillis();
+
+            if (!populateEcmpRoutingRules(nextHops, ImmutableSet.of())) {
+                recordConvergence(start, computed, ecmpSpgs.size(), 0, false);
+                log.debug("populateAllRoutingRules: populationStatus is ABORTED");
+                populationStatus = Status.ABORTED;
+                log.debug("Abort routing rule population");
+                return false;
+            }
+            currentEcmpSpgMap.putAll(ecmpSpgs);
+            recordConvergence(start, computed, ecmpSpgs.size(), 0, true);
 
             log.debug("populateAllRoutingRules: populationStatus is SUCCEEDED");
             populationStatus = Status.SUCCEEDED;
@@ -149,12 +177,20 @@ public class DefaultRoutingHandler {
      * repopulates the rules only for these routes. Note that when a switch goes
      * away, all of its links fail as well, but this is handled as a single
      * switch removal event.
+     * <p>
+     * Only the ECMP graphs which the changed link may affect are recomputed,
+     * provided the previous rule population succeeded; the other graphs are
+     * reused as they are.
+     * </p>
      *
      * @param failedLink the single failed link, or null for other conditions
      *                  such as an added link or a removed switch
+     * @param addedLink the single added link, or null for other conditions
+     *                  such as a failed link or a removed switch
      * @return true if it succeeds to populate all rules, false otherwise
      */
-    public boolean populateRoutingRulesForLinkStatusChange(Link failedLink) {
+    public boolean populateRoutingRulesForLinkStatusChange(Link failedLink,
+                                                           Link addedLink) {
 
         statusLock.lock();
         try {
@@ -163,17 +199,32 @@ public class DefaultRoutingHandler {
                 log.warn("Previous rule population is not finished.");
                 return true;
             }
+            long start = System.currentTimeMillis();
 
             // Take the snapshots of the links
+            boolean incremental = populationStatus == Status.SUCCEEDED
+                    && (failedLink != null || addedLink != null);
+            int recomputed = 0;
+            int reused = 0;
             updatedEcmpSpgMap = new HashMap<>();
             for (Device sw : srManager.deviceService.getDevices()) {
                 if (!srManager.mastershipService.isLocalMaster(sw.id())) {
                     continue;
                 }
+                EcmpShortestPathGraph ecmpSpgCurrent = currentEcmpSpgMap.get(sw.id());
+                if (incremental && ecmpSpgCurrent != null
+                        && !isAffected(ecmpSpgCurrent, failedLink, addedLink)) {
+                    updatedEcmpSpgMap.put(sw.id(), ecmpSpgCurrent);
+                    reused++;
+                    continue;
+                }
                 EcmpShortestPathGraph ecmpSpgUpdated =
                         new EcmpShortestPathGraph(sw.id(), srManager);
                 updatedEcmpSpgMap.put(sw.id(), ecmpSpgUpdated);
+                recomputed++;
             }
+            log.debug("Recomputed {} ECMP graphs, reused {} unaffected ones",
+                      recomputed, reused);
 
             log.info("Starts rule population from link change");
 
@@ -189,6 +240,7 @@ public class DefaultRoutingHandler {
                 // Compare existing ECMP SPG only with the link removed
                 routeChanges = computeDamagedRoutes(failedLink);
             }
+            long computed = System.currentTimeMillis();
 
             // do full re-routing if optimized routing returns null routeChanges
             if (routeChanges == null) {
@@ -196,13 +248,16 @@ public class DefaultRoutingHandler {
             }
 
             if (routeChanges.isEmpty()) {
+                recordConvergence(start, computed, recomputed, reused, true);
                 log.info("No route changes for the link status change");
                 log.debug("populateRoutingRulesForLinkStatusChange: populationStatus is SUCCEEDED");
                 populationStatus = Status.SUCCEEDED;
                 return true;
             }
 
-            if (repopulateRoutingRulesForRoutes(routeChanges)) {
+            boolean succeeded = repopulateRoutingRulesForRoutes(routeChanges);
+            recordConvergence(start, computed, recomputed, reused, succeeded);
+            if (succeeded) {
                 log.debug("populateRoutingRulesForLinkStatusChange: populationStatus is SUCCEEDED");
                 populationStatus = Status.SUCCEEDED;
                 log.info("Complete to repopulate the rules. # of rules populated : {}",
@@ -219,80 +274,96 @@ public class DefaultRoutingHandler {
         }
     }
 
+    /**
+     * Returns whether the ECMP graph may change due to the given link changes.
+     *
+     * @param ecmpSpg the current ECMP graph
+     * @param failedLink the failed link, or null
+     * @param addedLink the added link, or null
+     * @return true if the graph has to be recomputed
+     */
+    static boolean isAffected(EcmpShortestPathGraph ecmpSpg,
+                              Link failedLink, Link addedLink) {
+        if (failedLink != null && ecmpSpg.hasLinkBetween(failedLink.src().deviceId(),
+                                                         failedLink.dst().deviceId())) {
+            return true;
+        }
+        return addedLink != null && ecmpSpg.isImprovedBy(addedLink);
+    }
+
+    private void recordConvergence(long start, long computed, int recomputedGraphs,
+                                   int reusedGraphs, boolean succeeded) {
+        long end = System.currentTimeMillis();
+        lastConvergence = new ConvergenceStats(end, computed - start, end - computed,
+                                               recomputedGraphs, reusedGraphs,
+                                               rulePopulator.getCounter(), succeeded);
+        log.debug("Routing convergence: {}", lastConvergence);
+    }
+
+    /**
+     * Returns the statistics of the last routing rule population run.
+     *
+     * @return convergence statistics, or null if no run completed yet
+     */
+    public ConvergenceStats lastConvergence() {
+        return lastConvergence;
+    }
+
     private boolean repopulateRoutingRulesForRoutes(Set<ArrayList<DeviceId>> routes) {
         rulePopulator.resetCounter();
-        HashMap<DeviceId, ArrayList<ArrayList<DeviceId>>> routesBydevice =
-                new HashMap<>();
+        Set<DeviceId> allTargetsDevices = new HashSet<>();
+        SetMultimap<DeviceId, DeviceId> targetsByDevice = HashMultimap.create();
         for (ArrayList<DeviceId> link: routes) {
             // When only the source device is defined, reinstall routes to all other devices
             if (link.size() == 1) {
-                log.trace("repopulateRoutingRulesForRoutes: running ECMP graph for device {}", link.get(0));
-                EcmpShortestPathGraph ecmpSpg = new EcmpShortestPathGraph(link.get(0), srManager);
-                if (populateEcmpRoutingRules(link.get(0), ecmpSpg, ImmutableSet.of())) {
-                    log.debug("Populating flow rules from all to dest:{} is successful",
-                              link.get(0));
-                    currentEcmpSpgMap.put(link.get(0), ecmpSpg);
-                } else {
-                    log.warn("Failed to populate the flow rules from all to dest:{}", link.get(0));
-                    return false;
-                }
+                allTargetsDevices.add(link.get(0));
             } else {
-                ArrayList<ArrayList<DeviceId>> deviceRoutes =
-                        routesBydevice.get(link.get(1));
-                if (deviceRoutes == null) {
-                    deviceRoutes = new ArrayList<>();
-                    routesBydevice.put(link.get(1), deviceRoutes);
-                }
-                deviceRoutes.add(link);
+                log.debug("repopulate RoutingRules For Routes {} -> {}",
+                          link.get(0), link.get(1));
+                targetsByDevice.put(link.get(1), link.get(0));
             }
         }
 
-        for (DeviceId impactedDevice : routesBydevice.keySet()) {
-            ArrayList<ArrayList<DeviceId>> deviceRoutes =
-                    routesBydevice.get(impactedDevice);
-            for (ArrayList<DeviceId> link: deviceRoutes) {
-                log.debug("repopulate RoutingRules For Routes {} -> {}",
-                          link.get(0), link.get(1));
-                DeviceId src = link.get(0);
-                DeviceId dst = link.get(1);
-                EcmpShortestPathGraph ecmpSpg = updatedEcmpSpgMap.get(dst);
-                HashMap<Integer, HashMap<DeviceId, ArrayList<ArrayList<DeviceId>>>> switchVia =
-                        ecmpSpg.getAllLearnedSwitchesAndVia();
-                for (Integer itrIdx : switchVia.keySet()) {
-                    HashMap<DeviceId, ArrayList<ArrayList<DeviceId>>> swViaMap =
-                            switchVia.get(itrIdx);
-                    for (DeviceId targetSw : swViaMap.keySet()) {
-                        if (!targetSw.equals(src)) {
-                            continue;
-                        }
-                        Set<DeviceId> nextHops = new HashSet<>();
-                        for (ArrayList<DeviceId> via : swViaMap.get(targetSw)) {
-                            if (via.isEmpty()) {
-                                nextHops.add(dst);
-                            } else {
-                                nextHops.add(via.get(0));
-                            }
-                        }
-                        if (!populateEcmpRoutingRulePartial(targetSw, dst,
-                                nextHops, ImmutableSet.of())) {
-                            return false;
-                        }
-                        log.debug("Populating flow rules from {} to {} is successful",
-                                  targetSw, dst);
-                    }
-                }
-                //currentEcmpSpgMap.put(dst, ecmpSpg);
-            }
-            //Only if all the flows for all impacted routes to a
-            //specific target are pushed successfully, update the
-            //ECMP graph for that target. Or else the next event
-            //would not see any changes in the ECMP graphs.
-            //In another case, the target switch has gone away, so
-            //routes can't be installed. In that case, the current map
-            //is updated here, without any flows being pushed.
-            currentEcmpSpgMap.put(impactedDevice,
-                                  updatedEcmpSpgMap.get(impactedDevice));
+        Map<DeviceId, EcmpShortestPathGraph> ecmpSpgs = new HashMap<>();
+        Table<DeviceId, DeviceId, Set<DeviceId>> nextHops = HashBasedTable.create();
+        for (DeviceId dst : allTargetsDevices) {
+            log.trace("repopulateRoutingRulesForRoutes: running ECMP graph for device {}", dst);
+            EcmpShortestPathGraph ecmpSpg = updatedEcmpSpgMap.get(dst);
+            if (ecmpSpg == null) {
+                ecmpSpg = new EcmpShortestPathGraph(dst, srManager);
+            }
+            ecmpSpgs.put(dst, ecmpSpg);
+            addNextHops(nextHops, dst, ecmpSpg, targetSw -> true);
+        }
+        for (DeviceId impactedDevice : targetsByDevice.keySet()) {
+            if (allTargetsDevices.contains(impactedDevice)) {
+                continue;
+            }
+            //In case the target switch has gone away, routes can't be
+            //installed, and the current map is updated without any flows
+            //being pushed.
+            EcmpShortestPathGraph ecmpSpg = updatedEcmpSpgMap.get(impactedDevice);
+            ecmpSpgs.put(impactedDevice, ecmpSpg);
+            if (ecmpSpg != null) {
+                addNextHops(nextHops, impactedDevice, ecmpSpg,
+                            targetsByDevice.get(impactedDevice)::contains);
+            }
         }
+
+        if (!populateEcmpRoutingRules(nextHops, ImmutableSet.of())) {
+            log.warn("Failed to populate the flow rules for the impacted routes");
+            return false;
+        }
+        //Only if all the flows for all impacted routes are pushed
+        //successfully, update the ECMP graphs for their targets. Or else
+        //the next event would not see any changes in the ECMP graphs.
+        ecmpSpgs.forEach((dst, ecmpSpg) -> {
+            if (ecmpSpg == null) {
+                currentEcmpSpgMap.remove(dst);
+            } else {
+                currentEcmpSpgMap.put(dst, ecmpSpg);
+            }
+        });
         return true;
     }
 
@@ -323,6 +394,11 @@ public class DefaultRoutingHandler {
                         + " rerouting and opting for full-reroute", sw.id());
                 return null;
             }
+            if (!ecmpSpg.hasLinkBetween(linkFail.src().deviceId(),
+                                        linkFail.dst().deviceId())) {
+                log.debug("ECMP graph of device {} does not use the failed link", sw.id());
+                continue;
+            }
             HashMap<Integer, HashMap<DeviceId, ArrayList<ArrayList<DeviceId>>>> switchVia =
                     ecmpSpg.getAllLearnedSwitchesAndVia();
             for (Integer itrIdx : switchVia.keySet()) {
@@ -394,6 +470,10 @@ public class DefaultRoutingHandler {
                 continue;
             }
             EcmpShortestPathGraph newEcmpSpg = updatedEcmpSpgMap.get(rootSw);
+            if (newEcmpSpg == currEcmpSpg) {
+                log.debug("ECMP graph of device {} is unaffected", rootSw);
+                continue;
+            }
             if (log.isTraceEnabled()) {
                 log.trace("Root switch: {}", rootSw);
                 log.trace("  Current/Existing SPG: {}", currEcmpSpg);
@@ -496,39 +576,79 @@ public class DefaultRoutingHandler {
     }
 
     /**
-     * Populate ECMP rules for subnets from all switches to destination.
+     * Collects the next hops from the switches learned in an ECMP graph
+     * towards the root of the graph.
      *
-     * @param destSw Device ID of destination switch
+     * @param nextHops table of next hops by target and destination switch
+     * @param destSw Device ID of destination switch, root of the graph
      * @param ecmpSPG ECMP shortest path graph
-     * @param subnets Subnets to be populated. If empty, populate all configured subnets.
-     * @return true if succeed
+     * @param targets filter of the target switches to collect next hops for
      */
-    private boolean populateEcmpRoutingRules(DeviceId destSw,
-                                             EcmpShortestPathGraph ecmpSPG,
-                                             Set<IpPrefix> subnets) {
-
+    private void addNextHops(Table<DeviceId, DeviceId, Set<DeviceId>> nextHops,
+                             DeviceId destSw, EcmpShortestPathGraph ecmpSPG,
+                             Predicate<DeviceId> targets) {
         HashMap<Integer, HashMap<DeviceId, ArrayList<ArrayList<DeviceId>>>> switchVia = ecmpSPG
                 .getAllLearnedSwitchesAndVia();
         for (Integer itrIdx : switchVia.keySet()) {
             HashMap<DeviceId, ArrayList<ArrayList<DeviceId>>> swViaMap = switchVia
                     .get(itrIdx);
             for (DeviceId targetSw : swViaMap.keySet()) {
-                Set<DeviceId> nextHops = new HashSet<>();
+                if (!targets.test(targetSw)) {
+                    continue;
+                }
+                Set<DeviceId> hops = new HashSet<>();
                 log.debug("** Iter: {} root: {} target: {}", itrIdx, destSw, targetSw);
                 for (ArrayList<DeviceId> via : swViaMap.get(targetSw)) {
                     if (via.isEmpty()) {
-                        nextHops.add(destSw);
+                        hops.add(destSw);
                     } else {
-                        nextHops.add(via.get(0));
+                        hops.add(via.get(0));
                     }
                 }
-                if (!populateEcmpRoutingRulePartial(targetSw, destSw, nextHops, subnets)) {
-                    return false;
-                }
+                nextHops.put(targetSw, destSw, hops);
             }
         }
+    }
 
-        return true;
+    /**
+     * Populate ECMP rules for subnets from target switches to destinations.
+     * The rules of distinct target switches are populated in parallel.
+     *
+     * @param nextHops table of next hops by target and destination switch
+     * @param subnets Subnets to be populated. If empty, populate all configured subnets.
+     * @return true if succeed
+     */
+    private boolean populateEcmpRoutingRules(Table<DeviceId, DeviceId, Set<DeviceId>> nextHops,
+                                             Set<IpPrefix> subnets) {
+        AtomicBoolean aborted = new AtomicBoolean(false);
+        List<Future<?>> tasks = new ArrayList<>();
+        nextHops.rowMap().forEach((targetSw, routes) -> tasks.add(
+                rulePopulationExecutor.submit(() -> {
+                    for (Map.Entry<DeviceId, Set<DeviceId>> route : routes.entrySet()) {
+                        if (aborted.get()) {
+                            return;
+                        }
+                        if (!populateEcmpRoutingRulePartial(targetSw, route.getKey(),
+                                                            route.getValue(), subnets)) {
+                            aborted.set(true);
+                            return;
+                        }
+                    }
+                })));
+
+        for (Future<?> task : tasks) {
+            try {
+                task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                aborted.set(true);
+                break;
+            } catch (ExecutionException e) {
+                log.warn("Exception while populating routing rules", e.getCause());
+                aborted.set(true);
+            }
+        }
+        return !aborted.get();
     }
 
     /**
@@ -714,7 +834,9 @@ public class DefaultRoutingHandler {
                 log.warn("Fail to populating subnet {}: {}", subnets, ECMPSPG_MISSING);
                 return false;
             }
-            return populateEcmpRoutingRules(cp.deviceId(), ecmpSpg, subnets);
+            Table<DeviceId, DeviceId, Set<DeviceId>> nextHops = HashBasedTable.create();
+            addNextHops(nextHops, cp.deviceId(), ecmpSpg, targetSw -> true);
+            return populateEcmpRoutingRules(nextHops, subnets);
         } finally {
             statusLock.unlock();
         }
@@ -740,7 +862,30 @@ public class DefaultRoutingHandler {
         if (updatedEcmpSpgMap != null) {
             updatedEcmpSpgMap.remove(deviceId);
         }
-        this.populateRoutingRulesForLinkStatusChange(null);
+        this.populateRoutingRulesForLinkStatusChange(null, null);
+    }
+
+    /**
+     * Changes the number of threads populating routing rules in parallel.
+     *
+     * @param threads number of threads
+     */
+    protected void setRulePopulationThreads(int threads) {
+        if (threads > rulePopulationExecutor.getMaximumPoolSize()) {
+            rulePopulationExecutor.setMaximumPoolSize(threads);
+            rulePopulationExecutor.setCorePoolSize(threads);
+        } else {
+            rulePopulationExecutor.setCorePoolSize(threads);
+            rulePopulationExecutor.setMaximumPoolSize(threads);
+        }
+    }
+
+    /**
+     * Stops the background tasks of the routing handler.
+     */
+    protected void shutdown() {
+        executorService.shutdown();
+        rulePopulationExecutor.shutdown();
     }
 
     /**
@@ -258,6 +258,48 @@ public class EcmpShortestPathGraph {
         return rootDevice;
     }
 
+    /**
+     * Returns whether the graph uses a link between the given Devices, in
+     * either direction.
+     *
+     * @param one one of the Devices
+     * @param two the other Device
+     * @return true if a link between the Devices is part of an ECMP path
+     */
+    public boolean hasLinkBetween(DeviceId one, DeviceId two) {
+        return hasUpstreamLink(one, two) || hasUpstreamLink(two, one);
+    }
+
+    private boolean hasUpstreamLink(DeviceId src, DeviceId dst) {
+        ArrayList<Link> upstreamLinkArray = upstreamLinks.get(dst);
+        if (upstreamLinkArray == null) {
+            return false;
+        }
+        for (Link link : upstreamLinkArray) {
+            if (link.src().deviceId().equals(src)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether the given link, if added to the network, would change
+     * the graph; that is whether it leads from a Device reached by the graph
+     * to a Device not reached yet or reached in as many hops or more.
+     *
+     * @param link the new link
+     * @return true if the graph has to be recomputed to account for the link
+     */
+    public boolean isImprovedBy(Link link) {
+        Integer srcDistance = deviceSearched.get(link.src().deviceId());
+        if (srcDistance == null) {
+            return false;
+        }
+        Integer dstDistance = deviceSearched.get(link.dst().deviceId());
+        return dstDistance == null || dstDistance > srcDistance;
+    }
+
     /**
      * Return the computed ECMP paths from the root Device to a given Device in
      * the network.
@@ -21,6 +21,8 @@ import com.google.common.collect.Multimap;
 import org.apache.felix.scr.annotations.Activate;
 import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.Deactivate;
+import org.apache.felix.scr.annotations.Modified;
+import org.apache.felix.scr.annotations.Property;
 import org.apache.felix.scr.annotations.Reference;
 import org.apache.felix.scr.annotations.ReferenceCardinality;
 import org.apache.felix.scr.annotations.Service;
@@ -31,6 +33,7 @@ import org.onlab.packet.IPv6;
 import org.onlab.packet.IpPrefix;
 import org.onlab.packet.VlanId;
 import org.onlab.util.KryoNamespace;
+import org.onlab.util.Tools;
 import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.core.ApplicationId;
 import org.onosproject.core.CoreService;
@@ -97,9 +100,11 @@ import org.onosproject.store.service.WallClockTimestamp;
 import org.opencord.cordconfig.CordConfigEvent;
 import org.opencord.cordconfig.CordConfigListener;
 import org.opencord.cordconfig.CordConfigService;
+import org.osgi.service.component.ComponentContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Dictionary;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -297,9 +302,16 @@ public class SegmentRoutingManager implements SegmentRoutingService {
      */
     public static final VlanId INTERNAL_VLAN = VlanId.vlanId((short) 4094);
 
+    private static final int DEFAULT_RULE_POPULATION_THREADS = 8;
+    @Property(name = "rulePopulationThreads", intValue = DEFAULT_RULE_POPULATION_THREADS,
+            label = "Number of threads populating routing rules in parallel; default is 8")
+    int rulePopulationThreads = DEFAULT_RULE_POPULATION_THREADS;
+
     @Activate
-    protected void activate() {
+    protected void activate(ComponentContext context) {
         appId = coreService.registerApplication(APP_NAME);
+        compCfgService.registerProperties(getClass());
+        modified(context);
 
         log.debug("Creating EC map nsnextobjectivestore");
         EventuallyConsistentMapBuilder<NeighborSetNextObjectiveStoreKey, Integer>
@@ -411,6 +423,7 @@ public class SegmentRoutingManager implements SegmentRoutingService {
 
     @Deactivate
     protected void deactivate() {
+        compCfgService.unregisterProperties(getClass(), false);
         cfgService.removeListener(cfgListener);
         cfgService.unregisterConfigFactory(deviceConfigFactory);
         cfgService.unregisterConfigFactory(appConfigFactory);
@@ -431,6 +444,9 @@ public class SegmentRoutingManager implements SegmentRoutingService {
         linkListener = null;
         deviceListener = null;
         groupHandlerMap.clear();
+        if (defaultRoutingHandler != null) {
+            defaultRoutingHandler.shutdown();
+        }
 
         nsNextObjStore.destroy();
         vlanNextObjStore.destroy();
@@ -440,6 +456,24 @@ public class SegmentRoutingManager implements SegmentRoutingService {
         log.info("Stopped");
     }
 
+    @Modified
+    protected void modified(ComponentContext context) {
+        Dictionary<?, ?> properties = context.getProperties();
+        int threads = Tools.getIntegerProperty(properties, "rulePopulationThreads",
+                                               DEFAULT_RULE_POPULATION_THREADS);
+        if (threads <= 0) {
+            log.warn("rulePopulationThreads must be positive; ignoring {}", threads);
+            return;
+        }
+        if (threads != rulePopulationThreads) {
+            rulePopulationThreads = threads;
+            if (defaultRoutingHandler != null) {
+                defaultRoutingHandler.setRulePopulationThreads(threads);
+            }
+            log.info("Configured. Rule population threads set to {}", threads);
+        }
+    }
+
     @Override
     public List<Tunnel> getTunnels() {
         return tunnelHandler.getTunnels();
@@ -490,6 +524,11 @@ public class SegmentRoutingManager implements SegmentRoutingService {
         defaultRoutingHandler.startPopulationProcess();
     }
 
+    @Override
+    public ConvergenceStats getLastConvergence() {
+        return defaultRoutingHandler.lastConvergence();
+    }
+
     @Override
     public Map<DeviceId, Set<IpPrefix>> getDeviceSubnetMap() {
         Map<DeviceId, Set<IpPrefix>> deviceSubnetMap = Maps.newHashMap();
@@ -932,7 +971,7 @@ public class SegmentRoutingManager implements SegmentRoutingService {
         }
 
         log.trace("Starting optimized route population process");
-        defaultRoutingHandler.populateRoutingRulesForLinkStatusChange(null);
+        defaultRoutingHandler.populateRoutingRulesForLinkStatusChange(null, link);
         //log.trace("processLinkAdded: re-starting route population process");
         //defaultRoutingHandler.startPopulationProcess();
 
@@ -947,7 +986,7 @@ public class SegmentRoutingManager implements SegmentRoutingService {
                                   mastershipService.isLocalMaster(link.src().deviceId()));
         }
         log.trace("Starting optimized route population process");
-        defaultRoutingHandler.populateRoutingRulesForLinkStatusChange(link);
+        defaultRoutingHandler.populateRoutingRulesForLinkStatusChange(link, null);
         //log.trace("processLinkRemoved: re-starting route population process");
         //defaultRoutingHandler.startPopulationProcess();
 
@@ -1134,6 +1173,9 @@ public class SegmentRoutingManager implements SegmentRoutingService {
             icmpHandler = new IcmpHandler(srManager);
             ipHandler = new IpHandler(srManager);
             routingRulePopulator = new RoutingRulePopulator(srManager);
+            if (defaultRoutingHandler != null) {
+                defaultRoutingHandler.shutdown();
+            }
             defaultRoutingHandler = new DefaultRoutingHandler(srManager);
 
             tunnelHandler = new TunnelHandler(linkService, deviceConfiguration,
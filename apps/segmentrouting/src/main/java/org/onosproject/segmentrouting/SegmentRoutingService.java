@@ -110,6 +110,14 @@ public interface SegmentRoutingService {
      */
     void rerouteNetwork();
 
+    /**
+     * Returns the statistics of the last routing rule population, including
+     * the time it took to compute the routes and to populate their rules.
+     *
+     * @return convergence statistics, or null if no population completed yet
+     */
+    ConvergenceStats getLastConvergence();
+
     /**
      * Returns device-subnet mapping.
      *
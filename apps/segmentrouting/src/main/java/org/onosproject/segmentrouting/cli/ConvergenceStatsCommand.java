@@ -0,0 +1,52 @@
+/*
+ * Copyright 2017-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.segmentrouting.cli;
+
+import org.apache.karaf.shell.commands.Command;
+import org.onosproject.cli.AbstractShellCommand;
+import org.onosproject.segmentrouting.ConvergenceStats;
+import org.onosproject.segmentrouting.SegmentRoutingService;
+
+import java.util.Date;
+
+/**
+ * Command to show the convergence statistics of the last routing rule
+ * population in Segment Routing.
+ */
+@Command(scope = "onos", name = "sr-convergence",
+        description = "Show convergence statistics of the last routing rule population")
+public class ConvergenceStatsCommand extends AbstractShellCommand {
+
+    private static final String FORMAT =
+            "completed=%s, succeeded=%s, convergence=%dms, computation=%dms, " +
+                    "population=%dms, recomputedGraphs=%d, reusedGraphs=%d, rules=%d";
+
+    @Override
+    protected void execute() {
+        SegmentRoutingService srService =
+                AbstractShellCommand.get(SegmentRoutingService.class);
+        ConvergenceStats stats = srService.getLastConvergence();
+        if (stats == null) {
+            print("No routing rule population has completed yet");
+            return;
+        }
+        print(FORMAT, new Date(stats.timestamp()), stats.succeeded(),
+              stats.convergenceMillis(), stats.computationMillis(),
+              stats.populationMillis(), stats.recomputedGraphs(),
+              stats.reusedGraphs(), stats.populatedRules());
+    }
+}
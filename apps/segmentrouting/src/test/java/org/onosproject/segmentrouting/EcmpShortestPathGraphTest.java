@@ -0,0 +1,132 @@
+/*
+ * Copyright 2017-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.segmentrouting;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.SetMultimap;
+import org.junit.Before;
+import org.junit.Test;
+import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.DefaultLink;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.Link;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.link.LinkServiceAdapter;
+import org.onosproject.net.provider.ProviderId;
+
+import java.util.Set;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.onosproject.net.DeviceId.deviceId;
+
+/**
+ * Unit tests for the change detection of ECMP shortest path graphs.
+ */
+public class EcmpShortestPathGraphTest {
+
+    private static final ProviderId PID = new ProviderId("of", "foo");
+
+    private static final DeviceId D1 = deviceId("of:1");
+    private static final DeviceId D2 = deviceId("of:2");
+    private static final DeviceId D3 = deviceId("of:3");
+    private static final DeviceId D4 = deviceId("of:4");
+    private static final DeviceId D5 = deviceId("of:5");
+    private static final DeviceId D6 = deviceId("of:6");
+
+    private final TestLinkService linkService = new TestLinkService();
+    private EcmpShortestPathGraph graph;
+
+    @Before
+    public void setUp() {
+        // D1 reaches D4 through both D2 and D3, and D5 beyond D4;
+        // D2 and D3 are also linked to each other
+        linkService.addBiLink(D1, D2);
+        linkService.addBiLink(D1, D3);
+        linkService.addBiLink(D2, D4);
+        linkService.addBiLink(D3, D4);
+        linkService.addBiLink(D2, D3);
+        linkService.addBiLink(D4, D5);
+
+        SegmentRoutingManager srManager = new SegmentRoutingManager();
+        srManager.linkService = linkService;
+        graph = new EcmpShortestPathGraph(D1, srManager);
+    }
+
+    private static Link link(DeviceId src, DeviceId dst) {
+        return DefaultLink.builder()
+                .providerId(PID)
+                .src(new ConnectPoint(src, PortNumber.portNumber(1)))
+                .dst(new ConnectPoint(dst, PortNumber.portNumber(2)))
+                .type(Link.Type.DIRECT)
+                .build();
+    }
+
+    @Test
+    public void hasLinkBetween() {
+        // links on the shortest paths, in either direction
+        assertTrue(graph.hasLinkBetween(D1, D2));
+        assertTrue(graph.hasLinkBetween(D4, D2));
+        assertTrue(graph.hasLinkBetween(D3, D4));
+        assertTrue(graph.hasLinkBetween(D4, D5));
+
+        // links present but on no shortest path, or absent
+        assertFalse(graph.hasLinkBetween(D2, D3));
+        assertFalse(graph.hasLinkBetween(D1, D4));
+        assertFalse(graph.hasLinkBetween(D5, D6));
+    }
+
+    @Test
+    public void isImprovedBy() {
+        // shortcuts and links to devices not reached yet
+        assertTrue(graph.isImprovedBy(link(D1, D5)));
+        assertTrue(graph.isImprovedBy(link(D2, D5)));
+        assertTrue(graph.isImprovedBy(link(D5, D6)));
+        // another equal cost path
+        assertTrue(graph.isImprovedBy(link(D3, D4)));
+
+        // links between devices at the same distance, backwards, or from
+        // devices not reached
+        assertFalse(graph.isImprovedBy(link(D2, D3)));
+        assertFalse(graph.isImprovedBy(link(D5, D2)));
+        assertFalse(graph.isImprovedBy(link(D6, D1)));
+    }
+
+    @Test
+    public void isAffected() {
+        assertTrue(DefaultRoutingHandler.isAffected(graph, link(D2, D4), null));
+        assertTrue(DefaultRoutingHandler.isAffected(graph, null, link(D1, D5)));
+        assertTrue(DefaultRoutingHandler.isAffected(graph, link(D2, D3), link(D1, D5)));
+
+        assertFalse(DefaultRoutingHandler.isAffected(graph, link(D2, D3), null));
+        assertFalse(DefaultRoutingHandler.isAffected(graph, null, link(D5, D2)));
+        assertFalse(DefaultRoutingHandler.isAffected(graph, null, null));
+    }
+
+    private static class TestLinkService extends LinkServiceAdapter {
+        private final SetMultimap<DeviceId, Link> egressLinks = HashMultimap.create();
+
+        private void addBiLink(DeviceId one, DeviceId two) {
+            egressLinks.put(one, link(one, two));
+            egressLinks.put(two, link(two, one));
+        }
+
+        @Override
+        public Set<Link> getDeviceEgressLinks(DeviceId deviceId) {
+            return egressLinks.get(deviceId);
+        }
+    }
+}
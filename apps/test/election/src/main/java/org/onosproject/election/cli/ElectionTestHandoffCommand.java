@@ -0,0 +1,104 @@
+/*
+ * Copyright 2017-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.election.cli;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.apache.karaf.shell.commands.Argument;
+import org.apache.karaf.shell.commands.Command;
+import org.onosproject.cli.AbstractShellCommand;
+import org.onosproject.cluster.ClusterService;
+import org.onosproject.cluster.LeadershipEvent;
+import org.onosproject.cluster.LeadershipEventListener;
+import org.onosproject.cluster.LeadershipService;
+import org.onosproject.cluster.NodeId;
+
+/**
+ * CLI command to measure how long the test topics led by the local node
+ * take to be handed off to other nodes once the local node withdraws.
+ * <p>
+ * The test topics are entered with election-test-run --topics on every
+ * node. The local node withdraws from its topics one by one, each withdraw
+ * call blocking, so the time reported is withdraw latency: it includes the
+ * sequential withdraw calls, and excludes the detection of a failed node,
+ * which precedes the reassignment of its topics on an actual node failure.
+ * </p>
+ */
+@Command(scope = "onos", name = "election-test-handoff",
+        description = "Withdraw from the test topics led by the local node and time their handoff")
+public class ElectionTestHandoffCommand extends AbstractShellCommand {
+
+    private static final String ELECTION_APP = "org.onosproject.election";
+
+    @Argument(index = 0, name = "timeout",
+            description = "Seconds to wait for the handoff to complete",
+            required = false, multiValued = false)
+    private int timeout = 60;
+
+    @Override
+    protected void execute() {
+        LeadershipService service = get(LeadershipService.class);
+        NodeId localNodeId = get(ClusterService.class).getLocalNode().id();
+
+        Set<String> topics = service.ownedTopics(localNodeId).stream()
+                .filter(topic -> topic.startsWith(ELECTION_APP + "-"))
+                .collect(Collectors.toSet());
+        if (topics.isEmpty()) {
+            print("The local node leads no test topics.");
+            return;
+        }
+
+        Set<String> pending = ConcurrentHashMap.newKeySet();
+        pending.addAll(topics);
+        CountDownLatch latch = new CountDownLatch(topics.size());
+        LeadershipEventListener listener = new LeadershipEventListener() {
+            @Override
+            public boolean isRelevant(LeadershipEvent event) {
+                NodeId leader = event.subject().leaderNodeId();
+                return leader != null && !leader.equals(localNodeId);
+            }
+
+            @Override
+            public void event(LeadershipEvent event) {
+                if (pending.remove(event.subject().topic())) {
+                    latch.countDown();
+                }
+            }
+        };
+
+        service.addListener(listener);
+        try {
+            long start = System.nanoTime();
+            topics.forEach(service::withdraw);
+            boolean completed = latch.await(timeout, TimeUnit.SECONDS);
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            if (completed) {
+                print("Handed off %d topics in %d ms.", topics.size(), elapsed);
+            } else {
+                print("Handed off only %d of %d topics in %d ms.",
+                      topics.size() - pending.size(), topics.size(), elapsed);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            service.removeListener(listener);
+        }
+    }
+}
@@ -16,6 +16,7 @@
 package org.onosproject.election.cli;
 
 import org.apache.karaf.shell.commands.Command;
+import org.apache.karaf.shell.commands.Option;
 import org.onosproject.cli.AbstractShellCommand;
 import org.onosproject.cluster.LeadershipService;
 
@@ -28,12 +29,23 @@ public class ElectionTestRunCommand extends AbstractShellCommand {
 
     private static final String ELECTION_APP = "org.onosproject.election";
 
+    @Option(name = "-t", aliases = "--topics",
+            description = "Number of additional test topics to run for, as used by election-test-handoff",
+            required = false, multiValued = false)
+    private int topics = 0;
+
     @Override
     protected void execute() {
         LeadershipService service = get(LeadershipService.class);
 
         service.runForLeadership(ELECTION_APP);
+        for (int i = 0; i < topics; i++) {
+            service.runForLeadership(ELECTION_APP + "-" + i);
+        }
         //print the current leader
         print("Entering leadership elections for the Election app.");
+        if (topics > 0) {
+            print("Entering leadership elections for %d test topics.", topics);
+        }
     }
 }
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2017-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.yms.app.utils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Cache of the declared members of the generated YANG classes, looked up
+ * by name for every node of every request. Each member is looked up through
+ * reflection once per class; the members of the classes of an application
+ * are dropped along with the classes when the application goes away.
+ */
+public final class ReflectionCache {
+
+    private static final ClassValue<DeclaredMembers> MEMBERS =
+            new ClassValue<DeclaredMembers>() {
+                @Override
+                protected DeclaredMembers computeValue(Class<?> type) {
+                    return new DeclaredMembers(type);
+                }
+            };
+
+    // Declared members of a class, including the ones found missing
+    private static final class DeclaredMembers {
+        private final Class<?> type;
+        private final ConcurrentMap<List<Object>, Optional<Method>> methods =
+                new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, Optional<Field>> fields =
+                new ConcurrentHashMap<>();
+        private volatile Class<?>[] classes;
+
+        private DeclaredMembers(Class<?> type) {
+            this.type = type;
+        }
+    }
+
+    // Prevent instantiation
+    private ReflectionCache() {
+    }
+
+    /**
+     * Returns the method declared by the given class with the given name
+     * and parameter types.
+     *
+     * @param type           class declaring the method
+     * @param name           method name
+     * @param parameterTypes method parameter types
+     * @return declared method
+     * @throws NoSuchMethodException if the class declares no such method
+     */
+    public static Method getDeclaredMethod(Class<?> type, String name,
+                                           Class<?>... parameterTypes)
+            throws NoSuchMethodException {
+        Class<?>[] types = parameterTypes == null ? new Class<?>[0] : parameterTypes;
+        Object[] key = new Object[types.length + 1];
+        key[0] = name;
+        System.arraycopy(types, 0, key, 1, types.length);
+
+        Optional<Method> method = MEMBERS.get(type).methods
+                .computeIfAbsent(Arrays.asList(key), k -> {
+                    try {
+                        return Optional.of(type.getDeclaredMethod(name, types));
+                    } catch (NoSuchMethodException e) {
+                        return Optional.empty();
+                    }
+                });
+        if (!method.isPresent()) {
+            throw new NoSuchMethodException(type.getName() + "." + name);
+        }
+        return method.get();
+    }
+
+    /**
+     * Returns the field declared by the given class with the given name.
+     *
+     * @param type class declaring the field
+     * @param name field name
+     * @return declared field
+     * @throws NoSuchFieldException if the class declares no such field
+     */
+    public static Field getDeclaredField(Class<?> type, String name)
+            throws NoSuchFieldException {
+        Optional<Field> field = MEMBERS.get(type).fields
+                .computeIfAbsent(name, k -> {
+                    try {
+                        return Optional.of(type.getDeclaredField(name));
+                    } catch (NoSuchFieldException e) {
+                        return Optional.empty();
+                    }
+                });
+        if (!field.isPresent()) {
+            throw new NoSuchFieldException(name);
+        }
+        return field.get();
+    }
+
+    /**
+     * Returns the classes declared as members of the given class.
+     *
+     * @param type declaring class
+     * @return declared classes
+     */
+    public static Class<?>[] getDeclaredClasses(Class<?> type) {
+        DeclaredMembers members = MEMBERS.get(type);
+        Class<?>[] classes = members.classes;
+        if (classes == null) {
+            classes = members.type.getDeclaredClasses();
+            members.classes = classes;
+        }
+        return classes.clone();
+    }
+}
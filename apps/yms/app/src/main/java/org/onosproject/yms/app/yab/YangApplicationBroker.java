@@ -46,6 +46,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
 
+import static org.onosproject.yms.app.utils.ReflectionCache.getDeclaredMethod;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static org.onosproject.yms.app.utils.TraversalType.CHILD;
 import static org.onosproject.yms.app.utils.TraversalType.PARENT;
@@ -809,8 +810,8 @@ public class YangApplicationBroker {
         checkNotNull(appManagerObject);
         Class<?> appClass = appManagerObject.getClass();
         try {
-            Method methodObject = appClass.getDeclaredMethod(methodName,
-                                                             inputObject.getClass());
+            Method methodObject = getDeclaredMethod(appClass, methodName,
+                                                    inputObject.getClass());
             if (methodObject != null) {
                 return methodObject.invoke(appManagerObject, inputObject);
             }
@@ -838,13 +839,13 @@ public class YangApplicationBroker {
         Method methodObject = null;
         try {
             if (inputObject == null) {
-                methodObject = appObject.getClass()
-                        .getDeclaredMethod(yangNode.getJavaClassNameOrBuiltInType(),
-                                           null);
+                methodObject = getDeclaredMethod(appObject.getClass(),
+                                                 yangNode.getJavaClassNameOrBuiltInType(),
+                                                 null);
             } else {
-                methodObject = appObject.getClass()
-                        .getDeclaredMethod(yangNode.getJavaClassNameOrBuiltInType(),
-                                           inputObject.getClass().getInterfaces());
+                methodObject = getDeclaredMethod(appObject.getClass(),
+                                                 yangNode.getJavaClassNameOrBuiltInType(),
+                                                 inputObject.getClass().getInterfaces());
             }
             if (methodObject != null) {
                 return methodObject.getReturnType().getSimpleName();
@@ -872,15 +873,15 @@ public class YangApplicationBroker {
         try {
             Method methodObject;
             if (inputParamObject == null) {
-                methodObject = appClass.getDeclaredMethod(methodName, null);
+                methodObject = getDeclaredMethod(appClass, methodName, null);
                 if (methodObject != null) {
                     return methodObject.invoke(appManagerObject);
                 }
             } else {
-                methodObject = appClass.getDeclaredMethod(methodName,
-                                                          inputParamObject
-                                                                  .getClass()
-                                                                  .getInterfaces());
+                methodObject = getDeclaredMethod(appClass, methodName,
+                                                 inputParamObject
+                                                         .getClass()
+                                                         .getInterfaces());
                 if (methodObject != null) {
                     return methodObject.invoke(appManagerObject, inputParamObject);
                 }
@@ -20,6 +20,7 @@ import org.onosproject.yms.app.yob.exception.YobException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import static org.onosproject.yms.app.utils.ReflectionCache.getDeclaredClasses;
 import static org.onosproject.yms.app.yob.YobConstants.E_BUILDER_IS_NOT_ALREADY_SET;
 import static org.onosproject.yms.app.yob.YobConstants.E_BUILDER_IS_NOT_SET;
 import static org.onosproject.yms.app.yob.YobConstants.E_BUILT_OBJ_IS_NOT_SET;
@@ -74,7 +75,7 @@ class YobBuilderOrBuiltObject {
         try {
             yangDefaultClass =
                     registeredAppClassLoader.loadClass(qualifiedClassName);
-            yangBuilderClass = yangDefaultClass.getDeclaredClasses()[0];
+            yangBuilderClass = getDeclaredClasses(yangDefaultClass)[0];
             setBuilderObject(yangBuilderClass.newInstance());
         } catch (ClassNotFoundException e) {
             log.error(L_FAIL_TO_LOAD_CLASS, qualifiedClassName);
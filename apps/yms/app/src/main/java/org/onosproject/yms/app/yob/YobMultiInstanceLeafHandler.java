@@ -33,6 +33,8 @@ import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.util.Set;
 
+import static org.onosproject.yms.app.utils.ReflectionCache.getDeclaredField;
+import static org.onosproject.yms.app.utils.ReflectionCache.getDeclaredMethod;
 import static org.onosproject.yangutils.datamodel.utils.builtindatatype.YangDataTypes.IDENTITYREF;
 import static org.onosproject.yangutils.utils.io.impl.YangIoUtils.getCapitalCase;
 import static org.onosproject.yms.app.ydt.AppType.YOB;
@@ -91,8 +93,8 @@ class YobMultiInstanceLeafHandler
                 Object builderObject = parentYobWorkBench
                         .getParentBuilder(leafListNode, schemaRegistry);
                 parentBuilderClass = builderObject.getClass();
-                Field leafName = parentBuilderClass
-                        .getDeclaredField(setterInParent);
+                Field leafName = getDeclaredField(parentBuilderClass,
+                                                  setterInParent);
                 ParameterizedType genericListType =
                         (ParameterizedType) leafName.getGenericType();
                 Class<?> genericListClass;
@@ -105,7 +107,7 @@ class YobMultiInstanceLeafHandler
                     genericListClass = (Class<?>) genericListType.getActualTypeArguments()[0];
                 }
 
-                Method setterMethod = parentBuilderClass.getDeclaredMethod(
+                Method setterMethod = getDeclaredMethod(parentBuilderClass,
                         ADD_TO + getCapitalCase(setterInParent), genericListClass);
 
                 JavaQualifiedTypeInfoContainer javaQualifiedType =
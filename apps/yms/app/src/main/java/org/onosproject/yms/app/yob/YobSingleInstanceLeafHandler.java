@@ -30,6 +30,8 @@ import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
+import static org.onosproject.yms.app.utils.ReflectionCache.getDeclaredField;
+import static org.onosproject.yms.app.utils.ReflectionCache.getDeclaredMethod;
 import static org.onosproject.yms.app.ydt.AppType.YOB;
 import static org.onosproject.yms.app.yob.YobConstants.E_FAIL_TO_INVOKE_METHOD;
 import static org.onosproject.yms.app.yob.YobConstants.L_FAIL_TO_INVOKE_METHOD;
@@ -83,9 +85,9 @@ class YobSingleInstanceLeafHandler extends YobHandler {
             builderClass = builderObject.getClass();
             if (leafNode.getValue() != null || ((YangLeaf) schemaNode)
                     .getDataType().getDataType() == YangDataTypes.EMPTY) {
-                Field leafName = builderClass.getDeclaredField(setterInParent);
-                Method setterMethod = builderClass
-                        .getDeclaredMethod(setterInParent, leafName.getType());
+                Field leafName = getDeclaredField(builderClass, setterInParent);
+                Method setterMethod = getDeclaredMethod(builderClass,
+                                                        setterInParent, leafName.getType());
                 YangType<?> yangType = ((YangLeaf) schemaNode).getDataType();
                 YobUtils.setDataFromStringValue(yangType.getDataType(), leafNode
                                                         .getValue(),
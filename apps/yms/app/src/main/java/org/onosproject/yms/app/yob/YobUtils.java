@@ -42,6 +42,8 @@ import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.Base64;
 
+import static org.onosproject.yms.app.utils.ReflectionCache.getDeclaredField;
+import static org.onosproject.yms.app.utils.ReflectionCache.getDeclaredMethod;
 import static org.onosproject.yangutils.datamodel.YangSchemaNodeType.YANG_AUGMENT_NODE;
 import static org.onosproject.yangutils.translator.tojava.utils.JavaIdentifierSyntax.getEnumJavaAttribute;
 import static org.onosproject.yms.app.ydt.AppType.YOB;
@@ -241,13 +243,13 @@ public final class YobUtils {
         Class<?>[] innerClasses = interfaceClass.getClasses();
         for (Class<?> innerEnumClass : innerClasses) {
             if (innerEnumClass.getSimpleName().equals(LEAF_IDENTIFIER)) {
-                Method valueOfMethod = innerEnumClass
-                        .getDeclaredMethod(VALUE_OF, String.class);
+                Method valueOfMethod = getDeclaredMethod(innerEnumClass,
+                                                         VALUE_OF, String.class);
                 String leafName = leafNode.getYangSchemaNode()
                         .getJavaAttributeName().toUpperCase();
                 Object obj = valueOfMethod.invoke(null, leafName);
-                Method selectLeafMethod = builderClass
-                        .getDeclaredMethod(SELECT_LEAF, innerEnumClass);
+                Method selectLeafMethod = getDeclaredMethod(builderClass,
+                                                            SELECT_LEAF, innerEnumClass);
                 selectLeafMethod.invoke(builderObject, obj);
                 break;
             }
@@ -311,12 +313,12 @@ public final class YobUtils {
                 log.error(E_FAIL_TO_LOAD_CONSTRUCTOR, qualifiedClassName);
             }
             if (childSetClass != null) {
-                childMethod = childSetClass
-                        .getDeclaredMethod(FROM_STRING, String.class);
+                childMethod = getDeclaredMethod(childSetClass,
+                                                FROM_STRING, String.class);
             }
         } else {
             if (childSetClass != null) {
-                childMethod = childSetClass.getDeclaredMethod(OF, String.class);
+                childMethod = getDeclaredMethod(childSetClass, OF, String.class);
             }
         }
         if (childMethod != null) {
@@ -370,7 +372,8 @@ public final class YobUtils {
         }
 
         if (childSetClass != null) {
-            childMethod = childSetClass.getDeclaredMethod(FROM_STRING, String.class);
+            childMethod = getDeclaredMethod(childSetClass,
+                                            FROM_STRING, String.class);
         }
         if (childMethod != null) {
             childValue = childMethod.invoke(childObject, leafValue);
@@ -634,8 +637,8 @@ public final class YobUtils {
         }
 
         if (childSetClass != null) {
-            childMethod = childSetClass
-                    .getDeclaredMethod(FROM_STRING, String.class);
+            childMethod = getDeclaredMethod(childSetClass,
+                                            FROM_STRING, String.class);
         }
 
         if (childMethod != null) {
@@ -707,13 +710,13 @@ public final class YobUtils {
 
         try {
             Class<?> type = null;
-            Field fieldName = eventSubjectClass.getDeclaredField(setter);
+            Field fieldName = getDeclaredField(eventSubjectClass, setter);
             if (fieldName != null) {
                 type = fieldName.getType();
             }
 
             Method method;
-            method = eventSubjectClass.getDeclaredMethod(setter, type);
+            method = getDeclaredMethod(eventSubjectClass, setter, type);
             method.invoke(eventSubObj, defaultObj);
         } catch (NoSuchFieldException e) {
             log.error(L_FAIL_TO_GET_FIELD, className);
@@ -754,8 +757,8 @@ public final class YobUtils {
             Object typeObj = null;
             for (Class<?> innerEnumClass : innerClasses) {
                 if (innerEnumClass.getSimpleName().equals(TYPE)) {
-                    Method valueOfMethod = innerEnumClass
-                            .getDeclaredMethod(VALUE_OF, String.class);
+                    Method valueOfMethod = getDeclaredMethod(innerEnumClass,
+                                                             VALUE_OF, String.class);
                     String eventType = getEnumJavaAttribute(childSchema.getName())
                             .toUpperCase();
                     typeObj = valueOfMethod.invoke(null, eventType);
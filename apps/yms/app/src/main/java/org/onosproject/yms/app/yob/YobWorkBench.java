@@ -35,6 +35,8 @@ import java.lang.reflect.ParameterizedType;
 import java.util.HashMap;
 import java.util.Map;
 
+import static org.onosproject.yms.app.utils.ReflectionCache.getDeclaredField;
+import static org.onosproject.yms.app.utils.ReflectionCache.getDeclaredMethod;
 import static org.onosproject.yangutils.datamodel.YangSchemaNodeType.YANG_AUGMENT_NODE;
 import static org.onosproject.yangutils.datamodel.YangSchemaNodeType.YANG_CHOICE_NODE;
 import static org.onosproject.yms.app.ydt.AppType.YOB;
@@ -129,7 +131,7 @@ class YobWorkBench {
         String builderClassName = builderClass.getName();
         try {
             Class<?> type = null;
-            Field fieldName = builderClass.getDeclaredField(setter);
+            Field fieldName = getDeclaredField(builderClass, setter);
             if (fieldName != null) {
                 type = fieldName.getType();
             }
@@ -141,10 +143,10 @@ class YobWorkBench {
                             (ParameterizedType) fieldName.getGenericType();
                     type = (Class<?>) genericTypes.getActualTypeArguments()[0];
                 }
-                method = builderClass.getDeclaredMethod(
+                method = getDeclaredMethod(builderClass,
                         ADD_TO + getCapitalCase(setter), type);
             } else {
-                method = builderClass.getDeclaredMethod(setter, type);
+                method = getDeclaredMethod(builderClass, setter, type);
             }
 
             method.invoke(builder, attribute);
@@ -181,9 +183,9 @@ class YobWorkBench {
         String builderClassName = builderClass.getName();
         try {
 
-            Method method = builderClass.getDeclaredMethod(ADD_AUGMENT_METHOD,
-                                                           Object.class,
-                                                           Class.class);
+            Method method = getDeclaredMethod(builderClass, ADD_AUGMENT_METHOD,
+                                              Object.class,
+                                              Class.class);
             method.invoke(builder, instance, interfaces[i]);
         } catch (NoSuchMethodException e) {
             log.error(L_FAIL_TO_GET_METHOD, builderClassName);
@@ -340,7 +342,7 @@ class YobWorkBench {
 
         // Invoking the build method to get built object from build method.
         try {
-            Method method = defaultBuilderClass.getDeclaredMethod(BUILD);
+            Method method = getDeclaredMethod(defaultBuilderClass, BUILD);
             if (method == null) {
                 log.error(L_FAIL_TO_GET_METHOD, defaultBuilderClass.getName());
                 throw new YobException(E_FAIL_TO_GET_METHOD +
@@ -392,12 +394,12 @@ class YobWorkBench {
             Class<?>[] innerClasses = interfaceClass.getClasses();
             for (Class<?> innerEnumClass : innerClasses) {
                 if (innerEnumClass.getSimpleName().equals(ONOS_YANG_OP_TYPE)) {
-                    Method valueOfMethod = innerEnumClass
-                            .getDeclaredMethod(VALUE_OF, String.class);
+                    Method valueOfMethod = getDeclaredMethod(innerEnumClass,
+                                                             VALUE_OF, String.class);
                     operationType = valueOfMethod.invoke(null, ydtoperation.
                             toString());
-                    Field operationTypeField = defaultBuilderClass
-                            .getDeclaredField(setterName);
+                    Field operationTypeField = getDeclaredField(defaultBuilderClass,
+                                                                setterName);
                     operationTypeField.setAccessible(true);
                     operationTypeField.set(builderObject, operationType);
                     break;
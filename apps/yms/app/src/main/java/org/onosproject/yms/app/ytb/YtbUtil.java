@@ -41,6 +41,7 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
 
+import static org.onosproject.yms.app.utils.ReflectionCache.getDeclaredMethod;
 import static org.onosproject.yangutils.datamodel.YangSchemaNodeType.YANG_AUGMENT_NODE;
 import static org.onosproject.yangutils.datamodel.YangSchemaNodeType.YANG_MULTI_INSTANCE_NODE;
 import static org.onosproject.yangutils.datamodel.utils.builtindatatype.YangDataTypes.BOOLEAN;
@@ -120,7 +121,7 @@ public final class YtbUtil {
         Class<?> nodeClass = nodeObj.getClass();
         Method getterMethod;
         try {
-            getterMethod = nodeClass.getDeclaredMethod(fieldName);
+            getterMethod = getDeclaredMethod(nodeClass, fieldName);
             return getterMethod.invoke(nodeObj);
         } catch (InvocationTargetException | IllegalAccessException e) {
             throw new YtbException(e);
@@ -140,7 +141,7 @@ public final class YtbUtil {
         Class<?> parentClass = childClass.getClass().getSuperclass();
         Method getterMethod;
         try {
-            getterMethod = parentClass.getDeclaredMethod(methodName);
+            getterMethod = getDeclaredMethod(parentClass, methodName);
             return getterMethod.invoke(childClass);
         } catch (InvocationTargetException | NoSuchMethodException |
                 IllegalAccessException e) {
@@ -344,7 +345,7 @@ public final class YtbUtil {
         Class<?> bitClass;
         try {
             bitClass = classLoader.loadClass(pkgName);
-            Method getterMethod = bitClass.getDeclaredMethod(
+            Method getterMethod = getDeclaredMethod(bitClass,
                     TO_STRING, fieldObj.getClass());
             return String.valueOf(getterMethod.invoke(null, fieldObj));
         } catch (ClassNotFoundException | NoSuchMethodException |
@@ -374,7 +375,7 @@ public final class YtbUtil {
         Class<?> idClass;
         try {
             idClass = classLoader.loadClass(idPkg);
-            Method method = idClass.getDeclaredMethod(methodName, null);
+            Method method = getDeclaredMethod(idClass, methodName, null);
             return String.valueOf(method.invoke(fieldObj, null)).trim();
         } catch (ClassNotFoundException | NoSuchMethodException |
                 InvocationTargetException | IllegalAccessException e) {
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2017-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.yms.app.utils;
+
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.onosproject.yms.app.utils.ReflectionCache.getDeclaredClasses;
+import static org.onosproject.yms.app.utils.ReflectionCache.getDeclaredField;
+import static org.onosproject.yms.app.utils.ReflectionCache.getDeclaredMethod;
+
+/**
+ * Unit tests for the cache of declared members.
+ */
+public class ReflectionCacheTest {
+
+    /**
+     * Checks that declared methods are looked up once and then reused.
+     */
+    @Test
+    public void testDeclaredMethod() throws Exception {
+        Method method = getDeclaredMethod(Sample.class, "name", String.class);
+        assertEquals("name", method.getName());
+        assertSame(method, getDeclaredMethod(Sample.class, "name", String.class));
+        assertEquals(0, getDeclaredMethod(Sample.class, "build").getParameterCount());
+        assertEquals(0, getDeclaredMethod(Sample.class, "build", null).getParameterCount());
+    }
+
+    /**
+     * Checks that overloaded methods are told apart by their parameters.
+     */
+    @Test
+    public void testOverloadedMethod() throws Exception {
+        Method byString = getDeclaredMethod(Sample.class, "name", String.class);
+        Method byInt = getDeclaredMethod(Sample.class, "name", int.class);
+        assertEquals(String.class, byString.getParameterTypes()[0]);
+        assertEquals(int.class, byInt.getParameterTypes()[0]);
+    }
+
+    /**
+     * Checks that missing methods keep being reported as missing.
+     */
+    @Test
+    public void testMissingMethod() {
+        for (int i = 0; i < 2; i++) {
+            try {
+                getDeclaredMethod(Sample.class, "name", long.class);
+                throw new AssertionError("missing method found");
+            } catch (NoSuchMethodException e) {
+                // expected
+            }
+        }
+    }
+
+    /**
+     * Checks that declared fields and classes are returned.
+     */
+    @Test
+    public void testDeclaredFieldAndClasses() throws Exception {
+        assertSame(getDeclaredField(Sample.class, "name"),
+                   getDeclaredField(Sample.class, "name"));
+        assertEquals(String.class, getDeclaredField(Sample.class, "name").getType());
+        assertEquals(Sample.Builder.class, getDeclaredClasses(Sample.class)[0]);
+    }
+
+    @Test(expected = NoSuchFieldException.class)
+    public void testMissingField() throws Exception {
+        getDeclaredField(Sample.class, "value");
+    }
+
+    private static class Sample {
+        private String name;
+
+        void name(String name) {
+            this.name = name;
+        }
+
+        void name(int name) {
+            this.name = String.valueOf(name);
+        }
+
+        Sample build() {
+            return this;
+        }
+
+        static class Builder {
+        }
+    }
+}
@@ -15,11 +15,17 @@
  */
 package org.onosproject.net.statistic;
 
+import com.google.common.collect.ImmutableSet;
 import org.onosproject.net.ConnectPoint;
 import org.onosproject.net.flow.FlowEntry;
 import org.onosproject.net.flow.FlowRule;
 
+import java.util.Comparator;
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.google.common.base.MoreObjects.firstNonNull;
 
 /**
  * Store to house the computed statistics.
@@ -62,4 +68,48 @@ public interface StatisticStore {
      * @return set of current values
      */
     Set<FlowEntry> getPreviousStatistic(ConnectPoint connectPoint);
+
+    /**
+     * Fetches the load of the port, aggregated over the current and previous
+     * observed stats values.
+     *
+     * @param connectPoint the port to fetch information for
+     * @return load of the port; invalid if either value is not observed yet
+     */
+    default Load getLoad(ConnectPoint connectPoint) {
+        Set<FlowEntry> current = firstNonNull(getCurrentStatistic(connectPoint), ImmutableSet.of());
+        Set<FlowEntry> previous = firstNonNull(getPreviousStatistic(connectPoint), ImmutableSet.of());
+        if (current.isEmpty() || previous.isEmpty()) {
+            return new DefaultLoad();
+        }
+        return new DefaultLoad(current.stream().mapToLong(FlowEntry::bytes).sum(),
+                               previous.stream().mapToLong(FlowEntry::bytes).sum());
+    }
+
+    /**
+     * Fetches the current observed stats value with the most bytes.
+     *
+     * @param connectPoint the port to fetch information for
+     * @return flow entry with the most bytes; null if none is observed
+     */
+    default FlowEntry getHighestHitter(ConnectPoint connectPoint) {
+        Set<FlowEntry> current = firstNonNull(getCurrentStatistic(connectPoint), ImmutableSet.of());
+        return current.stream().max(Comparator.comparingLong(FlowEntry::bytes)).orElse(null);
+    }
+
+    /**
+     * Fetches the current observed stats values with the most bytes.
+     *
+     * @param connectPoint the port to fetch information for
+     * @param count        maximum number of values to fetch
+     * @return flow entries in decreasing order of bytes; stores may bound
+     * the number of values they keep below count
+     */
+    default List<FlowEntry> getHighestHitters(ConnectPoint connectPoint, int count) {
+        Set<FlowEntry> current = firstNonNull(getCurrentStatistic(connectPoint), ImmutableSet.of());
+        return current.stream()
+                .sorted(Comparator.comparingLong(FlowEntry::bytes).reversed())
+                .limit(count)
+                .collect(Collectors.toList());
+    }
 }
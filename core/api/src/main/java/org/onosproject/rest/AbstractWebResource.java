@@ -23,6 +23,8 @@ import org.onosproject.codec.CodecContext;
 import org.onosproject.codec.CodecService;
 import org.onosproject.codec.JsonCodec;
 
+import java.util.function.Function;
+
 /**
  * Abstract REST resource.
  */
@@ -63,6 +65,25 @@ public class AbstractWebResource extends BaseResource implements CodecContext {
         return result;
     }
 
+    /**
+     * Returns a response entity which streams the JSON object wrapping the
+     * array encoding of the specified items, without building the whole
+     * JSON tree in memory.
+     *
+     * @param codecClass  codec item class
+     * @param field       field holding the array
+     * @param items       items to be encoded into array
+     * @param keyFunction function giving the unique key of an item, by which
+     *                    the items are paged
+     * @param <T>         item type
+     * @return streaming JSON response entity
+     */
+    protected <T> JsonArrayStream<T> streamArray(Class<T> codecClass, String field,
+                                                 Iterable<T> items,
+                                                 Function<T, String> keyFunction) {
+        return new JsonArrayStream<>(this, codec(codecClass), field, items, keyFunction);
+    }
+
     @Override
     public <T> T getService(Class<T> serviceClass) {
         return get(serviceClass);
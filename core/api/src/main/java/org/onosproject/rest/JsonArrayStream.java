@@ -0,0 +1,298 @@
+/*
+ * Copyright 2017-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.rest;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.base.Splitter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableSet;
+import org.onosproject.codec.CodecContext;
+import org.onosproject.codec.JsonCodec;
+
+import javax.ws.rs.core.StreamingOutput;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Response entity which streams a JSON object holding an array of entities
+ * encoded by their codec.
+ * <p>
+ * The array can be limited to a page of the entities and the entities to a
+ * subset of their top-level fields. Pages hold the entities in the order of
+ * their keys; when entities remain beyond the current page, a cursor
+ * designating its last entity is written in the {@value #NEXT_CURSOR} field
+ * of the object, and the next page holds the entities with greater keys.
+ * </p>
+ * <p>
+ * The first page of a paged collection sorts the entities once and keeps
+ * them, for a minute after last use, as a snapshot from which the following
+ * pages are cut without walking the collection again. Those pages hence
+ * reflect the collection as it was when the first page was requested. Once
+ * the snapshot is gone, the next page is taken afresh from the entities with
+ * keys greater than the cursor; entities present throughout the paging are
+ * thus neither skipped nor repeated, however the collection changes between
+ * pages. A cursor is only meant to be passed back to the request which
+ * returned it.
+ * </p>
+ * <p>
+ * The entities of a page are all encoded before anything is written, so
+ * that a codec failure fails the request instead of truncating the response.
+ * </p>
+ *
+ * @param <T> entity type
+ */
+public final class JsonArrayStream<T> implements StreamingOutput {
+
+    /**
+     * Name of the field carrying the cursor of the next page.
+     */
+    public static final String NEXT_CURSOR = "nextCursor";
+
+    private static final String INVALID_LIMIT = "Limit must be positive";
+
+    private static final char CURSOR_SEPARATOR = '.';
+    private static final long MAX_SNAPSHOT_ENTITIES = 1_000_000;
+    private static final long SNAPSHOT_EXPIRY_MINUTES = 1;
+
+    // Sorted entities of the collections being paged, by snapshot identifier
+    private static final Cache<Long, Snapshot> SNAPSHOTS = CacheBuilder.newBuilder()
+            .maximumWeight(MAX_SNAPSHOT_ENTITIES)
+            .weigher((Long id, Snapshot snapshot) -> snapshot.entities.size())
+            .expireAfterAccess(SNAPSHOT_EXPIRY_MINUTES, TimeUnit.MINUTES)
+            .build();
+    private static final AtomicLong SNAPSHOT_IDS = new AtomicLong();
+
+    private final CodecContext context;
+    private final JsonCodec<T> codec;
+    private final String field;
+    private final Iterable<T> items;
+    private final Function<T, String> keyFunction;
+
+    private Long snapshotId = null;
+    private String cursor = null;
+    private int limit = Integer.MAX_VALUE;
+    private Set<String> fields = ImmutableSet.of();
+
+    /**
+     * Creates a new stream of the given items.
+     *
+     * @param context     codec context
+     * @param codec       codec for the items
+     * @param field       field holding the array
+     * @param items       items to be encoded; iterated only when the
+     *                    response is written
+     * @param keyFunction function giving the unique key of an item, by which
+     *                    the items are paged
+     */
+    public JsonArrayStream(CodecContext context, JsonCodec<T> codec,
+                           String field, Iterable<T> items,
+                           Function<T, String> keyFunction) {
+        this.context = checkNotNull(context);
+        this.codec = checkNotNull(codec);
+        this.field = checkNotNull(field);
+        this.items = checkNotNull(items);
+        this.keyFunction = checkNotNull(keyFunction);
+    }
+
+    /**
+     * Starts the array after the entity designated by the given cursor.
+     *
+     * @param cursor cursor returned with a previous page; null for the
+     *               first page
+     * @return this stream
+     */
+    public JsonArrayStream<T> cursor(String cursor) {
+        this.snapshotId = null;
+        this.cursor = cursor == null || cursor.isEmpty() ? null : cursor;
+        int separator = this.cursor == null ? -1 : cursor.indexOf(CURSOR_SEPARATOR);
+        if (separator > 0) {
+            try {
+                this.snapshotId = Long.parseLong(cursor.substring(0, separator));
+                this.cursor = cursor.substring(separator + 1);
+            } catch (NumberFormatException e) {
+                // Not a snapshot cursor; taken as a plain key
+                this.snapshotId = null;
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Limits the number of entities written in one page.
+     *
+     * @param limit maximum number of entities; null for no limit
+     * @return this stream
+     * @throws IllegalArgumentException if the limit is not positive
+     */
+    public JsonArrayStream<T> limit(Integer limit) {
+        if (limit == null) {
+            this.limit = Integer.MAX_VALUE;
+            return this;
+        }
+        checkArgument(limit > 0, INVALID_LIMIT);
+        this.limit = limit;
+        return this;
+    }
+
+    /**
+     * Restricts the encoded entities to the given top-level fields.
+     *
+     * @param fields comma separated field names; null or empty for all fields
+     * @return this stream
+     */
+    public JsonArrayStream<T> fields(String fields) {
+        if (fields == null || fields.isEmpty()) {
+            this.fields = ImmutableSet.of();
+        } else {
+            this.fields = ImmutableSet.copyOf(
+                    Splitter.on(',').trimResults().omitEmptyStrings().split(fields));
+        }
+        return this;
+    }
+
+    @Override
+    public void write(OutputStream output) throws IOException {
+        Page<T> page = page();
+        List<ObjectNode> nodes = new ArrayList<>(page.items.size());
+        for (T item : page.items) {
+            nodes.add(encode(item));
+        }
+
+        JsonGenerator generator = context.mapper().getFactory().createGenerator(output);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        generator.writeStartObject();
+        generator.writeArrayFieldStart(field);
+        for (ObjectNode node : nodes) {
+            context.mapper().writeTree(generator, node);
+        }
+        generator.writeEndArray();
+
+        if (page.nextCursor != null) {
+            generator.writeStringField(NEXT_CURSOR, page.nextCursor);
+        }
+        generator.writeEndObject();
+        generator.close();
+    }
+
+    // Returns the entities after the cursor, up to the limit.
+    private Page<T> page() {
+        NavigableMap<String, T> snapshot = snapshot();
+        if (snapshot != null) {
+            return page(snapshot.tailMap(cursor, false), snapshotId);
+        }
+
+        if (limit == Integer.MAX_VALUE) {
+            List<T> page = new ArrayList<>();
+            for (T item : items) {
+                if (isAfterCursor(item)) {
+                    page.add(item);
+                }
+            }
+            return new Page<>(page, null);
+        }
+
+        NavigableMap<String, T> entities = new TreeMap<>();
+        for (T item : items) {
+            if (isAfterCursor(item)) {
+                entities.put(keyFunction.apply(item), item);
+            }
+        }
+        if (entities.size() <= limit) {
+            return new Page<>(new ArrayList<>(entities.values()), null);
+        }
+        long id = SNAPSHOT_IDS.incrementAndGet();
+        SNAPSHOTS.put(id, new Snapshot(field, codec.getClass(), entities));
+        return page(entities, id);
+    }
+
+    // Returns the first entities of the given sorted ones, up to the limit,
+    // with the cursor of the next page within the given snapshot.
+    private Page<T> page(NavigableMap<String, T> entities, long id) {
+        List<T> page = new ArrayList<>(Math.min(limit, entities.size()));
+        String last = null;
+        for (Map.Entry<String, T> entry : entities.entrySet()) {
+            if (page.size() == limit) {
+                return new Page<>(page, String.valueOf(id) + CURSOR_SEPARATOR + last);
+            }
+            page.add(entry.getValue());
+            last = entry.getKey();
+        }
+        return new Page<>(page, null);
+    }
+
+    // Returns the snapshot designated by the cursor, if it is still held and
+    // was taken of the entities of this stream.
+    @SuppressWarnings("unchecked")
+    private NavigableMap<String, T> snapshot() {
+        Snapshot snapshot = snapshotId == null ? null : SNAPSHOTS.getIfPresent(snapshotId);
+        if (snapshot == null || !snapshot.field.equals(field) ||
+                !snapshot.codecClass.equals(codec.getClass())) {
+            return null;
+        }
+        return (NavigableMap<String, T>) snapshot.entities;
+    }
+
+    private boolean isAfterCursor(T item) {
+        return cursor == null || keyFunction.apply(item).compareTo(cursor) > 0;
+    }
+
+    private ObjectNode encode(T item) {
+        ObjectNode node = codec.encode(item, context);
+        if (!fields.isEmpty()) {
+            node.retain(fields);
+        }
+        return node;
+    }
+
+    // Entities of a page, with the cursor of the next page if any.
+    private static final class Page<T> {
+        private final List<T> items;
+        private final String nextCursor;
+
+        private Page(List<T> items, String nextCursor) {
+            this.items = items;
+            this.nextCursor = nextCursor;
+        }
+    }
+
+    // Sorted entities of a paged collection.
+    private static final class Snapshot {
+        private final String field;
+        private final Class<?> codecClass;
+        private final NavigableMap<String, ?> entities;
+
+        private Snapshot(String field, Class<?> codecClass, NavigableMap<String, ?> entities) {
+            this.field = field;
+            this.codecClass = codecClass;
+            this.entities = entities;
+        }
+    }
+}
@@ -190,6 +190,19 @@ public interface EventuallyConsistentMapBuilder<K, V> {
      */
     EventuallyConsistentMapBuilder<K, V> withPersistence();
 
+    /**
+     * Declares the keys and values of the map immutable, so that the map
+     * uses them as given rather than storing copies of them. Callers must
+     * not modify keys or values after handing them to the map.
+     * <p>
+     * The default behavior is to store copies of the keys and values written
+     * through compute operations.
+     * </p>
+     *
+     * @return this EventuallyConsistentMapBuilder
+     */
+    EventuallyConsistentMapBuilder<K, V> withImmutableKeysAndValues();
+
     /**
      * Builds an eventually consistent map based on the configuration options
      * supplied to this builder.
@@ -16,6 +16,7 @@
 
 package org.onosproject.ui.table;
 
+import com.google.common.collect.Ordering;
 import com.google.common.collect.Sets;
 import org.onosproject.ui.table.cell.DefaultCellComparator;
 import org.onosproject.ui.table.cell.DefaultCellFormatter;
@@ -127,6 +128,23 @@ public class TableModel {
         return rows.toArray(new Row[rows.size()]);
     }
 
+    /**
+     * Returns the raw {@link Row} representation of a window of the rows
+     * in this table. The window is clipped to the rows available.
+     *
+     * @param first index of the first row of the window
+     * @param count maximum number of rows in the window
+     * @return raw table rows
+     */
+    public Row[] getRows(int first, int count) {
+        checkArgument(first >= 0, "first row cannot be negative");
+        checkArgument(count >= 0, "row count cannot be negative");
+        int from = Math.min(first, rows.size());
+        int to = (int) Math.min((long) from + count, rows.size());
+        List<Row> window = rows.subList(from, to);
+        return window.toArray(new Row[window.size()]);
+    }
+
     /**
      * Inserts a new annotation.
      *
@@ -222,6 +240,66 @@ public class TableModel {
         Collections.sort(rows, new RowComparator(id1, dir1, id2, dir2));
     }
 
+    /**
+     * Sorts the table rows based on the specified columns, in the
+     * specified directions, as {@link #sort(String, SortDir, String, SortDir)}
+     * does, except that only the first {@code count} rows are guaranteed to
+     * be in order; the remaining rows follow them in no particular order.
+     * <p>
+     * This is considerably cheaper than a full sort when only a window at
+     * the top of a large table is going to be displayed. As the selection
+     * of the leading rows is not stable, rows equal in the sort columns are
+     * further ordered by the tie-break column, which should hold a unique
+     * value per row; this keeps every row in the same window from one
+     * request to the next.
+     *
+     * @param id1 first column identifier
+     * @param dir1 first column sort direction
+     * @param id2 second column identifier (may be null)
+     * @param dir2 second column sort direction (may be null)
+     * @param tieId tie-break column identifier, sorted ascending
+     * @param count number of leading rows to put in order
+     */
+    public void sort(String id1, SortDir dir1, String id2, SortDir dir2,
+                     String tieId, int count) {
+        checkArgument(count >= 0, "row count cannot be negative");
+        RowComparator comparator = new RowComparator(id1, dir1, id2, dir2, tieId);
+        if (count >= rows.size()) {
+            Collections.sort(rows, comparator);
+            return;
+        }
+
+        List<Row> top = Ordering.from(comparator).leastOf(rows, count);
+        Set<Row> topSet = Sets.newIdentityHashSet();
+        topSet.addAll(top);
+
+        List<Row> sorted = new ArrayList<>(rows.size());
+        sorted.addAll(top);
+        rows.stream().filter(r -> !topSet.contains(r)).forEach(sorted::add);
+        rows.clear();
+        rows.addAll(sorted);
+    }
+
+    /**
+     * Removes the rows that do not contain the given text, ignoring case,
+     * in the formatted value of the specified column, or of any column if
+     * no column is specified.
+     *
+     * @param columnId column identifier (may be null)
+     * @param text text to search for; null or empty to keep all rows
+     */
+    public void filter(String columnId, String text) {
+        if (nullOrEmpty(text)) {
+            return;
+        }
+        String needle = text.toLowerCase();
+        String[] ids = nullOrEmpty(columnId) ? columnIds : new String[]{columnId};
+        for (String id : ids) {
+            checkId(id);
+        }
+        rows.removeIf(row -> !row.contains(ids, needle));
+    }
+
     private boolean nullOrEmpty(String s) {
         return s == null || EMPTY.equals(s.trim());
     }
@@ -243,8 +321,10 @@ public class TableModel {
         private final SortDir dir1;
         private final String id2;
         private final SortDir dir2;
+        private final String tieId;
         private final CellComparator cc1;
         private final CellComparator cc2;
+        private final CellComparator tieCc;
 
         /**
          * Constructs a row comparator based on the specified
@@ -257,12 +337,31 @@ public class TableModel {
          * @param dir2 second column sort direction
          */
         public RowComparator(String id1, SortDir dir1, String id2, SortDir dir2) {
+            this(id1, dir1, id2, dir2, null);
+        }
+
+        /**
+         * Constructs a row comparator based on the specified
+         * column identifiers and sort directions, which orders rows equal in
+         * those columns by the ascending values of the tie-break column.
+         * Note that id2, dir2 and tieId may be null.
+         *
+         * @param id1 first column identifier
+         * @param dir1 first column sort direction
+         * @param id2 second column identifier
+         * @param dir2 second column sort direction
+         * @param tieId tie-break column identifier
+         */
+        public RowComparator(String id1, SortDir dir1, String id2, SortDir dir2,
+                             String tieId) {
             this.id1 = id1;
             this.dir1 = dir1;
             this.id2 = id2;
             this.dir2 = dir2;
+            this.tieId = tieId;
             cc1 = getComparator(id1);
             cc2 = nullOrEmpty(id2) ? null : getComparator(id2);
+            tieCc = nullOrEmpty(tieId) ? null : getComparator(tieId);
         }
 
         @Override
@@ -278,6 +377,9 @@ public class TableModel {
                 result = cc2.compare(cellA, cellB);
                 result = dir2 == SortDir.ASC ? result : -result;
             }
+            if (result == 0 && tieCc != null) {
+                result = tieCc.compare(a.get(tieId), b.get(tieId));
+            }
             return result;
         }
     }
@@ -381,6 +483,17 @@ public class TableModel {
             }
             return formatted.toArray(new String[formatted.size()]);
         }
+
+        // Indicates whether the formatted value of any of the given columns
+        // contains the given lower-case text.
+        private boolean contains(String[] ids, String text) {
+            for (String id : ids) {
+                if (getAsString(id).toLowerCase().contains(text)) {
+                    return true;
+                }
+            }
+            return false;
+        }
     }
 
     /**
@@ -16,6 +16,7 @@
 
 package org.onosproject.ui.table;
 
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.onosproject.ui.JsonUtils;
 import org.onosproject.ui.RequestHandler;
@@ -32,6 +33,15 @@ public abstract class TableRequestHandler extends RequestHandler {
     private static final String SECOND_COL = "secondCol";
     private static final String SECOND_DIR = "secondDir";
 
+    private static final String FIRST_ROW = "firstRow";
+    private static final String ROW_COUNT = "rowCount";
+    private static final String TOTAL_ROWS = "totalRows";
+    private static final String INCREMENTAL = "incremental";
+    private static final String DELTA_INDEXES = "deltaIndexes";
+    private static final String QUERY_TXT = "queryTxt";
+    private static final String QUERY_BY = "queryBy";
+    private static final String ANY_COLUMN = "$";
+
     private static final String ASC = "asc";
 
     private static final String ANNOTS = "annots";
@@ -40,11 +50,29 @@ public abstract class TableRequestHandler extends RequestHandler {
     private final String respType;
     private final String nodeName;
 
+    // Last window of rows sent and the request that produced it; used to
+    // send only the rows that changed when the same window is refreshed
+    private String lastWindowRequest;
+    private ArrayNode lastWindow;
+
     /**
      * Constructs a table request handler for a specific table view. When
      * table requests come in, the handler will generate the appropriate
      * table rows, sort them according the the request sort parameters, and
      * send back the response to the client.
+     * <p>
+     * If the request carries a {@code rowCount}, only the window of that
+     * many rows starting at {@code firstRow} is sorted and sent, along with
+     * a {@code totalRows} annotation. When the same window is requested
+     * again with the {@code incremental} flag set, only its changed rows are
+     * sent, with their positions in the window listed in {@code deltaIndexes}.
+     * Rows are ordered by the {@link #defaultColumnId() default column} after
+     * the requested sort columns, so that rows tied on those remain in the
+     * same window across requests.
+     * <p>
+     * If the request carries a {@code queryTxt}, only the rows containing
+     * that text in the column named by {@code queryBy}, or in any column if
+     * that is absent or "$", are sorted and sent.
      *
      * @param reqType  type of the request event
      * @param respType type of the response event
@@ -61,17 +89,61 @@ public abstract class TableRequestHandler extends RequestHandler {
         TableModel tm = createTableModel();
         populateTable(tm, payload);
 
+        String queryBy = JsonUtils.string(payload, QUERY_BY, ANY_COLUMN);
+        tm.filter(ANY_COLUMN.equals(queryBy) ? null : queryBy,
+                  JsonUtils.string(payload, QUERY_TXT, null));
+
         String firstCol = JsonUtils.string(payload, FIRST_COL, defaultColumnId());
         String firstDir = JsonUtils.string(payload, FIRST_DIR, ASC);
         String secondCol = JsonUtils.string(payload, SECOND_COL, null);
         String secondDir = JsonUtils.string(payload, SECOND_DIR, null);
-        tm.sort(firstCol, sortDir(firstDir), secondCol, sortDir(secondDir));
+
+        if (!payload.has(ROW_COUNT)) {
+            tm.sort(firstCol, sortDir(firstDir), secondCol, sortDir(secondDir));
+
+            addTableConfigAnnotations(tm, payload);
+
+            ObjectNode rootNode = MAPPER.createObjectNode();
+            rootNode.set(nodeName, TableUtils.generateRowArrayNode(tm));
+            rootNode.set(ANNOTS, TableUtils.generateAnnotObjectNode(tm));
+            sendMessage(respType, rootNode);
+            return;
+        }
+
+        int firstRow = (int) Math.max(0, JsonUtils.number(payload, FIRST_ROW));
+        int rowCount = (int) Math.max(0, JsonUtils.number(payload, ROW_COUNT));
+        int windowEnd = (int) Math.min((long) firstRow + rowCount, Integer.MAX_VALUE);
+        tm.sort(firstCol, sortDir(firstDir), secondCol, sortDir(secondDir),
+                defaultColumnId(), windowEnd);
 
         addTableConfigAnnotations(tm, payload);
+        tm.addAnnotation(TOTAL_ROWS, tm.rowCount());
+        tm.addAnnotation(FIRST_ROW, firstRow);
 
         ObjectNode rootNode = MAPPER.createObjectNode();
-        rootNode.set(nodeName, TableUtils.generateRowArrayNode(tm));
+        ArrayNode window = TableUtils.generateRowArrayNode(tm, firstRow, rowCount);
+        ObjectNode requestKey = payload.deepCopy();
+        requestKey.remove(INCREMENTAL);
+        String request = requestKey.toString();
+        if (JsonUtils.bool(payload, INCREMENTAL) && request.equals(lastWindowRequest) &&
+                window.size() == lastWindow.size()) {
+            ArrayNode changed = MAPPER.createArrayNode();
+            ArrayNode indexes = MAPPER.createArrayNode();
+            for (int i = 0; i < window.size(); i++) {
+                if (!window.get(i).equals(lastWindow.get(i))) {
+                    changed.add(window.get(i));
+                    indexes.add(i);
+                }
+            }
+            rootNode.set(nodeName, changed);
+            rootNode.set(DELTA_INDEXES, indexes);
+        } else {
+            rootNode.set(nodeName, window);
+        }
         rootNode.set(ANNOTS, TableUtils.generateAnnotObjectNode(tm));
+
+        lastWindowRequest = request;
+        lastWindow = window;
         sendMessage(respType, rootNode);
     }
 
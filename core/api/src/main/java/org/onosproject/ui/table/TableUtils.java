@@ -45,6 +45,23 @@ public final class TableUtils {
         return array;
     }
 
+    /**
+     * Generates a JSON array node from a window of the rows of the given
+     * table model.
+     *
+     * @param tm    the table model
+     * @param first index of the first row of the window
+     * @param count maximum number of rows in the window
+     * @return the array node representation of rows
+     */
+    public static ArrayNode generateRowArrayNode(TableModel tm, int first, int count) {
+        ArrayNode array = MAPPER.createArrayNode();
+        for (TableModel.Row r : tm.getRows(first, count)) {
+            array.add(toJsonNode(r, tm));
+        }
+        return array;
+    }
+
     /**
      * Generates a JSON object node from the annotations of the given table model.
      *
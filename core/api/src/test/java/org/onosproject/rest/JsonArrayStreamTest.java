@@ -0,0 +1,220 @@
+/*
+ * Copyright 2017-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.rest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+import org.onosproject.codec.CodecContext;
+import org.onosproject.codec.JsonCodec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Test of the streamed JSON array response entity.
+ */
+public class JsonArrayStreamTest {
+
+    private final CodecContext context = new TestContext();
+    private final Map<String, String> items = new ConcurrentHashMap<>();
+    private final AtomicInteger iterations = new AtomicInteger();
+    private final Iterable<String> counted = () -> {
+        iterations.incrementAndGet();
+        return items.values().iterator();
+    };
+
+    private static class NameCodec extends JsonCodec<String> {
+        @Override
+        public ObjectNode encode(String entity, CodecContext context) {
+            return context.mapper().createObjectNode()
+                    .put("name", entity)
+                    .put("length", entity.length());
+        }
+    }
+
+    private static class FailingCodec extends NameCodec {
+        @Override
+        public ObjectNode encode(String entity, CodecContext context) {
+            if (entity.equals("c")) {
+                throw new IllegalStateException("cannot encode " + entity);
+            }
+            return super.encode(entity, context);
+        }
+    }
+
+    // Writes the page of the items designated by the cursor.
+    private JsonNode page(String cursor, Integer limit, String fields) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new JsonArrayStream<>(context, new NameCodec(), "items", counted, name -> name)
+                .cursor(cursor).limit(limit).fields(fields).write(output);
+        return context.mapper().readTree(output.toByteArray());
+    }
+
+    private static String nextCursor(JsonNode page) {
+        JsonNode next = page.get(JsonArrayStream.NEXT_CURSOR);
+        return next == null ? null : next.asText();
+    }
+
+    private static List<String> names(JsonNode page) {
+        List<String> names = new ArrayList<>();
+        page.get("items").forEach(item -> names.add(item.get("name").asText()));
+        return names;
+    }
+
+    private void add(String... names) {
+        for (String name : names) {
+            items.put(name, name);
+        }
+    }
+
+    /**
+     * Tests that all items are written without a limit.
+     */
+    @Test
+    public void unlimited() throws IOException {
+        add("b", "a", "c");
+        JsonNode page = page(null, null, null);
+        assertEquals(3, page.get("items").size());
+        assertNull(page.get(JsonArrayStream.NEXT_CURSOR));
+    }
+
+    /**
+     * Tests that pages hold the items in key order, the later ones being
+     * cut from the snapshot taken by the first without iterating the items.
+     */
+    @Test
+    public void pagesInKeyOrder() throws IOException {
+        add("d", "b", "e", "a", "c");
+        JsonNode first = page(null, 2, null);
+        assertEquals(ImmutableList.of("a", "b"), names(first));
+        assertEquals(1, iterations.get());
+
+        JsonNode second = page(nextCursor(first), 2, null);
+        assertEquals(ImmutableList.of("c", "d"), names(second));
+
+        JsonNode last = page(nextCursor(second), 2, null);
+        assertEquals(ImmutableList.of("e"), names(last));
+        assertNull(last.get(JsonArrayStream.NEXT_CURSOR));
+        assertEquals("items iterated past the first page", 1, iterations.get());
+    }
+
+    /**
+     * Tests that a cursor whose snapshot is not held pages from its key.
+     */
+    @Test
+    public void pagesWithoutSnapshot() throws IOException {
+        add("d", "b", "e", "a", "c");
+        assertEquals(ImmutableList.of("c", "d"), names(page("-1.b", 2, null)));
+        assertEquals(ImmutableList.of("c", "d"), names(page("b", 2, null)));
+        assertEquals(2, iterations.get());
+    }
+
+    /**
+     * Tests that a codec failure fails the write before anything is written.
+     */
+    @Test
+    public void codecFailure() throws IOException {
+        add("a", "b", "c");
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try {
+            new JsonArrayStream<>(context, new FailingCodec(), "items", counted, name -> name)
+                    .write(output);
+            fail("codec failure not propagated");
+        } catch (IllegalStateException e) {
+            assertEquals("partial response written", 0, output.size());
+        }
+    }
+
+    /**
+     * Tests that items are restricted to the requested fields.
+     */
+    @Test
+    public void fields() throws IOException {
+        add("a");
+        JsonNode item = page(null, null, "name").get("items").get(0);
+        assertTrue(item.has("name"));
+        assertFalse(item.has("length"));
+    }
+
+    /**
+     * Tests that items present throughout the paging are neither skipped nor
+     * repeated while the collection changes between pages.
+     */
+    @Test
+    public void concurrentModification() throws IOException {
+        for (int i = 0; i < 100; i++) {
+            add(String.format("item-%03d", i));
+        }
+
+        Set<String> seen = new HashSet<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            JsonNode page = page(cursor, 7, null);
+            for (String name : names(page)) {
+                assertTrue("duplicate " + name, seen.add(name));
+            }
+            cursor = nextCursor(page);
+
+            // Change the collection between pages, on both sides of the cursor
+            items.remove(String.format("item-%03d", pages * 3));
+            add(String.format("item-%03d-new", pages * 5));
+            pages++;
+        } while (cursor != null);
+
+        // Items present throughout are neither skipped nor repeated
+        for (String name : items.keySet()) {
+            if (!name.endsWith("-new")) {
+                assertTrue("skipped " + name, seen.contains(name));
+            }
+        }
+    }
+
+    private class TestContext implements CodecContext {
+        private final ObjectMapper mapper = new ObjectMapper();
+
+        @Override
+        public ObjectMapper mapper() {
+            return mapper;
+        }
+
+        @Override
+        public <T> JsonCodec<T> codec(Class<T> entityClass) {
+            return null;
+        }
+
+        @Override
+        public <T> T getService(Class<T> serviceClass) {
+            return null;
+        }
+    }
+}
@@ -21,7 +21,12 @@ import org.onosproject.ui.table.TableModel.SortDir;
 import org.onosproject.ui.table.cell.DefaultCellFormatter;
 import org.onosproject.ui.table.cell.HexFormatter;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 import static org.junit.Assert.*;
 
@@ -245,6 +250,122 @@ public class TableModelTest {
         }
     }
 
+    @Test
+    public void tablePartialSort() {
+        initUnsortedTable();
+
+        // only the first three rows need to be in order
+        tm.sort(BAR, SortDir.ASC, null, null, null, 3);
+
+        rows = tm.getRows();
+        assertEquals("row count", NUMBERS.length, rows.length);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(UNEX_SORT + i, SORTED_NUMBERS[i], rows[i].get(BAR));
+        }
+    }
+
+    // Builds a table of ids and groups, with the rows added in the given
+    // order; several ids share each group.
+    private TableModel groupTable(int... order) {
+        TableModel table = new TableModel(ID, NUMBER);
+        for (int id : order) {
+            table.addRow().cell(ID, id).cell(NUMBER, id % 3);
+        }
+        return table;
+    }
+
+    // Returns the ids of the window of rows after a partial sort.
+    private static List<Object> page(TableModel table, String id1, SortDir dir1,
+                                     int first, int count) {
+        table.sort(id1, dir1, null, null, ID, first + count);
+        List<Object> ids = new ArrayList<>();
+        for (TableModel.Row r : table.getRows(first, count)) {
+            ids.add(r.get(ID));
+        }
+        return ids;
+    }
+
+    @Test
+    public void partialSortTies() {
+        int[] order = {5, 0, 7, 3, 8, 1, 6, 4, 2};
+        int[] reversed = {2, 4, 6, 1, 8, 3, 7, 0, 5};
+
+        // rows tied on the sort column land on the same page however they
+        // were added, and every row lands on exactly one page
+        Set<Object> seen = new HashSet<>();
+        for (int first = 0; first < order.length; first += 2) {
+            List<Object> ids = page(groupTable(order), NUMBER, SortDir.ASC, first, 2);
+            assertEquals("unstable page at " + first, ids,
+                         page(groupTable(reversed), NUMBER, SortDir.ASC, first, 2));
+            for (Object id : ids) {
+                assertTrue("repeated row " + id, seen.add(id));
+            }
+        }
+        assertEquals("missing rows", order.length, seen.size());
+
+        assertEquals("bad tie order", Arrays.asList(0, 3, 6),
+                     page(groupTable(order), NUMBER, SortDir.ASC, 0, 3));
+        assertEquals("bad tie order", Arrays.asList(2, 5, 8),
+                     page(groupTable(order), NUMBER, SortDir.DESC, 0, 3));
+    }
+
+    @Test
+    public void pageAfterSortChange() {
+        int[] order = {5, 0, 7, 3, 8, 1, 6, 4, 2};
+        TableModel table = groupTable(order);
+
+        assertEquals("bad page", Arrays.asList(1, 4, 7),
+                     page(table, NUMBER, SortDir.ASC, 3, 3));
+
+        // the same window of the table sorted on another column holds the
+        // rows at those positions of the new order, regardless of the order
+        // left behind by the previous sort
+        assertEquals("bad page", Arrays.asList(3, 4, 5),
+                     page(table, ID, SortDir.ASC, 3, 3));
+        assertEquals("bad page", Arrays.asList(2, 5, 8),
+                     page(table, NUMBER, SortDir.DESC, 0, 3));
+        assertEquals("bad page", Arrays.asList(0, 1),
+                     page(table, ID, SortDir.ASC, 0, 2));
+    }
+
+    @Test
+    public void filter() {
+        tm = new TableModel(ID, ALPHA);
+        tm.setFormatter(ID, HexFormatter.INSTANCE);
+        tm.addRow().cell(ID, 10).cell(ALPHA, "Luke");
+        tm.addRow().cell(ID, 11).cell(ALPHA, "Leia");
+        tm.addRow().cell(ID, 12).cell(ALPHA, "Han");
+
+        tm.filter(null, "");
+        assertEquals("bad row count", 3, tm.rowCount());
+
+        // formatted values are searched, ignoring case
+        tm.filter(null, "0XB");
+        assertEquals("bad row count", 1, tm.rowCount());
+        assertEquals("bad row", "Leia", tm.getRows()[0].get(ALPHA));
+
+        tm.filter(ALPHA, "x");
+        assertEquals("bad row count", 0, tm.rowCount());
+    }
+
+    @Test
+    public void tableWindow() {
+        initUnsortedTable();
+        tm.sort(BAR, SortDir.ASC, null, null);
+
+        rows = tm.getRows(2, 3);
+        assertEquals("row count", 3, rows.length);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(UNEX_SORT + i, SORTED_NUMBERS[i + 2], rows[i].get(BAR));
+        }
+
+        rows = tm.getRows(NUMBERS.length - 1, 3);
+        assertEquals("clipped row count", 1, rows.length);
+
+        rows = tm.getRows(NUMBERS.length + 1, 3);
+        assertEquals("empty row count", 0, rows.length);
+    }
+
     @Test
     public void sortAndFormat() {
         initUnsortedTable();
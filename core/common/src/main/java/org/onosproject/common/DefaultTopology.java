@@ -28,6 +28,7 @@ import org.onlab.graph.DisjointPathPair;
 import org.onlab.graph.GraphPathSearch;
 import org.onlab.graph.GraphPathSearch.Result;
 import org.onlab.graph.ScalarWeight;
+import org.onlab.graph.ShortestPathTree;
 import org.onlab.graph.SrlgGraphSearch;
 import org.onlab.graph.SuurballeGraphSearch;
 import org.onlab.graph.TarjanGraphSearch;
@@ -61,6 +62,9 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.BooleanSupplier;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
@@ -87,8 +91,28 @@ public class DefaultTopology extends AbstractModel implements Topology {
     private static final SuurballeGraphSearch<TopologyVertex, TopologyEdge> SUURBALLE =
             new SuurballeGraphSearch<>();
 
+    /**
+     * Modes of caching the shortest-path trees rooted at each source device.
+     */
+    public enum PathCacheMode {
+        /** Paths are searched for on every request. */
+        DISABLED,
+        /** Trees are computed on the first request from their source. */
+        LAZY,
+        /** Trees of all sources are computed up front, once published. */
+        PRECOMPUTED
+    }
+
+    /**
+     * Default limit on the number of vertexes held by the cached
+     * shortest-path trees of a topology.
+     */
+    public static final int DEFAULT_MAX_PATH_CACHE_ENTRIES = 1_000_000;
+
     private static LinkWeigher defaultLinkWeigher = null;
     private static GraphPathSearch<TopologyVertex, TopologyEdge> defaultGraphPathSearch = null;
+    private static PathCacheMode defaultPathCacheMode = PathCacheMode.DISABLED;
+    private static int maxPathCacheEntries = DEFAULT_MAX_PATH_CACHE_ENTRIES;
 
     private final long time;
     private final long creationTime;
@@ -104,6 +128,10 @@ public class DefaultTopology extends AbstractModel implements Topology {
     private final Function<ConnectPoint, Boolean> broadcastFunction;
     private final Supplier<ClusterIndexes> clusterIndexes;
 
+    private final PathCacheMode pathCacheMode;
+    private final int maxPathTrees;
+    private volatile PathTrees pathTrees;
+
     /**
      * Sets the default link-weight to be used when computing paths. If null is
      * specified, the builtin default link-weight measuring hop-counts will be
@@ -128,6 +156,22 @@ public class DefaultTopology extends AbstractModel implements Topology {
         defaultGraphPathSearch = graphPathSearch;
     }
 
+    /**
+     * Sets how topologies created from now on cache the shortest-path trees
+     * used to answer path requests for the default link-weight and path
+     * search algorithm. The cache of a topology holds no more trees than
+     * fit within the given number of vertexes altogether; trees beyond that
+     * are computed on demand and dropped.
+     *
+     * @param mode       path cache mode
+     * @param maxEntries maximum number of tree vertexes cached per topology
+     */
+    public static void setPathCache(PathCacheMode mode, int maxEntries) {
+        checkArgument(maxEntries >= 0, "Maximum entries cannot be negative");
+        log.info("Setting path cache mode to {} with {} entries", mode, maxEntries);
+        defaultPathCacheMode = mode != null ? mode : PathCacheMode.DISABLED;
+        maxPathCacheEntries = maxEntries;
+    }
 
     /**
      * Creates a topology descriptor attributed to the specified provider.
@@ -155,6 +199,9 @@ public class DefaultTopology extends AbstractModel implements Topology {
         this.hopCountWeigher = adapt(new HopCountLinkWeight(graph.getVertexes().size()));
         this.broadcastSets = Suppliers.memoize(this::buildBroadcastSets);
         this.infrastructurePoints = Suppliers.memoize(this::findInfrastructurePoints);
+
+        this.pathCacheMode = defaultPathCacheMode;
+        this.maxPathTrees = maxPathCacheEntries / Math.max(1, graph.getVertexes().size());
         this.computeCost = Math.max(0, System.nanoTime() - time);
     }
 
@@ -377,10 +424,14 @@ public class DefaultTopology extends AbstractModel implements Topology {
             return ImmutableSet.of();
         }
 
-        GraphPathSearch.Result<TopologyVertex, TopologyEdge> result =
-                graphPathSearch().search(graph, srcV, dstV, weigher, maxPaths);
+        Set<org.onlab.graph.Path<TopologyVertex, TopologyEdge>> paths;
+        if (isPathCacheable(weigher)) {
+            paths = pathTree(srcV, weigher).paths(dstV, maxPaths);
+        } else {
+            paths = graphPathSearch().search(graph, srcV, dstV, weigher, maxPaths).paths();
+        }
         ImmutableSet.Builder<Path> builder = ImmutableSet.builder();
-        for (org.onlab.graph.Path<TopologyVertex, TopologyEdge> path : result.paths()) {
+        for (org.onlab.graph.Path<TopologyVertex, TopologyEdge> path : paths) {
             builder.add(networkPath(path));
         }
         return builder.build();
@@ -672,6 +723,77 @@ public class DefaultTopology extends AbstractModel implements Topology {
                 linksBuilder.build());
     }
 
+    /**
+     * Computes the shortest-path trees of all sources on the given executor,
+     * one task per source, if this topology was created with the
+     * {@link PathCacheMode#PRECOMPUTED precomputed} path cache mode and its
+     * cache has room for all of them. Tasks which start once the given
+     * condition holds, such as when the topology has been superseded, skip
+     * their computation.
+     *
+     * @param executor  executor running the computations
+     * @param cancelled condition under which the remaining computations
+     *                  are skipped
+     */
+    public void precomputePaths(Executor executor, BooleanSupplier cancelled) {
+        Set<TopologyVertex> vertexes = graph.getVertexes();
+        if (pathCacheMode != PathCacheMode.PRECOMPUTED || vertexes.size() > maxPathTrees) {
+            return;
+        }
+        LinkWeigher weigher = linkWeight();
+        if (!isPathCacheable(weigher)) {
+            return;
+        }
+        for (TopologyVertex vertex : vertexes) {
+            executor.execute(() -> {
+                if (cancelled.getAsBoolean()) {
+                    return;
+                }
+                try {
+                    pathTree(vertex, weigher);
+                } catch (Exception e) {
+                    log.warn("Unable to precompute shortest-path tree of {}",
+                             vertex.deviceId(), e);
+                }
+            });
+        }
+    }
+
+    // Returns the number of shortest-path trees cached; for testing.
+    int cachedPathTrees() {
+        PathTrees trees = pathTrees;
+        return trees == null ? 0 : trees.trees.size();
+    }
+
+    // Indicates whether paths for the given link-weight may be served from
+    // the shortest-path trees, which are only ever computed with Dijkstra.
+    private boolean isPathCacheable(LinkWeigher weigher) {
+        return pathCacheMode != PathCacheMode.DISABLED &&
+                weigher == linkWeight() && graphPathSearch() == DIJKSTRA;
+    }
+
+    // Returns the shortest-path tree rooted at the given source, computing
+    // and caching it if it is not cached yet and the cache has room for it.
+    private ShortestPathTree<TopologyVertex, TopologyEdge> pathTree(TopologyVertex src,
+                                                                    LinkWeigher weigher) {
+        PathTrees trees = pathTrees;
+        if (trees == null || trees.weigher != weigher) {
+            // The default link-weight changed; earlier trees are now stale.
+            trees = new PathTrees(weigher);
+            pathTrees = trees;
+        }
+
+        ShortestPathTree<TopologyVertex, TopologyEdge> tree = trees.trees.get(src.deviceId());
+        if (tree == null) {
+            tree = DIJKSTRA.shortestPathTree(graph, src, weigher);
+            if (trees.trees.size() < maxPathTrees) {
+                trees.trees.putIfAbsent(src.deviceId(), tree);
+            }
+        }
+        return tree;
+    }
+
+
     private GraphPathSearch<TopologyVertex, TopologyEdge> graphPathSearch() {
         return defaultGraphPathSearch != null ? defaultGraphPathSearch : DIJKSTRA;
     }
@@ -692,6 +814,17 @@ public class DefaultTopology extends AbstractModel implements Topology {
         }
     }
 
+    // Shortest-path trees computed for the same link-weight, by source.
+    private static final class PathTrees {
+        private final LinkWeigher weigher;
+        private final Map<DeviceId, ShortestPathTree<TopologyVertex, TopologyEdge>> trees =
+                new ConcurrentHashMap<>();
+
+        private PathTrees(LinkWeigher weigher) {
+            this.weigher = weigher;
+        }
+    }
+
     static final class ClusterIndexes {
         final ImmutableMap<DeviceId, TopologyCluster> clustersByDevice;
         final ImmutableSetMultimap<TopologyCluster, DeviceId> devicesByCluster;
@@ -15,7 +15,7 @@
  */
 package org.onosproject.common;
 
-import org.onlab.graph.AdjacencyListsGraph;
+import org.onlab.graph.CompiledGraph;
 import org.onosproject.net.topology.TopologyEdge;
 import org.onosproject.net.topology.TopologyGraph;
 import org.onosproject.net.topology.TopologyVertex;
@@ -24,10 +24,11 @@ import java.util.Set;
 
 /**
  * Default implementation of an immutable topology graph based on a generic
- * implementation of adjacency lists graph.
+ * implementation of adjacency lists graph, compiled once so that all path
+ * searches on the topology share its indexed form.
  */
 public class DefaultTopologyGraph
-        extends AdjacencyListsGraph<TopologyVertex, TopologyEdge>
+        extends CompiledGraph<TopologyVertex, TopologyEdge>
         implements TopologyGraph {
 
     /**
@@ -15,6 +15,7 @@
  */
 package org.onosproject.common;
 
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.onlab.graph.DefaultEdgeWeigher;
@@ -86,20 +87,11 @@ public class DefaultTopologyTest {
 
     @Before
     public void setUp() {
-        long now = System.currentTimeMillis();
-        Set<Device> devices = of(device("1"), device("2"),
-                                 device("3"), device("4"),
-                                 device("5"));
-        Set<Link> links = of(link("1", 1, "2", 1), link("2", 1, "1", 1),
-                             link("3", 2, "2", 2), link("2", 2, "3", 2),
-                             link("1", 3, "4", 3), link("4", 3, "1", 3),
-                             link("3", 4, "4", 4), link("4", 4, "3", 4));
-        GraphDescription graphDescription =
-                new DefaultGraphDescription(now, System.currentTimeMillis(), devices, links);
+        GraphDescription graphDescription = graphDescription();
 
         dt = new DefaultTopology(PID, graphDescription);
         assertEquals("incorrect supplier", PID, dt.providerId());
-        assertEquals("incorrect time", now, dt.time());
+        assertEquals("incorrect time", graphDescription.timestamp(), dt.time());
         assertEquals("incorrect device count", 5, dt.deviceCount());
         assertEquals("incorrect link count", 8, dt.linkCount());
         assertEquals("incorrect cluster count", 2, dt.clusterCount());
@@ -123,6 +115,56 @@ public class DefaultTopologyTest {
         assertEquals("incorrect path count", 1, paths.size());
     }
 
+    @After
+    public void tearDown() {
+        DefaultTopology.setPathCache(DefaultTopology.PathCacheMode.DISABLED,
+                                     DefaultTopology.DEFAULT_MAX_PATH_CACHE_ENTRIES);
+    }
+
+    @Test
+    public void cachedPathRelated() {
+        DefaultTopology.setPathCache(DefaultTopology.PathCacheMode.LAZY,
+                                     DefaultTopology.DEFAULT_MAX_PATH_CACHE_ENTRIES);
+        DefaultTopology cached = new DefaultTopology(PID, graphDescription());
+
+        for (DeviceId src : of(D1, D2, D3, D4, D5)) {
+            for (DeviceId dst : of(D1, D2, D3, D4, D5)) {
+                assertEquals("incorrect cached paths",
+                             dt.getPaths(src, dst), cached.getPaths(src, dst));
+            }
+        }
+        assertEquals("incorrect path count", 2, cached.getPaths(D1, D3).size());
+        assertEquals("incorrect path count", 1, cached.getPaths(D1, D3, WEIGHER).size());
+    }
+
+    @Test
+    public void precomputedPaths() {
+        DefaultTopology.setPathCache(DefaultTopology.PathCacheMode.PRECOMPUTED,
+                                     DefaultTopology.DEFAULT_MAX_PATH_CACHE_ENTRIES);
+        DefaultTopology cached = new DefaultTopology(PID, graphDescription());
+        assertEquals("trees computed before publication", 0, cached.cachedPathTrees());
+
+        // Superseded topologies skip the computation
+        cached.precomputePaths(Runnable::run, () -> true);
+        assertEquals("trees computed once superseded", 0, cached.cachedPathTrees());
+
+        cached.precomputePaths(Runnable::run, () -> false);
+        assertEquals("incorrect tree count", 5, cached.cachedPathTrees());
+        assertEquals("incorrect path count", 2, cached.getPaths(D1, D3).size());
+    }
+
+    @Test
+    public void boundedPathCache() {
+        // Room for a single tree only; the others are computed on demand.
+        DefaultTopology.setPathCache(DefaultTopology.PathCacheMode.PRECOMPUTED, 5);
+        DefaultTopology cached = new DefaultTopology(PID, graphDescription());
+
+        assertEquals("incorrect path count", 1, cached.getPaths(D1, D2).size());
+        assertEquals("incorrect path count", 2, cached.getPaths(D1, D3).size());
+        assertEquals("incorrect path count", 2, cached.getPaths(D3, D1).size());
+        assertTrue("no paths expected", cached.getPaths(D5, D1).isEmpty());
+    }
+
     @Test
     public void pointRelated() {
         assertTrue("should be infrastructure point",
@@ -143,6 +185,19 @@ public class DefaultTopologyTest {
         assertFalse("cluster should not contain D5", devs.contains(D5));
     }
 
+    // Describes the test topology.
+    private static GraphDescription graphDescription() {
+        long now = System.currentTimeMillis();
+        Set<Device> devices = of(device("1"), device("2"),
+                                 device("3"), device("4"),
+                                 device("5"));
+        Set<Link> links = of(link("1", 1, "2", 1), link("2", 1, "1", 1),
+                             link("3", 2, "2", 2), link("2", 2, "3", 2),
+                             link("1", 3, "4", 3), link("4", 3, "1", 3),
+                             link("3", 4, "4", 4), link("4", 4, "3", 4));
+        return new DefaultGraphDescription(now, System.currentTimeMillis(), devices, links);
+    }
+
     // Short-hand for creating a link.
     public static Link link(String src, int sp, String dst, int dp) {
         return DefaultLink.builder().providerId(PID)
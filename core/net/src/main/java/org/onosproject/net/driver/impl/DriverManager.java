@@ -15,6 +15,8 @@
  */
 package org.onosproject.net.driver.impl;
 
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Timer;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
@@ -24,10 +26,15 @@ import org.apache.felix.scr.annotations.Deactivate;
 import org.apache.felix.scr.annotations.Reference;
 import org.apache.felix.scr.annotations.ReferenceCardinality;
 import org.apache.felix.scr.annotations.Service;
+import org.onlab.metrics.MetricsComponent;
+import org.onlab.metrics.MetricsService;
 import org.onlab.util.ItemNotFoundException;
+import org.onosproject.core.MetricsHelper;
 import org.onosproject.net.AbstractProjectableModel;
 import org.onosproject.net.Device;
 import org.onosproject.net.DeviceId;
+import org.onosproject.net.device.DeviceEvent;
+import org.onosproject.net.device.DeviceListener;
 import org.onosproject.net.device.DeviceService;
 import org.onosproject.net.driver.Behaviour;
 import org.onosproject.net.driver.DefaultDriverData;
@@ -37,14 +44,21 @@ import org.onosproject.net.driver.Driver;
 import org.onosproject.net.driver.DriverAdminService;
 import org.onosproject.net.driver.DriverHandler;
 import org.onosproject.net.driver.DriverProvider;
+import org.onosproject.net.driver.StatelessBehaviour;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 import java.util.stream.Collectors;
 
+import static org.onlab.metrics.MetricsUtil.startTimer;
+import static org.onlab.metrics.MetricsUtil.stopTimer;
 import static org.onlab.util.Tools.nullIsNotFound;
 import static org.onosproject.net.AnnotationKeys.DRIVER;
 import static org.onosproject.security.AppGuard.checkPermission;
@@ -57,7 +71,8 @@ import static org.onosproject.security.AppPermission.Type.*;
  */
 @Component(immediate = true)
 @Service
-public class DriverManager extends DefaultDriverProvider implements DriverAdminService {
+public class DriverManager extends DefaultDriverProvider
+        implements DriverAdminService, MetricsHelper {
 
     private final Logger log = LoggerFactory.getLogger(getClass());
 
@@ -65,28 +80,70 @@ public class DriverManager extends DefaultDriverProvider implements DriverAdminS
     private static final String NO_DEVICE = "Device not found";
     private static final String DEFAULT = "default";
 
+    private static final String METRICS_COMPONENT = "Driver";
+    private static final String RESOLUTION_FEATURE = "resolution";
+    private static final String BEHAVIOUR_FEATURE = "behaviour";
+
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
     protected DeviceService deviceService;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
+    protected MetricsService metricsService;
+
     private Set<DriverProvider> providers = Sets.newConcurrentHashSet();
     private Map<String, Driver> driverByKey = Maps.newConcurrentMap();
+    private Map<String, DriverPattern> patternByKey = Maps.newConcurrentMap();
     private Map<String, Class<? extends Behaviour>> classes = Maps.newConcurrentMap();
 
+    // Drivers resolved for device attributes and for devices, and the
+    // stateless behaviours created for devices; all of these are dropped
+    // as drivers or devices change.
+    private final Map<String, Driver> resolvedDrivers = Maps.newConcurrentMap();
+    private final Map<DeviceId, Driver> deviceDrivers = Maps.newConcurrentMap();
+    private final Map<DeviceId, Map<Class<? extends Behaviour>, Behaviour>> deviceBehaviours =
+            Maps.newConcurrentMap();
+    private final AtomicLong generation = new AtomicLong();
+
+    private final DeviceListener deviceListener = new InternalDeviceListener();
+
+    private Timer resolutionTimer;
+    private Counter resolutionCacheHits;
+    private Timer behaviourTimer;
+    private Counter behaviourCacheHits;
+
     @Activate
     protected void activate() {
         AbstractProjectableModel.setDriverService(null, this);
+        deviceService.addListener(deviceListener);
+        resolutionTimer = createTimer(METRICS_COMPONENT, RESOLUTION_FEATURE, "responseTime");
+        behaviourTimer = createTimer(METRICS_COMPONENT, BEHAVIOUR_FEATURE, "responseTime");
+        if (metricsService != null) {
+            MetricsComponent component = metricsService.registerComponent(METRICS_COMPONENT);
+            resolutionCacheHits = metricsService.createCounter(
+                    component, component.registerFeature(RESOLUTION_FEATURE), "cacheHits");
+            behaviourCacheHits = metricsService.createCounter(
+                    component, component.registerFeature(BEHAVIOUR_FEATURE), "cacheHits");
+        }
         log.info("Started");
     }
 
     @Deactivate
     protected void deactivate() {
         AbstractProjectableModel.setDriverService(this, null);
+        deviceService.removeListener(deviceListener);
         providers.clear();
         driverByKey.clear();
+        patternByKey.clear();
         classes.clear();
+        invalidate();
         log.info("Stopped");
     }
 
+    @Override
+    public MetricsService metricsService() {
+        return metricsService;
+    }
+
     @Override
     public Set<DriverProvider> getProviders() {
         return ImmutableSet.copyOf(providers);
@@ -96,9 +153,9 @@ public class DriverManager extends DefaultDriverProvider implements DriverAdminS
     public void registerProvider(DriverProvider provider) {
         provider.getDrivers().forEach(driver -> {
             Driver d = addDriver(driver);
-            driverByKey.put(key(driver.manufacturer(),
-                                driver.hwVersion(),
-                                driver.swVersion()), d);
+            String key = key(driver.manufacturer(), driver.hwVersion(), driver.swVersion());
+            driverByKey.put(key, d);
+            patternByKey.put(key, new DriverPattern(d));
             d.behaviours().forEach(b -> {
                 Class<? extends Behaviour> implementation = d.implementation(b);
                 classes.put(b.getName(), b);
@@ -112,11 +169,25 @@ public class DriverManager extends DefaultDriverProvider implements DriverAdminS
     public void unregisterProvider(DriverProvider provider) {
         provider.getDrivers().forEach(driver -> {
             removeDriver(driver);
-            driverByKey.remove(key(driver.manufacturer(),
-                                   driver.hwVersion(),
-                                   driver.swVersion()));
+            String key = key(driver.manufacturer(), driver.hwVersion(), driver.swVersion());
+            driverByKey.remove(key);
+            patternByKey.remove(key);
         });
         providers.remove(provider);
+        invalidate();
+    }
+
+    @Override
+    public Driver addDriver(Driver driver) {
+        Driver registered = super.addDriver(driver);
+        invalidate();
+        return registered;
+    }
+
+    @Override
+    public void removeDriver(Driver driver) {
+        super.removeDriver(driver);
+        invalidate();
     }
 
     @Override
@@ -149,34 +220,37 @@ public class DriverManager extends DefaultDriverProvider implements DriverAdminS
     @Override
     public Driver getDriver(String mfr, String hw, String sw) {
         checkPermission(DRIVER_READ);
+        String key = key(mfr, hw, sw);
+        return cached(resolvedDrivers, key, () -> resolveDriver(key, mfr, hw, sw),
+                      resolutionTimer, resolutionCacheHits);
+    }
 
+    private Driver resolveDriver(String key, String mfr, String hw, String sw) {
         // First attempt a literal search.
-        Driver driver = driverByKey.get(key(mfr, hw, sw));
+        Driver driver = driverByKey.get(key);
         if (driver != null) {
             return driver;
         }
 
         // Otherwise, sweep through the key space and attempt to match using
         // regular expression matching.
-        Optional<Driver> optional = driverByKey.values().stream()
-                .filter(d -> matches(d, mfr, hw, sw)).findFirst();
+        Optional<Driver> optional = patternByKey.values().stream()
+                .filter(p -> p.matches(mfr, hw, sw))
+                .map(p -> p.driver)
+                .findFirst();
 
         // If no matching driver is found, return default.
         return optional.orElse(drivers.get(DEFAULT));
     }
 
-    // Matches the given driver using ERE matching against the given criteria.
-    private boolean matches(Driver d, String mfr, String hw, String sw) {
-        // TODO: consider pre-compiling the expressions in the future
-        return mfr.matches(d.manufacturer()) &&
-                hw.matches(d.hwVersion()) &&
-                sw.matches(d.swVersion());
-    }
-
     @Override
     public Driver getDriver(DeviceId deviceId) {
         checkPermission(DRIVER_READ);
+        return cached(deviceDrivers, deviceId, () -> resolveDriver(deviceId),
+                      resolutionTimer, resolutionCacheHits);
+    }
 
+    private Driver resolveDriver(DeviceId deviceId) {
         Device device = nullIsNotFound(deviceService.getDevice(deviceId), NO_DEVICE);
         String driverName = device.annotations().value(DRIVER);
         if (driverName != null) {
@@ -196,11 +270,126 @@ public class DriverManager extends DefaultDriverProvider implements DriverAdminS
     public DriverHandler createHandler(DeviceId deviceId, String... credentials) {
         checkPermission(DRIVER_WRITE);
         Driver driver = getDriver(deviceId);
-        return new DefaultDriverHandler(new DefaultDriverData(driver, deviceId));
+        return new InternalDriverHandler(new DefaultDriverData(driver, deviceId));
+    }
+
+    // Returns the value cached for the given key, resolving and caching it
+    // if need be. A value resolved while the caches were being invalidated
+    // is returned but not retained.
+    private <K, V> V cached(Map<K, V> cache, K key, Supplier<V> resolver,
+                            Timer timer, Counter hits) {
+        V value = cache.get(key);
+        if (value != null) {
+            if (hits != null) {
+                hits.inc();
+            }
+            return value;
+        }
+
+        long expectedGeneration = generation.get();
+        Timer.Context context = startTimer(timer);
+        try {
+            value = resolver.get();
+        } finally {
+            stopTimer(context);
+        }
+
+        if (value != null) {
+            cache.put(key, value);
+            if (generation.get() != expectedGeneration) {
+                cache.remove(key, value);
+            }
+        }
+        return value;
+    }
+
+    // Drops everything resolved so far.
+    private void invalidate() {
+        generation.incrementAndGet();
+        resolvedDrivers.clear();
+        deviceDrivers.clear();
+        deviceBehaviours.clear();
+    }
+
+    // Drops everything resolved so far for the given device.
+    private void invalidate(DeviceId deviceId) {
+        generation.incrementAndGet();
+        deviceDrivers.remove(deviceId);
+        deviceBehaviours.remove(deviceId);
     }
 
     // Produces a composite driver key using the specified components.
     private String key(String mfr, String hw, String sw) {
         return String.format("%s-%s-%s", mfr, hw, sw);
     }
+
+    // Driver along with its pre-compiled matching criteria.
+    private final class DriverPattern {
+        private final Driver driver;
+        private final Pattern mfr;
+        private final Pattern hw;
+        private final Pattern sw;
+
+        private DriverPattern(Driver driver) {
+            this.driver = driver;
+            this.mfr = compile(driver.manufacturer());
+            this.hw = compile(driver.hwVersion());
+            this.sw = compile(driver.swVersion());
+        }
+
+        private Pattern compile(String regex) {
+            try {
+                return Pattern.compile(regex);
+            } catch (PatternSyntaxException e) {
+                log.warn("Driver {} criterion {} is not a valid expression; matching it literally",
+                         driver.name(), regex);
+                return Pattern.compile(Pattern.quote(regex));
+            }
+        }
+
+        // Matches the driver using ERE matching against the given criteria.
+        private boolean matches(String mfr, String hw, String sw) {
+            return this.mfr.matcher(mfr).matches() &&
+                    this.hw.matcher(hw).matches() &&
+                    this.sw.matcher(sw).matches();
+        }
+    }
+
+    // Driver handler which reuses the stateless behaviours of the device.
+    private final class InternalDriverHandler extends DefaultDriverHandler {
+
+        private InternalDriverHandler(DefaultDriverData data) {
+            super(data);
+        }
+
+        @Override
+        public <T extends Behaviour> T behaviour(Class<T> behaviourClass) {
+            Class<? extends Behaviour> implementation = driver().implementation(behaviourClass);
+            if (implementation == null ||
+                    !StatelessBehaviour.class.isAssignableFrom(implementation)) {
+                return super.behaviour(behaviourClass);
+            }
+
+            Map<Class<? extends Behaviour>, Behaviour> behaviours =
+                    deviceBehaviours.computeIfAbsent(data().deviceId(), id -> Maps.newConcurrentMap());
+            return behaviourClass.cast(cached(behaviours, behaviourClass,
+                                              () -> super.behaviour(behaviourClass),
+                                              behaviourTimer, behaviourCacheHits));
+        }
+    }
+
+    private class InternalDeviceListener implements DeviceListener {
+        @Override
+        public void event(DeviceEvent event) {
+            switch (event.type()) {
+                case DEVICE_ADDED:
+                case DEVICE_UPDATED:
+                case DEVICE_REMOVED:
+                    invalidate(event.subject().id());
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
 }
@@ -17,6 +17,8 @@
 
 package org.onosproject.net.edgeservice.impl;
 
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Histogram;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
@@ -26,6 +28,9 @@ import org.apache.felix.scr.annotations.Deactivate;
 import org.apache.felix.scr.annotations.Reference;
 import org.apache.felix.scr.annotations.ReferenceCardinality;
 import org.apache.felix.scr.annotations.Service;
+import org.onlab.metrics.MetricsComponent;
+import org.onlab.metrics.MetricsFeature;
+import org.onlab.metrics.MetricsService;
 import org.onosproject.event.AbstractListenerManager;
 import org.onosproject.net.ConnectPoint;
 import org.onosproject.net.DeviceId;
@@ -42,7 +47,6 @@ import org.onosproject.net.link.LinkEvent;
 import org.onosproject.net.link.LinkListener;
 import org.onosproject.net.link.LinkService;
 import org.onosproject.net.packet.DefaultOutboundPacket;
-import org.onosproject.net.packet.OutboundPacket;
 import org.onosproject.net.packet.PacketService;
 import org.slf4j.Logger;
 
@@ -74,9 +78,17 @@ public class EdgeManager
 
     private final Logger log = getLogger(getClass());
 
+    private static final String METRICS_COMPONENT = "EdgeManager";
+    private static final String METRICS_FEATURE = "flood";
+
     // Set of edge ConnectPoints per Device.
     private final Map<DeviceId, Set<ConnectPoint>> connectionPoints = Maps.newConcurrentMap();
 
+    // Immutable copies of the edge ConnectPoints of each Device and the
+    // treatments flooding them, built on demand and dropped on change.
+    private final Map<DeviceId, Set<ConnectPoint>> edgePointSnapshots = Maps.newConcurrentMap();
+    private final Map<DeviceId, TrafficTreatment> floodTreatments = Maps.newConcurrentMap();
+
     private final DeviceListener deviceListener = new InnerDeviceListener();
     private final LinkListener linkListener = new InnerLinkListener();
 
@@ -89,8 +101,20 @@ public class EdgeManager
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
     protected LinkService linkService;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
+    protected MetricsService metricsService;
+
+    private Counter floodCount;
+    private Histogram packetOutsPerFlood;
+
     @Activate
     public void activate() {
+        if (metricsService != null) {
+            MetricsComponent component = metricsService.registerComponent(METRICS_COMPONENT);
+            MetricsFeature feature = component.registerFeature(METRICS_FEATURE);
+            floodCount = metricsService.createCounter(component, feature, "floods");
+            packetOutsPerFlood = metricsService.createHistogram(component, feature, "packetOuts");
+        }
         eventDispatcher.addSink(EdgePortEvent.class, listenerRegistry);
         deviceService.addListener(deviceListener);
         linkService.addListener(linkListener);
@@ -124,33 +148,67 @@ public class EdgeManager
     @Override
     public Iterable<ConnectPoint> getEdgePoints(DeviceId deviceId) {
         checkPermission(TOPOLOGY_READ);
-        ImmutableSet.Builder<ConnectPoint> builder = ImmutableSet.builder();
-        Set<ConnectPoint> set = connectionPoints.get(deviceId);
-        if (set != null) {
-            set.forEach(builder::add);
-        }
-        return builder.build();
+        return edgePoints(deviceId);
     }
 
     @Override
     public void emitPacket(ByteBuffer data, Optional<TrafficTreatment> treatment) {
         checkPermission(PACKET_WRITE);
-        TrafficTreatment.Builder builder = treatment.map(DefaultTrafficTreatment::builder)
-                .orElse(DefaultTrafficTreatment.builder());
-        getEdgePoints().forEach(p -> packetService.emit(packet(builder, p, data)));
+        int packetOuts = 0;
+        for (DeviceId deviceId : connectionPoints.keySet()) {
+            packetOuts += emit(deviceId, data, treatment);
+        }
+        recordFlood(packetOuts);
     }
 
     @Override
     public void emitPacket(DeviceId deviceId, ByteBuffer data,
                            Optional<TrafficTreatment> treatment) {
-        TrafficTreatment.Builder builder = treatment.map(DefaultTrafficTreatment::builder)
-                .orElse(DefaultTrafficTreatment.builder());
-        getEdgePoints(deviceId).forEach(p -> packetService.emit(packet(builder, p, data)));
+        recordFlood(emit(deviceId, data, treatment));
+    }
+
+    // Emits the packet out of all edge ports of the device at once, with
+    // a treatment that outputs it on each of them; returns the number of
+    // packets emitted.
+    private int emit(DeviceId deviceId, ByteBuffer data, Optional<TrafficTreatment> treatment) {
+        Set<ConnectPoint> points = edgePoints(deviceId);
+        if (points.isEmpty()) {
+            return 0;
+        }
+        TrafficTreatment flood = treatment.isPresent() ?
+                floodTreatment(DefaultTrafficTreatment.builder(treatment.get()), points) :
+                floodTreatments.computeIfAbsent(deviceId, id -> floodTreatment(
+                        DefaultTrafficTreatment.builder(), edgePoints(id)));
+        packetService.emit(new DefaultOutboundPacket(deviceId, flood, data));
+        return 1;
+    }
+
+    private TrafficTreatment floodTreatment(TrafficTreatment.Builder builder,
+                                            Set<ConnectPoint> points) {
+        points.forEach(p -> builder.setOutput(p.port()));
+        return builder.build();
+    }
+
+    private void recordFlood(int packetOuts) {
+        if (floodCount != null) {
+            floodCount.inc();
+            packetOutsPerFlood.update(packetOuts);
+        }
+    }
+
+    // Returns an immutable copy of the edge points of the device.
+    private Set<ConnectPoint> edgePoints(DeviceId deviceId) {
+        return edgePointSnapshots.computeIfAbsent(deviceId, id -> {
+            Set<ConnectPoint> set = connectionPoints.get(id);
+            return set == null ? ImmutableSet.of() : ImmutableSet.copyOf(set);
+        });
     }
 
-    private OutboundPacket packet(TrafficTreatment.Builder builder, ConnectPoint point, ByteBuffer data) {
-        builder.setOutput(point.port());
-        return new DefaultOutboundPacket(point.deviceId(), builder.build(), data);
+    // Drops the copies of the edge points of the device, along with its
+    // flood treatment, following a change of the edge points.
+    private void invalidate(DeviceId deviceId) {
+        edgePointSnapshots.remove(deviceId);
+        floodTreatments.remove(deviceId);
     }
 
     private class InnerLinkListener implements LinkListener {
@@ -210,7 +268,9 @@ public class EdgeManager
                 type == DEVICE_AVAILABILITY_CHANGED && !deviceService.isAvailable(id)) {
             // When device is removed or becomes unavailable, remove all its ports.
             // Note: cannot rely on Device subsystem, ports may be gone.
-            Optional.ofNullable(connectionPoints.remove(id))
+            Set<ConnectPoint> removed = connectionPoints.remove(id);
+            invalidate(id);
+            Optional.ofNullable(removed)
                 .orElse(ImmutableSet.of())
                 .forEach(point -> post(new EdgePortEvent(EDGE_PORT_REMOVED, point)));
 
@@ -238,6 +298,7 @@ public class EdgeManager
             Set<ConnectPoint> set = connectionPoints.computeIfAbsent(point.deviceId(),
                                                                      (k) -> Sets.newConcurrentHashSet());
             if (set.add(point)) {
+                invalidate(point.deviceId());
                 post(new EdgePortEvent(EDGE_PORT_ADDED, point));
             }
         }
@@ -252,6 +313,7 @@ public class EdgeManager
                 return;
             }
             if (set.remove(point)) {
+                invalidate(point.deviceId());
                 post(new EdgePortEvent(EDGE_PORT_REMOVED, point));
             }
             if (set.isEmpty()) {
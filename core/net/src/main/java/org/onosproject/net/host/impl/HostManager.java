@@ -30,6 +30,7 @@ import org.onlab.packet.VlanId;
 import org.onlab.util.Tools;
 import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.incubator.net.intf.InterfaceService;
+import org.onosproject.mastership.MastershipService;
 import org.onosproject.net.edge.EdgePortService;
 import org.onosproject.net.provider.AbstractListenerProviderRegistry;
 import org.onosproject.net.config.NetworkConfigEvent;
@@ -51,6 +52,7 @@ import org.onosproject.net.host.HostProviderService;
 import org.onosproject.net.host.HostService;
 import org.onosproject.net.host.HostStore;
 import org.onosproject.net.host.HostStoreDelegate;
+import org.onosproject.net.intent.WorkPartitionService;
 import org.onosproject.net.packet.PacketService;
 import org.onosproject.net.provider.AbstractProviderService;
 import org.osgi.service.component.ComponentContext;
@@ -105,6 +107,12 @@ public class HostManager
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
     protected ComponentConfigService cfgService;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
+    protected MastershipService mastershipService;
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
+    protected WorkPartitionService partitionService;
+
     @Property(name = "allowDuplicateIps", boolValue = true,
             label = "Enable removal of duplicate ip address")
     private boolean allowDuplicateIps = true;
@@ -117,6 +125,10 @@ public class HostManager
             label = "Set the probe Rate in milli seconds")
     private long probeRate = 30000;
 
+    @Property(name = "maxProbesPerSecond", intValue = 200,
+            label = "Set the maximum number of host probes sent per second")
+    private int maxProbesPerSecond = 200;
+
     @Property(name = "greedyLearningIpv6", boolValue = false,
             label = "Enable/Disable greedy learning of IPv6 link local address")
     private boolean greedyLearningIpv6 = false;
@@ -130,8 +142,10 @@ public class HostManager
         eventDispatcher.addSink(HostEvent.class, listenerRegistry);
         cfgService.registerProperties(getClass());
         networkConfigService.addListener(networkConfigListener);
-        monitor = new HostMonitor(packetService, this, interfaceService, edgePortService);
+        monitor = new HostMonitor(packetService, this, interfaceService, edgePortService,
+                                  mastershipService, partitionService);
         monitor.setProbeRate(probeRate);
+        monitor.setMaxProbesPerSecond(maxProbesPerSecond);
         monitor.start();
         modified(context);
         cfgService.registerProperties(getClass());
@@ -157,6 +171,11 @@ public class HostManager
         } else {
             log.warn("probeRate cannot be lessthan 0");
         }
+        if (maxProbesPerSecond > 0) {
+            monitor.setMaxProbesPerSecond(maxProbesPerSecond);
+        } else {
+            log.warn("maxProbesPerSecond must be greater than 0");
+        }
 
         if (oldValue != monitorHosts) {
             if (monitorHosts) {
@@ -194,6 +213,14 @@ public class HostManager
             log.info("Configured. probeRate {}", probeRate);
         }
 
+        Integer intValue = Tools.getIntegerProperty(properties, "maxProbesPerSecond");
+        if (intValue == null) {
+            log.info("maxProbesPerSecond is not set using default value of {}", maxProbesPerSecond);
+        } else {
+            maxProbesPerSecond = intValue;
+            log.info("Configured. maxProbesPerSecond {}", maxProbesPerSecond);
+        }
+
         flag = Tools.isPropertyEnabled(properties, "allowDuplicateIps");
         if (flag == null) {
             log.info("Removal of duplicate ip address is not configured");
@@ -340,6 +367,7 @@ public class HostManager
             }
             store.createOrUpdateHost(provider().id(), hostId,
                                      hostDescription, replaceIps);
+            hostDescription.ipAddress().forEach(monitor::hostSeen);
 
             if (monitorHosts) {
                 hostDescription.ipAddress().forEach(ip -> {
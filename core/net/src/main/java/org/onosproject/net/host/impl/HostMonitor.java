@@ -26,12 +26,14 @@ import org.onlab.packet.VlanId;
 import org.onlab.packet.ndp.NeighborSolicitation;
 import org.onlab.util.Timer;
 import org.onosproject.incubator.net.intf.InterfaceService;
+import org.onosproject.mastership.MastershipService;
 import org.onosproject.net.ConnectPoint;
 import org.onosproject.net.Host;
 import org.onosproject.net.edge.EdgePortService;
 import org.onosproject.net.flow.DefaultTrafficTreatment;
 import org.onosproject.net.flow.TrafficTreatment;
 import org.onosproject.net.host.HostProvider;
+import org.onosproject.net.intent.WorkPartitionService;
 import org.onosproject.net.packet.DefaultOutboundPacket;
 import org.onosproject.net.packet.OutboundPacket;
 import org.onosproject.net.packet.PacketService;
@@ -40,10 +42,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.nio.ByteBuffer;
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -53,6 +60,14 @@ import java.util.concurrent.TimeUnit;
  * changes. At an application's request, it can also monitor and actively
  * probe for hosts that have not yet been detected (specified by IP address).
  * </p>
+ * <p>
+ * Probes are spread over the probe interval rather than sent in bursts, and
+ * the number of probes sent per second is capped. A detected host is only
+ * probed by the master of the device it is located on, and an undetected
+ * one by the instance owning its address in the work partition. Hosts seen
+ * on the dataplane between consecutive probes are probed less and less
+ * often, up to a multiple of the probe rate.
+ * </p>
  */
 public class HostMonitor implements TimerTask {
 
@@ -62,19 +77,33 @@ public class HostMonitor implements TimerTask {
     private HostManager hostManager;
     private InterfaceService interfaceService;
     private EdgePortService edgePortService;
+    private MastershipService mastershipService;
+    private WorkPartitionService partitionService;
 
-    private final Set<IpAddress> monitoredAddresses;
+    // Monitored addresses and their probe schedule, ordered by deadline;
+    // a schedule no longer in the map is discarded when it comes up
+    private final ConcurrentMap<IpAddress, ProbeSchedule> monitoredAddresses;
+    private final Queue<ProbeSchedule> schedules =
+            new PriorityQueue<>(Comparator.comparingLong(ProbeSchedule::deadline));
 
     private final ConcurrentMap<ProviderId, HostProvider> hostProviders;
 
     private static final long DEFAULT_PROBE_RATE = 30000; // milliseconds
+    private static final int DEFAULT_MAX_PROBES_PER_SECOND = 200;
+    private static final long TICK_MILLIS = 200;
+    private static final int MAX_BACKOFF = 8; // multiple of the probe rate
     private static final byte[] ZERO_MAC_ADDRESS = MacAddress.ZERO.toBytes();
-    private long probeRate = DEFAULT_PROBE_RATE;
+    private volatile long probeRate = DEFAULT_PROBE_RATE;
+    private volatile int maxProbesPerSecond = DEFAULT_MAX_PROBES_PER_SECOND;
+
+    // Token bucket capping the probes, which starts full; guarded by schedules
+    private double probeTokens = 0;
+    private long lastRefill = 0;
 
     private Timeout timeout;
 
     /**
-     * Creates a new host monitor.
+     * Creates a new host monitor probing all the monitored hosts.
      *
      * @param packetService packet service used to send packets on the data plane
      * @param hostManager host manager used to look up host information and
@@ -85,13 +114,37 @@ public class HostMonitor implements TimerTask {
     public HostMonitor(PacketService packetService, HostManager hostManager,
                        InterfaceService interfaceService,
                        EdgePortService edgePortService) {
+        this(packetService, hostManager, interfaceService, edgePortService, null, null);
+    }
+
+    /**
+     * Creates a new host monitor probing the monitored hosts this instance
+     * is responsible for.
+     *
+     * @param packetService packet service used to send packets on the data plane
+     * @param hostManager host manager used to look up host information and
+     * probe existing hosts
+     * @param interfaceService interface service for interface information
+     * @param edgePortService  edge port service
+     * @param mastershipService mastership service used to shard the probes
+     * of detected hosts; null to probe them all
+     * @param partitionService work partition service used to shard the probes
+     * of undetected hosts; null to probe them all
+     */
+    public HostMonitor(PacketService packetService, HostManager hostManager,
+                       InterfaceService interfaceService,
+                       EdgePortService edgePortService,
+                       MastershipService mastershipService,
+                       WorkPartitionService partitionService) {
 
         this.packetService = packetService;
         this.hostManager = hostManager;
         this.interfaceService = interfaceService;
         this.edgePortService = edgePortService;
+        this.mastershipService = mastershipService;
+        this.partitionService = partitionService;
 
-        monitoredAddresses = Collections.newSetFromMap(new ConcurrentHashMap<>());
+        monitoredAddresses = new ConcurrentHashMap<>();
         hostProviders = new ConcurrentHashMap<>();
     }
 
@@ -102,7 +155,17 @@ public class HostMonitor implements TimerTask {
      * @param ip IP address of the host to monitor
      */
     void addMonitoringFor(IpAddress ip) {
-        if (monitoredAddresses.add(ip)) {
+        if (monitoredAddresses.containsKey(ip)) {
+            return;
+        }
+        // Spread the first scheduled probes over the whole interval
+        long deadline = System.currentTimeMillis() +
+                ThreadLocalRandom.current().nextLong(probeRate);
+        ProbeSchedule schedule = new ProbeSchedule(ip, deadline, probeRate);
+        if (monitoredAddresses.putIfAbsent(ip, schedule) == null) {
+            synchronized (schedules) {
+                schedules.add(schedule);
+            }
             probe(ip);
         }
     }
@@ -116,6 +179,19 @@ public class HostMonitor implements TimerTask {
         monitoredAddresses.remove(ip);
     }
 
+    /**
+     * Records that a host with the given IP address was seen on the
+     * dataplane, which defers its next probes.
+     *
+     * @param ip IP address of the host
+     */
+    void hostSeen(IpAddress ip) {
+        ProbeSchedule schedule = monitoredAddresses.get(ip);
+        if (schedule != null) {
+            schedule.lastSeen = System.currentTimeMillis();
+        }
+    }
+
     /**
      * Starts the host monitor. Does nothing if the monitor is already running.
      */
@@ -132,8 +208,10 @@ public class HostMonitor implements TimerTask {
      */
     void shutdown() {
         synchronized (this) {
-            timeout.cancel();
-            timeout = null;
+            if (timeout != null) {
+                timeout.cancel();
+                timeout = null;
+            }
         }
     }
 
@@ -144,6 +222,13 @@ public class HostMonitor implements TimerTask {
         this.probeRate = probeRate;
     }
 
+    /*
+     * Sets the maximum number of probes sent per second.
+     */
+    void setMaxProbesPerSecond(int maxProbesPerSecond) {
+        this.maxProbesPerSecond = maxProbesPerSecond;
+    }
+
     /**
      * Registers a host provider with the host monitor. The monitor can use the
      * provider to probe hosts.
@@ -156,20 +241,68 @@ public class HostMonitor implements TimerTask {
 
     @Override
     public void run(Timeout timeout) throws Exception {
-        monitoredAddresses.forEach(this::probe);
+        try {
+            probeDue(System.currentTimeMillis());
+        } finally {
+            synchronized (this) {
+                if (this.timeout != null) {
+                    this.timeout = Timer.getTimer().newTimeout(this, TICK_MILLIS, TimeUnit.MILLISECONDS);
+                }
+            }
+        }
+    }
 
-        synchronized (this) {
-            this.timeout = Timer.getTimer().newTimeout(this, probeRate, TimeUnit.MILLISECONDS);
+    /**
+     * Probes the monitored hosts whose probe is due at the given time, as
+     * far as the probe rate limit allows. The others are left for later.
+     *
+     * @param now current time in milliseconds
+     */
+    void probeDue(long now) {
+        List<IpAddress> due = new ArrayList<>();
+        synchronized (schedules) {
+            int burst = (int) Math.max(1, maxProbesPerSecond * TICK_MILLIS / 1000);
+            probeTokens = Math.min(burst, probeTokens +
+                    Math.max(0, now - lastRefill) * maxProbesPerSecond / 1000.0);
+            lastRefill = now;
+
+            ProbeSchedule schedule;
+            while ((schedule = schedules.peek()) != null && schedule.deadline <= now) {
+                schedules.poll();
+                if (monitoredAddresses.get(schedule.ip) != schedule) {
+                    continue;
+                }
+                if (probeTokens < 1) {
+                    // Out of probes for now; retry at the next tick
+                    schedules.add(schedule);
+                    break;
+                }
+                probeTokens--;
+                // Back off while the host keeps being seen between probes
+                boolean seen = schedule.lastSeen > schedule.deadline - schedule.interval;
+                schedule.interval = seen ? Math.min(schedule.interval * 2, probeRate * MAX_BACKOFF) : probeRate;
+                schedule.deadline = now + schedule.interval;
+                schedules.add(schedule);
+                due.add(schedule.ip);
+            }
         }
+        due.forEach(this::probe);
     }
 
     private void probe(IpAddress ip) {
         Set<Host> hosts = hostManager.getHostsByIp(ip);
 
         if (hosts.isEmpty()) {
-            sendRequest(ip);
+            if (partitionService == null ||
+                    partitionService.isMine(ip, address -> (long) address.hashCode())) {
+                sendRequest(ip);
+            }
         } else {
             for (Host host : hosts) {
+                if (mastershipService != null &&
+                        !mastershipService.isLocalMaster(host.location().deviceId())) {
+                    continue;
+                }
                 HostProvider provider = hostProviders.get(host.providerId());
                 if (provider == null) {
                     hostProviders.remove(host.providerId(), null);
@@ -283,4 +416,22 @@ public class HostMonitor implements TimerTask {
         return ethernet;
     }
 
+    // Probe schedule of a monitored address; guarded by the schedules queue,
+    // except for the time the host was last seen.
+    private static final class ProbeSchedule {
+        private final IpAddress ip;
+        private long deadline;
+        private long interval;
+        private volatile long lastSeen;
+
+        private ProbeSchedule(IpAddress ip, long deadline, long interval) {
+            this.ip = ip;
+            this.deadline = deadline;
+            this.interval = interval;
+        }
+
+        private long deadline() {
+            return deadline;
+        }
+    }
 }
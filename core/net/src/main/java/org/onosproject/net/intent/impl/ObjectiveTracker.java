@@ -77,6 +77,7 @@ import static org.onosproject.net.intent.IntentState.INSTALLED;
 import static org.onosproject.net.intent.IntentState.INSTALLING;
 import static org.onosproject.net.link.LinkEvent.Type.LINK_REMOVED;
 import static org.onosproject.net.link.LinkEvent.Type.LINK_UPDATED;
+import static org.onosproject.net.resource.ResourceEvent.Type.RESOURCE_REMOVED;
 import static org.slf4j.LoggerFactory.getLogger;
 
 /**
@@ -300,7 +301,9 @@ public class ObjectiveTracker implements ObjectiveTrackerService {
     private class InternalResourceListener implements ResourceListener {
         @Override
         public void event(ResourceEvent event) {
-            if (event.subject().isSubTypeOf(PortNumber.class)) {
+            // Withdrawn port resources cannot help failed intents, and the
+            // intents using a removed port are recompiled on LINK_REMOVED
+            if (event.type() != RESOURCE_REMOVED && event.subject().isSubTypeOf(PortNumber.class)) {
                 executorService.execute(() -> {
                     if (delegate == null) {
                         return;
@@ -367,7 +370,8 @@ public class ObjectiveTracker implements ObjectiveTrackerService {
             case PORT_UPDATED:
             case PORT_STATS_UPDATED:
             default:
-                // Don't handle port events for now
+                // A port going down or away takes its links down with it,
+                // so the affected intents are recompiled on LINK_REMOVED
                 break;
             }
         }
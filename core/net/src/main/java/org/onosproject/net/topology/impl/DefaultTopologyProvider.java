@@ -42,6 +42,8 @@ import org.apache.felix.scr.annotations.Service;
 import org.onlab.util.AbstractAccumulator;
 import org.onlab.util.Accumulator;
 import org.onosproject.cfg.ComponentConfigService;
+import org.onosproject.common.DefaultTopology;
+import org.onosproject.common.DefaultTopology.PathCacheMode;
 import org.onosproject.event.Event;
 import org.onosproject.net.device.DeviceEvent;
 import org.onosproject.net.device.DeviceListener;
@@ -74,6 +76,9 @@ public class DefaultTopologyProvider extends AbstractProvider
     private static final int DEFAULT_MAX_EVENTS = 1000;
     private static final int DEFAULT_MAX_IDLE_MS = 10;
     private static final int DEFAULT_MAX_BATCH_MS = 50;
+    private static final String DEFAULT_PATH_CACHE_MODE = "disabled";
+    private static final int DEFAULT_MAX_PATH_CACHE_ENTRIES =
+            DefaultTopology.DEFAULT_MAX_PATH_CACHE_ENTRIES;
 
     // FIXME: Replace with a system-wide timer instance;
     // TODO: Convert to use HashedWheelTimer or produce a variant of that; then decide which we want to adopt
@@ -91,6 +96,16 @@ public class DefaultTopologyProvider extends AbstractProvider
             label = "Maximum number of millis for whole batch")
     private int maxBatchMs = DEFAULT_MAX_BATCH_MS;
 
+    @Property(name = "pathCacheMode", value = DEFAULT_PATH_CACHE_MODE,
+            label = "Caching of per-source shortest-path trees; " +
+                    "disabled, lazy or precomputed")
+    private String pathCacheMode = DEFAULT_PATH_CACHE_MODE;
+
+    @Property(name = "maxPathCacheEntries", intValue = DEFAULT_MAX_PATH_CACHE_ENTRIES,
+            label = "Maximum number of devices held by the cached " +
+                    "shortest-path trees of a topology")
+    private int maxPathCacheEntries = DEFAULT_MAX_PATH_CACHE_ENTRIES;
+
     private final Logger log = getLogger(getClass());
 
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
@@ -164,6 +179,8 @@ public class DefaultTopologyProvider extends AbstractProvider
         }
 
         Dictionary<?, ?> properties = context.getProperties();
+        readPathCacheConfiguration(properties);
+
         int newMaxEvents, newMaxBatchMs, newMaxIdleMs;
         try {
             String s = get(properties, "maxEvents");
@@ -190,6 +207,36 @@ public class DefaultTopologyProvider extends AbstractProvider
         }
     }
 
+    // Reads the path cache settings, which apply to topologies built from
+    // then on.
+    private void readPathCacheConfiguration(Dictionary<?, ?> properties) {
+        String newMode;
+        int newMaxEntries;
+        try {
+            String s = get(properties, "pathCacheMode");
+            newMode = isNullOrEmpty(s) ? pathCacheMode : s.trim();
+            PathCacheMode.valueOf(newMode.toUpperCase());
+
+            s = get(properties, "maxPathCacheEntries");
+            newMaxEntries = isNullOrEmpty(s) ? maxPathCacheEntries : Integer.parseInt(s.trim());
+            if (newMaxEntries < 0) {
+                throw new NumberFormatException("Negative maxPathCacheEntries");
+            }
+        } catch (IllegalArgumentException | ClassCastException e) {
+            log.warn("Invalid path cache configuration; using defaults", e);
+            newMode = DEFAULT_PATH_CACHE_MODE;
+            newMaxEntries = DEFAULT_MAX_PATH_CACHE_ENTRIES;
+        }
+
+        if (!newMode.equals(pathCacheMode) || newMaxEntries != maxPathCacheEntries) {
+            pathCacheMode = newMode;
+            maxPathCacheEntries = newMaxEntries;
+            DefaultTopology.setPathCache(PathCacheMode.valueOf(pathCacheMode.toUpperCase()),
+                                         maxPathCacheEntries);
+            triggerRecompute();
+        }
+    }
+
     private void logConfig(String prefix) {
         log.info("{} with maxEvents = {}; maxBatchMs = {}; maxIdleMs = {}; accumulator={}",
                  prefix, maxEvents, maxBatchMs, maxIdleMs, accumulator != null);
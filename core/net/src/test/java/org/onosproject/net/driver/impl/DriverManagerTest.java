@@ -0,0 +1,145 @@
+/*
+ * Copyright 2017-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.net.driver.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onosproject.net.Annotations;
+import org.onosproject.net.DefaultAnnotations;
+import org.onosproject.net.DefaultDevice;
+import org.onosproject.net.Device;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.device.DeviceEvent;
+import org.onosproject.net.device.DeviceListener;
+import org.onosproject.net.device.DeviceServiceAdapter;
+import org.onosproject.net.driver.AbstractHandlerBehaviour;
+import org.onosproject.net.driver.DefaultDriver;
+import org.onosproject.net.driver.DefaultDriverProvider;
+import org.onosproject.net.driver.DriverHandler;
+import org.onosproject.net.driver.HandlerBehaviour;
+import org.onosproject.net.driver.StatelessBehaviour;
+import org.onosproject.net.provider.ProviderId;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.onosproject.net.AnnotationKeys.DRIVER;
+
+/**
+ * Tests of the driver manager.
+ */
+public class DriverManagerTest {
+
+    private static final ProviderId PID = new ProviderId("of", "foo");
+    private static final DeviceId DID = DeviceId.deviceId("of:foo");
+
+    private final TestDeviceService deviceService = new TestDeviceService();
+    private DriverManager manager;
+
+    @Before
+    public void setUp() {
+        manager = new DriverManager();
+        manager.deviceService = deviceService;
+        manager.activate();
+
+        DefaultDriverProvider provider = new DefaultDriverProvider();
+        provider.addDriver(new DefaultDriver("default", ImmutableList.of(), "", "", "",
+                                             ImmutableMap.of(), ImmutableMap.of()));
+        provider.addDriver(new DefaultDriver("acme", ImmutableList.of(), "Acme.*", "1\\..*", ".*",
+                                             ImmutableMap.of(TestBehaviour.class, TestStatelessBehaviour.class,
+                                                             TestOtherBehaviour.class, TestStatefulBehaviour.class),
+                                             ImmutableMap.of()));
+        manager.registerProvider(provider);
+    }
+
+    @After
+    public void tearDown() {
+        manager.deactivate();
+    }
+
+    @Test
+    public void driverByAttributes() {
+        assertEquals("incorrect driver", "acme", manager.getDriver("Acme Inc.", "1.2", "3.4").name());
+        assertEquals("incorrect driver", "acme", manager.getDriver("Acme Inc.", "1.2", "3.4").name());
+        assertEquals("incorrect driver", "default", manager.getDriver("Acme Inc.", "2.0", "3.4").name());
+        assertEquals("incorrect driver", "default", manager.getDriver("Other", "1.2", "3.4").name());
+    }
+
+    @Test
+    public void driverByDevice() {
+        deviceService.device = device(DefaultAnnotations.EMPTY);
+        assertEquals("incorrect driver", "acme", manager.getDriver(DID).name());
+
+        // Resolution is cached until the device is reported as updated
+        deviceService.device = device(DefaultAnnotations.builder().set(DRIVER, "default").build());
+        assertEquals("incorrect driver", "acme", manager.getDriver(DID).name());
+        deviceService.listener.event(new DeviceEvent(DeviceEvent.Type.DEVICE_UPDATED, deviceService.device));
+        assertEquals("incorrect driver", "default", manager.getDriver(DID).name());
+    }
+
+    @Test
+    public void behaviourReuse() {
+        deviceService.device = device(DefaultAnnotations.EMPTY);
+        DriverHandler handler = manager.createHandler(DID);
+        DriverHandler otherHandler = manager.createHandler(DID);
+
+        TestBehaviour stateless = handler.behaviour(TestBehaviour.class);
+        assertSame("stateless behaviour not reused", stateless, otherHandler.behaviour(TestBehaviour.class));
+        assertNotSame("stateful behaviour reused", handler.behaviour(TestOtherBehaviour.class),
+                      otherHandler.behaviour(TestOtherBehaviour.class));
+
+        deviceService.listener.event(new DeviceEvent(DeviceEvent.Type.DEVICE_UPDATED, deviceService.device));
+        assertNotSame("stateless behaviour outlived device update", stateless,
+                      manager.createHandler(DID).behaviour(TestBehaviour.class));
+    }
+
+    private static Device device(Annotations annotations) {
+        return new DefaultDevice(PID, DID, Device.Type.SWITCH, "Acme Inc.", "1.2", "3.4", "",
+                                 null, annotations);
+    }
+
+    public interface TestBehaviour extends HandlerBehaviour {
+    }
+
+    public interface TestOtherBehaviour extends HandlerBehaviour {
+    }
+
+    public static class TestStatelessBehaviour extends AbstractHandlerBehaviour
+            implements TestBehaviour, StatelessBehaviour {
+    }
+
+    public static class TestStatefulBehaviour extends AbstractHandlerBehaviour
+            implements TestOtherBehaviour {
+    }
+
+    private static class TestDeviceService extends DeviceServiceAdapter {
+        private Device device;
+        private DeviceListener listener;
+
+        @Override
+        public Device getDevice(DeviceId deviceId) {
+            return device;
+        }
+
+        @Override
+        public void addListener(DeviceListener listener) {
+            this.listener = listener;
+        }
+    }
+}
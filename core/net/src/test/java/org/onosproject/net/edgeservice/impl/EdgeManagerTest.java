@@ -37,6 +37,10 @@ import org.onosproject.net.device.DeviceListener;
 import org.onosproject.net.device.DeviceServiceAdapter;
 import org.onosproject.net.edge.EdgePortEvent;
 import org.onosproject.net.edge.EdgePortListener;
+import org.onosproject.net.flow.DefaultTrafficTreatment;
+import org.onosproject.net.flow.TrafficTreatment;
+import org.onosproject.net.flow.instructions.Instruction;
+import org.onosproject.net.flow.instructions.Instructions.OutputInstruction;
 import org.onosproject.net.link.LinkEvent;
 import org.onosproject.net.link.LinkListener;
 import org.onosproject.net.link.LinkServiceAdapter;
@@ -369,25 +373,45 @@ public class EdgeManagerTest {
 
         mgr.emitPacket(ByteBuffer.wrap(arr), Optional.empty());
 
+        // Each device gets a single packet sent out of all its edge ports
         assertEquals("There were an unexpected number of emitted packets",
-                     (totalPorts - numInfraPorts) * numDevices, packets.size());
+                     numDevices, packets.size());
         Iterator<OutboundPacket> packetIter = packets.iterator();
         OutboundPacket packet;
         while (packetIter.hasNext()) {
             packet = packetIter.next();
             assertEquals("The packet had an incorrect payload.", arr, packet.data().array());
+            assertEquals("The packet had an unexpected number of outputs.",
+                         totalPorts - numInfraPorts, outputPorts(packet).size());
         }
         //Start testing emission to a specific device
         packets.clear();
         mgr.emitPacket(NetTestTools.did(Integer.toString(1)), ByteBuffer.wrap(arr), Optional.empty());
 
         assertEquals("Unexpected number of outbound packets were emitted.",
-                     totalPorts - numInfraPorts, packets.size());
-        packetIter = packets.iterator();
-        while (packetIter.hasNext()) {
-            packet = packetIter.next();
-            assertEquals("The packet had an incorrect payload", arr, packet.data().array());
-        }
+                     1, packets.size());
+        packet = packets.iterator().next();
+        assertEquals("The packet had an incorrect payload", arr, packet.data().array());
+        Set<PortNumber> expectedPorts = Sets.newHashSet();
+        mgr.getEdgePoints(NetTestTools.did(Integer.toString(1))).forEach(p -> expectedPorts.add(p.port()));
+        assertEquals("The packet was not sent out of the edge ports", expectedPorts, outputPorts(packet));
+
+        //Emission with a given treatment keeps its instructions
+        packets.clear();
+        TrafficTreatment treatment = DefaultTrafficTreatment.builder().popVlan().build();
+        mgr.emitPacket(NetTestTools.did(Integer.toString(1)), ByteBuffer.wrap(arr), Optional.of(treatment));
+        packet = packets.iterator().next();
+        assertEquals("The packet had unexpected instructions",
+                     totalPorts - numInfraPorts + 1, packet.treatment().allInstructions().size());
+        assertEquals("The packet was not sent out of the edge ports", expectedPorts, outputPorts(packet));
+    }
+
+    private Set<PortNumber> outputPorts(OutboundPacket packet) {
+        Set<PortNumber> ports = Sets.newHashSet();
+        packet.treatment().allInstructions().stream()
+                .filter(i -> i.type() == Instruction.Type.OUTPUT)
+                .forEach(i -> assertTrue("Duplicate output", ports.add(((OutputInstruction) i).port())));
+        return ports;
     }
 
 
@@ -51,6 +51,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import static org.easymock.EasyMock.anyObject;
 import static org.easymock.EasyMock.createMock;
@@ -64,6 +65,9 @@ import static org.junit.Assert.assertTrue;
 
 public class HostMonitorTest {
 
+    // Longer than the default probe rate
+    private static final long PROBE_INTERVAL = TimeUnit.MINUTES.toMillis(1);
+
     private static final IpAddress TARGET_IPV4_ADDR =
             IpAddress.valueOf("10.0.0.1");
     private static final IpAddress SOURCE_IPV4_ADDR =
@@ -131,7 +135,7 @@ public class HostMonitorTest {
         hostMonitor.registerHostProvider(hostProvider);
         hostMonitor.addMonitoringFor(hostIp);
 
-        hostMonitor.run(null);
+        hostMonitor.probeDue(System.currentTimeMillis() + PROBE_INTERVAL);
 
         verify(hostProvider);
     }
@@ -176,7 +180,7 @@ public class HostMonitorTest {
         hostMonitor = new HostMonitor(packetService, hostManager, interfaceService, edgePortService);
 
         hostMonitor.addMonitoringFor(TARGET_IPV4_ADDR);
-        hostMonitor.run(null);
+        hostMonitor.probeDue(System.currentTimeMillis() + PROBE_INTERVAL);
 
 
         // Check that a packet was sent to our PacketService and that it has
@@ -245,7 +249,7 @@ public class HostMonitorTest {
         hostMonitor = new HostMonitor(packetService, hostManager, interfaceService, edgePortService);
 
         hostMonitor.addMonitoringFor(TARGET_IPV6_ADDR);
-        hostMonitor.run(null);
+        hostMonitor.probeDue(System.currentTimeMillis() + PROBE_INTERVAL);
 
 
         // Check that a packet was sent to our PacketService and that it has
@@ -316,7 +320,7 @@ public class HostMonitorTest {
         hostMonitor = new HostMonitor(packetService, hostManager, interfaceService, edgePortService);
 
         hostMonitor.addMonitoringFor(TARGET_IPV4_ADDR);
-        hostMonitor.run(null);
+        hostMonitor.probeDue(System.currentTimeMillis() + PROBE_INTERVAL);
 
 
         // Check that a packet was sent to our PacketService and that it has
@@ -386,7 +390,7 @@ public class HostMonitorTest {
         hostMonitor = new HostMonitor(packetService, hostManager, interfaceService, edgePortService);
 
         hostMonitor.addMonitoringFor(TARGET_IPV6_ADDR);
-        hostMonitor.run(null);
+        hostMonitor.probeDue(System.currentTimeMillis() + PROBE_INTERVAL);
 
 
         // Check that a packet was sent to our PacketService and that it has
@@ -416,6 +420,76 @@ public class HostMonitorTest {
         assertArrayEquals(TARGET_IPV6_ADDR.toOctets(), ns.getTargetAddress());
     }
 
+    @Test
+    public void testProbesAreRateLimited() {
+        TestHostProvider hostProvider = new TestHostProvider();
+        hostMonitor = new HostMonitor(null, hostManager(hostProvider.id()), null, edgePortService);
+        hostMonitor.registerHostProvider(hostProvider);
+        hostMonitor.setMaxProbesPerSecond(5);
+
+        for (int i = 1; i <= 10; i++) {
+            hostMonitor.addMonitoringFor(IpAddress.valueOf("10.0.1." + i));
+        }
+        assertEquals("incorrect initial probes", 10, hostProvider.probes);
+
+        long now = System.currentTimeMillis() + PROBE_INTERVAL;
+        hostMonitor.probeDue(now);
+        assertEquals("probes not capped", 11, hostProvider.probes);
+        hostMonitor.probeDue(now + 200);
+        assertEquals("probes not capped", 12, hostProvider.probes);
+        hostMonitor.probeDue(now + 2000);
+        assertEquals("probes not capped", 13, hostProvider.probes);
+    }
+
+    @Test
+    public void testProbesBackOffForSeenHosts() {
+        TestHostProvider hostProvider = new TestHostProvider();
+        hostMonitor = new HostMonitor(null, hostManager(hostProvider.id()), null, edgePortService);
+        hostMonitor.registerHostProvider(hostProvider);
+        hostMonitor.setProbeRate(1000);
+
+        hostMonitor.addMonitoringFor(TARGET_IPV4_ADDR);
+        hostMonitor.hostSeen(TARGET_IPV4_ADDR);
+
+        long now = System.currentTimeMillis() + 1000;
+        hostMonitor.probeDue(now);
+        assertEquals("incorrect probes", 2, hostProvider.probes);
+        hostMonitor.probeDue(now + 1000);
+        assertEquals("probe not backed off", 2, hostProvider.probes);
+        hostMonitor.probeDue(now + 2000);
+        assertEquals("incorrect probes", 3, hostProvider.probes);
+        // Not seen since; back to the probe rate
+        hostMonitor.probeDue(now + 3000);
+        assertEquals("incorrect probes", 4, hostProvider.probes);
+    }
+
+    private HostManager hostManager(ProviderId providerId) {
+        Host host = createMock(Host.class);
+        expect(host.providerId()).andReturn(providerId).anyTimes();
+        replay(host);
+
+        HostManager hostManager = createMock(HostManager.class);
+        expect(hostManager.getHostsByIp(anyObject(IpAddress.class)))
+                .andReturn(Collections.singleton(host)).anyTimes();
+        replay(hostManager);
+        return hostManager;
+    }
+
+    class TestHostProvider implements HostProvider {
+
+        int probes = 0;
+
+        @Override
+        public ProviderId id() {
+            return new ProviderId("fake://", "id");
+        }
+
+        @Override
+        public void triggerProbe(Host host) {
+            probes++;
+        }
+    }
+
     class TestPacketService extends PacketServiceAdapter {
 
         List<OutboundPacket> packets = new ArrayList<>();
@@ -18,7 +18,9 @@ package org.onosproject.net.intent.impl;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import org.junit.After;
@@ -26,8 +28,10 @@ import org.junit.Before;
 import org.junit.Test;
 import org.onlab.junit.TestUtils;
 import org.onlab.junit.TestUtils.TestUtilsException;
+import org.onlab.packet.VlanId;
 import org.onosproject.core.IdGenerator;
 import org.onosproject.event.Event;
+import org.onosproject.net.DefaultPort;
 import org.onosproject.net.Device;
 import org.onosproject.net.DeviceId;
 import org.onosproject.net.Link;
@@ -39,6 +43,7 @@ import org.onosproject.net.intent.Intent;
 import org.onosproject.net.intent.Key;
 import org.onosproject.net.intent.MockIdGenerator;
 import org.onosproject.net.link.LinkEvent;
+import org.onosproject.net.resource.DiscreteResourceId;
 import org.onosproject.net.resource.ResourceEvent;
 import org.onosproject.net.resource.ResourceListener;
 import org.onosproject.net.resource.Resources;
@@ -112,14 +117,21 @@ public class ObjectiveTrackerTest {
         CountDownLatch latch = new CountDownLatch(1);
         List<Key> intentIdsFromEvent;
         boolean compileAllFailedFromEvent;
+        final List<List<Key>> compiles = new CopyOnWriteArrayList<>();
 
         @Override
         public void triggerCompile(Iterable<Key> intentKeys,
                                    boolean compileAllFailed) {
             intentIdsFromEvent = Lists.newArrayList(intentKeys);
             compileAllFailedFromEvent = compileAllFailed;
+            compiles.add(intentIdsFromEvent);
             latch.countDown();
         }
+
+        // Returns how many times the given intent was scheduled for recompile.
+        int compilesOf(Key key) {
+            return (int) compiles.stream().filter(keys -> keys.contains(key)).count();
+        }
     }
 
     /**
@@ -325,5 +337,67 @@ public class ObjectiveTrackerTest {
         assertThat(delegate.compileAllFailedFromEvent, is(true));
     }
 
+    /**
+     * Tests that a device removal, seen through the device listener, the
+     * topology event reasons and the withdrawal of its port resources,
+     * recompiles the affected intent only once.
+     *
+     * @throws Exception if the executor cannot be drained.
+     */
+    @Test
+    public void testDeviceRemovedCompilesOnce() throws Exception {
+        final Device device = device("src");
+        final DeviceEvent deviceEvent = new DeviceEvent(DeviceEvent.Type.DEVICE_REMOVED, device);
+
+        final Key key = Key.of(0x333L, APP_ID);
+        Collection<NetworkResource> resources = ImmutableSet.of(device.id());
+        tracker.addTrackedResources(key, resources);
+
+        deliver(deviceEvent, Resources.discrete(device.id(), PortNumber.portNumber(1)).id());
+
+        assertThat(delegate.compilesOf(key), is(1));
+    }
+
+    /**
+     * Tests that a port going down, seen through the device listener, the
+     * removal of the link it ends and the withdrawal of its resources,
+     * recompiles the affected intent only once.
+     *
+     * @throws Exception if the executor cannot be drained.
+     */
+    @Test
+    public void testPortDownCompilesOnce() throws Exception {
+        final Device device = device("src");
+        final Link link = link("src", 1, "dst", 2);
+        final DeviceEvent deviceEvent =
+                new DeviceEvent(DeviceEvent.Type.PORT_UPDATED, device,
+                                new DefaultPort(device, PortNumber.portNumber(1), false));
+
+        final Key key = Key.of(0x333L, APP_ID);
+        Collection<NetworkResource> resources = ImmutableSet.of(link);
+        tracker.addTrackedResources(key, resources);
+
+        reasons.add(new LinkEvent(LinkEvent.Type.LINK_REMOVED, link));
+        deliver(deviceEvent, Resources.discrete(device.id(), PortNumber.portNumber(1)).id());
+
+        assertThat(delegate.compilesOf(key), is(1));
+        assertThat(delegate.compileAllFailedFromEvent, is(false));
+    }
+
+    // Delivers a device event through every path it reaches the tracker by,
+    // together with the removal of a port resource and a few of its
+    // sub-resources, and waits for the tracker to process them all.
+    private void deliver(DeviceEvent deviceEvent, DiscreteResourceId port) throws Exception {
+        deviceListener.event(deviceEvent);
+        reasons.add(deviceEvent);
+        listener.event(new TopologyEvent(TopologyEvent.Type.TOPOLOGY_CHANGED, topology, reasons));
+        resourceListener.event(new ResourceEvent(RESOURCE_REMOVED, Resources.discrete(port).resource()));
+        for (short vlan = 1; vlan <= 3; vlan++) {
+            resourceListener.event(new ResourceEvent(RESOURCE_REMOVED,
+                    Resources.discrete(port, VlanId.vlanId(vlan)).resource()));
+        }
 
+        ExecutorService executorService = TestUtils.getField(tracker, "executorService");
+        executorService.submit(() -> { }).get(WAIT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
 }
@@ -160,7 +160,8 @@ public class GossipIntentStore
                             across instances.
                          */
                         new MultiValuedTimestamp<>(new WallClockTimestamp(), System.nanoTime()))
-                .withPeerUpdateFunction((key, intentData) -> getPeerNodes(key, intentData));
+                .withPeerUpdateFunction((key, intentData) -> getPeerNodes(key, intentData))
+                .withImmutableKeysAndValues();
         if (initiallyPersistent) {
             currentECMapBuilder = currentECMapBuilder.withPersistence();
             pendingECMapBuilder = pendingECMapBuilder.withPersistence();
@@ -42,6 +42,7 @@ import org.apache.felix.scr.annotations.ReferenceCardinality;
 import org.apache.felix.scr.annotations.Service;
 import org.onlab.util.KryoNamespace;
 import org.onosproject.cluster.ClusterService;
+import org.onosproject.cluster.ControllerNode;
 import org.onosproject.cluster.Leadership;
 import org.onosproject.cluster.LeadershipAdminService;
 import org.onosproject.cluster.LeadershipEvent;
@@ -64,8 +65,9 @@ import org.slf4j.Logger;
 
 import com.google.common.base.Objects;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Lists;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 
 /**
  * Implementation of the MastershipStore on top of Leadership Service.
@@ -104,6 +106,11 @@ public class ConsistentDeviceMastershipStore
     private final LeadershipEventListener leadershipEventListener =
             new InternalDeviceMastershipEventListener();
 
+    // Master of each device and the devices mastered by each node, as
+    // reported by the leadership service; guarded by the masters map
+    private final Map<DeviceId, NodeId> masters = Maps.newHashMap();
+    private final Map<NodeId, Set<DeviceId>> mastersDevices = Maps.newHashMap();
+
     private static final String NODE_ID_NULL = "Node ID cannot be null";
     private static final String DEVICE_ID_NULL = "Device ID cannot be null";
     private static final int WAIT_BEFORE_MASTERSHIP_HANDOFF_MILLIS = 3000;
@@ -135,6 +142,7 @@ public class ConsistentDeviceMastershipStore
                 messageHandlingExecutor);
         localNodeId = clusterService.getLocalNode().id();
         leadershipService.addListener(leadershipEventListener);
+        loadMasters(false);
 
         log.info("Started");
     }
@@ -143,6 +151,10 @@ public class ConsistentDeviceMastershipStore
     public void deactivate() {
         clusterCommunicator.removeSubscriber(ROLE_RELINQUISH_SUBJECT);
         leadershipService.removeListener(leadershipEventListener);
+        synchronized (masters) {
+            masters.clear();
+            mastersDevices.clear();
+        }
         messageHandlingExecutor.shutdown();
         transferExecutor.shutdown();
         eventHandler.shutdown();
@@ -184,26 +196,24 @@ public class ConsistentDeviceMastershipStore
     public RoleInfo getNodes(DeviceId deviceId) {
         checkArgument(deviceId != null, DEVICE_ID_NULL);
 
-        Map<NodeId, MastershipRole> roles = Maps.newHashMap();
-        clusterService.getNodes()
-                      .forEach((node) -> roles.put(node.id(), getRole(node.id(), deviceId)));
-
-        NodeId master = null;
-        final List<NodeId> standbys = Lists.newLinkedList();
-
-        List<NodeId> candidates = leadershipService.getCandidates(createDeviceMastershipTopic(deviceId));
+        return getNodes(leadershipService.getLeadership(createDeviceMastershipTopic(deviceId)));
+    }
 
-        for (Map.Entry<NodeId, MastershipRole> entry : roles.entrySet()) {
-            if (entry.getValue() == MastershipRole.MASTER) {
-                master = entry.getKey();
-            } else if (entry.getValue() == MastershipRole.STANDBY) {
-                standbys.add(entry.getKey());
-            }
+    // Returns the roles of the cluster nodes in the given device leadership.
+    private RoleInfo getNodes(Leadership leadership) {
+        if (leadership == null) {
+            return new RoleInfo(null, ImmutableList.of());
         }
-
-        List<NodeId> sortedStandbyList = candidates.stream().filter(standbys::contains).collect(Collectors.toList());
-
-        return new RoleInfo(master, sortedStandbyList);
+        Set<NodeId> nodes = clusterService.getNodes().stream()
+                .map(ControllerNode::id)
+                .collect(Collectors.toSet());
+        NodeId leader = leadership.leaderNodeId();
+        NodeId master = nodes.contains(leader) ? leader : null;
+        List<NodeId> standbys = leadership.candidates().stream()
+                .filter(nodes::contains)
+                .filter(candidate -> !Objects.equal(candidate, leader))
+                .collect(Collectors.toList());
+        return new RoleInfo(master, standbys);
     }
 
     @Override
@@ -214,12 +224,51 @@ public class ConsistentDeviceMastershipStore
         // MastershipService cannot listen to DeviceEvent to GC removed topic,
         // since DeviceManager depend on it.
         // Reference count, etc. at LeadershipService layer?
-        return leadershipService
-                .ownedTopics(nodeId)
-                .stream()
-                .filter(this::isDeviceMastershipTopic)
-                .map(this::extractDeviceIdFromTopic)
-                .collect(Collectors.toSet());
+        synchronized (masters) {
+            Set<DeviceId> devices = mastersDevices.get(nodeId);
+            return devices == null ? ImmutableSet.of() : ImmutableSet.copyOf(devices);
+        }
+    }
+
+    // Indexes the device masters on the leader board, dropping the current
+    // index first if asked to. Without replace, entries already updated
+    // from leadership events are kept.
+    private void loadMasters(boolean replace) {
+        Map<String, Leadership> leaderBoard = leadershipService.getLeaderBoard();
+        synchronized (masters) {
+            if (replace) {
+                masters.clear();
+                mastersDevices.clear();
+            }
+            leaderBoard.values().stream()
+                    .filter(leadership -> isDeviceMastershipTopic(leadership.topic()))
+                    .forEach(leadership -> updateMaster(extractDeviceIdFromTopic(leadership.topic()),
+                                                        leadership.leaderNodeId(), false));
+        }
+    }
+
+    // Records the master of a device; unless forced, a master already known
+    // from a leadership event is not overridden.
+    private void updateMaster(DeviceId deviceId, NodeId master, boolean force) {
+        synchronized (masters) {
+            if (!force && masters.containsKey(deviceId)) {
+                return;
+            }
+            NodeId previous = master == null ? masters.remove(deviceId) : masters.put(deviceId, master);
+            if (Objects.equal(previous, master)) {
+                return;
+            }
+            if (previous != null) {
+                Set<DeviceId> devices = mastersDevices.get(previous);
+                devices.remove(deviceId);
+                if (devices.isEmpty()) {
+                    mastersDevices.remove(previous);
+                }
+            }
+            if (master != null) {
+                mastersDevices.computeIfAbsent(master, k -> Sets.newHashSet()).add(deviceId);
+            }
+        }
     }
 
     @Override
@@ -310,6 +359,9 @@ public class ConsistentDeviceMastershipStore
 
     private class InternalDeviceMastershipEventListener implements LeadershipEventListener {
 
+        // Whether the index was reloaded for the current restoration
+        private boolean reloaded;
+
         @Override
         public boolean isRelevant(LeadershipEvent event) {
             Leadership leadership = event.subject();
@@ -318,14 +370,32 @@ public class ConsistentDeviceMastershipStore
 
         @Override
         public void event(LeadershipEvent event) {
+            // Keep the index in step with the leadership service itself
+            LeadershipEvent.Type type = event.type();
+            if (type == LeadershipEvent.Type.SERVICE_RESTORED && !reloaded) {
+                // Changes made during the outage were never notified. The
+                // restoration is notified topic by topic, so the index is
+                // reloaded once for the whole run of such events.
+                loadMasters(true);
+                reloaded = true;
+            } else if (type != LeadershipEvent.Type.SERVICE_DISRUPTED) {
+                // Further restoration events carry the current leadership too
+                Leadership leadership = event.subject();
+                updateMaster(extractDeviceIdFromTopic(leadership.topic()), leadership.leaderNodeId(), true);
+            }
+            if (type != LeadershipEvent.Type.SERVICE_RESTORED) {
+                reloaded = false;
+            }
             eventHandler.execute(() -> handleEvent(event));
         }
 
         private void handleEvent(LeadershipEvent event) {
             Leadership leadership = event.subject();
             DeviceId deviceId = extractDeviceIdFromTopic(leadership.topic());
+            // Roles are taken from the event rather than looked up again, as
+            // a node failure produces an event for each of its devices.
             RoleInfo roleInfo = event.type() != LeadershipEvent.Type.SERVICE_DISRUPTED ?
-                    getNodes(deviceId) : new RoleInfo();
+                    getNodes(leadership) : new RoleInfo();
             switch (event.type()) {
             case LEADER_AND_CANDIDATES_CHANGED:
                 notifyDelegate(new MastershipEvent(BACKUPS_CHANGED, deviceId, roleInfo));
@@ -15,6 +15,8 @@
  */
 package org.onosproject.store.statistic.impl;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Ordering;
 import com.google.common.collect.Sets;
 
 import org.apache.felix.scr.annotations.Activate;
@@ -25,30 +27,43 @@ import org.apache.felix.scr.annotations.Property;
 import org.apache.felix.scr.annotations.Reference;
 import org.apache.felix.scr.annotations.ReferenceCardinality;
 import org.apache.felix.scr.annotations.Service;
+import org.onlab.util.KryoNamespace;
 import org.onlab.util.Tools;
 import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.cluster.ClusterService;
 import org.onosproject.cluster.NodeId;
+import org.onosproject.mastership.MastershipEvent;
+import org.onosproject.mastership.MastershipListener;
 import org.onosproject.mastership.MastershipService;
 import org.onosproject.net.ConnectPoint;
 import org.onosproject.net.DeviceId;
 import org.onosproject.net.PortNumber;
+import org.onosproject.net.device.DeviceEvent;
+import org.onosproject.net.device.DeviceListener;
+import org.onosproject.net.device.DeviceService;
 import org.onosproject.net.flow.FlowEntry;
 import org.onosproject.net.flow.FlowRule;
 import org.onosproject.net.flow.instructions.Instruction;
 import org.onosproject.net.flow.instructions.Instructions;
+import org.onosproject.net.statistic.DefaultLoad;
+import org.onosproject.net.statistic.Load;
 import org.onosproject.net.statistic.StatisticStore;
 import org.onosproject.store.cluster.messaging.ClusterCommunicationService;
 import org.onosproject.store.cluster.messaging.MessageSubject;
 import org.onosproject.store.serializers.KryoNamespaces;
 import org.onosproject.store.serializers.StoreSerializer;
+import org.onosproject.store.service.EventuallyConsistentMap;
+import org.onosproject.store.service.LogicalClockService;
+import org.onosproject.store.service.StorageService;
 import org.osgi.service.component.ComponentContext;
 import org.slf4j.Logger;
 
 import java.util.Collections;
 import java.util.Dictionary;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -56,6 +71,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Strings.isNullOrEmpty;
@@ -66,8 +82,11 @@ import static org.slf4j.LoggerFactory.getLogger;
 
 
 /**
- * Maintains statistics using RPC calls to collect stats from remote instances
- * on demand.
+ * Maintains statistics on the master of each device. Per-port load summaries
+ * and a bounded list of the highest hitters are replicated to all instances,
+ * while the underlying flow entries are collected from remote instances on
+ * demand using RPC calls. Only the master of a device publishes and withdraws
+ * its summaries, apart from the withdrawal on device removal.
  */
 @Component(immediate = true)
 @Service
@@ -89,6 +108,15 @@ public class DistributedStatisticStore implements StatisticStore {
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
     protected ComponentConfigService cfgService;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
+    protected StorageService storageService;
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
+    protected LogicalClockService clockService;
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
+    protected DeviceService deviceService;
+
     public static final MessageSubject GET_CURRENT = new MessageSubject("peer-return-current");
     public static final MessageSubject GET_PREVIOUS = new MessageSubject("peer-return-previous");
 
@@ -101,6 +129,21 @@ public class DistributedStatisticStore implements StatisticStore {
     private Map<ConnectPoint, Set<FlowEntry>> current =
             new ConcurrentHashMap<>();
 
+    private EventuallyConsistentMap<ConnectPoint, PortLoadSummary> summaries;
+
+    // Highest hitters of each port; only replicated when their ranking changes
+    private EventuallyConsistentMap<ConnectPoint, List<FlowEntry>> hitters;
+
+    private static final int MAX_HITTERS = 5;
+    private static final Ordering<FlowEntry> BY_BYTES =
+            Ordering.natural().onResultOf(FlowEntry::bytes);
+
+    // Devices the local instance has published summaries for
+    private final Set<DeviceId> publishedDevices = Sets.newConcurrentHashSet();
+
+    private final DeviceListener deviceListener = new InternalDeviceListener();
+    private final MastershipListener mastershipListener = new InternalMastershipListener();
+
     protected static final StoreSerializer SERIALIZER = StoreSerializer.using(KryoNamespaces.API);
 
     private ExecutorService messageHandlingExecutor;
@@ -134,15 +177,37 @@ public class DistributedStatisticStore implements StatisticStore {
                 SERIALIZER::encode,
                 messageHandlingExecutor);
 
+        KryoNamespace.Builder serializer = KryoNamespace.newBuilder()
+                .register(KryoNamespaces.API)
+                .register(PortLoadSummary.class);
+
+        summaries = storageService.<ConnectPoint, PortLoadSummary>eventuallyConsistentMapBuilder()
+                .withName("onos-port-load-summaries")
+                .withSerializer(serializer)
+                .withTimestampProvider((k, v) -> clockService.getTimestamp())
+                .build();
+
+        hitters = storageService.<ConnectPoint, List<FlowEntry>>eventuallyConsistentMapBuilder()
+                .withName("onos-port-highest-hitters")
+                .withSerializer(serializer)
+                .withTimestampProvider((k, v) -> clockService.getTimestamp())
+                .build();
+
+        deviceService.addListener(deviceListener);
+        mastershipService.addListener(mastershipListener);
         log.info("Started");
     }
 
     @Deactivate
     public void deactivate() {
         cfgService.unregisterProperties(getClass(), false);
+        mastershipService.removeListener(mastershipListener);
+        deviceService.removeListener(deviceListener);
         clusterCommunicator.removeSubscriber(GET_PREVIOUS);
         clusterCommunicator.removeSubscriber(GET_CURRENT);
         messageHandlingExecutor.shutdown();
+        hitters.destroy();
+        summaries.destroy();
         log.info("Stopped");
     }
 
@@ -204,7 +269,7 @@ public class DistributedStatisticStore implements StatisticStore {
         if (values != null) {
             values.remove(rule);
         }
-
+        publishSummary(cp);
     }
 
     @Override
@@ -227,7 +292,110 @@ public class DistributedStatisticStore implements StatisticStore {
         }
         previous.put(cp, curr);
         current.put(cp, flowEntries);
+        publishSummary(cp);
+    }
 
+    // Replicates the summary of the port statistics, if the local instance
+    // is the one maintaining them and the summary has changed. Serialized
+    // with the eviction, so that a late update cannot publish again the
+    // summaries of a device which is gone or mastered elsewhere.
+    private synchronized void publishSummary(ConnectPoint cp) {
+        DeviceId deviceId = cp.deviceId();
+        if (!mastershipService.isLocalMaster(deviceId) || deviceService.getDevice(deviceId) == null) {
+            return;
+        }
+        Set<FlowEntry> curr = current.get(cp);
+        Set<FlowEntry> prev = previous.get(cp);
+        if (curr == null && prev == null) {
+            withdraw(cp);
+            return;
+        }
+        publishedDevices.add(deviceId);
+        PortLoadSummary summary = PortLoadSummary.of(curr, prev);
+        if (!summary.equals(summaries.get(cp))) {
+            summaries.put(cp, summary);
+        }
+        List<FlowEntry> top = curr != null ?
+                ImmutableList.copyOf(BY_BYTES.greatestOf(curr, MAX_HITTERS)) : ImmutableList.of();
+        if (top.isEmpty()) {
+            if (hitters.containsKey(cp)) {
+                hitters.remove(cp);
+            }
+        } else if (!sameRanking(top, hitters.get(cp))) {
+            hitters.put(cp, top);
+        }
+    }
+
+    // Indicates whether both lists hold the same flows in the same order,
+    // regardless of their byte counts.
+    private static boolean sameRanking(List<FlowEntry> top, List<FlowEntry> published) {
+        if (published == null || top.size() != published.size()) {
+            return false;
+        }
+        for (int i = 0; i < top.size(); i++) {
+            if (!Objects.equals(top.get(i).id(), published.get(i).id())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void withdraw(ConnectPoint cp) {
+        if (summaries.containsKey(cp)) {
+            summaries.remove(cp);
+        }
+        if (hitters.containsKey(cp)) {
+            hitters.remove(cp);
+        }
+    }
+
+    // Drops the statistics kept locally for the device.
+    private synchronized void evict(DeviceId deviceId) {
+        publishedDevices.remove(deviceId);
+        current.keySet().removeIf(cp -> cp.deviceId().equals(deviceId));
+        previous.keySet().removeIf(cp -> cp.deviceId().equals(deviceId));
+    }
+
+    // Withdraws the replicated summaries of the device.
+    private synchronized void withdraw(DeviceId deviceId) {
+        summaries.keySet().stream()
+                .filter(cp -> cp.deviceId().equals(deviceId))
+                .collect(Collectors.toList())
+                .forEach(summaries::remove);
+        hitters.keySet().stream()
+                .filter(cp -> cp.deviceId().equals(deviceId))
+                .collect(Collectors.toList())
+                .forEach(hitters::remove);
+    }
+
+    @Override
+    public Load getLoad(ConnectPoint connectPoint) {
+        PortLoadSummary summary = summaries.get(connectPoint);
+        if (summary == null || !summary.isValid()) {
+            return new DefaultLoad();
+        }
+        return new DefaultLoad(summary.current(), summary.previous());
+    }
+
+    @Override
+    public FlowEntry getHighestHitter(ConnectPoint connectPoint) {
+        List<FlowEntry> top = hitters.get(connectPoint);
+        return top != null ? top.get(0) : null;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * At most five flow entries are kept for each port. Their byte counts
+     * are the ones observed when they were last ranked.
+     */
+    @Override
+    public List<FlowEntry> getHighestHitters(ConnectPoint connectPoint, int count) {
+        List<FlowEntry> top = hitters.get(connectPoint);
+        if (top == null) {
+            return ImmutableList.of();
+        }
+        return top.subList(0, Math.min(count, top.size()));
     }
 
     @Override
@@ -351,6 +519,35 @@ public class DistributedStatisticStore implements StatisticStore {
 
     }
 
+    private class InternalDeviceListener implements DeviceListener {
+        @Override
+        public void event(DeviceEvent event) {
+            if (event.type() == DeviceEvent.Type.DEVICE_REMOVED) {
+                DeviceId deviceId = event.subject().id();
+                evict(deviceId);
+                withdraw(deviceId);
+            }
+        }
+    }
+
+    // A former master only drops its local statistics, as its removals
+    // could otherwise erase the summaries of the new master. The new master
+    // withdraws the stale summaries, unless it already published its own.
+    private class InternalMastershipListener implements MastershipListener {
+        @Override
+        public void event(MastershipEvent event) {
+            if (event.type() != MastershipEvent.Type.MASTER_CHANGED) {
+                return;
+            }
+            DeviceId deviceId = event.subject();
+            if (!clusterService.getLocalNode().id().equals(event.roleInfo().master())) {
+                evict(deviceId);
+            } else if (!publishedDevices.contains(deviceId)) {
+                withdraw(deviceId);
+            }
+        }
+    }
+
     /**
      * Sets thread pool size of message handler.
      *
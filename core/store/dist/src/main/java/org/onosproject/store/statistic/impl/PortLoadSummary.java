@@ -0,0 +1,118 @@
+/*
+ * Copyright 2017-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.statistic.impl;
+
+import com.google.common.base.MoreObjects;
+import org.onosproject.net.flow.FlowEntry;
+
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Compact summary of the statistics observed on a port, computed by the
+ * master of the device and replicated to all instances.
+ */
+final class PortLoadSummary {
+
+    private final long current;
+    private final long previous;
+    private final boolean valid;
+
+    private PortLoadSummary(long current, long previous, boolean valid) {
+        this.current = current;
+        this.previous = previous;
+        this.valid = valid;
+    }
+
+    /**
+     * Summarizes the current and previous observed stats values of a port.
+     *
+     * @param current  current flow entries; may be null
+     * @param previous previous flow entries; may be null
+     * @return port load summary
+     */
+    static PortLoadSummary of(Set<FlowEntry> current, Set<FlowEntry> previous) {
+        long currentBytes = 0;
+        if (current != null) {
+            for (FlowEntry entry : current) {
+                currentBytes += entry.bytes();
+            }
+        }
+        long previousBytes = 0;
+        if (previous != null) {
+            for (FlowEntry entry : previous) {
+                previousBytes += entry.bytes();
+            }
+        }
+        boolean valid = current != null && !current.isEmpty() &&
+                previous != null && !previous.isEmpty();
+        return new PortLoadSummary(currentBytes, previousBytes, valid);
+    }
+
+    /**
+     * Returns the bytes of the current observed stats values.
+     *
+     * @return current byte count
+     */
+    long current() {
+        return current;
+    }
+
+    /**
+     * Returns the bytes of the previous observed stats values.
+     *
+     * @return previous byte count
+     */
+    long previous() {
+        return previous;
+    }
+
+    /**
+     * Indicates whether both the current and previous values were observed.
+     *
+     * @return true if the load can be computed
+     */
+    boolean isValid() {
+        return valid;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(current, previous, valid);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof PortLoadSummary)) {
+            return false;
+        }
+        PortLoadSummary other = (PortLoadSummary) obj;
+        return current == other.current && previous == other.previous &&
+                valid == other.valid;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("current", current)
+                .add("previous", previous)
+                .add("valid", valid)
+                .toString();
+    }
+}
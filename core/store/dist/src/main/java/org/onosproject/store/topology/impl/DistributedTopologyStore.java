@@ -68,9 +68,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static org.onlab.util.Tools.groupedThreads;
 import static org.onlab.util.Tools.get;
 import static org.onlab.util.Tools.isNullOrEmpty;
 import static org.onosproject.net.topology.AdapterLinkWeigher.adapt;
@@ -132,6 +135,10 @@ public class DistributedTopologyStore
     private EventuallyConsistentMapListener<DeviceId, Set<ConnectPoint>> listener =
             new InternalBroadcastPointListener();
 
+    // Precomputes the shortest-path trees of published topologies, if enabled
+    private static final int PATH_PRECOMPUTE_THREADS = 4;
+    private ExecutorService pathPrecomputeExecutor;
+
     @Activate
     protected void activate() {
         configService.registerProperties(getClass());
@@ -144,6 +151,8 @@ public class DistributedTopologyStore
                 .withTimestampProvider((k, v) -> clockService.getTimestamp())
                 .build();
         broadcastPoints.addListener(listener);
+        pathPrecomputeExecutor = newFixedThreadPool(PATH_PRECOMPUTE_THREADS,
+                groupedThreads("onos/topology", "path-precompute-%d", log));
         log.info("Started");
     }
 
@@ -152,6 +161,7 @@ public class DistributedTopologyStore
         configService.unregisterProperties(getClass(), false);
         broadcastPoints.removeListener(listener);
         broadcastPoints.destroy();
+        pathPrecomputeExecutor.shutdownNow();
         log.info("Stopped");
     }
 
@@ -304,6 +314,9 @@ public class DistributedTopologyStore
                 return null;
             }
             current = newTopology;
+            // Trees of a topology superseded meanwhile are no longer computed
+            newTopology.precomputePaths(pathPrecomputeExecutor,
+                                        () -> current != newTopology);
             return new TopologyEvent(TOPOLOGY_CHANGED, current, reasons);
         }
     }
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2017-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.mastership.impl;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onlab.packet.IpAddress;
+import org.onosproject.cluster.ClusterServiceAdapter;
+import org.onosproject.cluster.ControllerNode;
+import org.onosproject.cluster.DefaultControllerNode;
+import org.onosproject.cluster.Leader;
+import org.onosproject.cluster.Leadership;
+import org.onosproject.cluster.LeadershipEvent;
+import org.onosproject.cluster.LeadershipEventListener;
+import org.onosproject.cluster.LeadershipServiceAdapter;
+import org.onosproject.cluster.NodeId;
+import org.onosproject.cluster.RoleInfo;
+import org.onosproject.net.DeviceId;
+import org.onosproject.store.cluster.messaging.ClusterCommunicationServiceAdapter;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+
+import static org.junit.Assert.assertEquals;
+import static org.onosproject.net.DeviceId.deviceId;
+
+/**
+ * Unit tests for the ConsistentDeviceMastershipStore class.
+ */
+public class ConsistentDeviceMastershipStoreTest {
+
+    private static final NodeId NID1 = new NodeId("node1");
+    private static final NodeId NID2 = new NodeId("node2");
+    private static final NodeId NID3 = new NodeId("node3");
+    private static final ControllerNode CN1 =
+            new DefaultControllerNode(NID1, IpAddress.valueOf("127.0.0.1"));
+    private static final ControllerNode CN2 =
+            new DefaultControllerNode(NID2, IpAddress.valueOf("127.0.0.2"));
+
+    private static final DeviceId DID1 = deviceId("of:1");
+    private static final DeviceId DID2 = deviceId("of:2");
+
+    private final TestLeadershipService leadershipService = new TestLeadershipService();
+    private ConsistentDeviceMastershipStore store;
+
+    @Before
+    public void setUp() {
+        leadershipService.leaderBoard.put("device:of:1", leadership(DID1, NID1));
+        leadershipService.leaderBoard.put("device:of:2", leadership(DID2, NID2));
+        leadershipService.leaderBoard.put("other", new Leadership("other", new Leader(NID1, 1, 0),
+                                                                  ImmutableList.of(NID1)));
+
+        store = new ConsistentDeviceMastershipStore();
+        store.leadershipService = leadershipService;
+        store.clusterService = new TestClusterService();
+        store.clusterCommunicator = new ClusterCommunicationServiceAdapter();
+        store.activate();
+    }
+
+    @After
+    public void tearDown() {
+        store.deactivate();
+    }
+
+    private static Leadership leadership(DeviceId deviceId, NodeId leader, NodeId... candidates) {
+        return new Leadership("device:" + deviceId,
+                              leader == null ? null : new Leader(leader, 1, 0),
+                              ImmutableList.copyOf(candidates));
+    }
+
+    @Test
+    public void getDevices() {
+        assertEquals(ImmutableSet.of(DID1), store.getDevices(NID1));
+        assertEquals(ImmutableSet.of(DID2), store.getDevices(NID2));
+        assertEquals(ImmutableSet.of(), store.getDevices(NID3));
+    }
+
+    @Test
+    public void getDevicesAfterLeaderChanges() {
+        leadershipService.listener.event(new LeadershipEvent(LeadershipEvent.Type.LEADER_CHANGED,
+                                                             leadership(DID1, NID2, NID2)));
+        assertEquals(ImmutableSet.of(), store.getDevices(NID1));
+        assertEquals(ImmutableSet.of(DID1, DID2), store.getDevices(NID2));
+
+        leadershipService.listener.event(new LeadershipEvent(LeadershipEvent.Type.LEADER_CHANGED,
+                                                             leadership(DID2, null)));
+        assertEquals(ImmutableSet.of(DID1), store.getDevices(NID2));
+
+        // The index holds through an outage of the leadership service
+        leadershipService.listener.event(new LeadershipEvent(LeadershipEvent.Type.SERVICE_DISRUPTED,
+                                                             leadership(DID1, null)));
+        assertEquals(ImmutableSet.of(DID1), store.getDevices(NID2));
+    }
+
+    @Test
+    public void getDevicesAfterServiceRestored() {
+        DeviceId did3 = deviceId("of:3");
+        leadershipService.listener.event(new LeadershipEvent(LeadershipEvent.Type.SERVICE_DISRUPTED,
+                                                             leadership(DID1, NID1)));
+
+        // Changes made during the outage are not notified
+        leadershipService.leaderBoard.put("device:of:1", leadership(DID1, NID2, NID2));
+        leadershipService.leaderBoard.remove("device:of:2");
+        leadershipService.leaderBoard.put("device:of:3", leadership(did3, NID1, NID1));
+
+        leadershipService.listener.event(new LeadershipEvent(LeadershipEvent.Type.SERVICE_RESTORED,
+                                                             leadership(DID1, NID2, NID2)));
+        assertEquals(ImmutableSet.of(did3), store.getDevices(NID1));
+        assertEquals(ImmutableSet.of(DID1), store.getDevices(NID2));
+
+        leadershipService.listener.event(new LeadershipEvent(LeadershipEvent.Type.SERVICE_RESTORED,
+                                                             leadership(did3, NID1, NID1)));
+        assertEquals(ImmutableSet.of(did3), store.getDevices(NID1));
+        assertEquals(ImmutableSet.of(DID1), store.getDevices(NID2));
+    }
+
+    @Test
+    public void getNodes() {
+        leadershipService.leaderBoard.put("device:of:1", leadership(DID1, NID2, NID2, NID3, NID1));
+        assertEquals(new RoleInfo(NID2, ImmutableList.of(NID1)), store.getNodes(DID1));
+        assertEquals(new RoleInfo(null, ImmutableList.of()), store.getNodes(deviceId("of:3")));
+    }
+
+    private class TestClusterService extends ClusterServiceAdapter {
+        @Override
+        public ControllerNode getLocalNode() {
+            return CN1;
+        }
+
+        @Override
+        public Set<ControllerNode> getNodes() {
+            return ImmutableSet.of(CN1, CN2);
+        }
+    }
+
+    private class TestLeadershipService extends LeadershipServiceAdapter {
+        private final Map<String, Leadership> leaderBoard = Maps.newHashMap();
+        private LeadershipEventListener listener;
+
+        @Override
+        public Leadership getLeadership(String path) {
+            return leaderBoard.get(path);
+        }
+
+        @Override
+        public Map<String, Leadership> getLeaderBoard() {
+            return leaderBoard;
+        }
+
+        @Override
+        public void addListener(LeadershipEventListener listener) {
+            this.listener = listener;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright 2017-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.statistic.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onlab.packet.ChassisId;
+import org.onosproject.cfg.ComponentConfigAdapter;
+import org.onosproject.cluster.ClusterServiceAdapter;
+import org.onosproject.cluster.NodeId;
+import org.onosproject.cluster.RoleInfo;
+import org.onosproject.mastership.MastershipEvent;
+import org.onosproject.mastership.MastershipListener;
+import org.onosproject.mastership.MastershipRole;
+import org.onosproject.mastership.MastershipServiceAdapter;
+import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.DefaultDevice;
+import org.onosproject.net.Device;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.device.DeviceEvent;
+import org.onosproject.net.device.DeviceListener;
+import org.onosproject.net.device.DeviceServiceAdapter;
+import org.onosproject.net.flow.DefaultFlowEntry;
+import org.onosproject.net.flow.DefaultFlowRule;
+import org.onosproject.net.flow.DefaultTrafficSelector;
+import org.onosproject.net.flow.DefaultTrafficTreatment;
+import org.onosproject.net.flow.FlowEntry;
+import org.onosproject.net.flow.FlowRule;
+import org.onosproject.net.provider.ProviderId;
+import org.onosproject.store.cluster.messaging.ClusterCommunicationServiceAdapter;
+import org.onosproject.store.service.TestStorageService;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.onosproject.net.NetTestTools.APP_ID;
+import static org.onosproject.net.NetTestTools.did;
+
+/**
+ * Test of the replication of the port load summaries of the distributed
+ * statistic store.
+ */
+public class DistributedStatisticStoreTest {
+
+    private static final DeviceId D1 = did("d1");
+    private static final DeviceId D2 = did("d2");
+    private static final PortNumber P1 = PortNumber.portNumber(1);
+    private static final ConnectPoint CP1 = new ConnectPoint(D1, P1);
+    private static final ConnectPoint CP2 = new ConnectPoint(D2, P1);
+
+    private final TestMastershipService mastershipService = new TestMastershipService();
+    private final TestDeviceService deviceService = new TestDeviceService();
+
+    private DistributedStatisticStore store;
+    private FlowEntry entry1;
+    private FlowEntry entry2;
+
+    @Before
+    public void setUp() {
+        store = new DistributedStatisticStore();
+        store.cfgService = new ComponentConfigAdapter();
+        store.clusterCommunicator = new ClusterCommunicationServiceAdapter();
+        store.clusterService = new ClusterServiceAdapter();
+        store.storageService = new TestStorageService();
+        store.mastershipService = mastershipService;
+        store.deviceService = deviceService;
+        store.activate(null);
+
+        entry1 = record(D1, 10, 100);
+        entry2 = record(D2, 10, 100);
+    }
+
+    @After
+    public void tearDown() {
+        store.deactivate();
+    }
+
+    // Records the statistics of a flow out of the first port of the device.
+    private FlowEntry record(DeviceId deviceId, int priority, long bytes) {
+        FlowRule rule = DefaultFlowRule.builder()
+                .forDevice(deviceId)
+                .withSelector(DefaultTrafficSelector.emptySelector())
+                .withTreatment(DefaultTrafficTreatment.builder().setOutput(P1).build())
+                .withPriority(priority)
+                .makePermanent()
+                .fromApp(APP_ID)
+                .build();
+        FlowEntry entry = new DefaultFlowEntry(rule, FlowEntry.FlowEntryState.ADDED, 10, 1, bytes);
+        store.prepareForStatistics(rule);
+        store.addOrUpdateStatistic(entry);
+        return entry;
+    }
+
+    private static Device device(DeviceId deviceId) {
+        return new DefaultDevice(new ProviderId("of", "foo"), deviceId, Device.Type.SWITCH,
+                                 "mfr", "hw", "sw", "sn", new ChassisId());
+    }
+
+    private void masterChanged(DeviceId deviceId, String master) {
+        mastershipService.localMaster = master.equals("local");
+        mastershipService.listener.event(new MastershipEvent(
+                MastershipEvent.Type.MASTER_CHANGED, deviceId,
+                new RoleInfo(new NodeId(master), ImmutableList.of())));
+    }
+
+    private void deviceRemoved(DeviceId deviceId) {
+        deviceService.removed.add(deviceId);
+        deviceService.listener.event(new DeviceEvent(DeviceEvent.Type.DEVICE_REMOVED, device(deviceId)));
+    }
+
+    /**
+     * Tests that the statistics and summaries of a removed device are
+     * evicted, and not published again by a late update.
+     */
+    @Test
+    public void evictOnDeviceRemoved() {
+        assertEquals("summary not published", entry1, store.getHighestHitter(CP1));
+
+        deviceRemoved(D1);
+        assertNull("summary not evicted", store.getHighestHitter(CP1));
+        assertNull("statistics not evicted", store.getCurrentStatistic(CP1));
+        assertEquals("summary of another device evicted", entry2, store.getHighestHitter(CP2));
+
+        record(D1, 20, 200);
+        assertNull("summary published after removal", store.getHighestHitter(CP1));
+        assertFalse("load published after removal", store.getLoad(CP1).isValid());
+    }
+
+    /**
+     * Tests that a former master drops its local statistics, but leaves the
+     * replicated summaries to the new master.
+     */
+    @Test
+    public void dropOnMastershipLoss() {
+        // a change which keeps the local instance master is not a loss
+        masterChanged(D1, "local");
+        assertEquals("summary evicted", entry1, store.getHighestHitter(CP1));
+
+        masterChanged(D1, "other");
+        assertEquals("summary withdrawn by former master", entry1, store.getHighestHitter(CP1));
+
+        // the previous mastership of the local instance must not linger
+        mastershipService.localMaster = true;
+        assertNull("statistics not dropped", store.getCurrentStatistic(CP1));
+    }
+
+    /**
+     * Tests that a new master withdraws the summaries it did not publish.
+     */
+    @Test
+    public void withdrawOnMastershipGain() {
+        masterChanged(D1, "other");
+        masterChanged(D1, "local");
+        assertNull("stale summary not withdrawn", store.getHighestHitter(CP1));
+        assertEquals("summary of another device withdrawn", entry2, store.getHighestHitter(CP2));
+
+        FlowEntry entry = record(D1, 20, 200);
+        assertEquals("summary not published", entry, store.getHighestHitter(CP1));
+    }
+
+    /**
+     * Tests that a bounded number of highest hitters is kept, in decreasing
+     * order of bytes.
+     */
+    @Test
+    public void highestHitters() {
+        List<FlowEntry> entries = Lists.newArrayList(entry1);
+        for (int i = 1; i < 8; i++) {
+            entries.add(record(D1, 10 + i, 100 + i));
+        }
+        List<FlowEntry> expected = Lists.reverse(entries).subList(0, 5);
+
+        assertEquals(expected, store.getHighestHitters(CP1, 10));
+        assertEquals(expected.subList(0, 2), store.getHighestHitters(CP1, 2));
+        assertEquals(expected.get(0), store.getHighestHitter(CP1));
+        assertTrue(store.getHighestHitters(new ConnectPoint(D1, PortNumber.portNumber(2)), 10).isEmpty());
+    }
+
+    private static class TestMastershipService extends MastershipServiceAdapter {
+        private MastershipListener listener;
+        private boolean localMaster = true;
+
+        @Override
+        public MastershipRole getLocalRole(DeviceId deviceId) {
+            return localMaster ? MastershipRole.MASTER : MastershipRole.STANDBY;
+        }
+
+        @Override
+        public NodeId getMasterFor(DeviceId deviceId) {
+            return new NodeId(localMaster ? "local" : "other");
+        }
+
+        @Override
+        public void addListener(MastershipListener listener) {
+            this.listener = listener;
+        }
+    }
+
+    private static class TestDeviceService extends DeviceServiceAdapter {
+        private DeviceListener listener;
+        private final Set<DeviceId> removed = new HashSet<>();
+
+        @Override
+        public Device getDevice(DeviceId deviceId) {
+            return removed.contains(deviceId) ? null : device(deviceId);
+        }
+
+        @Override
+        public void addListener(DeviceListener listener) {
+            this.listener = listener;
+        }
+    }
+}
@@ -124,6 +124,7 @@ public class EventuallyConsistentMapImpl<K, V>
     private SlidingWindowCounter counter = new SlidingWindowCounter(WINDOW_SIZE);
 
     private final boolean persistent;
+    private final boolean immutableKeysAndValues;
 
     /**
      * Creates a new eventually consistent map shared amongst multiple instances.
@@ -152,6 +153,7 @@ public class EventuallyConsistentMapImpl<K, V>
      * @param convergeFaster        make anti-entropy try to converge faster
      * @param persistent            persist data to disk
      * @param persistenceService    persistence service
+     * @param immutableKeysAndValues true if keys and values need not be copied
      */
     EventuallyConsistentMapImpl(String mapName,
                                 ClusterService clusterService,
@@ -167,12 +169,14 @@ public class EventuallyConsistentMapImpl<K, V>
                                 TimeUnit antiEntropyTimeUnit,
                                 boolean convergeFaster,
                                 boolean persistent,
-                                PersistenceService persistenceService) {
+                                PersistenceService persistenceService,
+                                boolean immutableKeysAndValues) {
         this.mapName = mapName;
         this.serializer = createSerializer(ns);
         this.persistenceService = persistenceService;
         this.persistent =
                 persistent;
+        this.immutableKeysAndValues = immutableKeysAndValues;
         if (persistent) {
             items = this.persistenceService.<K, MapValue<V>>persistentMapBuilder()
                     .withName(mapName)
@@ -410,7 +414,8 @@ public class EventuallyConsistentMapImpl<K, V>
 
         AtomicBoolean updated = new AtomicBoolean(false);
         AtomicReference<MapValue<V>> previousValue = new AtomicReference<>();
-        MapValue<V> computedValue = items.compute(serializer.copy(key), (k, mv) -> {
+        K storedKey = immutableKeysAndValues ? key : serializer.copy(key);
+        MapValue<V> computedValue = items.compute(storedKey, (k, mv) -> {
             previousValue.set(mv);
             V newRawValue = recomputeFunction.apply(key, mv == null ? null : mv.get());
             if (mv != null && Objects.equals(newRawValue, mv.get())) {
@@ -422,7 +427,7 @@ public class EventuallyConsistentMapImpl<K, V>
                 updated.set(true);
                 // We return a copy to ensure updates to peers can be serialized.
                 // This prevents replica divergence due to serialization failures.
-                return serializer.copy(newValue);
+                return immutableKeysAndValues ? newValue : serializer.copy(newValue);
             } else {
                 return mv;
             }
@@ -18,6 +18,7 @@ package org.onosproject.store.primitives.impl;
 import static com.google.common.base.Preconditions.checkArgument;
 import static junit.framework.TestCase.assertFalse;
 import static org.easymock.EasyMock.anyObject;
+import static org.easymock.EasyMock.capture;
 import static org.easymock.EasyMock.createMock;
 import static org.easymock.EasyMock.eq;
 import static org.easymock.EasyMock.expect;
@@ -46,6 +47,7 @@ import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
+import org.easymock.Capture;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -68,6 +70,7 @@ import org.onosproject.store.service.EventuallyConsistentMapEvent;
 import org.onosproject.store.service.EventuallyConsistentMapListener;
 import com.google.common.collect.ComparisonChain;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.util.concurrent.MoreExecutors;
 
@@ -99,6 +102,7 @@ public class EventuallyConsistentMapImplTest {
     private final ControllerNode self =
             new DefaultControllerNode(new NodeId("local"), IpAddress.valueOf(1));
 
+    private Function<byte[], Collection<UpdateEntry<String, String>>> updateDecoder;
     private Consumer<Collection<UpdateEntry<String, String>>> updateHandler;
     private Consumer<Collection<UpdateRequest<String>>> requestHandler;
     private Function<AntiEntropyAdvertisement<String>, AntiEntropyResponse> antiEntropyHandler;
@@ -630,6 +634,49 @@ public class EventuallyConsistentMapImplTest {
         return true;
     }
 
+    /**
+     * Tests that the updates pushed to a peer are decoded by the peer back
+     * into the same entries.
+     */
+    @Test
+    public void testUpdateEncodingRoundTrip() throws Exception {
+        expectPeerMessage(clusterCommunicator);
+        ecMap.put(KEY1, VALUE1);
+        ecMap.put(KEY2, VALUE2);
+
+        NodeId peer = new NodeId("peer");
+        CountDownLatch latch = new CountDownLatch(1);
+        Capture<List<UpdateEntry<String, String>>> message = new Capture<>();
+        Capture<Function<List<UpdateEntry<String, String>>, byte[]>> encoder = new Capture<>();
+        reset(clusterCommunicator);
+        expect(clusterCommunicator.unicast(capture(message),
+                                           eq(UPDATE_MESSAGE_SUBJECT),
+                                           capture(encoder),
+                                           eq(peer)))
+                .andAnswer(() -> {
+                    latch.countDown();
+                    return CompletableFuture.completedFuture(null);
+                });
+        expect(clusterCommunicator.unicast(anyObject(),
+                                           eq(UPDATE_REQUEST_SUBJECT),
+                                           anyObject(Function.class),
+                                           eq(peer)))
+                .andReturn(CompletableFuture.completedFuture(null));
+        replay(clusterCommunicator);
+
+        // A peer advertising nothing gets pushed all the local entries
+        antiEntropyHandler.apply(new AntiEntropyAdvertisement<>(peer, ImmutableMap.of()));
+        assertTrue("Updates never sent to peer", latch.await(1, TimeUnit.SECONDS));
+        verify(clusterCommunicator);
+
+        Map<String, MapValue<String>> decoded = new HashMap<>();
+        updateDecoder.apply(encoder.getValue().apply(message.getValue()))
+                .forEach(entry -> decoded.put(entry.key(), entry.value()));
+        assertEquals(2, decoded.size());
+        assertEquals(VALUE1, decoded.get(KEY1).get());
+        assertEquals(VALUE2, decoded.get(KEY2).get());
+    }
+
     @Test
     public void testDestroy() throws Exception {
         clusterCommunicator.removeSubscriber(UPDATE_MESSAGE_SUBJECT);
@@ -780,6 +827,7 @@ public class EventuallyConsistentMapImplTest {
                 Function<byte[], M> decoder, Consumer<M> handler,
                 Executor executor) {
             if (subject.equals(UPDATE_MESSAGE_SUBJECT)) {
+                updateDecoder = (Function<byte[], Collection<UpdateEntry<String, String>>>) decoder;
                 updateHandler = (Consumer<Collection<UpdateEntry<String, String>>>) handler;
             } else if (subject.equals(UPDATE_REQUEST_SUBJECT)) {
                 requestHandler = (Consumer<Collection<UpdateRequest<String>>>) handler;
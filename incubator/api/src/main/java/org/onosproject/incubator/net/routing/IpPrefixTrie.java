@@ -0,0 +1,374 @@
+/*
+ * Copyright 2017-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.incubator.net.routing;
+
+import org.onlab.packet.IpAddress;
+import org.onlab.packet.IpPrefix;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Path-compressed binary trie mapping IP prefixes of a single IP version to
+ * values, supporting longest prefix match lookups.
+ * <p>
+ * Prefix bits are held in primitive form, so no intermediate key objects
+ * are created per entry. Writers are serialized on the trie, whereas reads
+ * never block: nodes are never re-keyed once published and every structural
+ * change is made visible through a single volatile reference update.
+ * </p>
+ *
+ * @param <V> type of the values stored in the trie
+ */
+public final class IpPrefixTrie<V> {
+
+    private final IpAddress.Version version;
+    private final int maxLength;
+
+    private volatile Node<V> root;
+    private volatile int size;
+
+    /**
+     * Creates a new, empty trie for prefixes of the given IP version.
+     *
+     * @param version IP version of the prefixes
+     */
+    public IpPrefixTrie(IpAddress.Version version) {
+        this.version = checkNotNull(version);
+        this.maxLength = version == IpAddress.Version.INET ?
+                IpAddress.INET_BIT_LENGTH : IpAddress.INET6_BIT_LENGTH;
+    }
+
+    /**
+     * Returns the number of prefixes in the trie.
+     *
+     * @return number of prefixes
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Associates the value with the given prefix.
+     *
+     * @param prefix IP prefix
+     * @param value value to store
+     * @return the value previously associated with the prefix, or null
+     */
+    public V put(IpPrefix prefix, V value) {
+        checkNotNull(value);
+        Key key = key(prefix);
+
+        synchronized (this) {
+            Node<V> parent = null;
+            Node<V> node = root;
+            while (node != null) {
+                int common = key.commonPrefixLength(node.hi, node.lo,
+                                                    Math.min(node.length, key.length));
+                if (common < node.length) {
+                    // The new prefix diverges from, or sits above, this node
+                    Node<V> added;
+                    if (common == key.length) {
+                        added = new Node<>(key.hi, key.lo, key.length, value);
+                        added.setChild(node.bit(key.length), node);
+                    } else {
+                        added = new Node<>(mask(key.hi, common, 0),
+                                           mask(key.lo, common, 64), common, null);
+                        added.setChild(key.bit(common),
+                                       new Node<>(key.hi, key.lo, key.length, value));
+                        added.setChild(node.bit(common), node);
+                    }
+                    replace(parent, node, added);
+                    size++;
+                    return null;
+                }
+
+                if (node.length == key.length) {
+                    V old = node.value;
+                    node.value = value;
+                    if (old == null) {
+                        size++;
+                    }
+                    return old;
+                }
+
+                parent = node;
+                node = node.child(key.bit(node.length));
+            }
+
+            Node<V> added = new Node<>(key.hi, key.lo, key.length, value);
+            if (parent == null) {
+                root = added;
+            } else {
+                parent.setChild(key.bit(parent.length), added);
+            }
+            size++;
+            return null;
+        }
+    }
+
+    /**
+     * Removes the value associated with the given prefix.
+     *
+     * @param prefix IP prefix
+     * @return the removed value, or null if the prefix was not in the trie
+     */
+    public V remove(IpPrefix prefix) {
+        Key key = key(prefix);
+
+        synchronized (this) {
+            Node<V> grandParent = null;
+            Node<V> parent = null;
+            Node<V> node = root;
+            while (node != null && node.length < key.length &&
+                    node.matches(key)) {
+                grandParent = parent;
+                parent = node;
+                node = node.child(key.bit(node.length));
+            }
+
+            if (node == null || node.length != key.length ||
+                    !node.matches(key) || node.value == null) {
+                return null;
+            }
+
+            V old = node.value;
+            node.value = null;
+            size--;
+
+            // Drop nodes which no longer carry a value or a branch
+            if (node.left != null && node.right != null) {
+                return old;
+            }
+            Node<V> child = node.left != null ? node.left : node.right;
+            if (child != null) {
+                replace(parent, node, child);
+                return old;
+            }
+
+            if (parent == null) {
+                root = null;
+                return old;
+            }
+            parent.setChild(node.bit(parent.length), null);
+            if (parent.value == null) {
+                Node<V> sibling = parent.left != null ? parent.left : parent.right;
+                replace(grandParent, parent, sibling);
+            }
+            return old;
+        }
+    }
+
+    /**
+     * Returns the value associated with exactly the given prefix.
+     *
+     * @param prefix IP prefix
+     * @return value, or null if the prefix is not in the trie
+     */
+    public V get(IpPrefix prefix) {
+        Key key = key(prefix);
+
+        Node<V> node = root;
+        while (node != null && node.length <= key.length && node.matches(key)) {
+            if (node.length == key.length) {
+                return node.value;
+            }
+            node = node.child(key.bit(node.length));
+        }
+        return null;
+    }
+
+    /**
+     * Returns the value associated with the most specific prefix containing
+     * the given IP address.
+     *
+     * @param ip IP address to look up
+     * @return value of the longest matching prefix, or null if no prefix matches
+     */
+    public V longestPrefixMatch(IpAddress ip) {
+        checkArgument(ip.version() == version, "IP version mismatch");
+        Key key = new Key(ip.toOctets(), maxLength);
+
+        V match = null;
+        Node<V> node = root;
+        while (node != null && node.matches(key)) {
+            V value = node.value;
+            if (value != null) {
+                match = value;
+            }
+            if (node.length == maxLength) {
+                break;
+            }
+            node = node.child(key.bit(node.length));
+        }
+        return match;
+    }
+
+    /**
+     * Returns all values in the trie, ordered by prefix.
+     * <p>
+     * The result is a point-in-time copy which is only weakly consistent
+     * with concurrent updates.
+     * </p>
+     *
+     * @return values in the trie
+     */
+    public List<V> values() {
+        List<V> values = new ArrayList<>(size);
+        Deque<Node<V>> stack = new ArrayDeque<>();
+        Node<V> node = root;
+        if (node != null) {
+            stack.push(node);
+        }
+        while (!stack.isEmpty()) {
+            node = stack.pop();
+            V value = node.value;
+            if (value != null) {
+                values.add(value);
+            }
+            Node<V> right = node.right;
+            if (right != null) {
+                stack.push(right);
+            }
+            Node<V> left = node.left;
+            if (left != null) {
+                stack.push(left);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Removes all prefixes from the trie.
+     */
+    public synchronized void clear() {
+        root = null;
+        size = 0;
+    }
+
+    private Key key(IpPrefix prefix) {
+        checkArgument(prefix.version() == version, "IP version mismatch");
+        return new Key(prefix.address().toOctets(), prefix.prefixLength());
+    }
+
+    private void replace(Node<V> parent, Node<V> oldChild, Node<V> newChild) {
+        if (parent == null) {
+            root = newChild;
+        } else if (parent.left == oldChild) {
+            parent.left = newChild;
+        } else {
+            parent.right = newChild;
+        }
+    }
+
+    // Clears every bit of the word at or beyond the given prefix length; the
+    // offset is the position of the word's first bit within the address.
+    private static long mask(long word, int length, int offset) {
+        int bits = length - offset;
+        if (bits <= 0) {
+            return 0;
+        }
+        return bits >= Long.SIZE ? word : word & (-1L << (Long.SIZE - bits));
+    }
+
+    private static int bit(long hi, long lo, int index) {
+        return (int) (index < Long.SIZE ? hi >>> (Long.SIZE - 1 - index) :
+                lo >>> (2 * Long.SIZE - 1 - index)) & 1;
+    }
+
+    /**
+     * Prefix bits of an address, left aligned into two words.
+     */
+    private static final class Key {
+        final long hi;
+        final long lo;
+        final int length;
+
+        Key(byte[] octets, int length) {
+            long h = 0;
+            long l = 0;
+            for (int i = 0; i < octets.length; i++) {
+                long b = octets[i] & 0xffL;
+                if (i < Long.BYTES) {
+                    h |= b << (Long.SIZE - Byte.SIZE * (i + 1));
+                } else {
+                    l |= b << (2 * Long.SIZE - Byte.SIZE * (i + 1));
+                }
+            }
+            this.hi = mask(h, length, 0);
+            this.lo = mask(l, length, Long.SIZE);
+            this.length = length;
+        }
+
+        int bit(int index) {
+            return IpPrefixTrie.bit(hi, lo, index);
+        }
+
+        int commonPrefixLength(long otherHi, long otherLo, int max) {
+            long diff = hi ^ otherHi;
+            int common = diff != 0 ? Long.numberOfLeadingZeros(diff) :
+                    Long.SIZE + Long.numberOfLeadingZeros(lo ^ otherLo);
+            return Math.min(common, max);
+        }
+    }
+
+    /**
+     * Trie node; the prefix of a node never changes once it is created.
+     */
+    private static final class Node<V> {
+        final long hi;
+        final long lo;
+        final int length;
+
+        volatile V value;
+        volatile Node<V> left;
+        volatile Node<V> right;
+
+        Node(long hi, long lo, int length, V value) {
+            this.hi = hi;
+            this.lo = lo;
+            this.length = length;
+            this.value = value;
+        }
+
+        int bit(int index) {
+            return IpPrefixTrie.bit(hi, lo, index);
+        }
+
+        boolean matches(Key key) {
+            return key.length >= length &&
+                    key.commonPrefixLength(hi, lo, length) == length;
+        }
+
+        Node<V> child(int bit) {
+            return bit == 0 ? left : right;
+        }
+
+        void setChild(int bit, Node<V> child) {
+            if (bit == 0) {
+                left = child;
+            } else {
+                right = child;
+            }
+        }
+    }
+}
@@ -26,6 +26,7 @@ import org.onosproject.net.HostLocation;
 import org.onosproject.net.PortNumber;
 
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Service for managing the inventory of virtual networks.
@@ -174,4 +175,19 @@ public interface VirtualNetworkAdminService extends VirtualNetworkService {
      * @throws org.onlab.util.ItemNotFoundException if no such network or port found
      */
     void removeVirtualPort(NetworkId networkId, DeviceId deviceId, PortNumber portNumber);
+
+    /**
+     * Returns the virtual ports of all virtual networks realized by the
+     * specified physical port.
+     *
+     * @param realizedBy physical port
+     * @return set of virtual ports
+     */
+    default Set<VirtualPort> getVirtualPortsRealizedBy(ConnectPoint realizedBy) {
+        return getTenantIds().stream()
+                .flatMap(tenantId -> getVirtualNetworks(tenantId).stream())
+                .flatMap(network -> getVirtualPorts(network.id(), null).stream())
+                .filter(port -> realizedBy.equals(port.realizedBy()))
+                .collect(Collectors.toSet());
+    }
 }
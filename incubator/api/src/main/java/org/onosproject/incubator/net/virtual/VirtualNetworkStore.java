@@ -217,6 +217,16 @@ public interface VirtualNetworkStore
      */
     Set<VirtualLink> getLinks(NetworkId networkId);
 
+    /**
+     * Returns the version of the topology of the specified virtual network.
+     * The version increases whenever virtual devices or links are added to or
+     * removed from the network, or its links are updated.
+     *
+     * @param networkId network identifier
+     * @return topology version
+     */
+    long getTopologyVersion(NetworkId networkId);
+
     /**
      * Returns the virtual link matching the network identifier, source connect point,
      * and destination connect point.
@@ -237,6 +247,15 @@ public interface VirtualNetworkStore
      */
     Set<VirtualPort> getPorts(NetworkId networkId, DeviceId deviceId);
 
+    /**
+     * Returns the virtual ports of all virtual networks realized by the
+     * specified physical port.
+     *
+     * @param realizedBy physical port
+     * @return set of virtual ports
+     */
+    Set<VirtualPort> getPortsRealizedBy(ConnectPoint realizedBy);
+
     /**
      * Add or update the intent to the store.
      *
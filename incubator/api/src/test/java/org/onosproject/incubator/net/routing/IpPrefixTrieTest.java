@@ -0,0 +1,152 @@
+/*
+ * Copyright 2017-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.incubator.net.routing;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.onlab.packet.IpAddress;
+import org.onlab.packet.IpPrefix;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for class {@link IpPrefixTrie}.
+ */
+public class IpPrefixTrieTest {
+
+    private static final IpPrefix DEFAULT = IpPrefix.valueOf("0.0.0.0/0");
+    private static final IpPrefix PREFIX8 = IpPrefix.valueOf("10.0.0.0/8");
+    private static final IpPrefix PREFIX16 = IpPrefix.valueOf("10.1.0.0/16");
+    private static final IpPrefix PREFIX24 = IpPrefix.valueOf("10.1.2.0/24");
+    private static final IpPrefix OTHER24 = IpPrefix.valueOf("10.1.3.0/24");
+    private static final IpPrefix HOST = IpPrefix.valueOf("10.1.2.3/32");
+
+    private static final IpPrefix V6_PREFIX = IpPrefix.valueOf("2001:db8::/32");
+    private static final IpPrefix V6_LONG = IpPrefix.valueOf("2001:db8:0:0:1::/80");
+
+    private IpPrefixTrie<IpPrefix> trie;
+
+    @Before
+    public void setUp() {
+        trie = new IpPrefixTrie<>(IpAddress.Version.INET);
+    }
+
+    private void putAll(IpPrefix... prefixes) {
+        for (IpPrefix prefix : prefixes) {
+            trie.put(prefix, prefix);
+        }
+    }
+
+    /**
+     * Tests exact lookups, including prefixes which only exist as branches.
+     */
+    @Test
+    public void testGet() {
+        putAll(PREFIX24, OTHER24, PREFIX8);
+
+        assertThat(trie.size(), is(3));
+        assertThat(trie.get(PREFIX8), is(PREFIX8));
+        assertThat(trie.get(PREFIX24), is(PREFIX24));
+        assertThat(trie.get(OTHER24), is(OTHER24));
+        assertThat(trie.get(PREFIX16), nullValue());
+        assertThat(trie.get(DEFAULT), nullValue());
+    }
+
+    /**
+     * Tests that updating a prefix replaces its value.
+     */
+    @Test
+    public void testPutReplaces() {
+        assertThat(trie.put(PREFIX16, PREFIX16), nullValue());
+        assertThat(trie.put(PREFIX16, PREFIX8), is(PREFIX16));
+        assertThat(trie.size(), is(1));
+        assertThat(trie.get(PREFIX16), is(PREFIX8));
+    }
+
+    /**
+     * Tests longest prefix match lookups.
+     */
+    @Test
+    public void testLongestPrefixMatch() {
+        assertThat(trie.longestPrefixMatch(IpAddress.valueOf("10.1.2.3")), nullValue());
+
+        putAll(DEFAULT, PREFIX8, PREFIX24, HOST);
+
+        assertThat(trie.longestPrefixMatch(IpAddress.valueOf("10.1.2.3")), is(HOST));
+        assertThat(trie.longestPrefixMatch(IpAddress.valueOf("10.1.2.4")), is(PREFIX24));
+        assertThat(trie.longestPrefixMatch(IpAddress.valueOf("10.1.3.1")), is(PREFIX8));
+        assertThat(trie.longestPrefixMatch(IpAddress.valueOf("192.168.1.1")), is(DEFAULT));
+    }
+
+    /**
+     * Tests that removals restore the previous lookup results.
+     */
+    @Test
+    public void testRemove() {
+        putAll(PREFIX8, PREFIX16, PREFIX24, OTHER24);
+
+        assertThat(trie.remove(HOST), nullValue());
+        assertThat(trie.remove(PREFIX16), is(PREFIX16));
+        assertThat(trie.remove(PREFIX16), nullValue());
+        assertThat(trie.size(), is(3));
+        assertThat(trie.longestPrefixMatch(IpAddress.valueOf("10.1.4.1")), is(PREFIX8));
+        assertThat(trie.longestPrefixMatch(IpAddress.valueOf("10.1.3.1")), is(OTHER24));
+
+        trie.remove(PREFIX24);
+        trie.remove(OTHER24);
+        trie.remove(PREFIX8);
+        assertThat(trie.size(), is(0));
+        assertThat(trie.values(), is(empty()));
+        assertThat(trie.longestPrefixMatch(IpAddress.valueOf("10.1.3.1")), nullValue());
+    }
+
+    /**
+     * Tests that values are returned in prefix order.
+     */
+    @Test
+    public void testValues() {
+        putAll(OTHER24, HOST, PREFIX8, DEFAULT);
+
+        assertThat(trie.values(), contains(DEFAULT, PREFIX8, HOST, OTHER24));
+    }
+
+    /**
+     * Tests an IPv6 trie.
+     */
+    @Test
+    public void testIp6() {
+        IpPrefixTrie<IpPrefix> trie6 = new IpPrefixTrie<>(IpAddress.Version.INET6);
+        trie6.put(V6_PREFIX, V6_PREFIX);
+        trie6.put(V6_LONG, V6_LONG);
+
+        assertThat(trie6.longestPrefixMatch(IpAddress.valueOf("2001:db8::1:0:0:1")), is(V6_LONG));
+        assertThat(trie6.longestPrefixMatch(IpAddress.valueOf("2001:db8::2:0:0:1")), is(V6_PREFIX));
+        assertThat(trie6.longestPrefixMatch(IpAddress.valueOf("2001:db9::1")), nullValue());
+    }
+
+    /**
+     * Tests that prefixes of the wrong IP version are rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testVersionMismatch() {
+        trie.put(V6_PREFIX, V6_PREFIX);
+    }
+}
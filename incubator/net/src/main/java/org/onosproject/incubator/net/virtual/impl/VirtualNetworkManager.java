@@ -267,10 +267,8 @@ public class VirtualNetworkManager
      */
     private ConnectPoint mapPhysicalToVirtualToPort(NetworkId networkId,
                                                     ConnectPoint physicalCp) {
-        Set<VirtualPort> ports = store.getPorts(networkId, null);
-        for (VirtualPort port : ports) {
-            if (port.realizedBy().deviceId().equals(physicalCp.elementId()) &&
-                    port.realizedBy().port().equals(physicalCp.port())) {
+        for (VirtualPort port : store.getPortsRealizedBy(physicalCp)) {
+            if (port.networkId().equals(networkId)) {
                 return new ConnectPoint(port.element().id(), port.number());
             }
         }
@@ -315,6 +313,12 @@ public class VirtualNetworkManager
         store.removePort(networkId, deviceId, portNumber);
     }
 
+    @Override
+    public Set<VirtualPort> getVirtualPortsRealizedBy(ConnectPoint realizedBy) {
+        checkNotNull(realizedBy, "Physical port cannot be null");
+        return store.getPortsRealizedBy(realizedBy);
+    }
+
     @Override
     public ServiceDirectory getServiceDirectory() {
         return serviceDirectory;
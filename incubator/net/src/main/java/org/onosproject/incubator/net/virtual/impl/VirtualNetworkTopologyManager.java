@@ -19,6 +19,7 @@ package org.onosproject.incubator.net.virtual.impl;
 import org.onosproject.common.DefaultTopology;
 import org.onosproject.incubator.net.virtual.NetworkId;
 import org.onosproject.incubator.net.virtual.VirtualNetworkService;
+import org.onosproject.incubator.net.virtual.VirtualNetworkStore;
 import org.onosproject.incubator.net.virtual.event.AbstractVirtualListenerManager;
 import org.onosproject.net.ConnectPoint;
 import org.onosproject.net.Device;
@@ -60,6 +61,11 @@ public class VirtualNetworkTopologyManager
     private static final String CONNECTION_POINT_NULL = "Connection point cannot be null";
     private static final String LINK_WEIGHT_NULL = "Link weight cannot be null";
 
+    private final VirtualNetworkStore store;
+
+    // Topology of the network as of the version it was built for
+    private volatile TopologySnapshot snapshot;
+
     /**
      * Creates a new VirtualNetworkTopologyService object.
      *
@@ -69,10 +75,22 @@ public class VirtualNetworkTopologyManager
     public VirtualNetworkTopologyManager(VirtualNetworkService virtualNetworkManager,
                                          NetworkId networkId) {
         super(virtualNetworkManager, networkId, TopologyEvent.class);
+        this.store = serviceDirectory.get(VirtualNetworkStore.class);
     }
 
     @Override
     public Topology currentTopology() {
+        long version = store.getTopologyVersion(networkId());
+        TopologySnapshot current = snapshot;
+        if (current == null || current.version != version) {
+            current = new TopologySnapshot(version, buildTopology());
+            snapshot = current;
+        }
+        return current.topology;
+    }
+
+    // Builds the topology out of the current virtual devices and links
+    private DefaultTopology buildTopology() {
         Iterable<Device> devices = manager.getVirtualDevices(networkId())
                 .stream()
                 .collect(Collectors.toSet());
@@ -89,9 +107,12 @@ public class VirtualNetworkTopologyManager
 
     @Override
     public boolean isLatest(Topology topology) {
+        checkNotNull(topology, TOPOLOGY_NULL);
         Topology currentTopology = currentTopology();
-        return defaultTopology(topology).getGraph()
-                .equals(defaultTopology(currentTopology).getGraph());
+        // Topologies are shared until the version changes
+        return topology == currentTopology ||
+                defaultTopology(topology).getGraph()
+                        .equals(defaultTopology(currentTopology).getGraph());
     }
 
     @Override
@@ -215,4 +236,14 @@ public class VirtualNetworkTopologyManager
         checkNotNull(connectPoint, CONNECTION_POINT_NULL);
         return defaultTopology(topology).isBroadcastPoint(connectPoint);
     }
+
+    private static final class TopologySnapshot {
+        private final long version;
+        private final DefaultTopology topology;
+
+        private TopologySnapshot(long version, DefaultTopology topology) {
+            this.version = version;
+            this.topology = topology;
+        }
+    }
 }
@@ -28,9 +28,6 @@ import org.onlab.packet.Ethernet;
 import org.onosproject.core.ApplicationId;
 import org.onosproject.core.CoreService;
 import org.onosproject.incubator.net.virtual.NetworkId;
-import org.onosproject.incubator.net.virtual.TenantId;
-import org.onosproject.incubator.net.virtual.VirtualDevice;
-import org.onosproject.incubator.net.virtual.VirtualNetwork;
 import org.onosproject.incubator.net.virtual.VirtualNetworkAdminService;
 import org.onosproject.incubator.net.virtual.VirtualPort;
 import org.onosproject.incubator.net.virtual.provider.AbstractVirtualProvider;
@@ -58,7 +55,6 @@ import org.slf4j.Logger;
 
 import java.nio.ByteBuffer;
 import java.util.Dictionary;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -201,28 +197,8 @@ public class DefaultVirtualPacketProvider extends AbstractVirtualProvider
      * @return a virtual port
      */
     private VirtualPort getMappedVirtualPort(ConnectPoint cp) {
-        Set<TenantId> tIds = vnaService.getTenantIds();
-
-        Set<VirtualNetwork> vNetworks = new HashSet<>();
-        tIds.forEach(tid -> vNetworks.addAll(vnaService.getVirtualNetworks(tid)));
-
-        for (VirtualNetwork vNet : vNetworks) {
-            Set<VirtualDevice> vDevices = vnaService.getVirtualDevices(vNet.id());
-
-            Set<VirtualPort> vPorts = new HashSet<>();
-            vDevices.forEach(dev -> vPorts
-                    .addAll(vnaService.getVirtualPorts(dev.networkId(), dev.id())));
-
-            VirtualPort vPort = vPorts.stream()
-                    .filter(vp -> vp.realizedBy().equals(cp))
-                    .findFirst().orElse(null);
-
-            if (vPort != null) {
-                return vPort;
-            }
-        }
-
-        return null;
+        return vnaService.getVirtualPortsRealizedBy(cp).stream()
+                .findFirst().orElse(null);
     }
 
     /**
@@ -16,6 +16,7 @@
 
 package org.onosproject.incubator.net.virtual.impl;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import org.junit.After;
 import org.junit.Before;
@@ -46,6 +47,7 @@ import org.onosproject.incubator.net.virtual.VirtualNetworkGroupStore;
 import org.onosproject.incubator.net.virtual.VirtualNetworkIntent;
 import org.onosproject.incubator.net.virtual.VirtualNetworkListener;
 import org.onosproject.incubator.net.virtual.VirtualNetworkPacketStore;
+import org.onosproject.incubator.net.virtual.VirtualNetworkStore;
 import org.onosproject.incubator.net.virtual.VirtualPort;
 import org.onosproject.incubator.net.virtual.impl.provider.DefaultVirtualFlowRuleProvider;
 import org.onosproject.incubator.net.virtual.impl.provider.DefaultVirtualGroupProvider;
@@ -133,7 +135,8 @@ public class VirtualNetworkManagerTest extends VirtualNetworkTestUtil {
         manager.coreService = coreService;
         NetTestTools.injectEventDispatcher(manager, new TestEventDispatcher());
 
-        testDirectory = new TestServiceDirectory();
+        testDirectory = new TestServiceDirectory()
+                .add(VirtualNetworkStore.class, virtualNetworkManagerStore);
         TestUtils.setField(manager, "serviceDirectory", testDirectory);
 
         manager.activate();
@@ -616,6 +619,44 @@ public class VirtualNetworkManagerTest extends VirtualNetworkTestUtil {
                 new VirtualNetworkEvent.Type[expectedEventTypes.size()]));
     }
 
+    /**
+     * Tests the lookup of virtual ports by the physical port realizing them.
+     */
+    @Test
+    public void testVirtualPortsRealizedBy() {
+        manager.registerTenantId(TenantId.tenantId(tenantIdValue1));
+        VirtualNetwork virtualNetwork1 =
+                manager.createVirtualNetwork(TenantId.tenantId(tenantIdValue1));
+        VirtualNetwork virtualNetwork2 =
+                manager.createVirtualNetwork(TenantId.tenantId(tenantIdValue1));
+        VirtualDevice virtualDevice1 =
+                manager.createVirtualDevice(virtualNetwork1.id(), DID1);
+        VirtualDevice virtualDevice2 =
+                manager.createVirtualDevice(virtualNetwork2.id(), DID2);
+        ConnectPoint physicalCp1 = new ConnectPoint(PHYDID1, PortNumber.portNumber(1));
+        ConnectPoint physicalCp2 = new ConnectPoint(PHYDID2, PortNumber.portNumber(2));
+
+        VirtualPort virtualPort1 = manager.createVirtualPort(virtualNetwork1.id(), virtualDevice1.id(),
+                                                             PortNumber.portNumber(1), physicalCp1);
+        VirtualPort virtualPort2 = manager.createVirtualPort(virtualNetwork2.id(), virtualDevice2.id(),
+                                                             PortNumber.portNumber(1), physicalCp1);
+        assertEquals("The virtual ports did not match.", ImmutableSet.of(virtualPort1, virtualPort2),
+                     manager.getVirtualPortsRealizedBy(physicalCp1));
+        assertTrue("The virtual port set should be empty.",
+                   manager.getVirtualPortsRealizedBy(physicalCp2).isEmpty());
+
+        manager.bindVirtualPort(virtualNetwork2.id(), virtualDevice2.id(),
+                                PortNumber.portNumber(1), physicalCp2);
+        assertEquals("The virtual ports did not match.", ImmutableSet.of(virtualPort1),
+                     manager.getVirtualPortsRealizedBy(physicalCp1));
+        assertEquals("The virtual port set size did not match.", 1,
+                     manager.getVirtualPortsRealizedBy(physicalCp2).size());
+
+        manager.removeVirtualPort(virtualNetwork1.id(), virtualDevice1.id(), PortNumber.portNumber(1));
+        assertTrue("The virtual port set should be empty.",
+                   manager.getVirtualPortsRealizedBy(physicalCp1).isEmpty());
+    }
+
     /**
      * Tests when a virtual element is removed, all the other elements depending on it are also removed.
      */
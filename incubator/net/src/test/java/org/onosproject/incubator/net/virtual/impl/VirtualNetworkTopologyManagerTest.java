@@ -33,6 +33,7 @@ import org.onosproject.incubator.net.virtual.TenantId;
 import org.onosproject.incubator.net.virtual.VirtualDevice;
 import org.onosproject.incubator.net.virtual.VirtualLink;
 import org.onosproject.incubator.net.virtual.VirtualNetwork;
+import org.onosproject.incubator.net.virtual.VirtualNetworkStore;
 import org.onosproject.incubator.store.virtual.impl.DistributedVirtualNetworkStore;
 import org.onosproject.net.ConnectPoint;
 import org.onosproject.net.DeviceId;
@@ -87,7 +88,8 @@ public class VirtualNetworkTopologyManagerTest extends TestDeviceParams {
         manager.coreService = coreService;
         NetTestTools.injectEventDispatcher(manager, new TestEventDispatcher());
 
-        testDirectory = new TestServiceDirectory();
+        testDirectory = new TestServiceDirectory()
+                .add(VirtualNetworkStore.class, virtualNetworkManagerStore);
         TestUtils.setField(manager, "serviceDirectory", testDirectory);
 
         manager.activate();
@@ -163,6 +165,26 @@ public class VirtualNetworkTopologyManagerTest extends TestDeviceParams {
         assertNotNull("The topology should not be null.", topology);
     }
 
+    /**
+     * Tests that currentTopology() returns the same topology until the
+     * virtual network changes.
+     */
+    @Test
+    public void testCurrentTopologyIsCached() {
+        VirtualNetwork virtualNetwork = setupVirtualNetworkTopology();
+
+        TopologyService topologyService = manager.get(virtualNetwork.id(), TopologyService.class);
+        Topology topology = topologyService.currentTopology();
+        assertSame("The topology should be cached.", topology, topologyService.currentTopology());
+
+        manager.createVirtualDevice(virtualNetwork.id(), DID5);
+        Topology newTopology = topologyService.currentTopology();
+        assertNotSame("The topology should be rebuilt.", topology, newTopology);
+        assertEquals("The topology should have the new device.",
+                     topology.deviceCount() + 1, newTopology.deviceCount());
+        assertTrue("This should be latest topology", topologyService.isLatest(newTopology));
+    }
+
     /**
      * Test isLatest() method using a null topology.
      */
@@ -16,6 +16,7 @@
 package org.onosproject.incubator.store.virtual.impl;
 
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import org.apache.felix.scr.annotations.Activate;
 import org.apache.felix.scr.annotations.Component;
@@ -68,6 +69,7 @@ import org.onosproject.store.service.Serializer;
 import org.onosproject.store.service.SetEvent;
 import org.onosproject.store.service.SetEventListener;
 import org.onosproject.store.service.StorageService;
+import org.onosproject.store.service.Versioned;
 import org.onosproject.store.service.WallClockTimestamp;
 import org.slf4j.Logger;
 
@@ -166,6 +168,11 @@ public class DistributedVirtualNetworkStore
     private ConsistentMap<NetworkId, Set<VirtualPort>> networkIdVirtualPortSetConsistentMap;
     private Map<NetworkId, Set<VirtualPort>> networkIdVirtualPortSetMap;
 
+    // Virtual ports of all the networks, indexed by the physical port realizing them
+    private final Map<ConnectPoint, Set<VirtualPort>> realizedByVirtualPortSetMap = Maps.newConcurrentMap();
+    private final MapEventListener<NetworkId, Set<VirtualPort>> virtualPortMapListener =
+            new InternalVirtualPortMapListener();
+
     // Track intent key to intent data
     private ConsistentMap<Key, IntentData> intentKeyIntentDataConsistentMap;
     private Map<Key, IntentData> intentKeyIntentDataMap;
@@ -267,7 +274,9 @@ public class DistributedVirtualNetworkStore
                 .withName("onos-networkId-virtualports")
                 .withRelaxedReadConsistency()
                 .build();
+        networkIdVirtualPortSetConsistentMap.addListener(virtualPortMapListener);
         networkIdVirtualPortSetMap = networkIdVirtualPortSetConsistentMap.asJavaMap();
+        networkIdVirtualPortSetMap.values().forEach(ports -> ports.forEach(this::indexPort));
 
         intentKeyTunnelIdSetConsistentMap = storageService.<Key, Set<TunnelId>>consistentMapBuilder()
                 .withSerializer(SERIALIZER)
@@ -294,6 +303,8 @@ public class DistributedVirtualNetworkStore
         tenantIdSet.removeListener(setListener);
         networkIdVirtualNetworkConsistentMap.removeListener(virtualNetworkMapListener);
         deviceIdVirtualDeviceConsistentMap.removeListener(virtualDeviceMapListener);
+        networkIdVirtualPortSetConsistentMap.removeListener(virtualPortMapListener);
+        realizedByVirtualPortSetMap.clear();
         log.info("Stopped");
     }
 
@@ -578,11 +589,10 @@ public class DistributedVirtualNetworkStore
     public VirtualPort addPort(NetworkId networkId, DeviceId deviceId,
                                PortNumber portNumber, ConnectPoint realizedBy) {
         checkState(networkExists(networkId), "The network has not been added.");
-        Set<VirtualPort> virtualPortSet = networkIdVirtualPortSetMap.get(networkId);
-
-        if (virtualPortSet == null) {
-            virtualPortSet = new HashSet<>();
-        }
+        Set<VirtualPort> existingVirtualPorts = networkIdVirtualPortSetMap.get(networkId);
+        // Copied so that listeners can tell the previous ports from the new ones
+        Set<VirtualPort> virtualPortSet = existingVirtualPorts == null ?
+                new HashSet<>() : new HashSet<>(existingVirtualPorts);
 
         VirtualDevice device = deviceIdVirtualDeviceMap.get(deviceId);
         checkNotNull(device, "The device has not been created for deviceId: " + deviceId);
@@ -603,8 +613,8 @@ public class DistributedVirtualNetworkStore
     public void bindPort(NetworkId networkId, DeviceId deviceId,
                          PortNumber portNumber, ConnectPoint realizedBy) {
 
-        Set<VirtualPort> virtualPortSet = networkIdVirtualPortSetMap
-                .get(networkId);
+        Set<VirtualPort> virtualPortSet = new HashSet<>(networkIdVirtualPortSetMap
+                .get(networkId));
 
         Optional<VirtualPort> virtualPortOptional = virtualPortSet.stream().filter(
                 p -> p.element().id().equals(deviceId) &&
@@ -733,6 +743,15 @@ public class DistributedVirtualNetworkStore
         return ImmutableSet.copyOf(virtualLinkSet);
     }
 
+    @Override
+    public long getTopologyVersion(NetworkId networkId) {
+        // Entries of these maps are only ever replaced, never removed, so
+        // the sum of their versions increases with every change.
+        Versioned<Set<DeviceId>> devices = networkIdDeviceIdSetConsistentMap.get(networkId);
+        Versioned<Set<VirtualLink>> links = networkIdVirtualLinkSetConsistentMap.get(networkId);
+        return (devices != null ? devices.version() : 0) + (links != null ? links.version() : 0);
+    }
+
     @Override
     public VirtualLink getLink(NetworkId networkId, ConnectPoint src, ConnectPoint dst) {
         Set<VirtualLink> virtualLinkSet = networkIdVirtualLinkSetMap.get(networkId);
@@ -771,6 +790,31 @@ public class DistributedVirtualNetworkStore
         return ImmutableSet.copyOf(portSet);
     }
 
+    @Override
+    public Set<VirtualPort> getPortsRealizedBy(ConnectPoint realizedBy) {
+        Set<VirtualPort> virtualPortSet = realizedByVirtualPortSetMap.get(realizedBy);
+        return virtualPortSet != null ? virtualPortSet : ImmutableSet.of();
+    }
+
+    private void indexPort(VirtualPort virtualPort) {
+        if (virtualPort.realizedBy() != null) {
+            realizedByVirtualPortSetMap.compute(virtualPort.realizedBy(), (cp, existingVirtualPorts) ->
+                    existingVirtualPorts == null ? ImmutableSet.of(virtualPort) :
+                            ImmutableSet.<VirtualPort>builder()
+                                    .addAll(existingVirtualPorts).add(virtualPort).build());
+        }
+    }
+
+    private void unindexPort(VirtualPort virtualPort) {
+        if (virtualPort.realizedBy() != null) {
+            realizedByVirtualPortSetMap.computeIfPresent(virtualPort.realizedBy(), (cp, existingVirtualPorts) -> {
+                Set<VirtualPort> virtualPortSet = Sets.difference(existingVirtualPorts,
+                                                                  ImmutableSet.of(virtualPort));
+                return virtualPortSet.isEmpty() ? null : ImmutableSet.copyOf(virtualPortSet);
+            });
+        }
+    }
+
     @Override
     public synchronized void addOrUpdateIntent(Intent intent, IntentState state) {
         checkNotNull(intent, "Intent cannot be null");
@@ -871,6 +915,23 @@ public class DistributedVirtualNetworkStore
         }
     }
 
+    /**
+     * Listener class to keep the index of virtual ports by physical port in
+     * sync with the virtual ports of all instances.
+     */
+    private class InternalVirtualPortMapListener implements MapEventListener<NetworkId, Set<VirtualPort>> {
+
+        @Override
+        public void event(MapEvent<NetworkId, Set<VirtualPort>> event) {
+            Set<VirtualPort> oldVirtualPorts = event.oldValue() != null && event.oldValue().value() != null ?
+                    event.oldValue().value() : ImmutableSet.of();
+            Set<VirtualPort> newVirtualPorts = event.newValue() != null && event.newValue().value() != null ?
+                    event.newValue().value() : ImmutableSet.of();
+            Sets.difference(oldVirtualPorts, newVirtualPorts).forEach(DistributedVirtualNetworkStore.this::unindexPort);
+            Sets.difference(newVirtualPorts, oldVirtualPorts).forEach(DistributedVirtualNetworkStore.this::indexPort);
+        }
+    }
+
     /**
      * Listener class to map listener map events to the virtual network events.
      */
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2017-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.incubator.store.routing.impl;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onlab.packet.Ip4Address;
+import org.onlab.packet.Ip4Prefix;
+import org.onlab.packet.Ip6Address;
+import org.onlab.packet.Ip6Prefix;
+import org.onlab.packet.IpAddress;
+import org.onlab.packet.IpPrefix;
+import org.onosproject.incubator.net.routing.Route;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the next hop index of the local route store.
+ */
+public class LocalRouteStoreTest {
+
+    private static final IpPrefix V4_PREFIX1 = Ip4Prefix.valueOf("1.1.1.0/24");
+    private static final IpPrefix V4_PREFIX2 = Ip4Prefix.valueOf("2.2.2.0/24");
+    private static final IpPrefix V6_PREFIX1 = Ip6Prefix.valueOf("4000::/64");
+
+    private static final IpAddress V4_NEXT_HOP1 = Ip4Address.valueOf("192.168.10.1");
+    private static final IpAddress V4_NEXT_HOP2 = Ip4Address.valueOf("192.168.20.1");
+    private static final IpAddress V6_NEXT_HOP1 = Ip6Address.valueOf("1000::1");
+
+    private LocalRouteStore store;
+
+    @Before
+    public void setUp() {
+        store = new LocalRouteStore();
+        store.activate();
+    }
+
+    @After
+    public void tearDown() {
+        store.deactivate();
+    }
+
+    private static Route route(IpPrefix prefix, IpAddress nextHop) {
+        return new Route(Route.Source.STATIC, prefix, nextHop);
+    }
+
+    /**
+     * Tests that added routes are found by their next hop.
+     */
+    @Test
+    public void testAdd() {
+        Route r1 = route(V4_PREFIX1, V4_NEXT_HOP1);
+        Route r2 = route(V6_PREFIX1, V6_NEXT_HOP1);
+        store.updateRoute(r1);
+        store.updateRoute(r2);
+
+        assertEquals(ImmutableSet.of(r1), ImmutableSet.copyOf(store.getRoutesForNextHop(V4_NEXT_HOP1)));
+        assertEquals(ImmutableSet.of(r2), ImmutableSet.copyOf(store.getRoutesForNextHop(V6_NEXT_HOP1)));
+        assertTrue(store.getRoutesForNextHop(V4_NEXT_HOP2).isEmpty());
+    }
+
+    /**
+     * Tests that a route replaced with another next hop is only found by
+     * the new one.
+     */
+    @Test
+    public void testReplace() {
+        Route r1 = route(V4_PREFIX1, V4_NEXT_HOP1);
+        Route r2 = route(V4_PREFIX1, V4_NEXT_HOP2);
+        store.updateRoute(r1);
+        store.updateRoute(r2);
+
+        assertTrue(store.getRoutesForNextHop(V4_NEXT_HOP1).isEmpty());
+        assertEquals(ImmutableSet.of(r2), ImmutableSet.copyOf(store.getRoutesForNextHop(V4_NEXT_HOP2)));
+
+        // Replacing a route with itself leaves the index untouched
+        store.updateRoute(r2);
+        assertEquals(ImmutableSet.of(r2), ImmutableSet.copyOf(store.getRoutesForNextHop(V4_NEXT_HOP2)));
+    }
+
+    /**
+     * Tests that a removed route is no longer found by its next hop.
+     */
+    @Test
+    public void testRemove() {
+        Route r1 = route(V4_PREFIX1, V4_NEXT_HOP1);
+        store.updateRoute(r1);
+        store.removeRoute(r1);
+
+        assertTrue(store.getRoutesForNextHop(V4_NEXT_HOP1).isEmpty());
+
+        // Removing an unknown route has no effect
+        store.removeRoute(route(V4_PREFIX2, V4_NEXT_HOP1));
+        assertTrue(store.getRoutesForNextHop(V4_NEXT_HOP1).isEmpty());
+    }
+
+    /**
+     * Tests the routes sharing a next hop as they are replaced and removed.
+     */
+    @Test
+    public void testSharedNextHop() {
+        Route r1 = route(V4_PREFIX1, V4_NEXT_HOP1);
+        Route r2 = route(V4_PREFIX2, V4_NEXT_HOP1);
+        store.updateRoute(r1);
+        store.updateRoute(r2);
+
+        assertEquals(ImmutableSet.of(r1, r2), ImmutableSet.copyOf(store.getRoutesForNextHop(V4_NEXT_HOP1)));
+
+        // Moving one route to another next hop keeps the other indexed
+        Route r3 = route(V4_PREFIX2, V4_NEXT_HOP2);
+        store.updateRoute(r3);
+        assertEquals(ImmutableSet.of(r1), ImmutableSet.copyOf(store.getRoutesForNextHop(V4_NEXT_HOP1)));
+        assertEquals(ImmutableSet.of(r3), ImmutableSet.copyOf(store.getRoutesForNextHop(V4_NEXT_HOP2)));
+
+        store.updateRoute(r2);
+        store.removeRoute(r1);
+        assertEquals(ImmutableSet.of(r2), ImmutableSet.copyOf(store.getRoutesForNextHop(V4_NEXT_HOP1)));
+        assertTrue(store.getRoutesForNextHop(V4_NEXT_HOP2).isEmpty());
+
+        store.removeRoute(r2);
+        assertTrue(store.getRoutesForNextHop(V4_NEXT_HOP1).isEmpty());
+    }
+}
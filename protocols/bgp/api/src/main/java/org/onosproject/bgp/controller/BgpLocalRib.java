@@ -29,6 +29,28 @@ import java.util.Map;
  */
 public interface BgpLocalRib {
 
+    /**
+     * Update of the local RIB.
+     */
+    @FunctionalInterface
+    interface RibUpdate {
+        /**
+         * Applies the update.
+         *
+         * @throws BgpParseException while updating local rib
+         */
+        void apply() throws BgpParseException;
+    }
+
+    /**
+     * Applies the given updates as a single batch. Listeners are notified of the net change of each node and link
+     * once the whole batch is applied. Batches may be nested, in which case they are merged into the outermost one.
+     *
+     * @param update updates to apply
+     * @throws BgpParseException while updating local rib
+     */
+    void batch(RibUpdate update) throws BgpParseException;
+
     /**
      * Add NLRI to local RIB.
      *
@@ -110,4 +132,18 @@ public interface BgpLocalRib {
      * @return vpn prefix NLRI Tree
      */
     Map<RouteDistinguisher, Map<BgpPrefixLSIdentifier, PathAttrNlriDetailsLocalRib>> vpnPrefixTree();
+
+    /**
+     * Returns the number of node, link and prefix entries.
+     *
+     * @return number of entries
+     */
+    int size();
+
+    /**
+     * Returns the rate NLRI additions and withdrawals are applied at, excluding the time spent notifying listeners.
+     *
+     * @return NLRI updates per second
+     */
+    double updateRate();
 }
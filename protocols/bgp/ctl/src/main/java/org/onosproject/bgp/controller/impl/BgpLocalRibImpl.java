@@ -35,35 +35,101 @@ import org.onosproject.bgpio.types.RouteDistinguisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
-import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
  * Implementation of local RIB.
+ * <p>
+ * The trees may be read concurrently with updates. Updates are applied one
+ * batch at a time, such as all the NLRIs of an UPDATE message, and the node
+ * and link listeners are notified once the batch is applied, of the net
+ * change of each node and link only.
+ * </p>
  */
 public class BgpLocalRibImpl implements BgpLocalRib {
 
     private static final Logger log = LoggerFactory.getLogger(BgpLocalRibImpl.class);
     private BgpController bgpController;
 
-    private Map<BgpNodeLSIdentifier, PathAttrNlriDetailsLocalRib> nodeTree = new TreeMap<>();
-    private Map<BgpLinkLSIdentifier, PathAttrNlriDetailsLocalRib> linkTree = new TreeMap<>();
-    private Map<BgpPrefixLSIdentifier, PathAttrNlriDetailsLocalRib> prefixTree = new TreeMap<>();
+    private Map<BgpNodeLSIdentifier, PathAttrNlriDetailsLocalRib> nodeTree = new ConcurrentSkipListMap<>();
+    private Map<BgpLinkLSIdentifier, PathAttrNlriDetailsLocalRib> linkTree = new ConcurrentSkipListMap<>();
+    private Map<BgpPrefixLSIdentifier, PathAttrNlriDetailsLocalRib> prefixTree = new ConcurrentSkipListMap<>();
 
     private Map<RouteDistinguisher, Map<BgpNodeLSIdentifier, PathAttrNlriDetailsLocalRib>> vpnNodeTree
-                                                                                                   = new TreeMap<>();
+                                                                                    = new ConcurrentSkipListMap<>();
     private Map<RouteDistinguisher, Map<BgpLinkLSIdentifier, PathAttrNlriDetailsLocalRib>> vpnLinkTree
-                                                                                                   = new TreeMap<>();
+                                                                                    = new ConcurrentSkipListMap<>();
     private Map<RouteDistinguisher, Map<BgpPrefixLSIdentifier, PathAttrNlriDetailsLocalRib>> vpnPrefixTree
-                                                                                                   = new TreeMap<>();
+                                                                                    = new ConcurrentSkipListMap<>();
+
+    // Serializes updates; listeners are notified under the notification
+    // lock only, in the order the batches were applied in
+    private final Lock updateLock = new ReentrantLock();
+    private final Lock notificationLock = new ReentrantLock();
+    private int batchDepth = 0;
+    private Changes pendingChanges = new Changes();
+
+    private final AtomicLong updateCount = new AtomicLong();
+    private final AtomicLong updateNanos = new AtomicLong();
 
     public BgpLocalRibImpl(BgpController bgpController) {
         this.bgpController = bgpController;
     }
 
+    @Override
+    public void batch(RibUpdate update) throws BgpParseException {
+        Changes changes = null;
+        updateLock.lock();
+        long start = System.nanoTime();
+        try {
+            batchDepth++;
+            try {
+                update.apply();
+            } finally {
+                batchDepth--;
+                if (batchDepth == 0) {
+                    updateNanos.addAndGet(System.nanoTime() - start);
+                    if (!pendingChanges.isEmpty()) {
+                        changes = pendingChanges;
+                        pendingChanges = new Changes();
+                        // Taken before letting the next batch in, to keep
+                        // the notifications in order
+                        notificationLock.lock();
+                    }
+                }
+            }
+        } finally {
+            updateLock.unlock();
+        }
+
+        if (changes != null) {
+            try {
+                changes.notifyListeners();
+            } finally {
+                notificationLock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public double updateRate() {
+        long nanos = updateNanos.get();
+        return nanos == 0 ? 0 : updateCount.get() * 1e9 / nanos;
+    }
+
+    @Override
+    public int size() {
+        return nodeTree.size() + linkTree.size() + prefixTree.size();
+    }
+
     /**
      * Gets node NLRI tree.
      *
@@ -126,6 +192,12 @@ public class BgpLocalRibImpl implements BgpLocalRib {
 
     @Override
     public void add(BgpSessionInfo sessionInfo, BgpLSNlri nlri, PathAttrNlriDetails details) throws BgpParseException {
+        updateCount.incrementAndGet();
+        batch(() -> addToRib(sessionInfo, nlri, details));
+    }
+
+    private void addToRib(BgpSessionInfo sessionInfo, BgpLSNlri nlri, PathAttrNlriDetails details)
+            throws BgpParseException {
         int decisionResult;
 
         log.debug("Add to local RIB {}", details.toString());
@@ -142,17 +214,13 @@ public class BgpLocalRibImpl implements BgpLocalRib {
                 // Compare local RIB entry with the current attribute
                 decisionResult = selectionAlgo.compare(nodeTree.get(nodeLsIdentifier), detailsLocRib);
                 if (decisionResult <= 0) {
-                    for (BgpNodeListener l : bgpController.listener()) {
-                        l.addNode((BgpNodeLSNlriVer4) nlri, details);
-                    }
+                    pendingChanges.addNode(nodeLsIdentifier, (BgpNodeLSNlriVer4) nlri, details, true);
                     nodeTree.replace(nodeLsIdentifier, detailsLocRib);
                     log.debug("Local RIB update node: {}", detailsLocRib.toString());
                 }
             } else {
                 nodeTree.put(nodeLsIdentifier, detailsLocRib);
-                for (BgpNodeListener l : bgpController.listener()) {
-                    l.addNode((BgpNodeLSNlriVer4) nlri, details);
-                }
+                pendingChanges.addNode(nodeLsIdentifier, (BgpNodeLSNlriVer4) nlri, details, false);
                 log.debug("Local RIB ad node: {}", detailsLocRib.toString());
             }
         } else if (nlri instanceof BgpLinkLsNlriVer4) {
@@ -163,16 +231,12 @@ public class BgpLocalRibImpl implements BgpLocalRib {
                 decisionResult = selectionAlgo.compare(linkTree.get(linkLsIdentifier), detailsLocRib);
                 if (decisionResult <= 0) {
                     linkTree.replace(linkLsIdentifier, detailsLocRib);
-                    for (BgpLinkListener l : bgpController.linkListener()) {
-                        l.addLink((BgpLinkLsNlriVer4) nlri, details);
-                    }
+                    pendingChanges.addLink(linkLsIdentifier, (BgpLinkLsNlriVer4) nlri, details, true);
                     log.debug("Local RIB update link: {}", detailsLocRib.toString());
                 }
             } else {
                 linkTree.put(linkLsIdentifier, detailsLocRib);
-                for (BgpLinkListener l : bgpController.linkListener()) {
-                    l.addLink((BgpLinkLsNlriVer4) nlri, details);
-                }
+                pendingChanges.addLink(linkLsIdentifier, (BgpLinkLsNlriVer4) nlri, details, false);
                 log.debug("Local RIB add link: {}", detailsLocRib.toString());
             }
         } else if (nlri instanceof BgpPrefixIPv4LSNlriVer4) {
@@ -197,6 +261,7 @@ public class BgpLocalRibImpl implements BgpLocalRib {
         log.debug("Delete from local RIB.");
 
         // Update local RIB
+        updateCount.incrementAndGet();
         decisionProcess(nlri);
     }
 
@@ -208,6 +273,10 @@ public class BgpLocalRibImpl implements BgpLocalRib {
      */
     public void decisionProcess(BgpLSNlri nlri) throws BgpParseException {
         checkNotNull(nlri);
+        batch(() -> selectionProcess(nlri));
+    }
+
+    private void selectionProcess(BgpLSNlri nlri) throws BgpParseException {
         if (nlri instanceof BgpNodeLSNlriVer4) {
             selectionProcessNode(nlri, false);
         } else if (nlri instanceof BgpLinkLsNlriVer4) {
@@ -226,6 +295,11 @@ public class BgpLocalRibImpl implements BgpLocalRib {
      */
     public void decisionProcess(BgpLSNlri nlri, RouteDistinguisher routeDistinguisher) throws BgpParseException {
         checkNotNull(nlri);
+        batch(() -> selectionProcess(nlri, routeDistinguisher));
+    }
+
+    private void selectionProcess(BgpLSNlri nlri, RouteDistinguisher routeDistinguisher)
+            throws BgpParseException {
         if (nlri instanceof BgpNodeLSNlriVer4) {
             if (vpnNodeTree.containsKey(routeDistinguisher)) {
                 selectionProcessNode(nlri, true);
@@ -266,9 +340,7 @@ public class BgpLocalRibImpl implements BgpLocalRib {
         BgpNodeLSIdentifier nodeLsIdentifier = ((BgpNodeLSNlriVer4) nlri).getLocalNodeDescriptors();
 
         if (nodeTree.containsKey(nodeLsIdentifier)) {
-            for (BgpNodeListener l : bgpController.listener()) {
-                l.deleteNode((BgpNodeLSNlriVer4) nlri);
-            }
+            pendingChanges.deleteNode(nodeLsIdentifier, (BgpNodeLSNlriVer4) nlri);
             log.debug("Local RIB delete node: {}", nodeLsIdentifier.toString());
             nodeTree.remove(nodeLsIdentifier);
         }
@@ -303,11 +375,11 @@ public class BgpLocalRibImpl implements BgpLocalRib {
             } else {
                 if (!isVpnRib) {
                     if (peer.adjacencyRib().nodeTree().containsKey(nodeLsIdentifier)) {
-                        add(peer.sessionInfo(), nlri, peer.adjacencyRib().nodeTree().get(nodeLsIdentifier));
+                        addToRib(peer.sessionInfo(), nlri, peer.adjacencyRib().nodeTree().get(nodeLsIdentifier));
                     }
                 } else {
                     if (peer.vpnAdjacencyRib().nodeTree().containsKey(nodeLsIdentifier)) {
-                        add(peer.sessionInfo(), nlri, peer.vpnAdjacencyRib().nodeTree().get(nodeLsIdentifier));
+                        addToRib(peer.sessionInfo(), nlri, peer.vpnAdjacencyRib().nodeTree().get(nodeLsIdentifier));
                     }
                 }
             }
@@ -331,9 +403,7 @@ public class BgpLocalRibImpl implements BgpLocalRib {
 
         if (linkTree.containsKey(linkLsIdentifier)) {
             log.debug("Local RIB remove link: {}", linkLsIdentifier.toString());
-            for (BgpLinkListener l : bgpController.linkListener()) {
-                l.deleteLink((BgpLinkLsNlriVer4) nlri);
-            }
+            pendingChanges.deleteLink(linkLsIdentifier, (BgpLinkLsNlriVer4) nlri);
             linkTree.remove(linkLsIdentifier);
         }
 
@@ -370,11 +440,11 @@ public class BgpLocalRibImpl implements BgpLocalRib {
             } else {
                 if (!isVpnRib) {
                     if (peer.adjacencyRib().linkTree().containsKey(linkLsIdentifier)) {
-                        add(peer.sessionInfo(), nlri, peer.adjacencyRib().linkTree().get(linkLsIdentifier));
+                        addToRib(peer.sessionInfo(), nlri, peer.adjacencyRib().linkTree().get(linkLsIdentifier));
                     }
                 } else {
                     if (peer.vpnAdjacencyRib().linkTree().containsKey(linkLsIdentifier)) {
-                        add(peer.sessionInfo(), nlri, peer.vpnAdjacencyRib().linkTree().get(linkLsIdentifier));
+                        addToRib(peer.sessionInfo(), nlri, peer.vpnAdjacencyRib().linkTree().get(linkLsIdentifier));
                     }
                 }
             }
@@ -432,10 +502,11 @@ public class BgpLocalRibImpl implements BgpLocalRib {
             } else {
                     if (!isVpnRib) {
                         if (peer.adjacencyRib().prefixTree().containsKey(prefixIdentifier)) {
-                            add(peer.sessionInfo(), nlri, peer.adjacencyRib().prefixTree().get(prefixIdentifier));
+                            addToRib(peer.sessionInfo(), nlri, peer.adjacencyRib().prefixTree().get(prefixIdentifier));
                     } else {
                         if (peer.vpnAdjacencyRib().prefixTree().containsKey(prefixIdentifier)) {
-                            add(peer.sessionInfo(), nlri, peer.vpnAdjacencyRib().prefixTree().get(prefixIdentifier));
+                            addToRib(peer.sessionInfo(), nlri,
+                                     peer.vpnAdjacencyRib().prefixTree().get(prefixIdentifier));
                         }
                     }
                 }
@@ -446,7 +517,13 @@ public class BgpLocalRibImpl implements BgpLocalRib {
     @Override
     public void add(BgpSessionInfo sessionInfo, BgpLSNlri nlri, PathAttrNlriDetails details,
                     RouteDistinguisher routeDistinguisher) throws BgpParseException {
-        add(sessionInfo, nlri, details);
+        updateCount.incrementAndGet();
+        batch(() -> addToRib(sessionInfo, nlri, details, routeDistinguisher));
+    }
+
+    private void addToRib(BgpSessionInfo sessionInfo, BgpLSNlri nlri, PathAttrNlriDetails details,
+                          RouteDistinguisher routeDistinguisher) throws BgpParseException {
+        addToRib(sessionInfo, nlri, details);
         if (nlri instanceof BgpNodeLSNlriVer4) {
             if (!vpnNodeTree.containsKey(routeDistinguisher)) {
                 vpnNodeTree.put(routeDistinguisher, nodeTree);
@@ -465,6 +542,7 @@ public class BgpLocalRibImpl implements BgpLocalRib {
     @Override
     public void delete(BgpLSNlri nlri, RouteDistinguisher routeDistinguisher) throws BgpParseException {
         // Update local RIB
+        updateCount.incrementAndGet();
         decisionProcess(nlri, routeDistinguisher);
     }
 
@@ -606,9 +684,11 @@ public class BgpLocalRibImpl implements BgpLocalRib {
     public void localRibUpdate(AdjRibIn adjRibIn) throws BgpParseException {
         log.debug("Update local RIB.");
 
-        localRibUpdateNode(adjRibIn);
-        localRibUpdateLink(adjRibIn);
-        localRibUpdatePrefix(adjRibIn);
+        batch(() -> {
+            localRibUpdateNode(adjRibIn);
+            localRibUpdateLink(adjRibIn);
+            localRibUpdatePrefix(adjRibIn);
+        });
     }
 
     /**
@@ -620,9 +700,95 @@ public class BgpLocalRibImpl implements BgpLocalRib {
     public void localRibUpdate(VpnAdjRibIn vpnAdjRibIn) throws BgpParseException {
         log.debug("Update VPN local RIB.");
 
-        localRibUpdateNode(vpnAdjRibIn);
-        localRibUpdateLink(vpnAdjRibIn);
-        localRibUpdatePrefix(vpnAdjRibIn);
+        batch(() -> {
+            localRibUpdateNode(vpnAdjRibIn);
+            localRibUpdateLink(vpnAdjRibIn);
+            localRibUpdatePrefix(vpnAdjRibIn);
+        });
+    }
+
+    // Net changes of the nodes and links of a batch, by identifier
+    private final class Changes {
+        private final Map<BgpNodeLSIdentifier, Change<BgpNodeLSNlriVer4>> nodes = new LinkedHashMap<>();
+        private final Map<BgpLinkLSIdentifier, Change<BgpLinkLsNlriVer4>> links = new LinkedHashMap<>();
+
+        private boolean isEmpty() {
+            return nodes.isEmpty() && links.isEmpty();
+        }
+
+        private void addNode(BgpNodeLSIdentifier id, BgpNodeLSNlriVer4 nlri, PathAttrNlriDetails details,
+                             boolean inRib) {
+            add(nodes, id, nlri, details, inRib);
+        }
+
+        private void deleteNode(BgpNodeLSIdentifier id, BgpNodeLSNlriVer4 nlri) {
+            delete(nodes, id, nlri);
+        }
+
+        private void addLink(BgpLinkLSIdentifier id, BgpLinkLsNlriVer4 nlri, PathAttrNlriDetails details,
+                             boolean inRib) {
+            add(links, id, nlri, details, inRib);
+        }
+
+        private void deleteLink(BgpLinkLSIdentifier id, BgpLinkLsNlriVer4 nlri) {
+            delete(links, id, nlri);
+        }
+
+        // Listeners know of the entries which were in the RIB before the batch
+        private <K, N> void add(Map<K, Change<N>> changes, K id, N nlri, PathAttrNlriDetails details,
+                                boolean inRib) {
+            Change<N> previous = changes.get(id);
+            boolean known = previous == null ? inRib : previous.known;
+            changes.put(id, new Change<>(nlri, details, known));
+        }
+
+        // Only entries of the RIB are ever deleted; those added by the batch
+        // itself are dropped, as listeners never heard of them
+        private <K, N> void delete(Map<K, Change<N>> changes, K id, N nlri) {
+            Change<N> previous = changes.get(id);
+            if (previous != null && !previous.known) {
+                changes.remove(id);
+            } else {
+                changes.put(id, new Change<>(nlri, null, true));
+            }
+        }
+
+        // Notifies of nodes before the links attached to them and of links
+        // before the nodes they are attached to go away.
+        private void notifyListeners() {
+            nodes.values().stream().filter(c -> c.details != null).forEach(c -> {
+                for (BgpNodeListener l : bgpController.listener()) {
+                    l.addNode(c.nlri, c.details);
+                }
+            });
+            links.values().forEach(c -> {
+                for (BgpLinkListener l : bgpController.linkListener()) {
+                    if (c.details != null) {
+                        l.addLink(c.nlri, c.details);
+                    } else {
+                        l.deleteLink(c.nlri);
+                    }
+                }
+            });
+            nodes.values().stream().filter(c -> c.details == null).forEach(c -> {
+                for (BgpNodeListener l : bgpController.listener()) {
+                    l.deleteNode(c.nlri);
+                }
+            });
+        }
+    }
+
+    // Addition of a node or link if details are present, deletion otherwise
+    private static final class Change<N> {
+        private final N nlri;
+        private final PathAttrNlriDetails details;
+        private final boolean known;
+
+        private Change(N nlri, PathAttrNlriDetails details, boolean known) {
+            this.nlri = nlri;
+            this.details = details;
+            this.known = known;
+        }
     }
 
     @Override
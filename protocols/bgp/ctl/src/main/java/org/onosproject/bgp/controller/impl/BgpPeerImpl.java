@@ -257,6 +257,11 @@ public class BgpPeerImpl implements BgpPeer {
 
     @Override
     public void buildAdjRibIn(List<BgpValueType> pathAttr) throws BgpParseException {
+        // Apply all NLRIs of the update message as one batch of each local RIB
+        bgplocalRib.batch(() -> bgplocalRibVpn.batch(() -> updateAdjRibIn(pathAttr)));
+    }
+
+    private void updateAdjRibIn(List<BgpValueType> pathAttr) throws BgpParseException {
         ListIterator<BgpValueType> iterator = pathAttr.listIterator();
         while (iterator.hasNext()) {
             BgpValueType attr = iterator.next();
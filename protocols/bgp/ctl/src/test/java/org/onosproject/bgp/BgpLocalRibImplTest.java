@@ -0,0 +1,220 @@
+/*
+ * Copyright 2017-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.bgp;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Before;
+import org.junit.Test;
+import org.onlab.packet.IpAddress;
+import org.onosproject.bgp.controller.BgpId;
+import org.onosproject.bgp.controller.BgpLinkListener;
+import org.onosproject.bgp.controller.BgpNodeListener;
+import org.onosproject.bgp.controller.BgpSessionInfo;
+import org.onosproject.bgp.controller.impl.BgpControllerImpl;
+import org.onosproject.bgp.controller.impl.BgpLocalRibImpl;
+import org.onosproject.bgp.controller.impl.BgpSessionInfoImpl;
+import org.onosproject.bgpio.exceptions.BgpParseException;
+import org.onosproject.bgpio.protocol.BgpVersion;
+import org.onosproject.bgpio.protocol.linkstate.BgpLinkLSIdentifier;
+import org.onosproject.bgpio.protocol.linkstate.BgpLinkLsNlriVer4;
+import org.onosproject.bgpio.protocol.linkstate.BgpNodeLSIdentifier;
+import org.onosproject.bgpio.protocol.linkstate.BgpNodeLSNlriVer4;
+import org.onosproject.bgpio.protocol.linkstate.NodeDescriptors;
+import org.onosproject.bgpio.protocol.linkstate.PathAttrNlriDetails;
+import org.onosproject.bgpio.types.AsPath;
+import org.onosproject.bgpio.types.AutonomousSystemTlv;
+import org.onosproject.bgpio.types.BgpValueType;
+import org.onosproject.bgpio.types.Origin;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test cases for the batched updates of the BGP local RIB.
+ */
+public class BgpLocalRibImplTest {
+
+    private final BgpSessionInfo sessionInfo =
+            new BgpSessionInfoImpl(BgpId.bgpId(IpAddress.valueOf("10.0.0.1")), BgpVersion.BGP_4, 100,
+                                   (short) 180, 1, (short) 180, false, new LinkedList<>());
+
+    private final Map<Object, String> names = new HashMap<>();
+    private final List<String> events = new ArrayList<>();
+    private PathAttrNlriDetails lastDetails;
+
+    private BgpLocalRibImpl localRib;
+    private BgpNodeLSNlriVer4 node1;
+    private BgpNodeLSNlriVer4 node2;
+    private BgpLinkLsNlriVer4 link1;
+    private BgpLinkLsNlriVer4 link2;
+
+    @Before
+    public void setUp() {
+        BgpControllerImpl controller = new BgpControllerImpl();
+        controller.addListener(new TestNodeListener());
+        controller.addLinkListener(new TestLinkListener());
+        localRib = new BgpLocalRibImpl(controller);
+
+        node1 = node("N1", 1);
+        node2 = node("N2", 2);
+        link1 = link("L1", 1, 2);
+        link2 = link("L2", 2, 1);
+    }
+
+    private static NodeDescriptors descriptors(int asNum, short type) {
+        List<BgpValueType> subTlvs = new LinkedList<>();
+        subTlvs.add(AutonomousSystemTlv.of(asNum));
+        return new NodeDescriptors(subTlvs, (short) 8, type);
+    }
+
+    private BgpNodeLSNlriVer4 node(String name, int asNum) {
+        BgpNodeLSIdentifier id = new BgpNodeLSIdentifier(descriptors(asNum, NodeDescriptors.LOCAL_NODE_DES_TYPE));
+        BgpNodeLSNlriVer4 nlri = new BgpNodeLSNlriVer4(0, (byte) 2, id, false, null);
+        names.put(nlri, name);
+        return nlri;
+    }
+
+    private BgpLinkLsNlriVer4 link(String name, int src, int dst) {
+        BgpLinkLSIdentifier id = new BgpLinkLSIdentifier(descriptors(src, NodeDescriptors.LOCAL_NODE_DES_TYPE),
+                                                         descriptors(dst, NodeDescriptors.REMOTE_NODE_DES_TYPE),
+                                                         new LinkedList<>());
+        BgpLinkLsNlriVer4 nlri = new BgpLinkLsNlriVer4((byte) 2, 0, id, null, false);
+        names.put(nlri, name);
+        return nlri;
+    }
+
+    // Details differing by identifier only, which the selection process
+    // lets replace one another
+    private static PathAttrNlriDetails details(long identifier) {
+        List<BgpValueType> pathAttributes = new LinkedList<>();
+        pathAttributes.add(new Origin((byte) 0));
+        pathAttributes.add(new AsPath(new ArrayList<>(), ImmutableList.of((short) 100)));
+        PathAttrNlriDetails details = new PathAttrNlriDetails();
+        details.setIdentifier(identifier);
+        details.setProtocolID(BgpNodeLSNlriVer4.ProtocolType.ISIS_LEVEL_TWO);
+        details.setPathAttribute(pathAttributes);
+        return details;
+    }
+
+    /**
+     * An addition and an update of the same node in a batch are notified as
+     * a single addition with the latest details.
+     */
+    @Test
+    public void addUpdateMerge() throws BgpParseException {
+        PathAttrNlriDetails latest = details(2);
+        localRib.batch(() -> {
+            localRib.add(sessionInfo, node1, details(1));
+            localRib.add(sessionInfo, node1, latest);
+            assertThat(events, is(empty()));
+        });
+
+        assertThat(events, is(ImmutableList.of("addNode N1")));
+        assertSame(latest, lastDetails);
+        assertThat(localRib.nodeTree().size(), is(1));
+    }
+
+    /**
+     * A node or link added and withdrawn in the same batch is not notified
+     * at all, as listeners never heard of it.
+     */
+    @Test
+    public void addDeleteCancel() throws BgpParseException {
+        localRib.batch(() -> {
+            localRib.add(sessionInfo, node1, details(1));
+            localRib.add(sessionInfo, link1, details(1));
+            localRib.add(sessionInfo, node1, details(2));
+            localRib.delete(link1);
+            localRib.delete(node1);
+        });
+
+        assertThat(events, is(empty()));
+        assertThat(localRib.size(), is(0));
+    }
+
+    /**
+     * A known node updated and withdrawn in the same batch is notified as
+     * deleted.
+     */
+    @Test
+    public void updateDeleteKnown() throws BgpParseException {
+        localRib.add(sessionInfo, node1, details(1));
+        events.clear();
+
+        localRib.batch(() -> {
+            localRib.add(sessionInfo, node1, details(2));
+            localRib.delete(node1);
+        });
+
+        assertThat(events, is(ImmutableList.of("deleteNode N1")));
+    }
+
+    /**
+     * Node additions are notified first, then link changes, then node
+     * deletions.
+     */
+    @Test
+    public void flushOrdering() throws BgpParseException {
+        localRib.batch(() -> {
+            localRib.add(sessionInfo, node1, details(1));
+            localRib.add(sessionInfo, link1, details(1));
+        });
+        events.clear();
+
+        localRib.batch(() -> {
+            localRib.delete(node1);
+            localRib.delete(link1);
+            localRib.add(sessionInfo, link2, details(1));
+            localRib.add(sessionInfo, node2, details(1));
+        });
+
+        assertThat(events, is(ImmutableList.of("addNode N2", "deleteLink L1",
+                                               "addLink L2", "deleteNode N1")));
+    }
+
+    private class TestNodeListener implements BgpNodeListener {
+        @Override
+        public void addNode(BgpNodeLSNlriVer4 nodeNlri, PathAttrNlriDetails details) {
+            events.add("addNode " + names.get(nodeNlri));
+            lastDetails = details;
+        }
+
+        @Override
+        public void deleteNode(BgpNodeLSNlriVer4 nodeNlri) {
+            events.add("deleteNode " + names.get(nodeNlri));
+        }
+    }
+
+    private class TestLinkListener implements BgpLinkListener {
+        @Override
+        public void addLink(BgpLinkLsNlriVer4 linkNlri, PathAttrNlriDetails details) {
+            events.add("addLink " + names.get(linkNlri));
+        }
+
+        @Override
+        public void deleteLink(BgpLinkLsNlriVer4 linkNlri) {
+            events.add("deleteLink " + names.get(linkNlri));
+        }
+    }
+}
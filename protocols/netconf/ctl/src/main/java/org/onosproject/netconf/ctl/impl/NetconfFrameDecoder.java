@@ -0,0 +1,241 @@
+/*
+ * Copyright 2017-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.netconf.ctl.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Incremental decoder of the NETCONF messages received over a session,
+ * framed either by the end-of-message delimiter of NETCONF 1.0 or by the
+ * chunked framing of NETCONF 1.1 (RFC 6242). The framing is detected for
+ * each message.
+ * <p>
+ * Every byte received is looked at exactly once, regardless of how the
+ * messages are split across reads. This class is not thread-safe.
+ * </p>
+ */
+final class NetconfFrameDecoder {
+
+    private static final byte[] END_OF_MESSAGE =
+            "]]>]]>".getBytes(StandardCharsets.UTF_8);
+    // Longest proper prefix of END_OF_MESSAGE[0..i] that is also its suffix
+    private static final int[] END_OF_MESSAGE_FALLBACK = fallbacks(END_OF_MESSAGE);
+
+    private static final int INITIAL_CAPACITY = 4096;
+    private static final int MAX_CHUNK_SIZE_DIGITS = 10;
+
+    private enum State {
+        // At the start of a message; its framing is not known yet
+        START,
+        // Seen a new line at the start of a message
+        START_LF,
+        // Within a message delimited by END_OF_MESSAGE
+        END_OF_MESSAGE,
+        // Expecting the new line opening a chunk header
+        CHUNK_LF,
+        // Expecting the hash of a chunk header
+        CHUNK_HASH,
+        // Expecting the first digit of a chunk size or the end-of-chunks hash
+        CHUNK_SIZE_FIRST,
+        // Within the digits of a chunk size
+        CHUNK_SIZE,
+        // Within the data of a chunk
+        CHUNK_DATA,
+        // Expecting the new line closing the end-of-chunks marker
+        CHUNK_END_LF
+    }
+
+    private State state = State.START;
+    private byte[] message = new byte[INITIAL_CAPACITY];
+    private int length = 0;
+    private int matched = 0;
+    private long chunkRemaining = 0;
+    private int chunkSizeDigits = 0;
+
+    /**
+     * Decodes the given bytes received from the device.
+     *
+     * @param bytes  buffer holding the received bytes
+     * @param offset offset of the first received byte
+     * @param count  number of received bytes
+     * @return messages completed by the received bytes, in order; an empty
+     *         message marks an end-of-message delimiter with nothing before it
+     * @throws IllegalStateException if the chunked framing is violated
+     */
+    List<String> decode(byte[] bytes, int offset, int count) {
+        List<String> messages = new ArrayList<>(1);
+        int end = offset + count;
+        int i = offset;
+        while (i < end) {
+            byte b = bytes[i];
+            switch (state) {
+                case START:
+                    if (b == '\n') {
+                        state = State.START_LF;
+                        i++;
+                    } else {
+                        state = State.END_OF_MESSAGE;
+                    }
+                    break;
+
+                case START_LF:
+                    if (b == '#') {
+                        state = State.CHUNK_SIZE_FIRST;
+                        i++;
+                    } else {
+                        // Not chunked; keep the new line as part of the message
+                        state = State.END_OF_MESSAGE;
+                        appendEndOfMessage((byte) '\n', messages);
+                    }
+                    break;
+
+                case END_OF_MESSAGE:
+                    appendEndOfMessage(b, messages);
+                    i++;
+                    break;
+
+                case CHUNK_LF:
+                    expect(b, '\n');
+                    state = State.CHUNK_HASH;
+                    i++;
+                    break;
+
+                case CHUNK_HASH:
+                    expect(b, '#');
+                    state = State.CHUNK_SIZE_FIRST;
+                    i++;
+                    break;
+
+                case CHUNK_SIZE_FIRST:
+                    if (b == '#') {
+                        state = State.CHUNK_END_LF;
+                    } else {
+                        if (b < '1' || b > '9') {
+                            throw new IllegalStateException("Invalid chunk size");
+                        }
+                        chunkRemaining = b - '0';
+                        chunkSizeDigits = 1;
+                        state = State.CHUNK_SIZE;
+                    }
+                    i++;
+                    break;
+
+                case CHUNK_SIZE:
+                    if (b == '\n') {
+                        state = State.CHUNK_DATA;
+                    } else {
+                        if (b < '0' || b > '9' || ++chunkSizeDigits > MAX_CHUNK_SIZE_DIGITS) {
+                            throw new IllegalStateException("Invalid chunk size");
+                        }
+                        chunkRemaining = chunkRemaining * 10 + (b - '0');
+                    }
+                    i++;
+                    break;
+
+                case CHUNK_DATA:
+                    int n = (int) Math.min(chunkRemaining, end - i);
+                    append(bytes, i, n);
+                    chunkRemaining -= n;
+                    i += n;
+                    if (chunkRemaining == 0) {
+                        state = State.CHUNK_LF;
+                    }
+                    break;
+
+                case CHUNK_END_LF:
+                    expect(b, '\n');
+                    messages.add(complete(length));
+                    i++;
+                    break;
+
+                default:
+                    throw new IllegalStateException("Unexpected state " + state);
+            }
+        }
+        return messages;
+    }
+
+    // Appends a byte of a delimited message, completing the message if the
+    // byte ends the delimiter.
+    private void appendEndOfMessage(byte b, List<String> messages) {
+        append(b);
+        while (matched > 0 && b != END_OF_MESSAGE[matched]) {
+            matched = END_OF_MESSAGE_FALLBACK[matched - 1];
+        }
+        if (b == END_OF_MESSAGE[matched]) {
+            matched++;
+        }
+        if (matched == END_OF_MESSAGE.length) {
+            messages.add(complete(length - END_OF_MESSAGE.length));
+        }
+    }
+
+    private void expect(byte b, char expected) {
+        if (b != expected) {
+            throw new IllegalStateException("Invalid chunked framing");
+        }
+    }
+
+    // Returns the first bytes of the current message as a string and gets
+    // ready for the next message.
+    private String complete(int messageLength) {
+        String completed = new String(message, 0, messageLength, StandardCharsets.UTF_8);
+        length = 0;
+        matched = 0;
+        state = State.START;
+        if (message.length > INITIAL_CAPACITY) {
+            // Do not hold on to the buffer of an exceptionally large message
+            message = new byte[INITIAL_CAPACITY];
+        }
+        return completed;
+    }
+
+    private void append(byte b) {
+        ensureCapacity(1);
+        message[length++] = b;
+    }
+
+    private void append(byte[] bytes, int offset, int count) {
+        ensureCapacity(count);
+        System.arraycopy(bytes, offset, message, length, count);
+        length += count;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > message.length) {
+            message = Arrays.copyOf(message, Math.max(message.length * 2, length + extra));
+        }
+    }
+
+    private static int[] fallbacks(byte[] pattern) {
+        int[] fallbacks = new int[pattern.length];
+        int k = 0;
+        for (int i = 1; i < pattern.length; i++) {
+            while (k > 0 && pattern[i] != pattern[k]) {
+                k = fallbacks[k - 1];
+            }
+            if (pattern[i] == pattern[k]) {
+                k++;
+            }
+            fallbacks[i] = k;
+        }
+        return fallbacks;
+    }
+}
@@ -25,10 +25,8 @@ import org.onosproject.netconf.NetconfException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.util.List;
@@ -41,13 +39,17 @@ import java.util.regex.Pattern;
 /**
  * Thread that gets spawned each time a session is established and handles all the input
  * and output from the session's streams to and from the NETCONF device the session is
- * established with.
+ * established with. Input is read in blocks and split into messages by a
+ * {@link NetconfFrameDecoder}.
  */
 public class NetconfStreamThread extends Thread implements NetconfStreamHandler {
 
     private static final Logger log = LoggerFactory
             .getLogger(NetconfStreamThread.class);
+    private static final int READ_BUFFER_SIZE = 8192;
     private static final String HELLO = "<hello";
+    private static final String HELLO_ELEMENT = "hello";
+    private static final String NOTIFICATION_ELEMENT = "notification";
     private static final String END_PATTERN = "]]>]]>";
     private static final String RPC_REPLY = "rpc-reply";
     private static final String RPC_ERROR = "rpc-error";
@@ -60,7 +62,6 @@ public class NetconfStreamThread extends Thread implements NetconfStreamHandler
     private final InputStream in;
     private NetconfDeviceInfo netconfDeviceInfo;
     private NetconfSessionDelegate sessionDelegate;
-    private NetconfMessageState state;
     private List<NetconfDeviceOutputEventListener> netconfDeviceEventListeners
             = Lists.newCopyOnWriteArrayList();
     private boolean enableNotifications = true;
@@ -74,7 +75,6 @@ public class NetconfStreamThread extends Thread implements NetconfStreamHandler
         this.err = err;
         outputStream = new PrintWriter(out);
         netconfDeviceInfo = deviceInfo;
-        state = NetconfMessageState.NO_MATCHING_PATTERN;
         sessionDelegate = delegate;
         this.replies = replies;
         log.debug("Stream thread for device {} session started", deviceInfo);
@@ -175,77 +175,145 @@ public class NetconfStreamThread extends Thread implements NetconfStreamHandler
 
     @Override
     public void run() {
-        BufferedReader bufferReader = new BufferedReader(new InputStreamReader(in));
-            try {
-                boolean socketClosed = false;
-                StringBuilder deviceReplyBuilder = new StringBuilder();
-                while (!socketClosed) {
-                    int cInt = bufferReader.read();
-                    if (cInt == -1) {
-                        log.debug("Netconf device {}  sent error char in session," +
-                                          " will need to be reopend", netconfDeviceInfo);
+        NetconfFrameDecoder decoder = new NetconfFrameDecoder();
+        byte[] buffer = new byte[READ_BUFFER_SIZE];
+        try {
+            boolean socketClosed = false;
+            while (!socketClosed) {
+                int count = in.read(buffer);
+                if (count == -1) {
+                    log.debug("Netconf device {}  sent error char in session," +
+                                      " will need to be reopend", netconfDeviceInfo);
+                    NetconfDeviceOutputEvent event = new NetconfDeviceOutputEvent(
+                            NetconfDeviceOutputEvent.Type.SESSION_CLOSED,
+                            null, null, Optional.of(-1), netconfDeviceInfo);
+                    netconfDeviceEventListeners.forEach(
+                            listener -> listener.event(event));
+                    socketClosed = true;
+                    log.debug("Netconf device {} ERROR cInt == -1 socketClosed = true", netconfDeviceInfo);
+                    break;
+                }
+
+                for (String deviceReply : decoder.decode(buffer, 0, count)) {
+                    if (deviceReply.isEmpty()) {
+                        socketClosed = true;
+                        log.debug("Netconf device {} socketClosed = true DEVICE_UNREGISTERED {}",
+                                  netconfDeviceInfo, END_PATTERN);
                         NetconfDeviceOutputEvent event = new NetconfDeviceOutputEvent(
-                                NetconfDeviceOutputEvent.Type.SESSION_CLOSED,
+                                NetconfDeviceOutputEvent.Type.DEVICE_UNREGISTERED,
                                 null, null, Optional.of(-1), netconfDeviceInfo);
                         netconfDeviceEventListeners.forEach(
                                 listener -> listener.event(event));
-                        socketClosed = true;
-                        log.debug("Netconf device {} ERROR cInt == -1 socketClosed = true", netconfDeviceInfo);
-                    }
-                    char c = (char) cInt;
-                    state = state.evaluateChar(c);
-                    deviceReplyBuilder.append(c);
-                    if (state == NetconfMessageState.END_PATTERN) {
-                        String deviceReply = deviceReplyBuilder.toString();
-                        if (deviceReply.equals(END_PATTERN)) {
-                            socketClosed = true;
-                            log.debug("Netconf device {} socketClosed = true DEVICE_UNREGISTERED {}",
-                                     netconfDeviceInfo, deviceReply);
-                            NetconfDeviceOutputEvent event = new NetconfDeviceOutputEvent(
-                                    NetconfDeviceOutputEvent.Type.DEVICE_UNREGISTERED,
-                                    null, null, Optional.of(-1), netconfDeviceInfo);
-                            netconfDeviceEventListeners.forEach(
-                                    listener -> listener.event(event));
-                            this.interrupt();
-                        } else {
-                            deviceReply = deviceReply.replace(END_PATTERN, "");
-                            if (deviceReply.contains(RPC_REPLY) ||
-                                    deviceReply.contains(RPC_ERROR) ||
-                                    deviceReply.contains(HELLO)) {
-                                log.debug("Netconf device {} sessionDelegate.notify() DEVICE_REPLY {} {}",
-                                    netconfDeviceInfo, getMsgId(deviceReply), deviceReply);
-                                NetconfDeviceOutputEvent event = new NetconfDeviceOutputEvent(
-                                        NetconfDeviceOutputEvent.Type.DEVICE_REPLY,
-                                        null, deviceReply, getMsgId(deviceReply), netconfDeviceInfo);
-                                sessionDelegate.notify(event);
-                                netconfDeviceEventListeners.forEach(
-                                        listener -> listener.event(event));
-                            } else if (deviceReply.contains(NOTIFICATION_LABEL)) {
-                                log.debug("Netconf device {} DEVICE_NOTIFICATION {} {} {}",
-                                         netconfDeviceInfo, enableNotifications,
-                                         getMsgId(deviceReply), deviceReply);
-                                if (enableNotifications) {
-                                    log.debug("dispatching to {} listeners", netconfDeviceEventListeners.size());
-                                    final String finalDeviceReply = deviceReply;
-                                    netconfDeviceEventListeners.forEach(
-                                            listener -> listener.event(new NetconfDeviceOutputEvent(
-                                                    NetconfDeviceOutputEvent.Type.DEVICE_NOTIFICATION,
-                                                    null, finalDeviceReply, getMsgId(finalDeviceReply),
-                                                    netconfDeviceInfo)));
-                                }
-                            } else {
-                                log.debug("Error on reply from device {} {}", netconfDeviceInfo, deviceReply);
-                            }
-                            deviceReplyBuilder.setLength(0);
-                        }
+                        this.interrupt();
+                        break;
                     }
+                    dispatch(deviceReply);
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.warn("Error in reading from the session for device {} ", netconfDeviceInfo, e);
+            throw new RuntimeException(new NetconfException("Error in reading from the session for device {}" +
+                                                                    netconfDeviceInfo, e));
+            //TODO should we send a socket closed message to listeners ?
+        }
+    }
+
+    // Hands a complete message over to the session or the listeners,
+    // depending on its kind.
+    private void dispatch(String deviceReply) {
+        MessageKind kind = messageKind(deviceReply);
+        if (kind == MessageKind.REPLY) {
+            Optional<Integer> messageId = getMsgId(deviceReply);
+            log.debug("Netconf device {} sessionDelegate.notify() DEVICE_REPLY {} {}",
+                      netconfDeviceInfo, messageId, deviceReply);
+            NetconfDeviceOutputEvent event = new NetconfDeviceOutputEvent(
+                    NetconfDeviceOutputEvent.Type.DEVICE_REPLY,
+                    null, deviceReply, messageId, netconfDeviceInfo);
+            sessionDelegate.notify(event);
+            netconfDeviceEventListeners.forEach(
+                    listener -> listener.event(event));
+        } else if (kind == MessageKind.NOTIFICATION) {
+            Optional<Integer> messageId = getMsgId(deviceReply);
+            log.debug("Netconf device {} DEVICE_NOTIFICATION {} {} {}",
+                      netconfDeviceInfo, enableNotifications, messageId, deviceReply);
+            if (enableNotifications) {
+                log.debug("dispatching to {} listeners", netconfDeviceEventListeners.size());
+                NetconfDeviceOutputEvent event = new NetconfDeviceOutputEvent(
+                        NetconfDeviceOutputEvent.Type.DEVICE_NOTIFICATION,
+                        null, deviceReply, messageId, netconfDeviceInfo);
+                netconfDeviceEventListeners.forEach(
+                        listener -> listener.event(event));
+            }
+        } else {
+            log.debug("Error on reply from device {} {}", netconfDeviceInfo, deviceReply);
+        }
+    }
+
+    /**
+     * Determines the kind of the given message from the name of its root
+     * element, looking no further than the start of the message. Messages
+     * without a recognizable root element are scanned as a whole instead.
+     *
+     * @param message message received from the device
+     * @return kind of message
+     */
+    static MessageKind messageKind(String message) {
+        String root = rootElement(message);
+        if (root != null) {
+            switch (root) {
+                case RPC_REPLY:
+                case HELLO_ELEMENT:
+                    return MessageKind.REPLY;
+                case NOTIFICATION_ELEMENT:
+                    return MessageKind.NOTIFICATION;
+                default:
+                    break;
+            }
+        }
+        if (message.contains(RPC_REPLY) || message.contains(RPC_ERROR) ||
+                message.contains(HELLO)) {
+            return MessageKind.REPLY;
+        } else if (message.contains(NOTIFICATION_LABEL)) {
+            return MessageKind.NOTIFICATION;
+        }
+        return MessageKind.UNKNOWN;
+    }
+
+    // Returns the local name of the root element of the message, skipping
+    // over any XML declaration, processing instructions and comments.
+    private static String rootElement(String message) {
+        int i = message.indexOf('<');
+        while (i >= 0 && i + 1 < message.length()) {
+            char next = message.charAt(i + 1);
+            if (next == '?') {
+                i = message.indexOf("?>", i);
+            } else if (message.startsWith("<!--", i)) {
+                i = message.indexOf("-->", i);
+            } else if (next == '!') {
+                return null;
+            } else {
+                int start = i + 1;
+                int end = start;
+                while (end < message.length() && isNameChar(message.charAt(end))) {
+                    end++;
                 }
-            } catch (IOException e) {
-                log.warn("Error in reading from the session for device {} ", netconfDeviceInfo, e);
-                throw new RuntimeException(new NetconfException("Error in reading from the session for device {}" +
-                                                                        netconfDeviceInfo, e));
-                //TODO should we send a socket closed message to listeners ?
+                String name = message.substring(start, end);
+                return name.substring(name.indexOf(':') + 1);
             }
+            i = i < 0 ? -1 : message.indexOf('<', i);
+        }
+        return null;
+    }
+
+    private static boolean isNameChar(char c) {
+        return !Character.isWhitespace(c) && c != '>' && c != '/';
+    }
+
+    /**
+     * Kinds of messages received from a device.
+     */
+    enum MessageKind {
+        REPLY, NOTIFICATION, UNKNOWN
     }
 
     protected static Optional<Integer> getMsgId(String reply) {
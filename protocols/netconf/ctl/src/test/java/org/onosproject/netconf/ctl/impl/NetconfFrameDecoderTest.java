@@ -0,0 +1,103 @@
+/*
+ * Copyright 2017-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.netconf.ctl.impl;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+import org.onosproject.netconf.ctl.impl.NetconfStreamThread.MessageKind;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests of the NETCONF message framing decoder.
+ */
+public class NetconfFrameDecoderTest {
+
+    private static final String REPLY =
+            "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+            "<rpc-reply message-id=\"7\" xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\">" +
+            "<data>]]&gt;]]</data></rpc-reply>";
+    private static final String NOTIFICATION =
+            "<notification xmlns=\"urn:ietf:params:xml:ns:netconf:notification:1.0\">" +
+            "<eventTime>2017-01-01T00:00:00Z</eventTime></notification>";
+
+    private final NetconfFrameDecoder decoder = new NetconfFrameDecoder();
+
+    // Feeds the given stream to the decoder, a few bytes at a time.
+    private List<String> decode(String stream, int step) {
+        byte[] bytes = stream.getBytes(StandardCharsets.UTF_8);
+        List<String> messages = new ArrayList<>();
+        for (int i = 0; i < bytes.length; i += step) {
+            messages.addAll(decoder.decode(bytes, i, Math.min(step, bytes.length - i)));
+        }
+        return messages;
+    }
+
+    @Test
+    public void endOfMessageFraming() {
+        String stream = REPLY + "]]>]]>" + NOTIFICATION + "]]]>]]>";
+        for (int step : new int[]{1, 3, 7, stream.length()}) {
+            assertEquals("incorrect messages for step " + step,
+                         ImmutableList.of(REPLY, NOTIFICATION + "]"), decode(stream, step));
+        }
+    }
+
+    @Test
+    public void emptyMessage() {
+        assertEquals("incorrect messages", ImmutableList.of(""), decode("]]>]]>", 1));
+    }
+
+    @Test
+    public void chunkedFraming() {
+        String stream = "\n#10\n" + REPLY.substring(0, 10) +
+                "\n#" + (REPLY.length() - 10) + "\n" + REPLY.substring(10) +
+                "\n##\n" +
+                "\n#" + NOTIFICATION.length() + "\n" + NOTIFICATION + "\n##\n";
+        for (int step : new int[]{1, 4, stream.length()}) {
+            assertEquals("incorrect messages for step " + step,
+                         ImmutableList.of(REPLY, NOTIFICATION), decode(stream, step));
+        }
+    }
+
+    @Test
+    public void multiByteCharacters() {
+        String reply = "<rpc-reply message-id=\"1\"><data>caf\u00e9</data></rpc-reply>";
+        assertEquals("incorrect messages", ImmutableList.of(reply),
+                     decode(reply + "]]>]]>", 1));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void invalidChunkSize() {
+        decode("\n#0\n", 1);
+    }
+
+    @Test
+    public void messageKinds() {
+        assertEquals("incorrect kind", MessageKind.REPLY,
+                     NetconfStreamThread.messageKind(REPLY));
+        assertEquals("incorrect kind", MessageKind.REPLY,
+                     NetconfStreamThread.messageKind("<nc:hello xmlns:nc=\"x\"/>"));
+        assertEquals("incorrect kind", MessageKind.NOTIFICATION,
+                     NetconfStreamThread.messageKind("<!-- event -->" + NOTIFICATION));
+        assertEquals("incorrect kind", MessageKind.UNKNOWN,
+                     NetconfStreamThread.messageKind("<data/>"));
+    }
+}
@@ -64,6 +64,7 @@ public class BgpLocalRibDisplay extends AbstractShellCommand {
     private static final String VPNNODETREE = "vpnnodes";
     private static final String VPNLINKTREE = "vpnlinkS";
     private static final String VPNPREFIXTREE = "vpnprefix";
+    private static final String STATS = "stats";
     protected Origin origin;
     protected LocalPref localPref;
     protected BgpAttrRouterIdV4 bgpAttrRouterIdV4;
@@ -86,7 +87,7 @@ public class BgpLocalRibDisplay extends AbstractShellCommand {
     Set<BgpLinkLSIdentifier> linkkeySet = linkTreeMap.keySet();
     @Argument(index = 0, name = "name",
             description = "nodetree" + "\n" + "linktree" + "\n" + "prefixtree" + "\n" + "vpnnodetree" + "\n" +
-                    "vpnlinktree" + "\n" + "vpnprefixtree", required = true, multiValued = false)
+                    "vpnlinktree" + "\n" + "vpnprefixtree" + "\n" + "stats", required = true, multiValued = false)
     String name = null;
     @Argument(index = 1, name = "numberofentries",
             description = "numberofentries", required = false, multiValued = false)
@@ -117,6 +118,9 @@ public class BgpLocalRibDisplay extends AbstractShellCommand {
             case VPNPREFIXTREE:
                 displayVpnPrefix();
                 break;
+            case STATS:
+                displayStats();
+                break;
             default:
                 System.out.print("Unknown Command");
                 break;
@@ -124,6 +128,14 @@ public class BgpLocalRibDisplay extends AbstractShellCommand {
 
     }
 
+    private void displayStats() {
+        BgpLocalRib bgpLocalRibVpn = bgpController.bgpLocalRibVpn();
+        print("Local RIB entries = %d, update rate = %.1f/s",
+              bgpLocalRib.size(), bgpLocalRib.updateRate());
+        print("VPN local RIB entries = %d, update rate = %.1f/s",
+              bgpLocalRibVpn.size(), bgpLocalRibVpn.updateRate());
+    }
+
     private void displayNodes() {
         try {
             int counter = 0;
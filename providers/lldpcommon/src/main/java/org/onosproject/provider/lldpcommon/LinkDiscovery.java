@@ -38,7 +38,11 @@ import org.onosproject.net.link.ProbedLinkProvider;
 import org.slf4j.Logger;
 
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 
 import static com.google.common.base.Strings.isNullOrEmpty;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
@@ -52,9 +56,23 @@ import static org.slf4j.LoggerFactory.getLogger;
  * fast. Every probeRate milliseconds, loop over all fast ports and send an
  * LLDP, send an LLDP for a single slow port. Based on FlowVisor topology
  * discovery implementation.
+ * <p>
+ * Probes are stamped out of frames serialized once per device, patching only
+ * the port number, and are sent in batches of ports spread evenly across the
+ * probe interval, starting at a random offset, so that devices do not all
+ * burst their probes at the same time.
+ * </p>
  */
 public class LinkDiscovery implements TimerTask {
 
+    // Maximum number of ports probed in one go
+    private static final int PROBE_BATCH_SIZE = 16;
+
+    // Offset of the port number within a probe frame: Ethernet header,
+    // chassis TLV, port TLV header and port ID subtype
+    private static final int TLV_HEADER_LENGTH = 2;
+    private static final int PORT_SUBTYPE_LENGTH = 1;
+
     private final Logger log = getLogger(getClass());
 
     private final Device device;
@@ -68,6 +86,10 @@ public class LinkDiscovery implements TimerTask {
     // Set of ports to be probed
     private final Set<Long> ports = Sets.newConcurrentHashSet();
 
+    private volatile ProbeTemplates templates;
+    // Index of the next batch of ports to probe within the probe interval
+    private int nextBatch = 0;
+
     /**
      * Instantiates discovery manager for the given physical switch. Creates a
      * generic LLDP packet that will be customized for the port it is sent out on.
@@ -108,7 +130,9 @@ public class LinkDiscovery implements TimerTask {
     public synchronized void start() {
         if (isStopped) {
             isStopped = false;
-            timeout = Timer.getTimer().newTimeout(this, 0, MILLISECONDS);
+            // Desynchronize devices started together, e.g. on mastership changes
+            long delay = ThreadLocalRandom.current().nextLong(Math.max(1, context.probeRate()));
+            timeout = Timer.getTimer().newTimeout(this, delay, MILLISECONDS);
         } else {
             log.warn("LinkDiscovery started multiple times?");
         }
@@ -199,9 +223,9 @@ public class LinkDiscovery implements TimerTask {
     }
 
     /**
-     * Execute this method every t milliseconds. Loops over all ports
-     * labeled as fast and sends out an LLDP. Send out an LLDP on a single slow
-     * port.
+     * Execute this method every t milliseconds. Sends out an LLDP on the
+     * next batch of ports, so that every port is probed once per probe
+     * interval.
      *
      * @param t timeout
      */
@@ -211,13 +235,23 @@ public class LinkDiscovery implements TimerTask {
             return;
         }
 
+        List<Long> snapshot = new ArrayList<>(ports);
+        int batches = Math.max(1, (snapshot.size() + PROBE_BATCH_SIZE - 1) / PROBE_BATCH_SIZE);
+        if (nextBatch >= batches) {
+            nextBatch = 0;
+        }
+
         if (context.mastershipService().isLocalMaster(device.id())) {
-            log.trace("Sending probes from {}", device.id());
-            ports.forEach(this::sendProbes);
+            log.trace("Sending probes batch {}/{} from {}", nextBatch + 1, batches, device.id());
+            for (int i = nextBatch; i < snapshot.size(); i += batches) {
+                sendProbes(snapshot.get(i));
+            }
         }
+        nextBatch++;
 
         if (!isStopped()) {
-            timeout = Timer.getTimer().newTimeout(this, context.probeRate(), MILLISECONDS);
+            long delay = Math.max(1, context.probeRate() / batches);
+            timeout = Timer.getTimer().newTimeout(this, delay, MILLISECONDS);
         }
     }
 
@@ -227,15 +261,12 @@ public class LinkDiscovery implements TimerTask {
      * @param port the port
      * @return Packet_out message with LLDP data
      */
-    private OutboundPacket createOutBoundLldp(Long port) {
+    OutboundPacket createOutBoundLldp(Long port) {
         if (port == null) {
             return null;
         }
-        ONOSLLDP lldp = getLinkProbe(port);
-        ethPacket.setSourceMACAddress(context.fingerprint()).setPayload(lldp);
-        return new DefaultOutboundPacket(device.id(),
-                                         builder().setOutput(portNumber(port)).build(),
-                                         ByteBuffer.wrap(ethPacket.serialize()));
+        ProbeTemplates probes = templates();
+        return createOutBound(port, probes.lldp, probes.portOffset);
     }
 
     /**
@@ -244,15 +275,45 @@ public class LinkDiscovery implements TimerTask {
      * @param port the port
      * @return Packet_out message with LLDP data
      */
-    private OutboundPacket createOutBoundBddp(Long port) {
+    OutboundPacket createOutBoundBddp(Long port) {
         if (port == null) {
             return null;
         }
-        ONOSLLDP lldp = getLinkProbe(port);
-        bddpEth.setSourceMACAddress(context.fingerprint()).setPayload(lldp);
+        ProbeTemplates probes = templates();
+        return createOutBound(port, probes.bddp, probes.portOffset);
+    }
+
+    // Stamps out a probe for the given port from the frame template.
+    private OutboundPacket createOutBound(Long port, byte[] template, int portOffset) {
+        byte[] frame = Arrays.copyOf(template, template.length);
+        ByteBuffer buffer = ByteBuffer.wrap(frame);
+        buffer.putInt(portOffset, port.intValue());
         return new DefaultOutboundPacket(device.id(),
                                          builder().setOutput(portNumber(port)).build(),
-                                         ByteBuffer.wrap(bddpEth.serialize()));
+                                         buffer);
+    }
+
+    // Returns the probe frame templates, serializing them anew whenever the
+    // cluster fingerprint they carry changes.
+    private ProbeTemplates templates() {
+        ProbeTemplates current = templates;
+        String fingerprint = context.fingerprint();
+        if (current == null || !current.fingerprint.equals(fingerprint)) {
+            current = buildTemplates(fingerprint);
+            templates = current;
+        }
+        return current;
+    }
+
+    private synchronized ProbeTemplates buildTemplates(String fingerprint) {
+        ONOSLLDP lldp = getLinkProbe(0L);
+        int portOffset = Ethernet.ETHERNET_HEADER_LENGTH +
+                TLV_HEADER_LENGTH + lldp.getChassisId().getLength() +
+                TLV_HEADER_LENGTH + PORT_SUBTYPE_LENGTH;
+        ethPacket.setSourceMACAddress(fingerprint).setPayload(lldp);
+        bddpEth.setSourceMACAddress(fingerprint).setPayload(lldp);
+        return new ProbeTemplates(fingerprint, ethPacket.serialize(),
+                                  bddpEth.serialize(), portOffset);
     }
 
     private ONOSLLDP getLinkProbe(Long port) {
@@ -272,6 +333,23 @@ public class LinkDiscovery implements TimerTask {
         }
     }
 
+    // Serialized LLDP and BDDP probe frames of the device, the port number
+    // of which is patched for each port probed.
+    private static final class ProbeTemplates {
+        private final String fingerprint;
+        private final byte[] lldp;
+        private final byte[] bddp;
+        private final int portOffset;
+
+        private ProbeTemplates(String fingerprint, byte[] lldp, byte[] bddp,
+                               int portOffset) {
+            this.fingerprint = fingerprint;
+            this.lldp = lldp;
+            this.bddp = bddp;
+            this.portOffset = portOffset;
+        }
+    }
+
     public boolean containsPort(long portNumber) {
         return ports.contains(portNumber);
     }
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2017-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.provider.lldpcommon;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onlab.packet.ChassisId;
+import org.onlab.packet.DeserializationException;
+import org.onlab.packet.Ethernet;
+import org.onlab.packet.ONOSLLDP;
+import org.onosproject.mastership.MastershipService;
+import org.onosproject.net.DefaultDevice;
+import org.onosproject.net.Device;
+import org.onosproject.net.LinkKey;
+import org.onosproject.net.device.DeviceService;
+import org.onosproject.net.link.LinkProviderService;
+import org.onosproject.net.packet.OutboundPacket;
+import org.onosproject.net.packet.PacketService;
+import org.onosproject.net.provider.ProviderId;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.onosproject.net.DeviceId.deviceId;
+
+/**
+ * Tests of the LLDP and BDDP probes stamped out by {@link LinkDiscovery}.
+ */
+public class LinkDiscoveryTest {
+
+    private static final Device DEVICE =
+            new DefaultDevice(new ProviderId("of", "foo"), deviceId("of:0000000000000abc"),
+                              Device.Type.SWITCH, "mfr", "hw", "sw", "sn",
+                              new ChassisId(0xabcL));
+
+    // Single and multi-byte port numbers, up to the largest OpenFlow port
+    private static final ImmutableList<Long> PORTS =
+            ImmutableList.of(1L, 0xfeL, 0x1234L, 0xabcdefL, 0xfffffeffL);
+
+    private final TestContext context = new TestContext();
+    private LinkDiscovery discovery;
+
+    @Before
+    public void setUp() {
+        discovery = new LinkDiscovery(DEVICE, context);
+    }
+
+    @After
+    public void tearDown() {
+        discovery.stop();
+    }
+
+    // Serializes the probe in full, as done before probes were stamped out
+    // of templates.
+    private byte[] serialized(long port, short etherType, byte[] dstMac) {
+        Ethernet eth = new Ethernet();
+        eth.setEtherType(etherType);
+        eth.setDestinationMACAddress(dstMac);
+        eth.setPad(true);
+        eth.setSourceMACAddress(context.fingerprint);
+        eth.setPayload(ONOSLLDP.onosLLDP(DEVICE.id().toString(), DEVICE.chassisId(),
+                                         (int) port));
+        return eth.serialize();
+    }
+
+    private static byte[] bytes(OutboundPacket packet) {
+        assertNotNull("no packet", packet);
+        return packet.data().array();
+    }
+
+    private static ONOSLLDP parse(byte[] frame) throws DeserializationException {
+        Ethernet eth = Ethernet.deserializer().deserialize(frame, 0, frame.length);
+        ONOSLLDP lldp = ONOSLLDP.parseONOSLLDP(eth);
+        assertNotNull("not an ONOS probe", lldp);
+        return lldp;
+    }
+
+    @Test
+    public void lldpMatchesFullSerialization() {
+        for (long port : PORTS) {
+            assertArrayEquals("LLDP probe differs for port " + port,
+                              serialized(port, Ethernet.TYPE_LLDP, ONOSLLDP.LLDP_ONLAB),
+                              bytes(discovery.createOutBoundLldp(port)));
+        }
+    }
+
+    @Test
+    public void bddpMatchesFullSerialization() {
+        for (long port : PORTS) {
+            assertArrayEquals("BDDP probe differs for port " + port,
+                              serialized(port, Ethernet.TYPE_BSN, ONOSLLDP.BDDP_MULTICAST),
+                              bytes(discovery.createOutBoundBddp(port)));
+        }
+    }
+
+    @Test
+    public void probesParseBackToPort() throws DeserializationException {
+        for (long port : PORTS) {
+            ONOSLLDP lldp = parse(bytes(discovery.createOutBoundLldp(port)));
+            assertEquals("bad LLDP port", port, lldp.getPort() & 0xffffffffL);
+            assertEquals("bad LLDP device", DEVICE.id().toString(), lldp.getDeviceString());
+
+            ONOSLLDP bddp = parse(bytes(discovery.createOutBoundBddp(port)));
+            assertEquals("bad BDDP port", port, bddp.getPort() & 0xffffffffL);
+            assertEquals("bad BDDP device", DEVICE.id().toString(), bddp.getDeviceString());
+        }
+    }
+
+    @Test
+    public void fingerprintChange() {
+        bytes(discovery.createOutBoundLldp(1L));
+        context.fingerprint = "00:00:00:00:00:02";
+        assertArrayEquals("stale fingerprint",
+                          serialized(1L, Ethernet.TYPE_LLDP, ONOSLLDP.LLDP_ONLAB),
+                          bytes(discovery.createOutBoundLldp(1L)));
+    }
+
+    // Context of a discovery which never gets to probe by itself.
+    private static class TestContext implements LinkDiscoveryContext {
+        private String fingerprint = "00:00:00:00:00:01";
+
+        @Override
+        public MastershipService mastershipService() {
+            return null;
+        }
+
+        @Override
+        public LinkProviderService providerService() {
+            return null;
+        }
+
+        @Override
+        public PacketService packetService() {
+            return null;
+        }
+
+        @Override
+        public DeviceService deviceService() {
+            return null;
+        }
+
+        @Override
+        public long probeRate() {
+            return 60_000;
+        }
+
+        @Override
+        public boolean useBddp() {
+            return true;
+        }
+
+        @Override
+        public void touchLink(LinkKey key) {
+        }
+
+        @Override
+        public String fingerprint() {
+            return fingerprint;
+        }
+    }
+}
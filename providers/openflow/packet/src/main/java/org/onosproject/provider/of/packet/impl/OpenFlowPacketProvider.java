@@ -47,7 +47,8 @@ import org.projectfloodlight.openflow.types.OFPort;
 import org.slf4j.Logger;
 
 import java.nio.ByteBuffer;
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.slf4j.LoggerFactory.getLogger;
 
@@ -112,15 +113,19 @@ public class OpenFlowPacketProvider extends AbstractProvider implements PacketPr
 
         //Ethernet eth = new Ethernet();
         //eth.deserialize(packet.data().array(), 0, packet.data().array().length);
-        OFPortDesc p = null;
+        // A single packet-out carries the packet to all its output ports
+        List<OFAction> actions = new ArrayList<>();
         for (Instruction inst : packet.treatment().allInstructions()) {
             if (inst.type().equals(Instruction.Type.OUTPUT)) {
-                p = portDesc(((OutputInstruction) inst).port());
-                OFPacketOut po = packetOut(sw, packet.data().array(), p.getPortNo());
-                sw.sendMsg(po);
+                OFPortDesc p = portDesc(((OutputInstruction) inst).port());
+                actions.add(sw.factory().actions().buildOutput()
+                                    .setPort(p.getPortNo())
+                                    .build());
             }
         }
-
+        if (!actions.isEmpty()) {
+            sw.sendMsg(packetOut(sw, packet.data().array(), actions));
+        }
     }
 
     private OFPortDesc portDesc(PortNumber port) {
@@ -130,16 +135,12 @@ public class OpenFlowPacketProvider extends AbstractProvider implements PacketPr
         return builder.build();
     }
 
-    private OFPacketOut packetOut(OpenFlowSwitch sw, byte[] eth, OFPort out) {
+    private OFPacketOut packetOut(OpenFlowSwitch sw, byte[] eth, List<OFAction> actions) {
         OFPacketOut.Builder builder = sw.factory().buildPacketOut();
-        OFAction act = sw.factory().actions()
-                .buildOutput()
-                .setPort(out)
-                .build();
         return builder
                 .setBufferId(OFBufferId.NO_BUFFER)
                 .setInPort(OFPort.CONTROLLER)
-                .setActions(Collections.singletonList(act))
+                .setActions(actions)
                 .setData(eth)
                 .build();
     }
@@ -51,7 +51,9 @@ import org.projectfloodlight.openflow.protocol.OFMessage;
 import org.projectfloodlight.openflow.protocol.OFMeterFeatures;
 import org.projectfloodlight.openflow.protocol.OFPacketIn;
 import org.projectfloodlight.openflow.protocol.OFPacketInReason;
+import org.projectfloodlight.openflow.protocol.OFPacketOut;
 import org.projectfloodlight.openflow.protocol.OFPortDesc;
+import org.projectfloodlight.openflow.protocol.action.OFActionOutput;
 import org.projectfloodlight.openflow.protocol.ver10.OFFactoryVer10;
 import org.projectfloodlight.openflow.types.MacAddress;
 import org.projectfloodlight.openflow.types.OFBufferId;
@@ -151,7 +153,13 @@ public class OpenFlowPacketProviderTest {
         sw.setRole(RoleState.MASTER);
         provider.emit(passPkt);
         assertEquals("invalid switch", sw, controller.current);
-        assertEquals("message not sent", PLIST.size(), sw.sent.size());
+        assertEquals("message not sent", 1, sw.sent.size());
+        OFPacketOut packetOut = (OFPacketOut) sw.sent.get(0);
+        assertEquals("bad output actions", PLIST.size(), packetOut.getActions().size());
+        for (int i = 0; i < PLIST.size(); i++) {
+            assertEquals("bad output port", PLIST.get(i).getPortNo(),
+                         ((OFActionOutput) packetOut.getActions().get(i)).getPort());
+        }
         sw.sent.clear();
 
         //wrong Role
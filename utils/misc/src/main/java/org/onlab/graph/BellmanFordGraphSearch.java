@@ -33,11 +33,14 @@ public class BellmanFordGraphSearch<V extends Vertex, E extends Edge<V>>
         result.updateVertex(src, null, weigher.getInitialWeight(), true);
 
         int max = graph.getVertexes().size() - 1;
-        for (int i = 0; i < max; i++) {
-            // Relax, if possible, all egress edges of the current vertex.
+        boolean relaxed = true;
+        for (int i = 0; i < max && relaxed; i++) {
+            // Relax, if possible, all egress edges of the current vertex;
+            // once a pass lowers no cost, later passes would not either.
+            relaxed = false;
             for (E edge : graph.getEdges()) {
                 if (result.hasCost(edge.src())) {
-                    result.relaxEdge(edge, result.cost(edge.src()), weigher);
+                    relaxed |= result.relaxEdge(edge, result.cost(edge.src()), weigher);
                 }
             }
         }
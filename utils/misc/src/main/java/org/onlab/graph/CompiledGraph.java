@@ -0,0 +1,193 @@
+/*
+ * Copyright 2017-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onlab.graph;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable graph which, in addition to the adjacency lists, maps its
+ * vertexes to dense integer indexes and keeps the egress edges of each
+ * vertex in compact arrays, in compressed sparse row form.
+ * <p>
+ * Graph searches can then keep their per-vertex state in arrays indexed
+ * by vertex rather than in maps keyed by the vertexes themselves. Only the
+ * Dijkstra search, and the Suurballe, SRLG and K-shortest paths searches
+ * built on it, work on the compiled form; the other searches walk the
+ * adjacency lists as before. Edge weights remain {@link Weight} objects.
+ * </p>
+ *
+ * @param <V> vertex type
+ * @param <E> edge type
+ */
+public class CompiledGraph<V extends Vertex, E extends Edge<V>>
+        extends AdjacencyListsGraph<V, E> {
+
+    // Compiled forms of the immutable graphs searched lately, held no
+    // longer than the graphs themselves; weak keys are compared by identity
+    private static final LoadingCache<Graph<?, ?>, CompiledGraph<?, ?>> COMPILED =
+            CacheBuilder.newBuilder().weakKeys().build(CacheLoader.from(CompiledGraph::compileGraph));
+
+    private final Object[] vertexes;
+    private final Map<V, Integer> indexes;
+
+    // Egress edges of vertex i are edges[edgeOffsets[i] .. edgeOffsets[i + 1])
+    private final int[] edgeOffsets;
+    private final Object[] edges;
+    private final int[] edgeTargets;
+
+    /**
+     * Creates a graph comprising of the specified vertexes and edges.
+     *
+     * @param vertexes set of graph vertexes
+     * @param edges    set of graph edges
+     */
+    public CompiledGraph(Set<V> vertexes, Set<E> edges) {
+        super(vertexes, edges);
+
+        Set<V> allVertexes = getVertexes();
+        int count = allVertexes.size();
+        this.vertexes = new Object[count];
+        this.indexes = new HashMap<>(count * 2);
+        int index = 0;
+        for (V vertex : allVertexes) {
+            this.vertexes[index] = vertex;
+            indexes.put(vertex, index);
+            index++;
+        }
+
+        int edgeCount = getEdges().size();
+        this.edgeOffsets = new int[count + 1];
+        this.edges = new Object[edgeCount];
+        this.edgeTargets = new int[edgeCount];
+        int edge = 0;
+        for (int i = 0; i < count; i++) {
+            edgeOffsets[i] = edge;
+            for (E e : getEdgesFrom(vertex(i))) {
+                this.edges[edge] = e;
+                edgeTargets[edge] = indexes.get(e.dst());
+                edge++;
+            }
+        }
+        edgeOffsets[count] = edge;
+    }
+
+    /**
+     * Returns the given graph in compiled form, compiling it unless it
+     * already is. Immutable graphs are compiled once for all the searches
+     * made on them; other graphs may change between searches, and are
+     * compiled anew each time.
+     *
+     * @param graph graph to compile
+     * @param <V>   vertex type
+     * @param <E>   edge type
+     * @return compiled graph
+     */
+    @SuppressWarnings("unchecked")
+    public static <V extends Vertex, E extends Edge<V>> CompiledGraph<V, E>
+            compile(Graph<V, E> graph) {
+        if (graph instanceof CompiledGraph) {
+            return (CompiledGraph<V, E>) graph;
+        }
+        if (graph instanceof AdjacencyListsGraph) {
+            return (CompiledGraph<V, E>) COMPILED.getUnchecked(graph);
+        }
+        return new CompiledGraph<>(graph.getVertexes(), graph.getEdges());
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static CompiledGraph<?, ?> compileGraph(Graph<?, ?> graph) {
+        return new CompiledGraph(graph.getVertexes(), graph.getEdges());
+    }
+
+    /**
+     * Returns the number of vertexes, which bounds their indexes.
+     *
+     * @return number of vertexes
+     */
+    public int vertexCount() {
+        return vertexes.length;
+    }
+
+    /**
+     * Returns the index of the given vertex.
+     *
+     * @param vertex graph vertex
+     * @return vertex index, or -1 if the vertex is not in the graph
+     */
+    public int indexOf(V vertex) {
+        Integer index = indexes.get(vertex);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Returns the vertex with the given index.
+     *
+     * @param index vertex index
+     * @return graph vertex
+     */
+    @SuppressWarnings("unchecked")
+    public V vertex(int index) {
+        return (V) vertexes[index];
+    }
+
+    /**
+     * Returns the index of the first egress edge of the given vertex.
+     *
+     * @param vertex vertex index
+     * @return edge index
+     */
+    public int edgeStart(int vertex) {
+        return edgeOffsets[vertex];
+    }
+
+    /**
+     * Returns the index following the last egress edge of the given vertex.
+     *
+     * @param vertex vertex index
+     * @return edge index
+     */
+    public int edgeEnd(int vertex) {
+        return edgeOffsets[vertex + 1];
+    }
+
+    /**
+     * Returns the edge with the given index.
+     *
+     * @param edge edge index
+     * @return graph edge
+     */
+    @SuppressWarnings("unchecked")
+    public E edge(int edge) {
+        return (E) edges[edge];
+    }
+
+    /**
+     * Returns the index of the destination vertex of the given edge.
+     *
+     * @param edge edge index
+     * @return vertex index
+     */
+    public int edgeTarget(int edge) {
+        return edgeTargets[edge];
+    }
+}
@@ -15,9 +15,9 @@
  */
 package org.onlab.graph;
 
-import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.Set;
+
+import static org.onlab.graph.GraphPathSearch.ALL_PATHS;
 
 /**
  * Dijkstra shortest-path graph search algorithm capable of finding not just
@@ -29,7 +29,36 @@ public class DijkstraGraphSearch<V extends Vertex, E extends Edge<V>>
     @Override
     protected Result<V, E> internalSearch(Graph<V, E> graph, V src, V dst,
                                EdgeWeigher<V, E> weigher, int maxPaths) {
+        DefaultResult result = explore(graph, src, dst, weigher, maxPaths);
+
+        // Now construct a set of paths from the results.
+        result.buildPaths();
+        return result;
+    }
+
+    /**
+     * Computes the tree of all shortest paths from the given source vertex
+     * to every vertex reachable from it. Unlike a search with no destination,
+     * the paths themselves are not built up front.
+     *
+     * @param graph   graph to be searched
+     * @param src     source vertex
+     * @param weigher optional edge weigher; if null, {@link DefaultEdgeWeigher}
+     *                will be used
+     * @return shortest-path tree rooted at the source
+     */
+    public ShortestPathTree<V, E> shortestPathTree(Graph<V, E> graph, V src,
+                                                   EdgeWeigher<V, E> weigher) {
+        checkArguments(graph, src, null);
+        return ShortestPathTree.of(explore(graph, src, null,
+                                           weigher != null ? weigher : new DefaultEdgeWeigher<>(),
+                                           ALL_PATHS));
+    }
 
+    // Records the costs of and parent edges to the vertexes nearest to the
+    // source, up to the destination if one is given.
+    private DefaultResult explore(Graph<V, E> graph, V src, V dst,
+                                  EdgeWeigher<V, E> weigher, int maxPaths) {
         // Use the default result to remember cumulative costs and parent
         // edges to each each respective vertex.
         DefaultResult result = new DefaultResult(src, dst, maxPaths);
@@ -38,68 +67,67 @@ public class DijkstraGraphSearch<V extends Vertex, E extends Edge<V>>
         result.updateVertex(src, null, weigher.getInitialWeight(), false);
 
         if (graph.getEdges().isEmpty()) {
-            result.buildPaths();
             return result;
         }
 
+        // Work on the dense vertex indexes of the compiled graph. Vertexes
+        // enter the min priority queue once reached and are re-prioritized in
+        // place whenever a cheaper path to them is found.
+        CompiledGraph<V, E> compiled = CompiledGraph.compile(graph);
+        int srcIndex = compiled.indexOf(src);
+        Weight[] costs = new Weight[compiled.vertexCount()];
+        boolean[] settled = new boolean[compiled.vertexCount()];
+        costs[srcIndex] = weigher.getInitialWeight();
+
         // Use the min priority queue to progressively find each nearest
         // vertex until we reach the desired destination, if one was given,
         // or until we reach all possible destinations.
-        Heap<V> minQueue = createMinQueue(graph.getVertexes(),
-                                          new PathCostComparator(result));
+        IndexedHeap<Weight> minQueue =
+                new IndexedHeap<>(compiled.vertexCount(), Comparator.naturalOrder());
+        minQueue.insert(srcIndex, costs[srcIndex]);
         while (!minQueue.isEmpty()) {
             // Get the nearest vertex
-            V nearest = minQueue.extractExtreme();
-            if (nearest.equals(dst)) {
+            int nearest = minQueue.extractMin();
+            settled[nearest] = true;
+            if (compiled.vertex(nearest).equals(dst)) {
                 break;
             }
 
-            // Find its cost and use it to determine if the vertex is reachable.
-            if (result.hasCost(nearest)) {
-                Weight cost = result.cost(nearest);
-
-                // If the vertex is reachable, relax all its egress edges.
-                for (E e : graph.getEdgesFrom(nearest)) {
-                    result.relaxEdge(e, cost, weigher, true);
-                }
+            // Relax all its egress edges.
+            Weight cost = costs[nearest];
+            for (int e = compiled.edgeStart(nearest); e < compiled.edgeEnd(nearest); e++) {
+                relaxEdge(result, compiled, e, cost, weigher, costs, settled, minQueue);
             }
-
-            // Re-prioritize the min queue.
-            minQueue.heapify();
         }
-
-        // Now construct a set of paths from the results.
-        result.buildPaths();
         return result;
     }
 
-    // Compares path weights using their accrued costs; used for sorting the
-    // min priority queue.
-    private final class PathCostComparator implements Comparator<V> {
-        private final DefaultResult result;
-
-        private PathCostComparator(DefaultResult result) {
-            this.result = result;
+    // Relaxes the specified edge of the compiled graph, forbidding negative
+    // weights, and re-prioritizes its destination vertex if its cost drops.
+    private void relaxEdge(DefaultResult result, CompiledGraph<V, E> compiled,
+                           int edgeIndex, Weight cost, EdgeWeigher<V, E> weigher,
+                           Weight[] costs, boolean[] settled,
+                           IndexedHeap<Weight> minQueue) {
+        E edge = compiled.edge(edgeIndex);
+        Weight hopCost = weigher.weight(edge);
+        if (!hopCost.isViable() || hopCost.isNegative()) {
+            return;
         }
+        Weight newCost = cost.merge(hopCost);
 
-        @Override
-        public int compare(V v1, V v2) {
-            //not accessed vertices should be pushed to the back of the queue
-            if (!result.hasCost(v1) && !result.hasCost(v2)) {
-                return 0;
-            } else if (!result.hasCost(v1)) {
-                return -1;
-            } else if (!result.hasCost(v2)) {
-                return 1;
+        int v = compiled.edgeTarget(edgeIndex);
+        int compareResult = costs[v] == null ? -1 : newCost.compareTo(costs[v]);
+        if (compareResult <= 0) {
+            result.updateVertex(edge.dst(), edge, newCost, compareResult < 0);
+        }
+        if (compareResult < 0) {
+            costs[v] = newCost;
+            if (minQueue.contains(v)) {
+                minQueue.decreaseKey(v, newCost);
+            } else if (!settled[v]) {
+                minQueue.insert(v, newCost);
             }
-
-            return result.cost(v2).compareTo(result.cost(v1));
         }
     }
 
-    // Creates a min priority queue from the specified vertexes and comparator.
-    private Heap<V> createMinQueue(Set<V> vertexes, Comparator<V> comparator) {
-        return new Heap<>(new ArrayList<>(vertexes), comparator);
-    }
-
 }
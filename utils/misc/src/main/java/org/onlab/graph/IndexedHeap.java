@@ -0,0 +1,215 @@
+/*
+ * Copyright 2017-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onlab.graph;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Binary min-heap of dense integer indexes, such as the indexes of the
+ * vertexes of a {@link CompiledGraph}, ordered by keys associated with them.
+ * <p>
+ * Unlike {@link Heap}, the key of an index already on the heap can be
+ * decreased in place, which keeps the heap property at a logarithmic cost
+ * instead of requiring the whole heap to be re-arranged.
+ * </p>
+ * <p>
+ * This class is not thread-safe and care must be taken to prevent concurrent
+ * modifications.
+ * </p>
+ *
+ * @param <K> type of the keys ordering the heap
+ */
+public class IndexedHeap<K> {
+
+    private static final int ABSENT = -1;
+
+    private final Comparator<? super K> comparator;
+    private final int[] heap;
+    private final int[] positions;
+    private final Object[] keys;
+    private int size = 0;
+
+    /**
+     * Creates a new, empty heap for the indexes in {@code [0, capacity)}.
+     *
+     * @param capacity   number of distinct indexes
+     * @param comparator comparator for ordering the keys
+     */
+    public IndexedHeap(int capacity, Comparator<? super K> comparator) {
+        checkArgument(capacity >= 0, "Capacity cannot be negative");
+        this.comparator = checkNotNull(comparator, "Comparator cannot be null");
+        this.heap = new int[capacity];
+        this.positions = new int[capacity];
+        this.keys = new Object[capacity];
+        Arrays.fill(positions, ABSENT);
+    }
+
+    /**
+     * Returns the current size of the heap.
+     *
+     * @return number of indexes in the heap
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns true if there are no indexes in the heap.
+     *
+     * @return true if heap is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Indicates whether the given index is in the heap.
+     *
+     * @param index index to test
+     * @return true if the index is in the heap
+     */
+    public boolean contains(int index) {
+        return positions[index] != ABSENT;
+    }
+
+    /**
+     * Returns the key of the given index.
+     *
+     * @param index index in the heap
+     * @return key of the index or null if the index is not in the heap
+     */
+    @SuppressWarnings("unchecked")
+    public K key(int index) {
+        return contains(index) ? (K) keys[index] : null;
+    }
+
+    /**
+     * Inserts the specified index into the heap with the given key.
+     *
+     * @param index index to insert
+     * @param key   key of the index
+     * @throws IllegalArgumentException if the index is already in the heap
+     */
+    public void insert(int index, K key) {
+        checkArgument(!contains(index), "Index already in the heap");
+        keys[index] = checkNotNull(key, "Key cannot be null");
+        heap[size] = index;
+        positions[index] = size;
+        size++;
+        siftUp(size - 1);
+    }
+
+    /**
+     * Lowers the key of the specified index, restoring its place in the heap.
+     *
+     * @param index index in the heap
+     * @param key   new key of the index; must not be greater than its
+     *              current key
+     * @throws IllegalArgumentException if the index is not in the heap or
+     *                                  if the key is greater than the current one
+     */
+    public void decreaseKey(int index, K key) {
+        checkArgument(contains(index), "Index not in the heap");
+        checkArgument(compare(key, key(index)) <= 0, "Key cannot be increased");
+        keys[index] = key;
+        siftUp(positions[index]);
+    }
+
+    /**
+     * Returns the index with the least key.
+     *
+     * @return index with the least key or -1 if the heap is empty
+     */
+    public int min() {
+        return isEmpty() ? ABSENT : heap[0];
+    }
+
+    /**
+     * Extracts and returns the index with the least key from the heap.
+     *
+     * @return index with the least key or -1 if the heap is empty
+     */
+    public int extractMin() {
+        if (isEmpty()) {
+            return ABSENT;
+        }
+        int min = heap[0];
+        size--;
+        if (size > 0) {
+            move(heap[size], 0);
+            siftDown(0);
+        }
+        positions[min] = ABSENT;
+        keys[min] = null;
+        return min;
+    }
+
+    @SuppressWarnings("unchecked")
+    private int compare(Object a, Object b) {
+        return comparator.compare((K) a, (K) b);
+    }
+
+    // Places the index at the given heap position.
+    private void move(int index, int position) {
+        heap[position] = index;
+        positions[index] = position;
+    }
+
+    private void siftUp(int position) {
+        int index = heap[position];
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (compare(keys[index], keys[heap[parent]]) >= 0) {
+                break;
+            }
+            move(heap[parent], position);
+            position = parent;
+        }
+        move(index, position);
+    }
+
+    private void siftDown(int position) {
+        int index = heap[position];
+        int half = size / 2;
+        while (position < half) {
+            int child = 2 * position + 1;
+            int right = child + 1;
+            if (right < size && compare(keys[heap[right]], keys[heap[child]]) < 0) {
+                child = right;
+            }
+            if (compare(keys[index], keys[heap[child]]) <= 0) {
+                break;
+            }
+            move(heap[child], position);
+            position = child;
+        }
+        move(index, position);
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("size", size)
+                .add("min", min())
+                .toString();
+    }
+}
@@ -47,7 +47,8 @@ public class KShortestPathsSearch<V extends Vertex, E extends Edge<V>> extends A
                 "be used with ALL_PATHS.");
         checkArgument(maxPaths > 0, "The max number of paths must be greater" +
                 " than 0");
-        Graph<V, E> originalGraph = checkNotNull(graph);
+        // Compile the graph once for all the searches it is subject to
+        Graph<V, E> originalGraph = CompiledGraph.compile(checkNotNull(graph));
         //the result contains the set of eventual results
         InnerOrderedResult result = new InnerOrderedResult(src, dst, maxPaths);
         ArrayList<Path<V, E>> resultPaths = new ArrayList<>(maxPaths);
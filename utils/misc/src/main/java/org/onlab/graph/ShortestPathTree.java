@@ -0,0 +1,168 @@
+/*
+ * Copyright 2017-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onlab.graph;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.onlab.graph.GraphPathSearch.ALL_PATHS;
+
+/**
+ * Immutable shortest-path tree, or rather directed acyclic graph, rooted at
+ * a source vertex. It retains the costs of and all parent edges to every
+ * vertex reachable from the source so that the set of shortest paths to any
+ * of them can be produced without searching the graph again.
+ *
+ * @param <V> vertex type
+ * @param <E> edge type
+ */
+public final class ShortestPathTree<V extends Vertex, E extends Edge<V>> {
+
+    private final V root;
+    private final ImmutableMap<V, Weight> costs;
+    private final ImmutableMap<V, Set<E>> parents;
+
+    private ShortestPathTree(V root, ImmutableMap<V, Weight> costs,
+                             ImmutableMap<V, Set<E>> parents) {
+        this.root = root;
+        this.costs = costs;
+        this.parents = parents;
+    }
+
+    /**
+     * Creates a shortest-path tree from the results of a search towards all
+     * destinations, which must have retained all equal-cost parent edges.
+     *
+     * @param result graph search result with no destination vertex
+     * @param <V>    vertex type
+     * @param <E>    edge type
+     * @return shortest-path tree rooted at the source of the search
+     */
+    public static <V extends Vertex, E extends Edge<V>> ShortestPathTree<V, E>
+            of(GraphPathSearch.Result<V, E> result) {
+        checkNotNull(result, "Result cannot be null");
+        checkArgument(result.dst() == null, "Result must cover all destinations");
+        ImmutableMap.Builder<V, Set<E>> parents = ImmutableMap.builder();
+        result.parents().forEach((v, edges) -> parents.put(v, ImmutableSet.copyOf(edges)));
+        return new ShortestPathTree<>(result.src(), ImmutableMap.copyOf(result.costs()),
+                                      parents.build());
+    }
+
+    /**
+     * Returns the source vertex the tree is rooted at.
+     *
+     * @return root vertex
+     */
+    public V root() {
+        return root;
+    }
+
+    /**
+     * Returns the number of vertexes reachable from the root, including the
+     * root itself.
+     *
+     * @return number of vertexes in the tree
+     */
+    public int size() {
+        return costs.size();
+    }
+
+    /**
+     * Returns the cost of the shortest paths to the given vertex.
+     *
+     * @param dst destination vertex
+     * @return cost of the shortest paths or null if the vertex is unreachable
+     */
+    public Weight cost(V dst) {
+        return costs.get(dst);
+    }
+
+    /**
+     * Returns the set of shortest paths from the root to the given vertex,
+     * walking the parent edges back from the destination.
+     *
+     * @param dst      destination vertex
+     * @param maxPaths limit on the number of paths built;
+     *                 {@link GraphPathSearch#ALL_PATHS} if no limit
+     * @return set of shortest paths; empty if the destination is unreachable
+     *         or is the root itself
+     */
+    public Set<Path<V, E>> paths(V dst, int maxPaths) {
+        Weight cost = costs.get(dst);
+        if (cost == null || dst.equals(root)) {
+            return ImmutableSet.of();
+        }
+
+        Set<Path<V, E>> paths = new HashSet<>();
+        Set<DefaultMutablePath<V, E>> pendingPaths = new HashSet<>();
+        pendingPaths.add(new DefaultMutablePath<>());
+
+        while (!pendingPaths.isEmpty() &&
+                (maxPaths == ALL_PATHS || paths.size() < maxPaths)) {
+            Set<DefaultMutablePath<V, E>> frontier = new HashSet<>();
+
+            for (DefaultMutablePath<V, E> path : pendingPaths) {
+                V firstVertex = path.edges().isEmpty() ? dst : path.edges().get(0).src();
+                if (firstVertex.equals(root)) {
+                    paths.add(new DefaultPath<>(path.edges(), cost));
+                    continue;
+                }
+
+                Set<E> firstVertexParents = parents.get(firstVertex);
+                if (firstVertexParents == null) {
+                    continue;
+                }
+
+                // Extend the pending path by each parent edge, reusing the
+                // path itself for the last of them.
+                Iterator<E> edges = firstVertexParents.iterator();
+                while (edges.hasNext()) {
+                    E edge = edges.next();
+                    boolean isLast = !edges.hasNext();
+                    if (!isInPath(edge, path)) {
+                        DefaultMutablePath<V, E> pendingPath =
+                                isLast ? path : new DefaultMutablePath<>(path);
+                        pendingPath.insertEdge(edge);
+                        frontier.add(pendingPath);
+                    }
+                }
+            }
+            pendingPaths = frontier;
+        }
+        return paths;
+    }
+
+    // Indicates whether the edge source is already visited in the path.
+    private boolean isInPath(E edge, Path<V, E> path) {
+        return path.edges().stream().anyMatch(e -> edge.src().equals(e.dst()));
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("root", root)
+                .add("size", size())
+                .toString();
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2017-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onlab.graph;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests of the compiled graph implementation.
+ */
+public class CompiledGraphTest extends GraphTest {
+
+    private final Set<TestEdge> edges =
+            ImmutableSet.of(new TestEdge(A, B),
+                            new TestEdge(B, C),
+                            new TestEdge(C, D),
+                            new TestEdge(D, A),
+                            new TestEdge(B, D));
+
+    @Test
+    public void basics() {
+        CompiledGraph<TestVertex, TestEdge> graph =
+                new CompiledGraph<>(ImmutableSet.of(A, B, C, D, E), edges);
+        assertEquals("incorrect vertex count", 5, graph.vertexCount());
+        assertEquals("incorrect edge count", 5, graph.getEdges().size());
+        assertEquals("unknown vertex expected", -1, graph.indexOf(F));
+
+        for (TestVertex vertex : graph.getVertexes()) {
+            int index = graph.indexOf(vertex);
+            assertEquals("incorrect vertex", vertex, graph.vertex(index));
+
+            Set<TestEdge> egress = new HashSet<>();
+            for (int e = graph.edgeStart(index); e < graph.edgeEnd(index); e++) {
+                TestEdge edge = graph.edge(e);
+                assertEquals("incorrect edge source", vertex, edge.src());
+                assertEquals("incorrect edge target",
+                             edge.dst(), graph.vertex(graph.edgeTarget(e)));
+                egress.add(edge);
+            }
+            assertEquals("incorrect egress edges", graph.getEdgesFrom(vertex), egress);
+        }
+    }
+
+    @Test
+    public void compile() {
+        Graph<TestVertex, TestEdge> graph =
+                new AdjacencyListsGraph<>(ImmutableSet.of(A, B, C, D), edges);
+        CompiledGraph<TestVertex, TestEdge> compiled = CompiledGraph.compile(graph);
+        assertEquals("incorrect vertexes", graph.getVertexes(), compiled.getVertexes());
+        assertEquals("incorrect edges", graph.getEdges(), compiled.getEdges());
+        assertSame("graph should not be recompiled", compiled, CompiledGraph.compile(compiled));
+        assertSame("immutable graph should be compiled once", compiled, CompiledGraph.compile(graph));
+    }
+
+    @Test
+    public void compileMutable() {
+        MutableGraph<TestVertex, TestEdge> graph =
+                new MutableAdjacencyListsGraph<>(ImmutableSet.of(A, B, C, D), edges);
+        assertEquals("incorrect edges", edges, CompiledGraph.compile(graph).getEdges());
+
+        TestEdge edge = new TestEdge(A, C);
+        graph.addEdge(edge);
+        CompiledGraph<TestVertex, TestEdge> compiled = CompiledGraph.compile(graph);
+        assertEquals("mutated graph should be recompiled", edges.size() + 1, compiled.getEdges().size());
+        assertEquals("incorrect egress edges", graph.getEdgesFrom(A), compiled.getEdgesFrom(A));
+    }
+
+    @Test
+    public void searchCompiled() {
+        CompiledGraph<TestVertex, TestEdge> graph =
+                new CompiledGraph<>(ImmutableSet.of(A, B, C, D),
+                                    ImmutableSet.of(new TestEdge(A, B, W1),
+                                                    new TestEdge(B, C, W1),
+                                                    new TestEdge(A, C, W3),
+                                                    new TestEdge(C, D, W1)));
+        GraphPathSearch.Result<TestVertex, TestEdge> result =
+                new DijkstraGraphSearch<TestVertex, TestEdge>()
+                        .search(graph, A, D, weigher, GraphPathSearch.ALL_PATHS);
+        assertEquals("incorrect paths count", 1, result.paths().size());
+        assertEquals("incorrect path cost", new TestDoubleWeight(3),
+                     result.paths().iterator().next().cost());
+    }
+}
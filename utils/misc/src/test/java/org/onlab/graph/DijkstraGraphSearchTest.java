@@ -136,6 +136,28 @@ public class DijkstraGraphSearchTest extends BreadthFirstSearchTest {
         executeSinglePathSearch(graphSearch(), graph, A, G, weigher, 1, new TestDoubleWeight(4.0));
     }
 
+    @Test
+    public void shortestPathTree() {
+        graph = new AdjacencyListsGraph<>(vertexes(), edges());
+        DijkstraGraphSearch<TestVertex, TestEdge> search = new DijkstraGraphSearch<>();
+        ShortestPathTree<TestVertex, TestEdge> tree = search.shortestPathTree(graph, A, weigher);
+        assertEquals("incorrect root", A, tree.root());
+        assertEquals("incorrect tree size", 8, tree.size());
+
+        for (TestVertex dst : vertexes()) {
+            GraphPathSearch.Result<TestVertex, TestEdge> result =
+                    search.search(graph, A, dst, weigher, GraphPathSearch.ALL_PATHS);
+            assertEquals("incorrect paths", result.paths(),
+                         tree.paths(dst, GraphPathSearch.ALL_PATHS));
+            assertEquals("incorrect cost", result.costs().get(dst), tree.cost(dst));
+        }
+        assertEquals("incorrect paths count", 1, tree.paths(E, 1).size());
+
+        tree = search.shortestPathTree(graph, H, weigher);
+        assertEquals("incorrect tree size", 1, tree.size());
+        assertEquals("incorrect paths count", 0, tree.paths(A, GraphPathSearch.ALL_PATHS).size());
+    }
+
     public void disconnectedPerf() {
         disconnected();
         disconnected();
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2017-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onlab.graph;
+
+import com.google.common.collect.Ordering;
+import org.junit.Test;
+
+import java.util.Comparator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Indexed heap data structure tests.
+ */
+public class IndexedHeapTest {
+
+    private static final Comparator<Integer> MIN = Ordering.natural();
+
+    private final int[] keys = {6, 4, 5, 9, 8, 3, 2, 1, 7, 0};
+
+    private IndexedHeap<Integer> fill() {
+        IndexedHeap<Integer> h = new IndexedHeap<>(keys.length, MIN);
+        for (int i = 0; i < keys.length; i++) {
+            h.insert(i, keys[i]);
+        }
+        return h;
+    }
+
+    @Test
+    public void empty() {
+        IndexedHeap<Integer> h = new IndexedHeap<>(3, MIN);
+        assertTrue("should be empty", h.isEmpty());
+        assertEquals("incorrect size", 0, h.size());
+        assertEquals("no index expected", -1, h.min());
+        assertEquals("no index expected", -1, h.extractMin());
+        assertNull("no key expected", h.key(1));
+    }
+
+    @Test
+    public void insert() {
+        IndexedHeap<Integer> h = fill();
+        assertEquals("incorrect size", 10, h.size());
+        assertTrue("index should be present", h.contains(3));
+        assertEquals("incorrect key", 9, (int) h.key(3));
+        assertEquals("incorrect min", 9, h.min());
+    }
+
+    @Test
+    public void extractMin() {
+        IndexedHeap<Integer> h = fill();
+        int previous = Integer.MIN_VALUE;
+        while (!h.isEmpty()) {
+            int index = h.extractMin();
+            assertFalse("index should be gone", h.contains(index));
+            assertTrue("keys out of order", keys[index] >= previous);
+            previous = keys[index];
+        }
+        assertEquals("incorrect size", 0, h.size());
+    }
+
+    @Test
+    public void decreaseKey() {
+        IndexedHeap<Integer> h = fill();
+        h.decreaseKey(3, -1);
+        assertEquals("incorrect min", 3, h.min());
+        h.decreaseKey(4, 1);
+        assertEquals("incorrect min", 3, h.extractMin());
+        assertEquals("incorrect min", 9, h.extractMin());
+        int next = h.extractMin();
+        assertTrue("incorrect min", next == 4 || next == 7);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void increaseKey() {
+        fill().decreaseKey(7, 5);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void duplicateInsert() {
+        fill().insert(2, 1);
+    }
+}
@@ -27,6 +27,7 @@ import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import java.util.List;
@@ -46,15 +47,23 @@ public class DevicesWebResource extends AbstractWebResource {
     /**
      * Gets all infrastructure devices.
      * Returns array of all discovered infrastructure devices.
+     * The devices are streamed and may be fetched in pages, by passing the
+     * nextCursor of a page as the cursor of the next request.
      *
+     * @param cursor (optional) cursor of the page to fetch
+     * @param limit  (optional) maximum number of devices in a page
+     * @param fields (optional) comma separated list of device fields to return
      * @return 200 OK with a collection of devices
      * @onos.rsModel DevicesGet
      */
     @GET
     @Produces(MediaType.APPLICATION_JSON)
-    public Response getDevices() {
+    public Response getDevices(@QueryParam("cursor") String cursor,
+                               @QueryParam("limit") Integer limit,
+                               @QueryParam("fields") String fields) {
         Iterable<Device> devices = get(DeviceService.class).getDevices();
-        return ok(encodeArray(Device.class, "devices", devices)).build();
+        return ok(streamArray(Device.class, "devices", devices, d -> d.id().toString())
+                          .cursor(cursor).limit(limit).fields(fields)).build();
     }
 
     /**
@@ -19,6 +19,8 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.ListMultimap;
 import org.onlab.util.ItemNotFoundException;
 import org.onosproject.app.ApplicationService;
@@ -77,24 +79,36 @@ public class FlowsWebResource extends AbstractWebResource {
 
     /**
      * Gets all flow entries. Returns array of all flow rules in the system.
+     * The flows are streamed and may be fetched in pages, by passing the
+     * nextCursor of a page as the cursor of the next request.
      *
+     * @param cursor (optional) cursor of the page to fetch
+     * @param limit  (optional) maximum number of flows in a page
+     * @param fields (optional) comma separated list of flow fields to return
      * @return 200 OK with a collection of flows
      * @onos.rsModel FlowEntries
      */
     @GET
     @Produces(MediaType.APPLICATION_JSON)
-    public Response getFlows() {
+    public Response getFlows(@QueryParam("cursor") String cursor,
+                             @QueryParam("limit") Integer limit,
+                             @QueryParam("fields") String fields) {
         final Iterable<Device> devices = get(DeviceService.class).getDevices();
-        for (final Device device : devices) {
-            final Iterable<FlowEntry> flowEntries = service.getFlowEntries(device.id());
-            if (flowEntries != null) {
-                for (final FlowEntry entry : flowEntries) {
-                    flowsNode.add(codec(FlowEntry.class).encode(entry, this));
-                }
-            }
-        }
+        final Iterable<FlowEntry> flowEntries = Iterables.concat(
+                Iterables.transform(devices, this::deviceFlowEntries));
 
-        return ok(root).build();
+        return ok(streamArray(FlowEntry.class, FLOWS, flowEntries, FlowsWebResource::flowKey)
+                          .cursor(cursor).limit(limit).fields(fields)).build();
+    }
+
+    private Iterable<FlowEntry> deviceFlowEntries(Device device) {
+        final Iterable<FlowEntry> flowEntries = service.getFlowEntries(device.id());
+        return flowEntries != null ? flowEntries : ImmutableList.of();
+    }
+
+    // Flow identifiers are only unique within their device
+    private static String flowKey(FlowEntry flowEntry) {
+        return flowEntry.deviceId() + "/" + flowEntry.id();
     }
 
     /**
@@ -141,6 +155,9 @@ public class FlowsWebResource extends AbstractWebResource {
      * specified device.
      *
      * @param deviceId device identifier
+     * @param cursor   (optional) cursor of the page to fetch
+     * @param limit    (optional) maximum number of flows in a page
+     * @param fields   (optional) comma separated list of flow fields to return
      * @return 200 OK with a collection of flows of given device
      * @onos.rsModel FlowEntries
      */
@@ -148,17 +165,18 @@ public class FlowsWebResource extends AbstractWebResource {
     @Produces(MediaType.APPLICATION_JSON)
     // TODO: we need to add "/device" suffix to the path to differentiate with appId
     @Path("{deviceId}")
-    public Response getFlowByDeviceId(@PathParam("deviceId") String deviceId) {
+    public Response getFlowByDeviceId(@PathParam("deviceId") String deviceId,
+                                      @QueryParam("cursor") String cursor,
+                                      @QueryParam("limit") Integer limit,
+                                      @QueryParam("fields") String fields) {
         final Iterable<FlowEntry> flowEntries =
                 service.getFlowEntries(DeviceId.deviceId(deviceId));
 
         if (flowEntries == null || !flowEntries.iterator().hasNext()) {
             throw new ItemNotFoundException(DEVICE_NOT_FOUND);
         }
-        for (final FlowEntry entry : flowEntries) {
-            flowsNode.add(codec(FlowEntry.class).encode(entry, this));
-        }
-        return ok(root).build();
+        return ok(streamArray(FlowEntry.class, FLOWS, flowEntries, FlowsWebResource::flowKey)
+                          .cursor(cursor).limit(limit).fields(fields)).build();
     }
 
     /**
@@ -43,6 +43,7 @@ import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
@@ -74,15 +75,23 @@ public class HostsWebResource extends AbstractWebResource {
      * Get all end-station hosts.
      * Returns array of all known end-station hosts.
      *
+     * The hosts are streamed and may be fetched in pages, by passing the
+     * nextCursor of a page as the cursor of the next request.
+     *
+     * @param cursor (optional) cursor of the page to fetch
+     * @param limit  (optional) maximum number of hosts in a page
+     * @param fields (optional) comma separated list of host fields to return
      * @return 200 OK with array of all known end-station hosts.
      * @onos.rsModel Hosts
      */
     @GET
     @Produces(MediaType.APPLICATION_JSON)
-    public Response getHosts() {
+    public Response getHosts(@QueryParam("cursor") String cursor,
+                             @QueryParam("limit") Integer limit,
+                             @QueryParam("fields") String fields) {
         final Iterable<Host> hosts = get(HostService.class).getHosts();
-        final ObjectNode root = encodeArray(Host.class, "hosts", hosts);
-        return ok(root).build();
+        return ok(streamArray(Host.class, "hosts", hosts, h -> h.id().toString())
+                          .cursor(cursor).limit(limit).fields(fields)).build();
     }
 
     /**
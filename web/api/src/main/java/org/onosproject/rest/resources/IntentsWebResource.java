@@ -41,6 +41,7 @@ import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
@@ -85,16 +86,23 @@ public class IntentsWebResource extends AbstractWebResource {
     /**
      * Gets all intents.
      * Returns array containing all the intents in the system.
+     * The intents are streamed and may be fetched in pages, by passing the
+     * nextCursor of a page as the cursor of the next request.
      *
+     * @param cursor (optional) cursor of the page to fetch
+     * @param limit  (optional) maximum number of intents in a page
+     * @param fields (optional) comma separated list of intent fields to return
      * @return 200 OK with array of all the intents in the system
      * @onos.rsModel Intents
      */
     @GET
     @Produces(MediaType.APPLICATION_JSON)
-    public Response getIntents() {
+    public Response getIntents(@QueryParam("cursor") String cursor,
+                               @QueryParam("limit") Integer limit,
+                               @QueryParam("fields") String fields) {
         final Iterable<Intent> intents = get(IntentService.class).getIntents();
-        final ObjectNode root = encodeArray(Intent.class, "intents", intents);
-        return ok(root).build();
+        return ok(streamArray(Intent.class, "intents", intents, i -> i.id().toString())
+                          .cursor(cursor).limit(limit).fields(fields)).build();
     }
 
     /**
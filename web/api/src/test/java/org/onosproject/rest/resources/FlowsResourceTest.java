@@ -659,6 +659,46 @@ public class FlowsResourceTest extends ResourceTest {
         assertThat(jsonFlows, hasFlow(flow4));
     }
 
+    /**
+     * Tests fetching a page of flows restricted to some of their fields.
+     */
+    @Test
+    public void testFlowsPage() {
+        setupMockFlows();
+        replay(mockFlowService);
+        replay(mockDeviceService);
+        final WebTarget wt = target();
+        final String response = wt.path("flows")
+                .queryParam("limit", 3)
+                .queryParam("fields", "id,deviceId")
+                .request().get(String.class);
+        final JsonObject result = Json.parse(response).asObject();
+        assertThat(result, notNullValue());
+
+        assertThat(result.names(), hasSize(2));
+        final JsonArray jsonFlows = result.get("flows").asArray();
+        assertThat(jsonFlows.size(), is(3));
+        for (int i = 0; i < jsonFlows.size(); i++) {
+            assertThat(jsonFlows.get(i).asObject().names(),
+                       Matchers.containsInAnyOrder("id", "deviceId"));
+        }
+
+        // The next page resumes after the last flow of the first one
+        final String nextResponse = wt.path("flows")
+                .queryParam("limit", 3)
+                .queryParam("cursor", result.get("nextCursor").asString())
+                .request().get(String.class);
+        final JsonObject nextResult = Json.parse(nextResponse).asObject();
+        assertThat(nextResult.names(), hasSize(1));
+        final JsonArray nextJsonFlows = nextResult.get("flows").asArray();
+        assertThat(nextJsonFlows.size(), is(1));
+
+        final Set<String> ids = new HashSet<>();
+        jsonFlows.forEach(flow -> ids.add(flow.asObject().get("id").asString()));
+        nextJsonFlows.forEach(flow -> ids.add(flow.asObject().get("id").asString()));
+        assertThat(ids, hasSize(4));
+    }
+
     /**
      * Tests the result of a rest api GET for a device.
      */
@@ -18,7 +18,6 @@
 package org.onosproject.ui.impl;
 
 import com.google.common.collect.ImmutableList;
-import org.onosproject.incubator.net.PortStatisticsService.MetricType;
 import org.onosproject.net.Device;
 import org.onosproject.net.DeviceId;
 import org.onosproject.net.ElementId;
@@ -55,7 +54,6 @@ import org.onosproject.ui.topo.HostHighlight;
 import org.onosproject.ui.topo.LinkHighlight.Flavor;
 import org.onosproject.ui.topo.NodeHighlight;
 import org.onosproject.ui.topo.NodeSelection;
-import org.onosproject.ui.topo.TopoUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -69,10 +67,9 @@ import java.util.Map;
 import java.util.Set;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
-import static org.onosproject.incubator.net.PortStatisticsService.MetricType.BYTES;
-import static org.onosproject.incubator.net.PortStatisticsService.MetricType.PACKETS;
 import static org.onosproject.net.DefaultEdgeLink.createEdgeLink;
 import static org.onosproject.ui.impl.TrafficMonitor.Mode.IDLE;
 import static org.onosproject.ui.impl.TrafficMonitor.Mode.RELATED_INTENTS;
@@ -83,9 +80,6 @@ import static org.onosproject.ui.impl.TrafficMonitor.Mode.SELECTED_INTENT;
  */
 public class TrafficMonitor extends AbstractTopoMonitor {
 
-    // 4 Kilo Bytes as threshold
-    private static final double BPS_THRESHOLD = 4 * TopoUtils.N_KILO;
-
     private static final Logger log =
             LoggerFactory.getLogger(TrafficMonitor.class);
 
@@ -106,9 +100,10 @@ public class TrafficMonitor extends AbstractTopoMonitor {
     private final ServicesBundle servicesBundle;
     private final TopologyViewMessageHandler msgHandler;
     private final TopoIntentFilter intentFilter;
+    private final TrafficSummaryAggregator summaryAggregator;
+    private final Consumer<Highlights> summaryListener = this::sendTrafficSummary;
 
-    private final Timer timer = new Timer("topo-traffic");
-
+    private Timer timer = null;
     private TimerTask trafficTask = null;
     private Mode mode = IDLE;
     private NodeSelection selectedNodes = null;
@@ -118,16 +113,20 @@ public class TrafficMonitor extends AbstractTopoMonitor {
     /**
      * Constructs a traffic monitor.
      *
-     * @param trafficPeriod  traffic task period in ms
-     * @param servicesBundle bundle of services
-     * @param msgHandler     our message handler
+     * @param trafficPeriod     traffic task period in ms
+     * @param servicesBundle    bundle of services
+     * @param msgHandler        our message handler
+     * @param summaryAggregator shared traffic summary aggregator
      */
     public TrafficMonitor(long trafficPeriod, ServicesBundle servicesBundle,
-                          TopologyViewMessageHandler msgHandler) {
+                          TopologyViewMessageHandler msgHandler,
+                          TrafficSummaryAggregator summaryAggregator) {
         this.trafficPeriod = trafficPeriod;
         this.servicesBundle = servicesBundle;
         this.msgHandler = msgHandler;
 
+        this.summaryAggregator = summaryAggregator;
+
         intentFilter = new TopoIntentFilter(servicesBundle);
     }
 
@@ -138,7 +137,8 @@ public class TrafficMonitor extends AbstractTopoMonitor {
      * Monitor for traffic data to be sent back to the web client, under
      * the given mode. This causes a background traffic task to be
      * scheduled to repeatedly compute and transmit the appropriate traffic
-     * data to the client.
+     * data to the client. The network-wide traffic summaries are computed
+     * once per period for all sessions, by a shared aggregator.
      * <p>
      * The monitoring mode is expected to be one of:
      * <ul>
@@ -157,23 +157,24 @@ public class TrafficMonitor extends AbstractTopoMonitor {
         switch (mode) {
             case ALL_FLOW_TRAFFIC_BYTES:
                 clearSelection();
-                scheduleTask();
-                sendAllFlowTraffic();
+                cancelTask();
+                sendAllTraffic(StatsType.FLOW_STATS);
                 break;
 
             case ALL_PORT_TRAFFIC_BIT_PS:
                 clearSelection();
-                scheduleTask();
-                sendAllPortTraffic(StatsType.PORT_STATS);
+                cancelTask();
+                sendAllTraffic(StatsType.PORT_STATS);
                 break;
 
             case ALL_PORT_TRAFFIC_PKT_PS:
                 clearSelection();
-                scheduleTask();
-                sendAllPortTraffic(StatsType.PORT_PACKET_STATS);
+                cancelTask();
+                sendAllTraffic(StatsType.PORT_PACKET_STATS);
                 break;
 
             case SELECTED_INTENT:
+                unsubscribeSummary();
                 scheduleTask();
                 sendSelectedIntentTraffic();
                 break;
@@ -206,6 +207,7 @@ public class TrafficMonitor extends AbstractTopoMonitor {
         log.debug("monitor: {} -- {}", mode, nodeSelection);
         this.mode = mode;
         this.selectedNodes = nodeSelection;
+        unsubscribeSummary();
 
         switch (mode) {
             case DEV_LINK_FLOWS:
@@ -251,6 +253,7 @@ public class TrafficMonitor extends AbstractTopoMonitor {
         selectedNodes = null;
         selectedIntents = new IntentSelection(intent);
         mode = SELECTED_INTENT;
+        unsubscribeSummary();
         scheduleTask();
         sendSelectedIntentTraffic();
     }
@@ -318,6 +321,7 @@ public class TrafficMonitor extends AbstractTopoMonitor {
         this.mode = IDLE;
         clearSelection();
         cancelTask();
+        unsubscribeSummary();
     }
 
     private void clearSelection() {
@@ -328,6 +332,7 @@ public class TrafficMonitor extends AbstractTopoMonitor {
     private synchronized void scheduleTask() {
         if (trafficTask == null) {
             log.debug("Starting up background traffic task...");
+            timer = new Timer("topo-traffic");
             trafficTask = new TrafficUpdateTask();
             timer.schedule(trafficTask, trafficPeriod, trafficPeriod);
         } else {
@@ -339,17 +344,32 @@ public class TrafficMonitor extends AbstractTopoMonitor {
         if (trafficTask != null) {
             trafficTask.cancel();
             trafficTask = null;
+            timer.cancel();
+            timer = null;
         }
     }
 
-    private void sendAllFlowTraffic() {
-        log.debug("sendAllFlowTraffic");
-        msgHandler.sendHighlights(trafficSummary(StatsType.FLOW_STATS));
+    private void unsubscribeSummary() {
+        summaryAggregator.unsubscribe(summaryListener);
     }
 
-    private void sendAllPortTraffic(StatsType t) {
-        log.debug("sendAllPortTraffic: {}", t);
-        msgHandler.sendHighlights(trafficSummary(t));
+    private void sendAllTraffic(StatsType t) {
+        log.debug("sendAllTraffic: {}", t);
+        msgHandler.sendHighlights(summaryAggregator.subscribe(t, summaryListener));
+    }
+
+    // Invoked by the aggregator with each periodic traffic summary
+    private synchronized void sendTrafficSummary(Highlights highlights) {
+        // a summary computed before the mode changed is no longer wanted
+        if (summaryMode()) {
+            msgHandler.sendHighlights(highlights);
+        }
+    }
+
+    private boolean summaryMode() {
+        return mode == Mode.ALL_FLOW_TRAFFIC_BYTES ||
+                mode == Mode.ALL_PORT_TRAFFIC_BIT_PS ||
+                mode == Mode.ALL_PORT_TRAFFIC_PKT_PS;
     }
 
     private void sendDeviceLinkFlows() {
@@ -375,30 +395,6 @@ public class TrafficMonitor extends AbstractTopoMonitor {
     // =======================================================================
     // === Generate messages in JSON object node format
 
-    private Highlights trafficSummary(StatsType type) {
-        Highlights highlights = new Highlights();
-
-        TrafficLinkMap linkMap = new TrafficLinkMap();
-        compileLinks(linkMap);
-        addEdgeLinks(linkMap);
-
-        for (TrafficLink tlink : linkMap.biLinks()) {
-            if (type == StatsType.FLOW_STATS) {
-                attachFlowLoad(tlink);
-            } else if (type == StatsType.PORT_STATS) {
-                attachPortLoad(tlink, BYTES);
-            } else if (type == StatsType.PORT_PACKET_STATS) {
-                attachPortLoad(tlink, PACKETS);
-            }
-
-            // we only want to report on links deemed to have traffic
-            if (tlink.hasTraffic()) {
-                highlights.add(tlink.highlight(type));
-            }
-        }
-        return highlights;
-    }
-
     // create highlights for links, showing flows for selected devices.
     private Highlights deviceLinkFlows() {
         Highlights highlights = new Highlights();
@@ -476,17 +472,6 @@ public class TrafficMonitor extends AbstractTopoMonitor {
 
     // - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - -
 
-    private void compileLinks(TrafficLinkMap linkMap) {
-        servicesBundle.linkService().getLinks().forEach(linkMap::add);
-    }
-
-    private void addEdgeLinks(TrafficLinkMap linkMap) {
-        servicesBundle.hostService().getHosts().forEach(host -> {
-            linkMap.add(createEdgeLink(host, true));
-            linkMap.add(createEdgeLink(host, false));
-        });
-    }
-
     private Load getLinkFlowLoad(Link link) {
         if (link != null && link.src().elementId() instanceof DeviceId) {
             return servicesBundle.flowStatsService().load(link);
@@ -494,31 +479,6 @@ public class TrafficMonitor extends AbstractTopoMonitor {
         return null;
     }
 
-    private void attachFlowLoad(TrafficLink link) {
-        link.addLoad(getLinkFlowLoad(link.one()));
-        link.addLoad(getLinkFlowLoad(link.two()));
-    }
-
-    private void attachPortLoad(TrafficLink link, MetricType metricType) {
-        // For bi-directional traffic links, use
-        // the max link rate of either direction
-        // (we choose 'one' since we know that is never null)
-        Link one = link.one();
-        Load egressSrc = servicesBundle.portStatsService().load(one.src(), metricType);
-        Load egressDst = servicesBundle.portStatsService().load(one.dst(), metricType);
-        link.addLoad(maxLoad(egressSrc, egressDst), metricType == BYTES ? BPS_THRESHOLD : 0);
-    }
-
-    private Load maxLoad(Load a, Load b) {
-        if (a == null) {
-            return b;
-        }
-        if (b == null) {
-            return a;
-        }
-        return a.rate() > b.rate() ? a : b;
-    }
-
     // Counts all flow entries that egress on the links of the given device.
     private Map<Link, Integer> getLinkFlowCounts(DeviceId deviceId) {
         // get the flows for the device
@@ -697,15 +657,6 @@ public class TrafficMonitor extends AbstractTopoMonitor {
         public void run() {
             try {
                 switch (mode) {
-                    case ALL_FLOW_TRAFFIC_BYTES:
-                        sendAllFlowTraffic();
-                        break;
-                    case ALL_PORT_TRAFFIC_BIT_PS:
-                        sendAllPortTraffic(StatsType.PORT_STATS);
-                        break;
-                    case ALL_PORT_TRAFFIC_PKT_PS:
-                        sendAllPortTraffic(StatsType.PORT_PACKET_STATS);
-                        break;
                     case DEV_LINK_FLOWS:
                         sendDeviceLinkFlows();
                         break;
@@ -714,9 +665,10 @@ public class TrafficMonitor extends AbstractTopoMonitor {
                         break;
 
                     default:
-                        // RELATED_INTENTS and IDLE modes should never invoke
-                        // the background task, but if they do, they have
-                        // nothing to do
+                        // All-traffic modes are served by the shared aggregator;
+                        // those and the RELATED_INTENTS and IDLE modes should
+                        // never invoke the background task, but if they do,
+                        // they have nothing to do
                         break;
                 }
 
@@ -0,0 +1,289 @@
+/*
+ * Copyright 2017-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.ui.impl;
+
+import com.google.common.collect.ImmutableSet;
+import org.apache.felix.scr.annotations.Activate;
+import org.apache.felix.scr.annotations.Component;
+import org.apache.felix.scr.annotations.Deactivate;
+import org.apache.felix.scr.annotations.Reference;
+import org.apache.felix.scr.annotations.ReferenceCardinality;
+import org.apache.felix.scr.annotations.Service;
+import org.onosproject.incubator.net.PortStatisticsService;
+import org.onosproject.incubator.net.PortStatisticsService.MetricType;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.Link;
+import org.onosproject.net.host.HostService;
+import org.onosproject.net.link.LinkService;
+import org.onosproject.net.statistic.Load;
+import org.onosproject.net.statistic.StatisticService;
+import org.onosproject.ui.impl.topo.util.TrafficLink;
+import org.onosproject.ui.impl.topo.util.TrafficLink.StatsType;
+import org.onosproject.ui.impl.topo.util.TrafficLinkMap;
+import org.onosproject.ui.topo.Highlights;
+import org.onosproject.ui.topo.TopoUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static org.onlab.util.Tools.groupedThreads;
+import static org.onosproject.incubator.net.PortStatisticsService.MetricType.BYTES;
+import static org.onosproject.incubator.net.PortStatisticsService.MetricType.PACKETS;
+import static org.onosproject.net.DefaultEdgeLink.createEdgeLink;
+
+/**
+ * Computes the network-wide traffic summaries of the topology view on
+ * behalf of all UI sessions.
+ * <p>
+ * Each summary is computed once per traffic period, regardless of the number
+ * of sessions showing it, and the same highlights are pushed to every
+ * subscribed session. The background task only runs while there are
+ * subscribers, and is stopped along with the GUI bundle.
+ * </p>
+ */
+@Component(immediate = true)
+@Service(value = TrafficSummaryAggregator.class)
+public final class TrafficSummaryAggregator {
+
+    // 4 Kilo Bytes as threshold
+    private static final double BPS_THRESHOLD = 4 * TopoUtils.N_KILO;
+
+    // traffic task period in ms
+    static final long TRAFFIC_PERIOD = 5000;
+
+    private static final Logger log =
+            LoggerFactory.getLogger(TrafficSummaryAggregator.class);
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
+    protected LinkService linkService;
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
+    protected HostService hostService;
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
+    protected StatisticService flowStatsService;
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
+    protected PortStatisticsService portStatsService;
+
+    private final Map<Consumer<Highlights>, StatsType> subscribers = new HashMap<>();
+    private final Map<StatsType, Summary> summaries = new EnumMap<>(StatsType.class);
+
+    private ScheduledExecutorService executor;
+
+    @Activate
+    protected void activate() {
+        log.info("Started");
+    }
+
+    @Deactivate
+    protected synchronized void deactivate() {
+        subscribers.clear();
+        stop();
+        log.info("Stopped");
+    }
+
+    /**
+     * Subscribes the given consumer to the traffic summary of the given type,
+     * replacing any previous subscription of the consumer. The summary is
+     * then delivered once per traffic period, from the aggregator thread.
+     *
+     * @param type       type of traffic summary
+     * @param subscriber consumer of the summaries
+     * @return the latest summary of the given type
+     */
+    Highlights subscribe(StatsType type, Consumer<Highlights> subscriber) {
+        Summary summary;
+        synchronized (this) {
+            subscribers.put(subscriber, type);
+            if (executor == null) {
+                log.debug("Starting up shared traffic task...");
+                executor = newSingleThreadScheduledExecutor(
+                        groupedThreads("onos/ui", "topo-traffic", log));
+                executor.scheduleAtFixedRate(this::update, TRAFFIC_PERIOD,
+                                             TRAFFIC_PERIOD, TimeUnit.MILLISECONDS);
+            }
+            summary = summaries.get(type);
+        }
+
+        // Sessions joining within a period share the summary already computed;
+        // otherwise it is computed without holding up other sessions
+        long now = System.currentTimeMillis();
+        if (summary != null && now - summary.time < TRAFFIC_PERIOD) {
+            return summary.highlights;
+        }
+        Highlights highlights = trafficSummary(type);
+        synchronized (this) {
+            Summary latest = summaries.get(type);
+            if (executor != null && (latest == null || latest.time < now)) {
+                summaries.put(type, new Summary(highlights, now));
+            }
+        }
+        return highlights;
+    }
+
+    /**
+     * Cancels the subscription of the given consumer, if any.
+     *
+     * @param subscriber consumer of the summaries
+     */
+    synchronized void unsubscribe(Consumer<Highlights> subscriber) {
+        if (subscribers.remove(subscriber) != null && subscribers.isEmpty()) {
+            stop();
+        }
+    }
+
+    /**
+     * Indicates whether the shared traffic task is running.
+     *
+     * @return true if the task is running
+     */
+    synchronized boolean isRunning() {
+        return executor != null;
+    }
+
+    // Stops the shared traffic task, if running.
+    private void stop() {
+        if (executor != null) {
+            log.debug("Stopping shared traffic task");
+            executor.shutdownNow();
+            executor = null;
+        }
+        summaries.clear();
+    }
+
+    // Computes each subscribed summary once, then hands it to its subscribers
+    // outside of the aggregator lock.
+    private void update() {
+        try {
+            Map<Consumer<Highlights>, StatsType> targets;
+            Set<StatsType> types;
+            synchronized (this) {
+                targets = new HashMap<>(subscribers);
+                types = ImmutableSet.copyOf(targets.values());
+            }
+
+            Map<StatsType, Highlights> computed = new EnumMap<>(StatsType.class);
+            long now = System.currentTimeMillis();
+            for (StatsType type : types) {
+                computed.put(type, trafficSummary(type));
+            }
+            synchronized (this) {
+                if (executor == null) {
+                    return;
+                }
+                computed.forEach((type, highlights) ->
+                        summaries.put(type, new Summary(highlights, now)));
+            }
+
+            targets.forEach((subscriber, type) -> subscriber.accept(computed.get(type)));
+
+        } catch (Exception e) {
+            log.warn("Unable to process traffic task due to {}", e.getMessage());
+            log.warn("Boom!", e);
+        }
+    }
+
+    // =======================================================================
+    // === Generate messages in JSON object node format
+
+    private Highlights trafficSummary(StatsType type) {
+        Highlights highlights = new Highlights();
+
+        TrafficLinkMap linkMap = new TrafficLinkMap();
+        compileLinks(linkMap);
+        addEdgeLinks(linkMap);
+
+        for (TrafficLink tlink : linkMap.biLinks()) {
+            if (type == StatsType.FLOW_STATS) {
+                attachFlowLoad(tlink);
+            } else if (type == StatsType.PORT_STATS) {
+                attachPortLoad(tlink, BYTES);
+            } else if (type == StatsType.PORT_PACKET_STATS) {
+                attachPortLoad(tlink, PACKETS);
+            }
+
+            // we only want to report on links deemed to have traffic
+            if (tlink.hasTraffic()) {
+                highlights.add(tlink.highlight(type));
+            }
+        }
+        return highlights;
+    }
+
+    private void compileLinks(TrafficLinkMap linkMap) {
+        linkService.getLinks().forEach(linkMap::add);
+    }
+
+    private void addEdgeLinks(TrafficLinkMap linkMap) {
+        hostService.getHosts().forEach(host -> {
+            linkMap.add(createEdgeLink(host, true));
+            linkMap.add(createEdgeLink(host, false));
+        });
+    }
+
+    private Load getLinkFlowLoad(Link link) {
+        if (link != null && link.src().elementId() instanceof DeviceId) {
+            return flowStatsService.load(link);
+        }
+        return null;
+    }
+
+    private void attachFlowLoad(TrafficLink link) {
+        link.addLoad(getLinkFlowLoad(link.one()));
+        link.addLoad(getLinkFlowLoad(link.two()));
+    }
+
+    private void attachPortLoad(TrafficLink link, MetricType metricType) {
+        // For bi-directional traffic links, use
+        // the max link rate of either direction
+        // (we choose 'one' since we know that is never null)
+        Link one = link.one();
+        Load egressSrc = portStatsService.load(one.src(), metricType);
+        Load egressDst = portStatsService.load(one.dst(), metricType);
+        link.addLoad(maxLoad(egressSrc, egressDst), metricType == BYTES ? BPS_THRESHOLD : 0);
+    }
+
+    private Load maxLoad(Load a, Load b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        return a.rate() > b.rate() ? a : b;
+    }
+
+    // Traffic summary along with the time it was computed at
+    private static final class Summary {
+        private final Highlights highlights;
+        private final long time;
+
+        private Summary(Highlights highlights, long time) {
+            this.highlights = highlights;
+            this.time = time;
+        }
+    }
+}
@@ -33,11 +33,18 @@
     //    selCb: selCb,      <- row selection callback (optional)
     //    respCb: respCb,    <- websocket response callback (optional)
     //    query: params      <- query parameters in URL (optional)
+    //    pageSize: 500      <- rows fetched per page (optional)
     // }
     //          Note: selCb() is passed the row data model of the selected row,
     //                 or null when no row is selected.
     //          Note: query is always an object (empty or containing properties)
     //                 it comes from $location.search()
+    //          Note: when pageSize is given, the server sorts and sends only
+    //                 the visible page, and refreshes of an unchanged page
+    //                 carry only the rows that changed; the server also
+    //                 applies the scope's queryTxt/queryBy search to the
+    //                 whole table, going back to the first page whenever
+    //                 the sort or the search changes
 
     function buildTable(o) {
         var handlers = {},
@@ -47,7 +54,9 @@
             onSel = fs.isF(o.selCb),
             onResp = fs.isF(o.respCb),
             idKey = o.idKey || 'id',
+            pageSize = o.pageSize,
             oldTableData = [],
+            lastQuery,
             refreshPromise;
 
         o.scope.tableData = [];
@@ -55,13 +64,26 @@
         o.scope.sortParams = o.sortParams || {};
         o.scope.autoRefresh = true;
         o.scope.autoRefreshTip = 'Toggle auto refresh';
+        o.scope.firstRow = 0;
+        o.scope.totalRows = 0;
 
         // === websocket functions --------------------
         // response
         function respCb(data) {
             ls.stop();
-            o.scope.tableData = data[root];
+            if (data.deltaIndexes) {
+                // only the changed rows of the current page were sent
+                o.scope.tableData = angular.copy(oldTableData);
+                angular.forEach(data.deltaIndexes, function (idx, i) {
+                    o.scope.tableData[idx] = data[root][i];
+                });
+            } else {
+                o.scope.tableData = data[root];
+            }
             o.scope.annots = data.annots;
+            if (pageSize) {
+                o.scope.totalRows = parseInt(data.annots.totalRows, 10) || 0;
+            }
             onResp && onResp();
 
             // checks if data changed for row flashing
@@ -83,8 +105,25 @@
         wss.bindHandlers(handlers);
 
         // request
-        function sortCb(params) {
-            var p = angular.extend({}, params, o.query);
+        function sortCb(params, incremental) {
+            var p = angular.extend({}, params, o.query),
+                query;
+            if (pageSize) {
+                if (o.scope.queryTxt) {
+                    p.queryTxt = o.scope.queryTxt;
+                    p.queryBy = o.scope.queryBy || '$';
+                }
+                // a different sort or search starts over from the first page
+                query = angular.toJson(p);
+                if (query !== lastQuery) {
+                    lastQuery = query;
+                    o.scope.firstRow = 0;
+                    incremental = false;
+                }
+                p.firstRow = o.scope.firstRow;
+                p.rowCount = pageSize;
+                p.incremental = !!incremental && oldTableData.length > 0;
+            }
             if (wss.isConnected()) {
                 wss.sendEvent(req, p);
                 ls.start();
@@ -92,6 +131,33 @@
         }
         o.scope.sortCallback = sortCb;
 
+        // === paging functions -------------------------
+        function showPage(first) {
+            o.scope.firstRow = Math.max(0, first);
+            sortCb(o.scope.sortParams);
+        }
+
+        o.scope.hasPrevPage = function () {
+            return !!pageSize && o.scope.firstRow > 0;
+        };
+        o.scope.hasNextPage = function () {
+            return !!pageSize && o.scope.firstRow + pageSize < o.scope.totalRows;
+        };
+        o.scope.prevPage = function () {
+            o.scope.hasPrevPage() && showPage(o.scope.firstRow - pageSize);
+        };
+        o.scope.nextPage = function () {
+            o.scope.hasNextPage() && showPage(o.scope.firstRow + pageSize);
+        };
+
+        if (pageSize) {
+            o.scope.$watchGroup(['queryTxt', 'queryBy'], function (n, old) {
+                if (!angular.equals(n, old)) {
+                    sortCb(o.scope.sortParams);
+                }
+            });
+        }
+
 
         // === selecting a row functions ----------------
         function selCb($event, selRow) {
@@ -107,7 +173,7 @@
                 if (fs.debugOn('widget')) {
                     $log.debug('Refreshing ' + root + ' page');
                 }
-                sortCb(o.scope.sortParams);
+                sortCb(o.scope.sortParams, true);
             }
         }
 
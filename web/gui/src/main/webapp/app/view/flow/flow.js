@@ -42,6 +42,7 @@
 
     // constants
     var topPdg = 28,
+        pageSize = 500,
         ctnrPdg = 24,
         scrollSize = 17,
         portsTblPdg = 50,
@@ -213,6 +214,8 @@
             $scope.meterTip = 'Show meter view for selected device';
             $scope.briefTip = 'Switch to brief view';
             $scope.detailTip = 'Switch to detailed view';
+            $scope.prevPageTip = 'Show previous page of flows';
+            $scope.nextPageTip = 'Show next page of flows';
             $scope.brief = true;
             params = $location.search();
             if (params.hasOwnProperty('devId')) {
@@ -223,7 +226,8 @@
                 scope: $scope,
                 tag: 'flow',
                 selCb: selCb,
-                query: params
+                query: params,
+                pageSize: pageSize
             });
 
             $scope.nav = function (path) {
@@ -253,14 +257,6 @@
                 $scope.brief = !$scope.brief;
             };
 
-            Object.defineProperty($scope, "queryFilter", {
-               get: function() {
-                   var out = {};
-                   out[$scope.queryBy || "$"] = $scope.queryTxt;
-                   return out;
-               }
-            });
-
             $log.log('OvFlowCtrl has been created');
         }])
 
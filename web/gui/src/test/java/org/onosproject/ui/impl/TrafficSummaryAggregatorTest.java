@@ -0,0 +1,127 @@
+/*
+ * Copyright 2017-present Open Networking Laboratory
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.ui.impl;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onosproject.net.Host;
+import org.onosproject.net.Link;
+import org.onosproject.net.host.HostServiceAdapter;
+import org.onosproject.net.link.LinkServiceAdapter;
+import org.onosproject.net.statistic.StatisticServiceAdapter;
+import org.onosproject.ui.topo.Highlights;
+
+import java.util.function.Consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.onosproject.ui.impl.topo.util.TrafficLink.StatsType.FLOW_STATS;
+import static org.onosproject.ui.impl.topo.util.TrafficLink.StatsType.PORT_STATS;
+
+/**
+ * Unit tests for {@link TrafficSummaryAggregator}.
+ */
+public class TrafficSummaryAggregatorTest extends AbstractUiImplTest {
+
+    private final TestLinkService linkService = new TestLinkService();
+    private final Consumer<Highlights> one = highlights -> { };
+    private final Consumer<Highlights> two = highlights -> { };
+
+    private TrafficSummaryAggregator aggregator;
+
+    @Before
+    public void setUp() {
+        aggregator = new TrafficSummaryAggregator();
+        aggregator.linkService = linkService;
+        aggregator.hostService = new TestHostService();
+        aggregator.flowStatsService = new StatisticServiceAdapter();
+        aggregator.portStatsService = connectPoint -> null;
+        aggregator.activate();
+    }
+
+    @After
+    public void tearDown() {
+        aggregator.deactivate();
+    }
+
+    @Test
+    public void sharedSummary() {
+        title("sharedSummary");
+        Highlights first = aggregator.subscribe(FLOW_STATS, one);
+        Highlights second = aggregator.subscribe(FLOW_STATS, two);
+
+        // sessions joining within a period share the same summary
+        assertSame("summary not shared", first, second);
+        assertEquals("bad computation count", 1, linkService.computations);
+
+        // but each type of summary is computed separately
+        assertNotSame("summary shared", first, aggregator.subscribe(PORT_STATS, two));
+        assertEquals("bad computation count", 2, linkService.computations);
+    }
+
+    @Test
+    public void shutdownOnUnsubscribe() {
+        title("shutdownOnUnsubscribe");
+        assertFalse("running without subscribers", aggregator.isRunning());
+
+        aggregator.subscribe(FLOW_STATS, one);
+        aggregator.subscribe(PORT_STATS, two);
+        assertTrue("not running", aggregator.isRunning());
+
+        aggregator.unsubscribe(one);
+        assertTrue("stopped with a subscriber left", aggregator.isRunning());
+
+        aggregator.unsubscribe(two);
+        assertFalse("running without subscribers", aggregator.isRunning());
+
+        // a new subscriber restarts the task with a fresh summary
+        aggregator.subscribe(FLOW_STATS, one);
+        assertTrue("not running", aggregator.isRunning());
+        assertEquals("bad computation count", 3, linkService.computations);
+    }
+
+    @Test
+    public void shutdownOnDeactivate() {
+        title("shutdownOnDeactivate");
+        aggregator.subscribe(FLOW_STATS, one);
+        aggregator.deactivate();
+        assertFalse("running after deactivation", aggregator.isRunning());
+    }
+
+    // Counts the summary computations, each of which walks the links once
+    private static class TestLinkService extends LinkServiceAdapter {
+        private int computations = 0;
+
+        @Override
+        public Iterable<Link> getLinks() {
+            computations++;
+            return ImmutableSet.of();
+        }
+    }
+
+    private static class TestHostService extends HostServiceAdapter {
+        @Override
+        public Iterable<Host> getHosts() {
+            return ImmutableSet.of();
+        }
+    }
+}